@@ -0,0 +1,1053 @@
+export function init() {
+function client(){var Jb='',Kb=0,Lb='gwt.codesvr=',Mb='gwt.hosted=',Nb='gwt.hybrid',Ob='client',Pb='#',Qb='?',Rb='/',Sb=1,Tb='img',Ub='clear.cache.gif',Vb='baseUrl',Wb='script',Xb='client.nocache.js',Yb='base',Zb='//',$b='meta',_b='name',ac='gwt:property',bc='content',cc='=',dc='gwt:onPropertyErrorFn',ec='Bad handler "',fc='" for "gwt:onPropertyErrorFn"',gc='gwt:onLoadErrorFn',hc='" for "gwt:onLoadErrorFn"',ic='user.agent',jc='webkit',kc='safari',lc='msie',mc=10,nc=11,oc='ie10',pc=9,qc='ie9',rc=8,sc='ie8',tc='gecko',uc='gecko1_8',vc=2,wc=3,xc=4,yc='Single-script hosted mode not yet implemented. See issue ',zc='http://code.google.com/p/google-web-toolkit/issues/detail?id=2079',Ac='082EA3AC42E3616DDE9D121C6870294B',Bc=':1',Cc=':',Dc='DOMContentLoaded',Ec=50;var l=Jb,m=Kb,n=Lb,o=Mb,p=Nb,q=Ob,r=Pb,s=Qb,t=Rb,u=Sb,v=Tb,w=Ub,A=Vb,B=Wb,C=Xb,D=Yb,F=Zb,G=$b,H=_b,I=ac,J=bc,K=cc,L=dc,M=ec,N=fc,O=gc,P=hc,Q=ic,R=jc,S=kc,T=lc,U=mc,V=nc,W=oc,X=pc,Y=qc,Z=rc,$=sc,_=tc,ab=uc,bb=vc,cb=wc,db=xc,eb=yc,fb=zc,gb=Ac,hb=Bc,ib=Cc,jb=Dc,kb=Ec;var lb=window,mb=document,nb,ob,pb=l,qb={},rb=[],sb=[],tb=[],ub=m,vb,wb;if(!lb.__gwt_stylesLoaded){lb.__gwt_stylesLoaded={}}if(!lb.__gwt_scriptsLoaded){lb.__gwt_scriptsLoaded={}}function xb(){var b=false;try{var c=lb.location.search;return (c.indexOf(n)!=-1||(c.indexOf(o)!=-1||lb.external&&lb.external.gwtOnLoad))&&c.indexOf(p)==-1}catch(a){}xb=function(){return b};return b}
+function yb(){if(nb&&ob){nb(vb,q,pb,ub)}}
+function zb(){function e(a){var b=a.lastIndexOf(r);if(b==-1){b=a.length}var c=a.indexOf(s);if(c==-1){c=a.length}var d=a.lastIndexOf(t,Math.min(c,b));return d>=m?a.substring(m,d+u):l}
+function f(a){if(a.match(/^\w+:\/\//)){}else{var b=mb.createElement(v);b.src=a+w;a=e(b.src)}return a}
+function g(){var a=Cb(A);if(a!=null){return a}return l}
+function h(){var a=mb.getElementsByTagName(B);for(var b=m;b<a.length;++b){if(a[b].src.indexOf(C)!=-1){return e(a[b].src)}}return l}
+function i(){var a=mb.getElementsByTagName(D);if(a.length>m){return a[a.length-u].href}return l}
+function j(){var a=mb.location;return a.href==a.protocol+F+a.host+a.pathname+a.search+a.hash}
+var k=g();if(k==l){k=h()}if(k==l){k=i()}if(k==l&&j()){k=e(mb.location.href)}k=f(k);return k}
+function Ab(){var b=document.getElementsByTagName(G);for(var c=m,d=b.length;c<d;++c){var e=b[c],f=e.getAttribute(H),g;if(f){if(f==I){g=e.getAttribute(J);if(g){var h,i=g.indexOf(K);if(i>=m){f=g.substring(m,i);h=g.substring(i+u)}else{f=g;h=l}qb[f]=h}}else if(f==L){g=e.getAttribute(J);if(g){try{wb=eval(g)}catch(a){alert(M+g+N)}}}else if(f==O){g=e.getAttribute(J);if(g){try{vb=eval(g)}catch(a){alert(M+g+P)}}}}}}
+var Bb=function(a,b){return b in rb[a]};var Cb=function(a){var b=qb[a];return b==null?null:b};function Db(a,b){var c=tb;for(var d=m,e=a.length-u;d<e;++d){c=c[a[d]]||(c[a[d]]=[])}c[a[e]]=b}
+function Eb(a){var b=sb[a](),c=rb[a];if(b in c){return b}var d=[];for(var e in c){d[c[e]]=e}if(wb){wb(a,d,b)}throw null}
+sb[Q]=function(){var a=navigator.userAgent.toLowerCase();var b=mb.documentMode;if(function(){return a.indexOf(R)!=-1}())return S;if(function(){return a.indexOf(T)!=-1&&(b>=U&&b<V)}())return W;if(function(){return a.indexOf(T)!=-1&&(b>=X&&b<V)}())return Y;if(function(){return a.indexOf(T)!=-1&&(b>=Z&&b<V)}())return $;if(function(){return a.indexOf(_)!=-1||b>=V}())return ab;return S};rb[Q]={'gecko1_8':m,'ie10':u,'ie8':bb,'ie9':cb,'safari':db};client.onScriptLoad=function(a){client=null;nb=a;yb()};if(xb()){alert(eb+fb);return}zb();Ab();try{var Fb;Db([ab],gb);Db([S],gb+hb);Fb=tb[Eb(Q)];var Gb=Fb.indexOf(ib);if(Gb!=-1){ub=Number(Fb.substring(Gb+u))}}catch(a){return}var Hb;function Ib(){if(!ob){ob=true;yb();if(mb.removeEventListener){mb.removeEventListener(jb,Ib,false)}if(Hb){clearInterval(Hb)}}}
+if(mb.addEventListener){mb.addEventListener(jb,function(){Ib()},false)}var Hb=setInterval(function(){if(/loaded|complete/.test(mb.readyState)){Ib()}},kb)}
+client();(function () {var $gwt_version = "2.9.0";var $wnd = window;var $doc = $wnd.document;var $moduleName, $moduleBase;var $stats = $wnd.__gwtStatsEvent ? function(a) {$wnd.__gwtStatsEvent(a)} : null;var $strongName = '082EA3AC42E3616DDE9D121C6870294B';function I(){}
+function Ti(){}
+function Pi(){}
+function Zi(){}
+function nc(){}
+function uc(){}
+function uk(){}
+function sk(){}
+function wk(){}
+function wj(){}
+function Hj(){}
+function Lj(){}
+function Rk(){}
+function Wk(){}
+function _k(){}
+function bl(){}
+function ll(){}
+function tm(){}
+function vm(){}
+function xm(){}
+function Vm(){}
+function Xm(){}
+function Xq(){}
+function Zq(){}
+function _q(){}
+function Yn(){}
+function go(){}
+function Rp(){}
+function br(){}
+function Ar(){}
+function Er(){}
+function Ps(){}
+function Ts(){}
+function Ws(){}
+function pt(){}
+function $t(){}
+function Tu(){}
+function Xu(){}
+function kv(){}
+function tv(){}
+function ax(){}
+function zx(){}
+function Bx(){}
+function ny(){}
+function ry(){}
+function wz(){}
+function eA(){}
+function kB(){}
+function MB(){}
+function MF(){}
+function XF(){}
+function ZF(){}
+function _F(){}
+function bD(){}
+function HE(){}
+function qG(){}
+function cz(){_y()}
+function T(a){S=a;Jb()}
+function Zj(a){throw a}
+function mj(a,b){a.c=b}
+function nj(a,b){a.d=b}
+function oj(a,b){a.e=b}
+function qj(a,b){a.g=b}
+function rj(a,b){a.h=b}
+function sj(a,b){a.i=b}
+function tj(a,b){a.j=b}
+function uj(a,b){a.k=b}
+function vj(a,b){a.l=b}
+function zt(a,b){a.b=b}
+function pG(a,b){a.a=b}
+function bc(a){this.a=a}
+function dc(a){this.a=a}
+function Jj(a){this.a=a}
+function ck(a){this.a=a}
+function ek(a){this.a=a}
+function Pk(a){this.a=a}
+function Uk(a){this.a=a}
+function Zk(a){this.a=a}
+function fl(a){this.a=a}
+function hl(a){this.a=a}
+function jl(a){this.a=a}
+function nl(a){this.a=a}
+function pl(a){this.a=a}
+function Tl(a){this.a=a}
+function Tn(a){this.a=a}
+function xn(a){this.a=a}
+function An(a){this.a=a}
+function Bn(a){this.a=a}
+function Hn(a){this.a=a}
+function Vn(a){this.a=a}
+function $n(a){this.a=a}
+function zm(a){this.a=a}
+function Dm(a){this.a=a}
+function Pm(a){this.a=a}
+function Zm(a){this.a=a}
+function ao(a){this.a=a}
+function co(a){this.a=a}
+function ho(a){this.a=a}
+function no(a){this.a=a}
+function Ho(a){this.a=a}
+function Yo(a){this.a=a}
+function Ap(a){this.a=a}
+function Pp(a){this.a=a}
+function Tp(a){this.a=a}
+function Vp(a){this.a=a}
+function Hp(a){this.b=a}
+function Cq(a){this.a=a}
+function Eq(a){this.a=a}
+function Gq(a){this.a=a}
+function Pq(a){this.a=a}
+function Sq(a){this.a=a}
+function Gr(a){this.a=a}
+function Nr(a){this.a=a}
+function Pr(a){this.a=a}
+function _r(a){this.c=a}
+function bs(a){this.a=a}
+function fs(a){this.a=a}
+function os(a){this.a=a}
+function ws(a){this.a=a}
+function ys(a){this.a=a}
+function As(a){this.a=a}
+function Cs(a){this.a=a}
+function Es(a){this.a=a}
+function Fs(a){this.a=a}
+function Ns(a){this.a=a}
+function et(a){this.a=a}
+function nt(a){this.a=a}
+function rt(a){this.a=a}
+function Dt(a){this.a=a}
+function Ft(a){this.a=a}
+function St(a){this.a=a}
+function Yt(a){this.a=a}
+function At(a){this.c=a}
+function ru(a){this.a=a}
+function vu(a){this.a=a}
+function Vu(a){this.a=a}
+function zv(a){this.a=a}
+function Dv(a){this.a=a}
+function Hv(a){this.a=a}
+function Jv(a){this.a=a}
+function Lv(a){this.a=a}
+function Qv(a){this.a=a}
+function Fx(a){this.a=a}
+function Hx(a){this.a=a}
+function Vx(a){this.a=a}
+function Zx(a){this.a=a}
+function Ex(a){this.b=a}
+function by(a){this.a=a}
+function py(a){this.a=a}
+function vy(a){this.a=a}
+function xy(a){this.a=a}
+function By(a){this.a=a}
+function Hy(a){this.a=a}
+function Jy(a){this.a=a}
+function Ly(a){this.a=a}
+function Ny(a){this.a=a}
+function Py(a){this.a=a}
+function Wy(a){this.a=a}
+function Yy(a){this.a=a}
+function nz(a){this.a=a}
+function qz(a){this.a=a}
+function yz(a){this.a=a}
+function Az(a){this.e=a}
+function cA(a){this.a=a}
+function gA(a){this.a=a}
+function iA(a){this.a=a}
+function EA(a){this.a=a}
+function TA(a){this.a=a}
+function VA(a){this.a=a}
+function XA(a){this.a=a}
+function gB(a){this.a=a}
+function iB(a){this.a=a}
+function yB(a){this.a=a}
+function SB(a){this.a=a}
+function ZC(a){this.a=a}
+function _C(a){this.a=a}
+function cD(a){this.a=a}
+function TD(a){this.a=a}
+function pF(a){this.a=a}
+function cF(a){this.c=a}
+function RE(a){this.b=a}
+function tG(a){this.a=a}
+function R(){this.a=xb()}
+function ij(){this.a=++hj}
+function Ui(){Po();To()}
+function Po(){Po=Pi;Oo=[]}
+function Pw(a,b){Bw(b,a)}
+function Fw(a,b){Yw(b,a)}
+function Lw(a,b){Xw(b,a)}
+function Oz(a,b){Mu(b,a)}
+function ou(a,b){b.fb(a)}
+function LC(b,a){b.log(a)}
+function MC(b,a){b.warn(a)}
+function FC(b,a){b.data=a}
+function Js(a,b){HB(a.a,b)}
+function vB(a){Xz(a.a,a.b)}
+function Gi(a){return a.e}
+function Yb(a){return a.B()}
+function sm(a){return Zl(a)}
+function hc(a){gc();fc.D(a)}
+function Vr(a){Ur(a)&&Xr(a)}
+function fr(a){a.i||gr(a.a)}
+function fp(a,b){a.push(b)}
+function Z(a,b){a.e=b;W(a,b)}
+function pj(a,b){a.f=b;Vj=!b}
+function JC(b,a){b.debug(a)}
+function KC(b,a){b.error(a)}
+function Kl(a,b,c){Fl(a,c,b)}
+function Yz(a,b,c){a.Nb(c,b)}
+function kb(){ab.call(this)}
+function iD(){ab.call(this)}
+function gD(){kb.call(this)}
+function $D(){kb.call(this)}
+function jF(){kb.call(this)}
+function _y(){_y=Pi;$y=lz()}
+function pb(){pb=Pi;ob=new I}
+function Qb(){Qb=Pi;Pb=new go}
+function it(){it=Pi;ht=new pt}
+function Fz(){Fz=Pi;Ez=new eA}
+function FE(){FE=Pi;EE=new bD}
+function _j(a){S=a;!!a&&Jb()}
+function Ll(a,b){a.a.add(b.d)}
+function qm(a,b,c){a.set(b,c)}
+function qx(a,b){b.forEach(a)}
+function zC(b,a){b.display=a}
+function XC(b,a){return a in b}
+function nD(a){return CG(a),a}
+function OD(a){return CG(a),a}
+function Q(a){return xb()-a.a}
+function Lk(a){Ck();this.a=a}
+function _z(a){$z.call(this,a)}
+function BA(a){$z.call(this,a)}
+function QA(a){$z.call(this,a)}
+function eD(a){lb.call(this,a)}
+function RD(a){lb.call(this,a)}
+function SD(a){lb.call(this,a)}
+function _D(a){nb.call(this,a)}
+function fD(a){eD.call(this,a)}
+function DE(a){eD.call(this,a)}
+function cE(a){RD.call(this,a)}
+function aE(a){lb.call(this,a)}
+function JE(a){lb.call(this,a)}
+function AE(){cD.call(this,'')}
+function BE(){cD.call(this,'')}
+function Ji(){Hi==null&&(Hi=[])}
+function Db(){Db=Pi;!!(gc(),fc)}
+function Ry(a){Rw(a.b,a.a,a.c)}
+function sD(a){rD(a);return a.i}
+function zq(a,b){return a.a>b.a}
+function Wc(a,b){return $c(a,b)}
+function xc(a,b){return AD(a,b)}
+function GE(a){return Ic(a,5).e}
+function WC(a){return Object(a)}
+function kn(a,b){a.d?mn(b):Mk()}
+function kG(a,b,c){b.db(GE(c))}
+function FF(a,b,c){b.db(a.a[c])}
+function mx(a,b,c){eB(cx(a,c,b))}
+function uF(a,b){while(a.fc(b));}
+function eG(a,b){aG(a);a.a.ec(b)}
+function cB(a,b){a.e||a.c.add(b)}
+function bu(a,b){a.c.forEach(b)}
+function WF(a,b){Ic(a,103).Yb(b)}
+function lm(a,b){qB(new Nm(b,a))}
+function Iw(a,b){qB(new Xx(b,a))}
+function Jw(a,b){qB(new _x(b,a))}
+function Jk(a,b){++Bk;b._(a,yk)}
+function Nw(a,b){return nw(b.a,a)}
+function Gz(a,b){return Uz(a.a,b)}
+function GA(a,b){return Uz(a.a,b)}
+function sA(a,b){return Uz(a.a,b)}
+function px(a,b){return rl(a.b,b)}
+function Vi(b,a){return b.exec(a)}
+function Ub(a){return !!a.b||!!a.g}
+function Jz(a){Zz(a.a);return a.g}
+function Nz(a){Zz(a.a);return a.c}
+function aw(b,a){Vv();delete b[a]}
+function Cl(a,b){return Nc(a.b[b])}
+function dl(a,b){this.a=a;this.b=b}
+function yl(a,b){this.a=a;this.b=b}
+function Al(a,b){this.a=a;this.b=b}
+function Pl(a,b){this.a=a;this.b=b}
+function Rl(a,b){this.a=a;this.b=b}
+function Fm(a,b){this.a=a;this.b=b}
+function Hm(a,b){this.a=a;this.b=b}
+function Jm(a,b){this.a=a;this.b=b}
+function Lm(a,b){this.a=a;this.b=b}
+function Nm(a,b){this.a=a;this.b=b}
+function En(a,b){this.a=a;this.b=b}
+function Jn(a,b){this.b=a;this.a=b}
+function Ln(a,b){this.b=a;this.a=b}
+function Nj(a,b){this.b=a;this.a=b}
+function Bm(a,b){this.b=a;this.a=b}
+function dr(a,b){this.b=a;this.a=b}
+function ro(a,b){this.b=a;this.c=b}
+function Jr(a,b){this.a=a;this.b=b}
+function Lr(a,b){this.a=a;this.b=b}
+function Ut(a,b){this.a=a;this.b=b}
+function Wt(a,b){this.a=a;this.b=b}
+function pu(a,b){this.a=a;this.b=b}
+function tu(a,b){this.a=a;this.b=b}
+function xu(a,b){this.a=a;this.b=b}
+function Bv(a,b){this.a=a;this.b=b}
+function Gt(a,b){this.b=a;this.a=b}
+function Jx(a,b){this.b=a;this.a=b}
+function Lx(a,b){this.b=a;this.a=b}
+function Rx(a,b){this.b=a;this.a=b}
+function Xx(a,b){this.b=a;this.a=b}
+function _x(a,b){this.b=a;this.a=b}
+function jy(a,b){this.a=a;this.b=b}
+function ly(a,b){this.a=a;this.b=b}
+function Dy(a,b){this.a=a;this.b=b}
+function Uy(a,b){this.a=a;this.b=b}
+function gz(a,b){this.a=a;this.b=b}
+function iz(a,b){this.b=a;this.a=b}
+function Bo(a,b){ro.call(this,a,b)}
+function Np(a,b){ro.call(this,a,b)}
+function KD(){lb.call(this,null)}
+function Ob(){yb!=0&&(yb=0);Cb=-1}
+function Kt(){this.a=new $wnd.Map}
+function LB(){this.c=new $wnd.Map}
+function wB(a,b){this.a=a;this.b=b}
+function zB(a,b){this.a=a;this.b=b}
+function kA(a,b){this.a=a;this.b=b}
+function ZA(a,b){this.a=a;this.b=b}
+function VF(a,b){this.a=a;this.b=b}
+function nG(a,b){this.a=a;this.b=b}
+function uG(a,b){this.b=a;this.a=b}
+function rA(a,b){this.d=a;this.e=b}
+function iC(a,b){ro.call(this,a,b)}
+function qC(a,b){ro.call(this,a,b)}
+function TF(a,b){ro.call(this,a,b)}
+function hq(a,b){_p(a,(yq(),wq),b)}
+function Hw(a,b,c){Vw(a,b);ww(c.e)}
+function $s(a,b,c,d){Zs(a,b.d,c,d)}
+function wG(a,b,c){a.splice(b,0,c)}
+function Go(a,b){return Eo(b,Fo(a))}
+function Yc(a){return typeof a===TG}
+function PD(a){return ad((CG(a),a))}
+function rE(a,b){return a.substr(b)}
+function bz(a,b){fB(b);$y.delete(a)}
+function OC(b,a){b.clearTimeout(a)}
+function Nb(a){$wnd.clearTimeout(a)}
+function _i(a){$wnd.clearTimeout(a)}
+function NC(b,a){b.clearInterval(a)}
+function kz(a){a.length=0;return a}
+function xE(a,b){a.a+=''+b;return a}
+function yE(a,b){a.a+=''+b;return a}
+function zE(a,b){a.a+=''+b;return a}
+function bd(a){FG(a==null);return a}
+function iG(a,b,c){WF(b,c);return b}
+function oq(a,b){_p(a,(yq(),xq),b.a)}
+function Jl(a,b){return a.a.has(b.d)}
+function H(a,b){return _c(a)===_c(b)}
+function kE(a,b){return a.indexOf(b)}
+function UC(a){return a&&a.valueOf()}
+function VC(a){return a&&a.valueOf()}
+function lF(a){return a!=null?O(a):0}
+function _c(a){return a==null?null:a}
+function nF(){nF=Pi;mF=new pF(null)}
+function mv(){mv=Pi;lv=new $wnd.Map}
+function Vv(){Vv=Pi;Uv=new $wnd.Map}
+function mD(){mD=Pi;kD=false;lD=true}
+function $i(a){$wnd.clearInterval(a)}
+function Wj(a){Vj&&JC($wnd.console,a)}
+function Yj(a){Vj&&KC($wnd.console,a)}
+function Nn(a){Vj&&KC($wnd.console,a)}
+function ak(a){Vj&&LC($wnd.console,a)}
+function bk(a){Vj&&MC($wnd.console,a)}
+function U(a){a.h=zc($h,WG,28,0,0,1)}
+function jG(a,b,c){pG(a,sG(b,a.a,c))}
+function nx(a,b,c){return cx(a,c.a,b)}
+function gu(a,b){return a.h.delete(b)}
+function iu(a,b){return a.b.delete(b)}
+function Xz(a,b){return a.a.delete(b)}
+function sG(a,b,c){return iG(a.a,b,c)}
+function lz(){return new $wnd.WeakMap}
+function Ms(a){this.a=new LB;this.c=a}
+function ms(a){this.a=a;Zi.call(this)}
+function Nq(a){this.a=a;Zi.call(this)}
+function Cr(a){this.a=a;Zi.call(this)}
+function ab(){U(this);V(this);this.w()}
+function MG(){MG=Pi;JG=new I;LG=new I}
+function Mw(a,b){var c;c=nw(b,a);eB(c)}
+function ox(a,b){return dm(a.b.root,b)}
+function wE(a){return a==null?ZG:Si(a)}
+function ir(a){return QH in a?a[QH]:-1}
+function iq(a){!!a.b&&mq(a,(yq(),wq))}
+function dq(a){!!a.b&&mq(a,(yq(),vq))}
+function rq(a){!!a.b&&mq(a,(yq(),xq))}
+function CE(a){cD.call(this,(CG(a),a))}
+function Gk(a){fo((Qb(),Pb),new jl(a))}
+function Xo(a){fo((Qb(),Pb),new Yo(a))}
+function kp(a){fo((Qb(),Pb),new Ap(a))}
+function qr(a){fo((Qb(),Pb),new Pr(a))}
+function sx(a){fo((Qb(),Pb),new Py(a))}
+function zG(a){if(!a){throw Gi(new gD)}}
+function FG(a){if(!a){throw Gi(new KD)}}
+function AG(a){if(!a){throw Gi(new jF)}}
+function js(a){if(a.a){Wi(a.a);a.a=null}}
+function uA(a,b){Zz(a.a);a.c.forEach(b)}
+function HA(a,b){Zz(a.a);a.b.forEach(b)}
+function hs(a,b){b.a.b==(Ao(),zo)&&js(a)}
+function Sc(a,b){return a!=null&&Hc(a,b)}
+function oF(a,b){return a.a!=null?a.a:b}
+function CC(a,b){return a.appendChild(b)}
+function DC(b,a){return b.appendChild(a)}
+function mE(a,b){return a.lastIndexOf(b)}
+function lE(a,b,c){return a.indexOf(b,c)}
+function BC(a,b,c,d){return tC(a,b,c,d)}
+function Nk(a,b,c){Ck();return a.set(c,b)}
+function IG(a){return a.$H||(a.$H=++HG)}
+function Tm(a){return ''+Um(Rm.ib()-a,3)}
+function Uc(a){return typeof a==='number'}
+function Xc(a){return typeof a==='string'}
+function tb(a){return a==null?null:a.name}
+function sE(a,b,c){return a.substr(b,c-b)}
+function AC(d,a,b,c){d.setProperty(a,b,c)}
+function dB(a){if(a.d||a.e){return}bB(a)}
+function rD(a){if(a.i!=null){return}ED(a)}
+function Jc(a){FG(a==null||Tc(a));return a}
+function Kc(a){FG(a==null||Uc(a));return a}
+function Lc(a){FG(a==null||Yc(a));return a}
+function Pc(a){FG(a==null||Xc(a));return a}
+function Ok(a){Ck();Bk==0?a.C():Ak.push(a)}
+function Zz(a){var b;b=mB;!!b&&_A(b,a.b)}
+function YE(){this.a=zc(Yh,WG,1,0,5,1)}
+function El(){this.a=new $wnd.Map;this.b=[]}
+function $z(a){this.a=new $wnd.Set;this.b=a}
+function mA(a,b){Az.call(this,a);this.a=b}
+function hG(a,b){cG.call(this,a);this.a=b}
+function Iq(a,b){b.a.b==(Ao(),zo)&&Lq(a,-1)}
+function Pn(a,b){Qn(a,b,Ic(gk(a.a,td),8).j)}
+function oD(a,b){return CG(a),_c(a)===_c(b)}
+function iE(a,b){return CG(a),_c(a)===_c(b)}
+function GC(b,a){return b.createElement(a)}
+function qo(a){return a.b!=null?a.b:''+a.c}
+function sb(a){return a==null?null:a.message}
+function Tc(a){return typeof a==='boolean'}
+function $c(a,b){return a&&b&&a instanceof b}
+function nE(a,b,c){return a.lastIndexOf(b,c)}
+function cj(a,b){return $wnd.setInterval(a,b)}
+function dj(a,b){return $wnd.setTimeout(a,b)}
+function Eb(a,b,c){return a.apply(b,c);var d}
+function kc(a){gc();return parseInt(a)||-1}
+function qB(a){nB==null&&(nB=[]);nB.push(a)}
+function rB(a){pB==null&&(pB=[]);pB.push(a)}
+function Xb(a,b){a.b=Zb(a.b,[b,false]);Vb(a)}
+function Vq(a,b,c){a.db(XD(Kz(Ic(c.e,13),b)))}
+function vs(a,b,c){a.set(c,(Zz(b.a),Pc(b.g)))}
+function kk(a,b,c){jk(a,b,c.Z());a.b.set(b,c)}
+function Sv(a,b,c){this.b=a;this.a=b;this.c=c}
+function pv(a,b,c){this.c=a;this.d=b;this.j=c}
+function Nx(a,b,c){this.c=a;this.b=b;this.a=c}
+function Px(a,b,c){this.b=a;this.c=b;this.a=c}
+function Cp(a,b,c){this.a=a;this.c=b;this.b=c}
+function Tx(a,b,c){this.a=a;this.b=b;this.c=c}
+function dy(a,b,c){this.a=a;this.b=b;this.c=c}
+function fy(a,b,c){this.a=a;this.b=b;this.c=c}
+function hy(a,b,c){this.a=a;this.b=b;this.c=c}
+function ty(a,b,c){this.c=a;this.b=b;this.a=c}
+function Fy(a,b,c){this.b=a;this.c=b;this.a=c}
+function zy(a,b,c){this.b=a;this.a=b;this.c=c}
+function Sy(a,b,c){this.b=a;this.a=b;this.c=c}
+function Aq(a,b,c){ro.call(this,a,b);this.a=c}
+function lo(){this.b=(Ao(),xo);this.a=new LB}
+function Ck(){Ck=Pi;Ak=[];yk=new Rk;zk=new Wk}
+function ZD(){ZD=Pi;YD=zc(Th,WG,25,256,0,1)}
+function vv(a){a.c?NC($wnd,a.d):OC($wnd,a.d)}
+function _t(a,b){a.b.add(b);return new xu(a,b)}
+function au(a,b){a.h.add(b);return new tu(a,b)}
+function as(a,b){$wnd.navigator.sendBeacon(a,b)}
+function EC(c,a,b){return c.insertBefore(a,b)}
+function yC(b,a){return b.getPropertyValue(a)}
+function aj(a,b){return QG(function(){a.H(b)})}
+function Nv(a,b){return Ov(new Qv(a),b,19,true)}
+function UE(a,b){a.a[a.a.length]=b;return true}
+function VE(a,b){BG(b,a.a.length);return a.a[b]}
+function Ic(a,b){FG(a==null||Hc(a,b));return a}
+function Oc(a,b){FG(a==null||$c(a,b));return a}
+function RC(a){if(a==null){return 0}return +a}
+function yD(a,b){var c;c=vD(a,b);c.e=2;return c}
+function ds(a,b){var c;c=ad(OD(Kc(b.a)));is(a,c)}
+function Ol(a,b,c){return a.set(c,(Zz(b.a),b.g))}
+function sF(a){nF();return !a?mF:new pF(CG(a))}
+function Qz(a,b){a.d=true;Hz(a,b);rB(new gA(a))}
+function fB(a){a.e=true;bB(a);a.c.clear();aB(a)}
+function EB(a,b){a.a==null&&(a.a=[]);a.a.push(b)}
+function GB(a,b,c,d){var e;e=IB(a,b,c);e.push(d)}
+function hk(a,b,c){a.a.delete(c);a.a.set(c,b.Z())}
+function wC(a,b,c,d){a.removeEventListener(b,c,d)}
+function tq(a,b){this.a=a;this.b=b;Zi.call(this)}
+function xt(a,b){this.a=a;this.b=b;Zi.call(this)}
+function lb(a){U(this);this.g=a;V(this);this.w()}
+function mt(a){it();this.c=[];this.a=ht;this.d=a}
+function ej(a){a.onreadystatechange=function(){}}
+function So(a){return $wnd.Vaadin.Flow.getApp(a)}
+function hF(a){return new hG(null,gF(a,a.length))}
+function Vc(a){return a!=null&&Zc(a)&&!(a.ic===Ti)}
+function Bc(a){return Array.isArray(a)&&a.ic===Ti}
+function Rc(a){return !Array.isArray(a)&&a.ic===Ti}
+function Zc(a){return typeof a===RG||typeof a===TG}
+function xC(b,a){return b.getPropertyPriority(a)}
+function gF(a,b){return vF(b,a.length),new GF(a,b)}
+function nm(a,b,c){return a.push(Gz(c,new Lm(c,b)))}
+function wD(a,b,c){var d;d=vD(a,b);ID(c,d);return d}
+function vD(a,b){var c;c=new tD;c.f=a;c.d=b;return c}
+function Zb(a,b){!a&&(a=[]);a[a.length]=b;return a}
+function Bu(a,b){var c;c=b;return Ic(a.a.get(c),6)}
+function ww(a){var b;b=a.a;ju(a,null);ju(a,b);jv(a)}
+function Kk(a){++Bk;kn(Ic(gk(a.a,se),56),new bl)}
+function pr(a,b){Lt(Ic(gk(a.i,Sf),84),b['execute'])}
+function AF(a,b){CG(b);while(a.c<a.d){FF(a,b,a.c++)}}
+function zF(a,b){this.d=a;this.c=(b&64)!=0?b|16384:b}
+function oA(a,b,c){Az.call(this,a);this.b=b;this.a=c}
+function Nl(a){this.a=new $wnd.Set;this.b=[];this.c=a}
+function CG(a){if(a==null){throw Gi(new $D)}return a}
+function Mc(a){FG(a==null||Array.isArray(a));return a}
+function Cc(a,b,c){zG(c==null||wc(a,c));return a[b]=c}
+function fG(a,b){bG(a);return new hG(a,new lG(b,a.a))}
+function Uq(a,b,c,d){var e;e=IA(a,b);Gz(e,new dr(c,d))}
+function _A(a,b){var c;if(!a.e){c=b.Mb(a);a.b.push(c)}}
+function aG(a){if(!a.b){bG(a);a.c=true}else{aG(a.b)}}
+function Jb(){Db();if(zb){return}zb=true;Kb(false)}
+function PG(){if(KG==256){JG=LG;LG=new I;KG=0}++KG}
+function V(a){if(a.j){a.e!==XG&&a.w();a.h=null}return a}
+function uw(a){var b;b=new $wnd.Map;a.push(b);return b}
+function OB(a,b){return QB(new $wnd.XMLHttpRequest,a,b)}
+function kF(a,b){return _c(a)===_c(b)||a!=null&&K(a,b)}
+function jo(a,b){return FB(a.a,(!mo&&(mo=new ij),mo),b)}
+function Hs(a,b){return FB(a.a,(!Ss&&(Ss=new ij),Ss),b)}
+function Um(a,b){return +(Math.round(a+'e+'+b)+'e-'+b)}
+function ux(a){return oD((mD(),kD),Jz(IA(eu(a,0),cI)))}
+function ik(a){a.b.forEach(Qi(Zm.prototype._,Zm,[a]))}
+function Xj(a){$wnd.setTimeout(function(){a.I()},0)}
+function Lb(a){$wnd.setTimeout(function(){throw a},0)}
+function hE(a,b){EG(b,a.length);return a.charCodeAt(b)}
+function is(a,b){js(a);if(b>=0){a.a=new ms(a);Yi(a.a,b)}}
+function cG(a){if(!a){this.b=null;new YE}else{this.b=a}}
+function HC(a,b,c,d){this.b=a;this.c=b;this.a=c;this.d=d}
+function Hr(a,b,c,d){this.a=a;this.d=b;this.b=c;this.c=d}
+function GF(a,b){this.c=0;this.d=b;this.b=17488;this.a=a}
+function NB(a,b,c){this.a=a;this.d=b;this.c=null;this.b=c}
+function ks(a){this.b=a;jo(Ic(gk(a,De),12),new os(this))}
+function bt(a,b){var c;c=Ic(gk(a.a,Hf),34);jt(c,b);lt(c)}
+function tB(a,b){var c;c=mB;mB=a;try{b.C()}finally{mB=c}}
+function $(a,b){var c;c=sD(a.gc);return b==null?c:c+': '+b}
+function $p(a,b){Rn(Ic(gk(a.c,ye),22),'',b,'',null,null)}
+function Qn(a,b,c){Rn(a,c.caption,c.message,b,c.url,null)}
+function Ju(a,b,c,d){Eu(a,b)&&$s(Ic(gk(a.c,Df),32),b,c,d)}
+function rm(a,b,c,d,e){a.splice.apply(a,[b,c,d].concat(e))}
+function rn(a,b,c){this.b=a;this.d=b;this.c=c;this.a=new R}
+function em(a){var b;b=a.f;while(!!b&&!b.a){b=b.f}return b}
+function Nc(a){FG(a==null||Zc(a)&&!(a.ic===Ti));return a}
+function Qc(a){return a.gc||Array.isArray(a)&&xc(ed,1)||ed}
+function Co(){Ao();return Dc(xc(Ce,1),WG,59,0,[xo,yo,zo])}
+function Bq(){yq();return Dc(xc(Qe,1),WG,62,0,[vq,wq,xq])}
+function rC(){pC();return Dc(xc(wh,1),WG,42,0,[nC,mC,oC])}
+function UF(){SF();return Dc(xc(si,1),WG,47,0,[PF,QF,RF])}
+function QC(c,a,b){return c.setTimeout(QG(a.Rb).bind(a),b)}
+function vz(a){if(!tz){return a}return $wnd.Polymer.dom(a)}
+function dG(a,b){var c;return gG(a,new YE,(c=new tG(b),c))}
+function DG(a,b){if(a<0||a>b){throw Gi(new eD(OI+a+QI+b))}}
+function vC(a,b){Rc(a)?a.R(b):(a.handleEvent(b),undefined)}
+function hu(a,b){_c(b.S(a))===_c((mD(),lD))&&a.b.delete(b)}
+function Fv(a,b){pz(b).forEach(Qi(Jv.prototype.db,Jv,[a]))}
+function BG(a,b){if(a<0||a>=b){throw Gi(new eD(OI+a+QI+b))}}
+function EG(a,b){if(a<0||a>=b){throw Gi(new DE(OI+a+QI+b))}}
+function Wq(a){Tj('applyDefaultTheme',(mD(),a?true:false))}
+function gr(a){a&&a.afterServerUpdate&&a.afterServerUpdate()}
+function pp(a){$wnd.vaadinPush.atmosphere.unsubscribeUrl(a)}
+function tn(a,b,c){this.a=a;this.c=b;this.b=c;Zi.call(this)}
+function vn(a,b,c){this.a=a;this.c=b;this.b=c;Zi.call(this)}
+function hD(a,b){U(this);this.f=b;this.g=a;V(this);this.w()}
+function Wl(a,b){a.updateComplete.then(QG(function(){b.I()}))}
+function PC(c,a,b){return c.setInterval(QG(a.Rb).bind(a),b)}
+function Qw(a,b,c){return a.set(c,Iz(IA(eu(b.e,1),c),b.b[c]))}
+function sz(a,b,c,d){return a.splice.apply(a,[b,c].concat(d))}
+function Op(){Mp();return Dc(xc(Je,1),WG,51,0,[Jp,Ip,Lp,Kp])}
+function jC(){hC();return Dc(xc(vh,1),WG,43,0,[gC,eC,fC,dC])}
+function kt(a){a.a=ht;if(!a.b){return}Xr(Ic(gk(a.d,nf),19))}
+function Hz(a,b){if(!a.b&&a.c&&kF(b,a.g)){return}Rz(a,b,true)}
+function Cv(a,b){pz(b).forEach(Qi(Hv.prototype.db,Hv,[a.a]))}
+function Ri(a){function b(){}
+;b.prototype=a||{};return new b}
+function CD(a){if(a.Xb()){return null}var b=a.h;return Mi[b]}
+function bF(a){AG(a.a<a.c.a.length);a.b=a.a++;return a.c.a[a.b]}
+function Pz(a){if(a.c){a.d=true;Rz(a,null,false);rB(new iA(a))}}
+function WB(a){if(a.length>2){$B(a[0],'OS major');$B(a[1],CI)}}
+function uB(a){this.a=a;this.b=[];this.c=new $wnd.Set;bB(this)}
+function rb(a){pb();nb.call(this,a);this.a='';this.b=a;this.a=''}
+function Ko(a){a?($wnd.location=a):$wnd.location.reload(false)}
+function rp(){return $wnd.vaadinPush&&$wnd.vaadinPush.atmosphere}
+function Fp(a,b,c){return sE(a.b,b,$wnd.Math.min(a.b.length,c))}
+function PB(a,b,c,d){return RB(new $wnd.XMLHttpRequest,a,b,c,d)}
+function gm(a,b,c){var d;d=[];c!=null&&d.push(c);return $l(a,b,d)}
+function Rz(a,b,c){var d;d=a.g;a.c=c;a.g=b;Wz(a.a,new oA(a,d,b))}
+function AD(a,b){var c=a.a=a.a||[];return c[b]||(c[b]=a.Sb(b))}
+function Lt(a,b){var c,d;for(c=0;c<b.length;c++){d=b[c];Nt(a,d)}}
+function xl(a,b){var c;if(b.length!=0){c=new xz(b);a.e.set(Og,c)}}
+function gc(){gc=Pi;var a,b;b=!mc();a=new uc;fc=b?new nc:a}
+function xD(a,b,c,d){var e;e=vD(a,b);ID(c,e);e.e=d?8:0;return e}
+function xA(a,b){rA.call(this,a,b);this.c=[];this.a=new BA(this)}
+function jD(a){hD.call(this,a==null?ZG:Si(a),Sc(a,5)?Ic(a,5):null)}
+function fo(a,b){++a.a;a.b=Zb(a.b,[b,false]);Vb(a);Xb(a,new ho(a))}
+function Wr(a,b){!!a.b&&hp(a.b)?mp(a.b,b):ut(Ic(gk(a.c,Nf),71),b)}
+function Dl(a,b){var c;c=Nc(a.b[b]);if(c){a.b[b]=null;a.a.delete(c)}}
+function bw(a){Vv();var b;b=a[jI];if(!b){b={};$v(b);a[jI]=b}return b}
+function cb(b){if(!('stack' in b)){try{throw b}catch(a){}}return b}
+function eB(a){if(a.d&&!a.e){try{tB(a,new iB(a))}finally{a.d=false}}}
+function Wi(a){if(!a.f){return}++a.d;a.e?$i(a.f.a):_i(a.f.a);a.f=null}
+function mn(a){$wnd.HTMLImports.whenReady(QG(function(){a.I()}))}
+function fj(c,a){var b=c;c.onreadystatechange=QG(function(){a.J(b)})}
+function Wo(a){var b=QG(Xo);$wnd.Vaadin.Flow.registerWidgetset(a,b)}
+function Du(a,b){var c;c=Fu(b);if(!c||!b.f){return c}return Du(a,b.f)}
+function Il(a,b){if(Jl(a,b.e.e)){a.b.push(b);return true}return false}
+function OF(a,b,c,d){CG(a);CG(b);CG(c);CG(d);return new VF(b,new MF)}
+function Fk(a,b,c,d){Dk(a,d,c).forEach(Qi(fl.prototype._,fl,[b]))}
+function KA(a,b,c){Zz(b.a);b.c&&(a[c]=qA((Zz(b.a),b.g)),undefined)}
+function PA(a,b,c,d){var e;Zz(c.a);if(c.c){e=sm((Zz(c.a),c.g));b[d]=e}}
+function Un(a,b){var c;c=b.keyCode;if(c==27){b.preventDefault();Ko(a)}}
+function pE(a,b,c){var d;c=vE(c);d=new RegExp(b);return a.replace(d,c)}
+function Vz(a,b){if(!b){debugger;throw Gi(new iD)}return Uz(a,a.Ob(b))}
+function aB(a){while(a.b.length!=0){Ic(a.b.splice(0,1)[0],44).Cb()}}
+function ad(a){return Math.max(Math.min(a,2147483647),-2147483648)|0}
+function om(a){return $wnd.customElements&&a.localName.indexOf('-')>-1}
+function Jo(a){var b;b=$doc.createElement('a');b.href=a;return b.href}
+function pz(a){var b;b=[];a.forEach(Qi(qz.prototype._,qz,[b]));return b}
+function qA(a){var b;if(Sc(a,6)){b=Ic(a,6);return cu(b)}else{return a}}
+function Gb(b){Db();return function(){return Hb(b,this,arguments);var a}}
+function xb(){if(Date.now){return Date.now()}return (new Date).getTime()}
+function Ht(a,b){if(b==null){debugger;throw Gi(new iD)}return a.a.get(b)}
+function It(a,b){if(b==null){debugger;throw Gi(new iD)}return a.a.has(b)}
+function oE(a,b){b=vE(b);return a.replace(new RegExp('[^0-9].*','g'),b)}
+function mm(a,b,c){var d;d=c.a;a.push(Gz(d,new Hm(d,b)));qB(new Bm(d,b))}
+function es(a,b){var c,d;c=eu(a,8);d=IA(c,'pollInterval');Gz(d,new fs(b))}
+function vA(a,b){var c;c=a.c.splice(0,b);Wz(a.a,new Cz(a,0,c,[],false))}
+function Gw(a,b){var c;c=b.f;yx(Ic(gk(b.e.e.g.c,td),8),a,c,(Zz(b.a),b.g))}
+function bq(a,b){Yj('Heartbeat exception: '+b.v());_p(a,(yq(),vq),null)}
+function JF(a,b){!a.a?(a.a=new CE(a.d)):zE(a.a,a.b);xE(a.a,b);return a}
+function BF(a,b){CG(b);if(a.c<a.d){FF(a,b,a.c++);return true}return false}
+function JA(a,b){if(!a.b.has(b)){return false}return Nz(Ic(a.b.get(b),13))}
+function Rt(a){Ic(gk(a.a,De),12).b==(Ao(),zo)||ko(Ic(gk(a.a,De),12),zo)}
+function lG(a,b){zF.call(this,b.dc(),b.cc()&-6);CG(a);this.a=a;this.b=b}
+function Sz(a,b,c){Fz();this.a=new _z(this);this.f=a;this.e=b;this.b=c}
+function mb(a){U(this);this.g=!a?null:$(a,a.v());this.f=a;V(this);this.w()}
+function nb(a){U(this);V(this);this.e=a;W(this,a);this.g=a==null?ZG:Si(a)}
+function KF(){this.b=', ';this.d='[';this.e=']';this.c=this.d+(''+this.e)}
+function vr(a){this.j=new $wnd.Set;this.g=[];this.c=new Cr(this);this.i=a}
+function LA(a,b){rA.call(this,a,b);this.b=new $wnd.Map;this.a=new QA(this)}
+function im(a,b){$wnd.customElements.whenDefined(a).then(function(){b.I()})}
+function Uo(a){Po();!$wnd.WebComponents||$wnd.WebComponents.ready?Ro(a):Qo(a)}
+function xz(a){this.a=new $wnd.Set;a.forEach(Qi(yz.prototype.db,yz,[this.a]))}
+function Tw(a){var b;b=vz(a);while(b.firstChild){b.removeChild(b.firstChild)}}
+function gG(a,b,c){var d;aG(a);d=new qG;d.a=b;a.a.ec(new uG(d,c));return d.a}
+function zc(a,b,c,d,e,f){var g;g=Ac(e,d);e!=10&&Dc(xc(a,f),b,c,e,g);return g}
+function wA(a,b,c,d){var e,f;e=d;f=sz(a.c,b,c,e);Wz(a.a,new Cz(a,b,f,d,false))}
+function Zu(a,b){var c,d,e;e=ad(VC(a[kI]));d=eu(b,e);c=a['key'];return IA(d,c)}
+function Mo(a,b,c){c==null?vz(a).removeAttribute(b):vz(a).setAttribute(b,c)}
+function WE(a,b,c){for(;c<a.a.length;++c){if(kF(b,a.a[c])){return c}}return -1}
+function fu(a,b,c,d){var e;e=c.Qb();!!e&&(b[Au(a.g,ad((CG(d),d)))]=e,undefined)}
+function wo(a,b){var c;CG(b);c=a[':'+b];yG(!!c,Dc(xc(Yh,1),WG,1,5,[b]));return c}
+function lC(){lC=Pi;kC=so((hC(),Dc(xc(vh,1),WG,43,0,[gC,eC,fC,dC])))}
+function fq(a){Lq(Ic(gk(a.c,Ye),55),Ic(gk(a.c,td),8).d);_p(a,(yq(),vq),null)}
+function M(a){return Xc(a)?bi:Uc(a)?Mh:Tc(a)?Jh:Rc(a)?a.gc:Bc(a)?a.gc:Qc(a)}
+function xG(a,b){return yc(b)!=10&&Dc(M(b),b.hc,b.__elementTypeId$,yc(b),a),a}
+function yc(a){return a.__elementTypeCategory$==null?10:a.__elementTypeCategory$}
+function Uj(a){$wnd.Vaadin.connectionState&&($wnd.Vaadin.connectionState.state=a)}
+function gp(a){switch(a.f.c){case 0:case 1:return true;default:return false;}}
+function or(a){var b;b=a['meta'];if(!b||!('async' in b)){return true}return false}
+function us(a){var b;if(a==null){return false}b=Pc(a);return !iE('DISABLED',b)}
+function tx(a){var b;b=Ic(a.e.get(eg),76);!!b&&(!!b.a&&Ry(b.a),b.b.e.delete(eg))}
+function $r(a,b){b&&!a.b?(a.b=new op(a.c)):!b&&!!a.b&&gp(a.b)&&dp(a.b,new bs(a))}
+function yG(a,b){if(!a){throw Gi(new RD(GG('Enum constant undefined: %s',b)))}}
+function $o(){if(rp()){return $wnd.vaadinPush.atmosphere.version}else{return null}}
+function mz(a){var b;b=new $wnd.Set;a.forEach(Qi(nz.prototype.db,nz,[b]));return b}
+function Uz(a,b){var c,d;a.a.add(b);d=new wB(a,b);c=mB;!!c&&cB(c,new yB(d));return d}
+function bC(a,b){var c,d;d=a.substr(b);c=d.indexOf(' ');c==-1&&(c=d.length);return c}
+function Do(a,b,c){iE(c.substr(0,a.length),a)&&(c=b+(''+rE(c,a.length)));return c}
+function Ow(a,b,c){var d,e;e=(Zz(a.a),a.c);d=b.d.has(c);e!=d&&(e?gw(c,b):Uw(c,b))}
+function Cw(a,b,c,d){var e,f,g;g=c[dI];e="id='"+g+"'";f=new ly(a,g);vw(a,b,d,f,g,e)}
+function ss(a,b){var c,d;d=us(b.b);c=us(b.a);!d&&c?qB(new ys(a)):d&&!c&&qB(new As(a))}
+function Rb(a){var b,c;if(a.c){c=null;do{b=a.c;a.c=null;c=$b(b,c)}while(a.c);a.c=c}}
+function Sb(a){var b,c;if(a.d){c=null;do{b=a.d;a.d=null;c=$b(b,c)}while(a.d);a.d=c}}
+function ID(a,b){var c;if(!a){return}b.h=a;var d=CD(b);if(!d){Mi[a]=[b];return}d.gc=b}
+function Qi(a,b,c){var d=function(){return a.apply(d,arguments)};b.apply(d,c);return d}
+function Ii(){Ji();var a=Hi;for(var b=0;b<arguments.length;b++){a.push(arguments[b])}}
+function gv(){var a;gv=Pi;fv=(a=[],a.push(new ax),a.push(new cz),a);ev=new kv}
+function tA(a){var b;a.b=true;b=a.c.splice(0,a.c.length);Wz(a.a,new Cz(a,0,b,[],true))}
+function $j(a){var b;b=S;T(new ek(b));if(Sc(a,31)){Zj(Ic(a,31).A())}else{throw Gi(a)}}
+function ts(a){this.a=a;Gz(IA(eu(Ic(gk(this.a,Xf),10).e,5),'pushMode'),new ws(this))}
+function Pu(a){this.a=new $wnd.Map;this.e=new lu(1,this);this.c=a;Iu(this,this.e)}
+function Dx(a,b,c){this.c=new $wnd.Map;this.d=new $wnd.Map;this.e=a;this.b=b;this.a=c}
+function Tj(a,b){$wnd.Vaadin.connectionIndicator&&($wnd.Vaadin.connectionIndicator[a]=b)}
+function Li(a,b){typeof window===RG&&typeof window['$gwt']===RG&&(window['$gwt'][a]=b)}
+function ul(a,b){return !!(a[qH]&&a[qH][rH]&&a[qH][rH][b])&&typeof a[qH][rH][b][sH]!=_G}
+function tt(a){return sC(sC(Ic(gk(a.a,td),8).h,'v-r=uidl'),HH+(''+Ic(gk(a.a,td),8).k))}
+function Qo(a){var b=function(){Ro(a)};$wnd.addEventListener('WebComponentsReady',QG(b))}
+function tC(e,a,b,c){var d=!b?null:uC(b);e.addEventListener(a,d,c);return new HC(e,a,d,c)}
+function Rw(a,b,c){var d,e,f,g;for(e=a,f=0,g=e.length;f<g;++f){d=e[f];Dw(d,new Uy(b,d),c)}}
+function Kw(a,b){var c,d;c=a.a;if(c.length!=0){for(d=0;d<c.length;d++){hw(b,Ic(c[d],6))}}}
+function jc(a){var b=/function(?:\s+([\w$]+))?\s*\(/;var c=b.exec(a);return c&&c[1]||bH}
+function Qj(){try{document.createEvent('TouchEvent');return true}catch(a){return false}}
+function dx(a,b){var c;c=a;while(true){c=c.f;if(!c){return false}if(K(b,c.a)){return true}}}
+function cu(a){var b;b=$wnd.Object.create(null);bu(a,Qi(pu.prototype._,pu,[a,b]));return b}
+function Tb(a){var b;if(a.b){b=a.b;a.b=null;!a.g&&(a.g=[]);$b(b,a.g)}!!a.g&&(a.g=Wb(a.g))}
+function rv(a,b,c){mv();b==(Fz(),Ez)&&a!=null&&c!=null&&a.has(c)?Ic(a.get(c),14).I():b.I()}
+function ip(a,b){if(b.a.b==(Ao(),zo)){if(a.f==(Mp(),Lp)||a.f==Kp){return}dp(a,new Rp)}}
+function bp(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return null}else{return b+''}}
+function vF(a,b){if(0>a||a>b){throw Gi(new fD('fromIndex: 0, toIndex: '+a+', length: '+b))}}
+function Yi(a,b){if(b<=0){throw Gi(new RD(fH))}!!a.f&&Wi(a);a.e=true;a.f=XD(cj(aj(a,a.d),b))}
+function Xi(a,b){if(b<0){throw Gi(new RD(eH))}!!a.f&&Wi(a);a.e=false;a.f=XD(dj(aj(a,a.d),b))}
+function dE(a,b,c){if(a==null){debugger;throw Gi(new iD)}this.a=dH;this.d=a;this.b=b;this.c=c}
+function Lu(a,b,c,d,e){if(!zu(a,b)){debugger;throw Gi(new iD)}at(Ic(gk(a.c,Df),32),b,c,d,e)}
+function Ku(a,b,c,d,e,f){if(!zu(a,b)){debugger;throw Gi(new iD)}_s(Ic(gk(a.c,Df),32),b,c,d,e,f)}
+function Ew(a,b,c,d){var e,f,g;g=c[dI];e="path='"+wb(g)+"'";f=new jy(a,g);vw(a,b,d,f,null,e)}
+function ow(a,b,c,d){var e;e=eu(d,a);HA(e,Qi(Jx.prototype._,Jx,[b,c]));return GA(e,new Lx(b,c))}
+function ap(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return null}else{return XD(b)}}
+function wt(b){if(b.readyState!=1){return false}try{b.send();return true}catch(a){return false}}
+function lt(a){if(ht!=a.a||a.c.length==0){return}a.b=true;a.a=new nt(a);fo((Qb(),Pb),new rt(a))}
+function pC(){pC=Pi;nC=new qC('INLINE',0);mC=new qC('EAGER',1);oC=new qC('LAZY',2)}
+function yq(){yq=Pi;vq=new Aq('HEARTBEAT',0,0);wq=new Aq('PUSH',1,1);xq=new Aq('XHR',2,2)}
+function Ao(){Ao=Pi;xo=new Bo('INITIALIZING',0);yo=new Bo('RUNNING',1);zo=new Bo('TERMINATED',2)}
+function Vb(a){if(!a.i){a.i=true;!a.f&&(a.f=new bc(a));_b(a.f,1);!a.h&&(a.h=new dc(a));_b(a.h,50)}}
+function Gu(a,b){var c;if(b!=a.e){c=b.a;!!c&&(Vv(),!!c[jI])&&_v((Vv(),c[jI]));Ou(a,b);b.f=null}}
+function Ru(a,b){var c;if(Sc(a,27)){c=Ic(a,27);ad((CG(b),b))==2?vA(c,(Zz(c.a),c.c.length)):tA(c)}}
+function Uw(a,b){var c;c=Ic(b.d.get(a),44);b.d.delete(a);if(!c){debugger;throw Gi(new iD)}c.Cb()}
+function gn(a,b){var c,d;c=new An(a);d=new $wnd.Function(a);qn(a,new Hn(d),new Jn(b,c),new Ln(b,c))}
+function uC(b){var c=b.handler;if(!c){c=QG(function(a){vC(b,a)});c.listener=b;b.handler=c}return c}
+function TC(c){return $wnd.JSON.stringify(c,function(a,b){if(a=='$H'){return undefined}return b},0)}
+function nr(a,b){if(b==-1){return true}if(b==a.f+1){return true}if(a.f==-1){return true}return false}
+function Fi(a){var b;if(Sc(a,5)){return a}b=a&&a.__java$exception;if(!b){b=new rb(a);hc(b)}return b}
+function Eo(a,b){var c;if(a==null){return null}c=Do('context://',b,a);c=Do('base://','',c);return c}
+function kq(a,b){Rn(Ic(gk(a.c,ye),22),'',b+' could not be loaded. Push will not work.','',null,null)}
+function gq(a,b,c){hp(b)&&Is(Ic(gk(a.c,zf),16));lq(c)||aq(a,'Invalid JSON from server: '+c,null)}
+function Lq(a,b){Vj&&LC($wnd.console,'Setting heartbeat interval to '+b+'sec.');a.a=b;Jq(a)}
+function BB(b,c,d){return QG(function(){var a=Array.prototype.slice.call(arguments);d.yb(b,c,a)})}
+function _b(b,c){Qb();function d(){var a=QG(Yb)(b);a&&$wnd.setTimeout(d,c)}
+$wnd.setTimeout(d,c)}
+function ac(b,c){Qb();var d=$wnd.setInterval(function(){var a=QG(Yb)(b);!a&&$wnd.clearInterval(d)},c)}
+function Ik(a,b){var c;c=new $wnd.Map;b.forEach(Qi(dl.prototype._,dl,[a,c]));c.size==0||Ok(new hl(c))}
+function lj(a,b){var c;c='/'.length;if(!iE(b.substr(b.length-c,c),'/')){debugger;throw Gi(new iD)}a.b=b}
+function Pt(a,b){var c;c=!!b.a&&!oD((mD(),kD),Jz(IA(eu(b,0),cI)));if(!c||!b.f){return c}return Pt(a,b.f)}
+function cC(a,b,c){var d,e;b<0?(e=0):(e=b);c<0||c>a.length?(d=a.length):(d=c);return a.substr(e,d-e)}
+function Zs(a,b,c,d){var e;e={};e[kH]=YH;e[ZH]=Object(b);e[YH]=c;!!d&&(e['data']=d,undefined);bt(a,e)}
+function Dc(a,b,c,d,e){e.gc=a;e.hc=b;e.ic=Ti;e.__elementTypeId$=c;e.__elementTypeCategory$=d;return e}
+function Y(a){var b,c,d,e;for(b=(a.h==null&&(a.h=(gc(),e=fc.F(a),ic(e))),a.h),c=0,d=b.length;c<d;++c);}
+function Yr(a){var b,c,d;b=[];c={};c['UNLOAD']=Object(true);d=Tr(a,b,c);as(tt(Ic(gk(a.c,Nf),71)),TC(d))}
+function vt(a){this.a=a;tC($wnd,'beforeunload',new Dt(this),false);Hs(Ic(gk(a,zf),16),new Ft(this))}
+function gw(a,b){var c;if(b.d.has(a)){debugger;throw Gi(new iD)}c=BC(b.b,a,new By(b),false);b.d.set(a,c)}
+function Fu(a){var b,c;if(!a.c.has(0)){return true}c=eu(a,0);b=Jc(Jz(IA(c,'visible')));return !oD((mD(),kD),b)}
+function Ks(a){var b,c;c=Ic(gk(a.c,De),12).b==(Ao(),zo);b=a.b||Ic(gk(a.c,Hf),34).b;(c||!b)&&Uj('connected')}
+function jp(a,b,c){jE(b,'true')||jE(b,'false')?(a.a[c]=jE(b,'true'),undefined):(a.a[c]=b,undefined)}
+function jq(a,b){Vj&&($wnd.console.log('Reopening push connection'),undefined);hp(b)&&_p(a,(yq(),wq),null)}
+function xx(a,b,c,d){if(d==null){!!c&&(delete c['for'],undefined)}else{!c&&(c={});c['for']=d}Ju(a.g,a,b,c)}
+function tD(){++qD;this.i=null;this.g=null;this.f=null;this.d=null;this.b=null;this.h=null;this.a=null}
+function iF(a){var b,c,d;d=1;for(c=new cF(a);c.a<c.c.a.length;){b=bF(c);d=31*d+(b!=null?O(b):0);d=d|0}return d}
+function fF(a){var b,c,d,e,f;f=1;for(c=a,d=0,e=c.length;d<e;++d){b=c[d];f=31*f+(b!=null?O(b):0);f=f|0}return f}
+function Kz(a,b){var c;Zz(a.a);if(a.c){c=(Zz(a.a),a.g);if(c==null){return b}return PD(Kc(c))}else{return b}}
+function Mz(a){var b;Zz(a.a);if(a.c){b=(Zz(a.a),a.g);if(b==null){return true}return nD(Jc(b))}else{return true}}
+function _o(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return false}else{return mD(),b?true:false}}
+function jv(a){var b,c;c=iv(a);b=a.a;if(!a.a){b=c.Gb(a);if(!b){debugger;throw Gi(new iD)}ju(a,b)}hv(a,b);return b}
+function ib(a){var b;if(a!=null){b=a.__java$exception;if(b){return b}}return Wc(a,TypeError)?new _D(a):new nb(a)}
+function XD(a){var b,c;if(a>-129&&a<128){b=a+128;c=(ZD(),YD)[b];!c&&(c=YD[b]=new TD(a));return c}return new TD(a)}
+function rw(a){var b,c;b=du(a.e,24);for(c=0;c<(Zz(b.a),b.c.length);c++){hw(a,Ic(b.c[c],6))}return sA(b,new Zx(a))}
+function so(a){var b,c,d,e,f;b={};for(d=a,e=0,f=d.length;e<f;++e){c=d[e];b[':'+(c.b!=null?c.b:''+c.c)]=c}return b}
+function YC(c){var a=[];for(var b in c){Object.prototype.hasOwnProperty.call(c,b)&&b!='$H'&&a.push(b)}return a}
+function lq(a){var b;b=Vi(new RegExp('Vaadin-Refresh(:\\s*(.*?))?(\\s|$)'),a);if(b){Ko(b[2]);return true}return false}
+function Cu(a,b){var c,d,e;e=pz(a.a);for(c=0;c<e.length;c++){d=Ic(e[c],6);if(b.isSameNode(d.a)){return d}}return null}
+function rs(a){if(JA(eu(Ic(gk(a.a,Xf),10).e,5),XH)){return Pc(Jz(IA(eu(Ic(gk(a.a,Xf),10).e,5),XH)))}return null}
+function Zp(a){a.b=null;Ic(gk(a.c,zf),16).b&&Is(Ic(gk(a.c,zf),16));Uj('connection-lost');Lq(Ic(gk(a.c,Ye),55),0)}
+function Yl(a,b){var c;Xl==null&&(Xl=lz());c=Oc(Xl.get(a),$wnd.Set);if(c==null){c=new $wnd.Set;Xl.set(a,c)}c.add(b)}
+function nw(a,b){var c,d;d=a.f;if(b.c.has(d)){debugger;throw Gi(new iD)}c=new uB(new zy(a,b,d));b.c.set(d,c);return c}
+function Wz(a,b){var c;if(b.Lb()!=a.b){debugger;throw Gi(new iD)}c=mz(a.a);c.forEach(Qi(zB.prototype.db,zB,[a,b]))}
+function mw(a){if(!a.b){debugger;throw Gi(new jD('Cannot bind client delegate methods to a Node'))}return Nv(a.b,a.e)}
+function bG(a){if(a.b){bG(a.b)}else if(a.c){throw Gi(new SD("Stream already terminated, can't be modified or used"))}}
+function Ls(a){if(a.b){throw Gi(new SD('Trying to start a new request while another is active'))}a.b=true;Js(a,new Ps)}
+function wv(a,b){if(b<0){throw Gi(new RD(eH))}a.c?NC($wnd,a.d):OC($wnd,a.d);a.c=false;a.d=QC($wnd,new ZC(a),b)}
+function xv(a,b){if(b<=0){throw Gi(new RD(fH))}a.c?NC($wnd,a.d):OC($wnd,a.d);a.c=true;a.d=PC($wnd,new _C(a),b)}
+function lu(a,b){this.c=new $wnd.Map;this.h=new $wnd.Set;this.b=new $wnd.Set;this.e=new $wnd.Map;this.d=a;this.g=b}
+function SF(){SF=Pi;PF=new TF('CONCURRENT',0);QF=new TF('IDENTITY_FINISH',1);RF=new TF('UNORDERED',2)}
+function Ro(a){var b,c,d,e;b=(e=new wj,e.a=a,Vo(e,So(a)),e);c=new Bj(b);Oo.push(c);d=So(a).getConfig('uidl');Aj(c,d)}
+function cw(a){var b;b=Lc(Uv.get(a));if(b==null){b=Lc(new $wnd.Function(YH,qI,'return ('+a+')'));Uv.set(a,b)}return b}
+function nn(a,b,c){var d;d=Mc(c.get(a));if(d==null){d=[];d.push(b);c.set(a,d);return true}else{d.push(b);return false}}
+function JB(a,b){var c,d;d=Oc(a.c.get(b),$wnd.Map);if(d==null){return []}c=Mc(d.get(null));if(c==null){return []}return c}
+function Lz(a){var b;Zz(a.a);if(a.c){b=(Zz(a.a),a.g);if(b==null){return null}return Zz(a.a),Pc(a.g)}else{return null}}
+function Si(a){var b;if(Array.isArray(a)&&a.ic===Ti){return sD(M(a))+'@'+(b=O(a)>>>0,b.toString(16))}return a.toString()}
+function eq(a,b){var c;if(b.a.b==(Ao(),zo)){if(a.b){Zp(a);c=Ic(gk(a.c,De),12);c.b!=zo&&ko(c,zo)}!!a.d&&!!a.d.f&&Wi(a.d)}}
+function aq(a,b,c){var d,e;c&&(e=c.b);Rn(Ic(gk(a.c,ye),22),'',b,'',null,null);d=Ic(gk(a.c,De),12);d.b!=(Ao(),zo)&&ko(d,zo)}
+function pq(a,b){var c;Is(Ic(gk(a.c,zf),16));c=b.b.responseText;lq(c)||aq(a,'Invalid JSON response from server: '+c,b)}
+function Hl(a){var b;if(!Ic(gk(a.c,Xf),10).f){b=new $wnd.Map;a.a.forEach(Qi(Pl.prototype.db,Pl,[a,b]));rB(new Rl(a,b))}}
+function Ml(a,b){var c,d;c=Oc(b.get(a.e.e.d),$wnd.Map);if(c!=null&&c.has(a.f)){d=c.get(a.f);Qz(a,d);return true}return false}
+function jm(a){while(a.parentNode&&(a=a.parentNode)){if(a.toString()==='[object ShadowRoot]'){return true}}return false}
+function Zv(a,b){if(typeof a.get===TG){var c=a.get(b);if(typeof c===RG&&typeof c[vH]!==_G){return {nodeId:c[vH]}}}return null}
+function Fo(a){var b,c;b=Ic(gk(a.a,td),8).b;c='/'.length;if(!iE(b.substr(b.length-c,c),'/')){debugger;throw Gi(new iD)}return b}
+function KB(a){var b,c;if(a.a!=null){try{for(c=0;c<a.a.length;c++){b=Ic(a.a[c],328);GB(b.a,b.d,b.c,b.b)}}finally{a.a=null}}}
+function Mk(){Ck();var a,b;--Bk;if(Bk==0&&Ak.length!=0){try{for(b=0;b<Ak.length;b++){a=Ic(Ak[b],26);a.C()}}finally{kz(Ak)}}}
+function Mb(a,b){Db();var c;c=S;if(c){if(c==Ab){return}c.q(a);return}if(b){Lb(Sc(a,31)?Ic(a,31).A():a)}else{FE();X(a,EE,'')}}
+function Gl(a,b){var c;a.a.clear();while(a.b.length>0){c=Ic(a.b.splice(0,1)[0],13);Ml(c,b)||Mu(Ic(gk(a.c,Xf),10),c);sB()}}
+function lw(a,b){var c,d;c=du(b,11);for(d=0;d<(Zz(c.a),c.c.length);d++){vz(a).classList.add(Pc(c.c[d]))}return sA(c,new Hy(a))}
+function bm(a){var b;if(Xl==null){return}b=Oc(Xl.get(a),$wnd.Set);if(b!=null){Xl.delete(a);b.forEach(Qi(xm.prototype.db,xm,[]))}}
+function sv(a,b,c,d){mv();iE(nI,a)?c.forEach(Qi(Lv.prototype._,Lv,[d])):pz(c).forEach(Qi(tv.prototype.db,tv,[]));xx(b.b,b.c,b.a,a)}
+function _v(c){Vv();var b=c['}p'].promises;b!==undefined&&b.forEach(function(a){a[1](Error('Client is resynchronizing'))})}
+function Av(a){if(a.a.b){sv(oI,a.a.b,a.a.a,null);if(a.b.has(nI)){a.a.g=a.a.b;a.a.h=a.a.a}a.a.b=null;a.a.a=null}else{ov(a.a)}}
+function yv(a){if(a.a.b){sv(nI,a.a.b,a.a.a,a.a.i);a.a.b=null;a.a.a=null;a.a.i=null}else !!a.a.g&&sv(nI,a.a.g,a.a.h,null);ov(a.a)}
+function Sj(){return /iPad|iPhone|iPod/.test(navigator.platform)||navigator.platform==='MacIntel'&&navigator.maxTouchPoints>1}
+function Rj(){this.a=new aC($wnd.navigator.userAgent);this.a.b?'ontouchstart' in window:this.a.f?!!navigator.msMaxTouchPoints:Qj()}
+function ln(a){this.b=new $wnd.Set;this.a=new $wnd.Map;this.d=!!($wnd.HTMLImports&&$wnd.HTMLImports.whenReady);this.c=a;dn(this)}
+function sq(a){this.c=a;jo(Ic(gk(a,De),12),new Cq(this));tC($wnd,'offline',new Eq(this),false);tC($wnd,'online',new Gq(this),false)}
+function hC(){hC=Pi;gC=new iC('STYLESHEET',0);eC=new iC('JAVASCRIPT',1);fC=new iC('JS_MODULE',2);dC=new iC('DYNAMIC_IMPORT',3)}
+function ct(a,b,c,d,e){var f;f={};f[kH]='mSync';f[ZH]=WC(b.d);f['feature']=Object(c);f['property']=d;f[sH]=e==null?null:e;bt(a,f)}
+function Gj(a,b,c){var d;if(a==c.d){d=new $wnd.Function('callback','callback();');d.call(null,b);return mD(),true}return mD(),false}
+function IA(a,b){var c;c=Ic(a.b.get(b),13);if(!c){c=new Sz(b,a,iE('innerHTML',b)&&a.d==1);a.b.set(b,c);Wz(a.a,new mA(a,c))}return c}
+function vl(a,b){var c,d;d=eu(a,1);if(!a.a){im(Pc(Jz(IA(eu(a,0),'tag'))),new yl(a,b));return}for(c=0;c<b.length;c++){wl(a,d,Pc(b[c]))}}
+function bB(a){var b;a.d=true;aB(a);a.e||qB(new gB(a));if(a.c.size!=0){b=a.c;a.c=new $wnd.Set;b.forEach(Qi(kB.prototype.db,kB,[]))}}
+function Hk(a){Vj&&($wnd.console.log('Finished loading eager dependencies, loading lazy.'),undefined);a.forEach(Qi(ll.prototype._,ll,[]))}
+function Hu(a){uA(du(a.e,24),Qi(Tu.prototype.db,Tu,[]));bu(a.e,Qi(Xu.prototype._,Xu,[]));a.a.forEach(Qi(Vu.prototype._,Vu,[a]));a.d=true}
+function Vl(a){return typeof a.update==TG&&a.updateComplete instanceof Promise&&typeof a.shouldUpdate==TG&&typeof a.firstUpdated==TG}
+function QD(a){var b;b=MD(a);if(b>3.4028234663852886E38){return Infinity}else if(b<-3.4028234663852886E38){return -Infinity}return b}
+function pD(a){if(a>=48&&a<48+$wnd.Math.min(10,10)){return a-48}if(a>=97&&a<97){return a-97+10}if(a>=65&&a<65){return a-65+10}return -1}
+function HD(a,b){var c=0;while(!b[c]||b[c]==''){c++}var d=b[c++];for(;c<b.length;c++){if(!b[c]||b[c]==''){continue}d+=a+b[c]}return d}
+function mc(){if(Error.stackTraceLimit>0){$wnd.Error.stackTraceLimit=Error.stackTraceLimit=64;return true}return 'stack' in new Error}
+function tw(a){var b;b=Pc(Jz(IA(eu(a,0),'tag')));if(b==null){debugger;throw Gi(new jD('New child must have a tag'))}return GC($doc,b)}
+function qw(a){var b;if(!a.b){debugger;throw Gi(new jD('Cannot bind shadow root to a Node'))}b=eu(a.e,20);iw(a);return GA(b,new Wy(a))}
+function jE(a,b){CG(a);if(b==null){return false}if(iE(a,b)){return true}return a.length==b.length&&iE(a.toLowerCase(),b.toLowerCase())}
+function Mp(){Mp=Pi;Jp=new Np('CONNECT_PENDING',0);Ip=new Np('CONNECTED',1);Lp=new Np('DISCONNECT_PENDING',2);Kp=new Np('DISCONNECTED',3)}
+function mq(a,b){if(a.b!=b){return}a.b=null;a.a=0;Uj('connected');Vj&&($wnd.console.log('Re-established connection to server'),undefined)}
+function at(a,b,c,d,e){var f;f={};f[kH]='attachExistingElementById';f[ZH]=WC(b.d);f[_H]=Object(c);f[aI]=Object(d);f['attachId']=e;bt(a,f)}
+function du(a,b){var c,d;d=b;c=Ic(a.c.get(d),33);if(!c){c=new xA(b,a);a.c.set(d,c)}if(!Sc(c,27)){debugger;throw Gi(new iD)}return Ic(c,27)}
+function eu(a,b){var c,d;d=b;c=Ic(a.c.get(d),33);if(!c){c=new LA(b,a);a.c.set(d,c)}if(!Sc(c,41)){debugger;throw Gi(new iD)}return Ic(c,41)}
+function XE(a,b){var c,d;d=a.a.length;b.length<d&&(b=xG(new Array(d),b));for(c=0;c<d;++c){Cc(b,c,a.a[c])}b.length>d&&Cc(b,d,null);return b}
+function Ww(a,b){var c,d;d=IA(b,uI);Zz(d.a);d.c||Qz(d,a.getAttribute(uI));c=IA(b,vI);jm(a)&&(Zz(c.a),!c.c)&&!!a.style&&Qz(c,a.style.display)}
+function Gv(a,b){if(b.e){!!b.b&&sv(nI,b.b,b.a,null)}else{sv(oI,b.b,b.a,null);xv(b.f,ad(b.j))}if(b.b){UE(a,b.b);b.b=null;b.a=null;b.i=null}}
+function OG(a){MG();var b,c,d;c=':'+a;d=LG[c];if(d!=null){return ad((CG(d),d))}d=JG[c];b=d==null?NG(a):ad((CG(d),d));PG();LG[c]=b;return b}
+function O(a){return Xc(a)?OG(a):Uc(a)?ad((CG(a),a)):Tc(a)?(CG(a),a)?1231:1237:Rc(a)?a.o():Bc(a)?IG(a):!!a&&!!a.hashCode?a.hashCode():IG(a)}
+function jk(a,b,c){if(a.a.has(b)){debugger;throw Gi(new jD((rD(b),'Registry already has a class of type '+b.i+' registered')))}a.a.set(b,c)}
+function hv(a,b){gv();var c;if(a.g.f){debugger;throw Gi(new jD('Binding state node while processing state tree changes'))}c=iv(a);c.Fb(a,b,ev)}
+function Cz(a,b,c,d,e){this.e=a;if(c==null){debugger;throw Gi(new iD)}if(d==null){debugger;throw Gi(new iD)}this.c=b;this.d=c;this.a=d;this.b=e}
+function Kq(a){Wi(a.c);Vj&&($wnd.console.debug('Sending heartbeat request...'),undefined);PB(a.d,null,'text/plain; charset=utf-8',new Pq(a))}
+function tl(a,b,c,d){var e,f;if(!d){f=Ic(gk(a.g.c,Vd),58);e=Ic(f.a.get(c),25);if(!e){f.b[b]=c;f.a.set(c,XD(b));return XD(b)}return e}return d}
+function hx(a,b){var c,d;while(b!=null){for(c=a.length-1;c>-1;c--){d=Ic(a[c],6);if(b.isSameNode(d.a)){return d.d}}b=vz(b.parentNode)}return -1}
+function wl(a,b,c){var d;if(ul(a.a,c)){d=Ic(a.e.get(Og),77);if(!d||!d.a.has(c)){return}Iz(IA(b,c),a.a[c]).I()}else{JA(b,c)||Qz(IA(b,c),null)}}
+function Fl(a,b,c){var d,e;e=Bu(Ic(gk(a.c,Xf),10),ad((CG(b),b)));if(e.c.has(1)){d=new $wnd.Map;HA(eu(e,1),Qi(Tl.prototype._,Tl,[d]));c.set(b,d)}}
+function IB(a,b,c){var d,e;e=Oc(a.c.get(b),$wnd.Map);if(e==null){e=new $wnd.Map;a.c.set(b,e)}d=Mc(e.get(c));if(d==null){d=[];e.set(c,d)}return d}
+function gx(a){var b;ew==null&&(ew=new $wnd.Map);b=Lc(ew.get(a));if(b==null){b=Lc(new $wnd.Function(YH,qI,'return ('+a+')'));ew.set(a,b)}return b}
+function wr(){if($wnd.performance&&$wnd.performance.timing){return (new Date).getTime()-$wnd.performance.timing.responseStart}else{return -1}}
+function Pv(a,b,c,d){var e,f,g,h,i;i=Nc(a.Z());h=d.d;for(g=0;g<h.length;g++){aw(i,Pc(h[g]))}e=d.a;for(f=0;f<e.length;f++){Wv(i,Pc(e[f]),b,c)}}
+function rx(a,b){var c,d,e,f,g;d=vz(a).classList;g=b.d;for(f=0;f<g.length;f++){d.remove(Pc(g[f]))}c=b.a;for(e=0;e<c.length;e++){d.add(Pc(c[e]))}}
+function zw(a,b){var c,d,e,f,g;g=du(b.e,2);d=0;f=null;for(e=0;e<(Zz(g.a),g.c.length);e++){if(d==a){return f}c=Ic(g.c[e],6);if(c.a){f=c;++d}}return f}
+function fm(a){var b,c,d,e;d=-1;b=du(a.f,16);for(c=0;c<(Zz(b.a),b.c.length);c++){e=b.c[c];if(K(a,e)){d=c;break}}if(d<0){return null}return ''+d}
+function UB(a){var b,c;if(a.indexOf('android')==-1){return}b=cC(a,a.indexOf('android ')+8,a.length);b=cC(b,0,b.indexOf(';'));c=qE(b,'\\.');ZB(c)}
+function YB(a){var b,c;if(a.indexOf('os ')==-1||a.indexOf(' like mac')==-1){return}b=cC(a,a.indexOf('os ')+3,a.indexOf(' like mac'));c=qE(b,'_');ZB(c)}
+function Hc(a,b){if(Xc(a)){return !!Gc[b]}else if(a.hc){return !!a.hc[b]}else if(Uc(a)){return !!Fc[b]}else if(Tc(a)){return !!Ec[b]}return false}
+function K(a,b){return Xc(a)?iE(a,b):Uc(a)?(CG(a),_c(a)===_c(b)):Tc(a)?oD(a,b):Rc(a)?a.m(b):Bc(a)?H(a,b):!!a&&!!a.equals?a.equals(b):_c(a)===_c(b)}
+function ZB(a){var b,c;a.length>=1&&$B(a[0],'OS major');if(a.length>=2){b=kE(a[1],uE(45));if(b>-1){c=a[1].substr(0,b-0);$B(c,CI)}else{$B(a[1],CI)}}}
+function X(a,b,c){var d,e,f,g,h;Y(a);for(e=(a.i==null&&(a.i=zc(di,WG,5,0,0,1)),a.i),f=0,g=e.length;f<g;++f){d=e[f];X(d,b,'\t'+c)}h=a.f;!!h&&X(h,b,c)}
+function Ou(a,b){if(!zu(a,b)){debugger;throw Gi(new iD)}if(b==a.e){debugger;throw Gi(new jD("Root node can't be unregistered"))}a.a.delete(b.d);ku(b)}
+function zu(a,b){if(!b){debugger;throw Gi(new jD(gI))}if(b.g!=a){debugger;throw Gi(new jD(hI))}if(b!=Bu(a,b.d)){debugger;throw Gi(new jD(iI))}return true}
+function gk(a,b){if(!a.a.has(b)){debugger;throw Gi(new jD((rD(b),'Tried to lookup type '+b.i+' but no instance has been registered')))}return a.a.get(b)}
+function cx(a,b,c){var d,e;e=b.f;if(c.has(e)){debugger;throw Gi(new jD("There's already a binding for "+e))}d=new uB(new Rx(a,b));c.set(e,d);return d}
+function ju(a,b){var c;if(!(!a.a||!b)){debugger;throw Gi(new jD('StateNode already has a DOM node'))}a.a=b;c=mz(a.b);c.forEach(Qi(vu.prototype.db,vu,[a]))}
+function $B(b,c){var d;try{return ND(b)}catch(a){a=Fi(a);if(Sc(a,7)){d=a;FE();c+' version parsing failed for: '+b+' '+d.v()}else throw Gi(a)}return -1}
+function nq(a,b){var c;if(a.a==1){Yp(a,b)}else{a.d=new tq(a,b);Xi(a.d,Kz((c=eu(Ic(gk(Ic(gk(a.c,xf),35).a,Xf),10).e,9),IA(c,'reconnectInterval')),5000))}}
+function xr(){if($wnd.performance&&$wnd.performance.timing&&$wnd.performance.timing.fetchStart){return $wnd.performance.timing.fetchStart}else{return 0}}
+function Ac(a,b){var c=new Array(b);var d;switch(a){case 14:case 15:d=0;break;case 16:d=false;break;default:return c;}for(var e=0;e<b;++e){c[e]=d}return c}
+function lc(a){gc();var b=a.e;if(b&&b.stack){var c=b.stack;var d=b+'\n';c.substring(0,d.length)==d&&(c=c.substring(d.length));return c.split('\n')}return []}
+function Sr(a){a.b=null;us(Jz(IA(eu(Ic(gk(Ic(gk(a.c,vf),48).a,Xf),10).e,5),'pushMode')))&&!a.b&&(a.b=new op(a.c));Ic(gk(a.c,Hf),34).b&&lt(Ic(gk(a.c,Hf),34))}
+function FB(a,b,c){var d;if(!b){throw Gi(new aE('Cannot add a handler with a null type'))}a.b>0?EB(a,new NB(a,b,c)):(d=IB(a,b,null),d.push(c));return new MB}
+function vw(a,b,c,d,e,f){var g,h;if(!$w(a.e,b,e,f)){return}g=Nc(d.Z());if(_w(g,b,e,f,a)){if(!c){h=Ic(gk(b.g.c,Xd),50);h.a.add(b.d);Hl(h)}ju(b,g);jv(b)}c||sB()}
+function am(a,b){var c,d,e,f,g;f=a.f;d=a.e.e;g=em(d);if(!g){bk(wH+d.d+xH);return}c=Zl((Zz(a.a),a.g));if(km(g.a)){e=gm(g,d,f);e!=null&&qm(g.a,e,c);return}b[f]=c}
+function Jq(a){if(a.a>0){Wj('Scheduling heartbeat in '+a.a+' seconds');Xi(a.c,a.a*1000)}else{Vj&&($wnd.console.debug('Disabling heartbeat'),undefined);Wi(a.c)}}
+function qs(a){var b,c,d,e;b=IA(eu(Ic(gk(a.a,Xf),10).e,5),'parameters');e=(Zz(b.a),Ic(b.g,6));d=eu(e,6);c=new $wnd.Map;HA(d,Qi(Cs.prototype._,Cs,[c]));return c}
+function Mu(a,b){var c,d;if(!b){debugger;throw Gi(new iD)}d=b.e;c=d.e;if(Il(Ic(gk(a.c,Xd),50),b)||!Eu(a,c)){return}ct(Ic(gk(a.c,Df),32),c,d.d,b.f,(Zz(b.a),b.g))}
+function an(){var a,b,c,d;b=$doc.head.childNodes;c=b.length;for(d=0;d<c;d++){a=b.item(d);if(a.nodeType==8&&iE('Stylesheet end',a.nodeValue)){return a}}return null}
+function Vw(a,b){var c,d,e;Ww(a,b);e=IA(b,uI);Zz(e.a);e.c&&yx(Ic(gk(b.e.g.c,td),8),a,uI,(Zz(e.a),e.g));c=IA(b,vI);Zz(c.a);if(c.c){d=(Zz(c.a),Si(c.g));zC(a.style,d)}}
+function Aj(a,b){if(!b){Vr(Ic(gk(a.a,nf),19))}else{Ls(Ic(gk(a.a,zf),16));lr(Ic(gk(a.a,lf),21),b)}tC($wnd,'pagehide',new Jj(a),false);tC($wnd,'pageshow',new Lj,false)}
+function ko(a,b){if(b.c!=a.b.c+1){throw Gi(new RD('Tried to move from state '+qo(a.b)+' to '+(b.b!=null?b.b:''+b.c)+' which is not allowed'))}a.b=b;HB(a.a,new no(a))}
+function zr(a){var b;if(a==null){return null}if(!iE(a.substr(0,9),'for(;;);[')||(b=']'.length,!iE(a.substr(a.length-b,b),']'))){return null}return sE(a,9,a.length-1)}
+function Ki(b,c,d,e){Ji();var f=Hi;$moduleName=c;$moduleBase=d;Ei=e;function g(){for(var a=0;a<f.length;a++){f[a]()}}
+if(b){try{QG(g)()}catch(a){b(c,a)}}else{QG(g)()}}
+function ic(a){var b,c,d,e;b='hc';c='hb';e=$wnd.Math.min(a.length,5);for(d=e-1;d>=0;d--){if(iE(a[d].d,b)||iE(a[d].d,c)){a.length>=d+1&&a.splice(0,d+1);break}}return a}
+function _s(a,b,c,d,e,f){var g;g={};g[kH]='attachExistingElement';g[ZH]=WC(b.d);g[_H]=Object(c);g[aI]=Object(d);g['attachTagName']=e;g['attachIndex']=Object(f);bt(a,g)}
+function km(a){var b=typeof $wnd.Polymer===TG&&$wnd.Polymer.Element&&a instanceof $wnd.Polymer.Element;var c=a.constructor.polymerElementVersion!==undefined;return b||c}
+function Ov(a,b,c,d){var e,f,g,h;h=du(b,c);Zz(h.a);if(h.c.length>0){f=Nc(a.Z());for(e=0;e<(Zz(h.a),h.c.length);e++){g=Pc(h.c[e]);Wv(f,g,b,d)}}return sA(h,new Sv(a,b,d))}
+function fx(a,b){var c,d,e,f,g;c=vz(b).childNodes;for(e=0;e<c.length;e++){d=Nc(c[e]);for(f=0;f<(Zz(a.a),a.c.length);f++){g=Ic(a.c[f],6);if(K(d,g.a)){return d}}}return null}
+function vE(a){var b;b=0;while(0<=(b=a.indexOf('\\',b))){EG(b+1,a.length);a.charCodeAt(b+1)==36?(a=a.substr(0,b)+'$'+rE(a,++b)):(a=a.substr(0,b)+(''+rE(a,++b)))}return a}
+function Qt(a){var b,c,d;if(!!a.a||!Bu(a.g,a.d)){return false}if(JA(eu(a,0),dI)){d=Jz(IA(eu(a,0),dI));if(Vc(d)){b=Nc(d);c=b[kH];return iE('@id',c)||iE(eI,c)}}return false}
+function cn(a,b){var c,d,e,f;ak('Loaded '+b.a);f=b.a;e=Mc(a.a.get(f));a.b.add(f);a.a.delete(f);if(e!=null&&e.length!=0){for(c=0;c<e.length;c++){d=Ic(e[c],24);!!d&&d.bb(b)}}}
+function Ur(a){switch(a.d){case 0:Vj&&($wnd.console.log('Resynchronize from server requested'),undefined);a.d=1;return true;case 1:return true;case 2:default:return false;}}
+function Nu(a,b){if(a.f==b){debugger;throw Gi(new jD('Inconsistent state tree updating status, expected '+(b?'no ':'')+' updates in progress.'))}a.f=b;Hl(Ic(gk(a.c,Xd),50))}
+function qb(a){var b;if(a.c==null){b=_c(a.b)===_c(ob)?null:a.b;a.d=b==null?ZG:Vc(b)?tb(Nc(b)):Xc(b)?'String':sD(M(b));a.a=a.a+': '+(Vc(b)?sb(Nc(b)):b+'');a.c='('+a.d+') '+a.a}}
+function en(a,b,c){var d,e;d=new An(b);if(a.b.has(b)){!!c&&c.bb(d);return}if(nn(b,c,a.a)){e=$doc.createElement(CH);e.textContent=b;e.type=pH;on(e,new Bn(a),d);DC($doc.head,e)}}
+function tr(a){var b,c,d;for(b=0;b<a.g.length;b++){c=Ic(a.g[b],60);d=ir(c.a);if(d!=-1&&d<a.f+1){Vj&&LC($wnd.console,'Removing old message with id '+d);a.g.splice(b,1)[0];--b}}}
+function Ni(){Mi={};!Array.isArray&&(Array.isArray=function(a){return Object.prototype.toString.call(a)===SG});function b(){return (new Date).getTime()}
+!Date.now&&(Date.now=b)}
+function ur(a,b){a.j.delete(b);if(a.j.size==0){Wi(a.c);if(a.g.length!=0){Vj&&($wnd.console.log('No more response handling locks, handling pending requests.'),undefined);mr(a)}}}
+function _u(a,b){var c,d,e,f,g,h;h=new $wnd.Set;e=b.length;for(d=0;d<e;d++){c=b[d];if(iE('attach',c[kH])){g=ad(VC(c[ZH]));if(g!=a.e.d){f=new lu(g,a);Iu(a,f);h.add(f)}}}return h}
+function az(a,b){var c,d,e;if(!a.c.has(7)){debugger;throw Gi(new iD)}if($y.has(a)){return}$y.set(a,(mD(),true));d=eu(a,7);e=IA(d,'text');c=new uB(new gz(b,e));au(a,new iz(a,c))}
+function XB(a){var b,c;b=a.indexOf(' crios/');if(b==-1){b=a.indexOf(' chrome/');b==-1?(b=a.indexOf(DI)+16):(b+=8);c=bC(a,b);_B(cC(a,b,b+c))}else{b+=7;c=bC(a,b);_B(cC(a,b,b+c))}}
+function Sn(a){var b=document.getElementsByTagName(a);for(var c=0;c<b.length;++c){var d=b[c];d.$server.disconnected=function(){};d.parentNode.replaceChild(d.cloneNode(false),d)}}
+function jt(a,b){if(Ic(gk(a.d,De),12).b!=(Ao(),yo)){Vj&&($wnd.console.warn('Trying to invoke method on not yet started or stopped application'),undefined);return}a.c[a.c.length]=b}
+function Sm(){if(typeof $wnd.Vaadin.Flow.gwtStatsEvents==RG){delete $wnd.Vaadin.Flow.gwtStatsEvents;typeof $wnd.__gwtStatsEvent==TG&&($wnd.__gwtStatsEvent=function(){return true})}}
+function hp(a){if(a.g==null){return false}if(!iE(a.g,IH)){return false}if(JA(eu(Ic(gk(Ic(gk(a.d,vf),48).a,Xf),10).e,5),'alwaysXhrToServer')){return false}a.f==(Mp(),Jp);return true}
+function Hb(b,c,d){var e,f;e=Fb();try{if(S){try{return Eb(b,c,d)}catch(a){a=Fi(a);if(Sc(a,5)){f=a;Mb(f,true);return undefined}else throw Gi(a)}}else{return Eb(b,c,d)}}finally{Ib(e)}}
+function sC(a,b){var c,d;if(b.length==0){return a}c=null;d=kE(a,uE(35));if(d!=-1){c=a.substr(d);a=a.substr(0,d)}a.indexOf('?')!=-1?(a+='&'):(a+='?');a+=b;c!=null&&(a+=''+c);return a}
+function sw(a,b,c){var d;if(!b.b){debugger;throw Gi(new jD(sI+b.e.d+yH))}d=eu(b.e,0);Qz(IA(d,cI),(mD(),Fu(b.e)?true:false));Zw(a,b,c);return Gz(IA(eu(b.e,0),'visible'),new Nx(a,b,c))}
+function QB(b,c,d){var e,f;try{fj(b,new SB(d));b.open('GET',c,true);b.send(null)}catch(a){a=Fi(a);if(Sc(a,31)){e=a;Vj&&KC($wnd.console,e);f=e;Nn(f.v());ej(b)}else throw Gi(a)}return b}
+function _m(a){var b;b=an();!b&&Vj&&($wnd.console.error("Expected to find a 'Stylesheet end' comment inside <head> but none was found. Appending instead."),undefined);EC($doc.head,a,b)}
+function MD(a){LD==null&&(LD=new RegExp('^\\s*[+-]?(NaN|Infinity|((\\d+\\.?\\d*)|(\\.\\d+))([eE][+-]?\\d+)?[dDfF]?)\\s*$'));if(!LD.test(a)){throw Gi(new cE(LI+a+'"'))}return parseFloat(a)}
+function tE(a){var b,c,d;c=a.length;d=0;while(d<c&&(EG(d,a.length),a.charCodeAt(d)<=32)){++d}b=c;while(b>d&&(EG(b-1,a.length),a.charCodeAt(b-1)<=32)){--b}return d>0||b<c?a.substr(d,b-d):a}
+function bn(a,b){var c,d,e,f;Nn((Ic(gk(a.c,ye),22),'Error loading '+b.a));f=b.a;e=Mc(a.a.get(f));a.a.delete(f);if(e!=null&&e.length!=0){for(c=0;c<e.length;c++){d=Ic(e[c],24);!!d&&d.ab(b)}}}
+function dt(a,b,c,d,e){var f;f={};f[kH]='publishedEventHandler';f[ZH]=WC(b.d);f['templateEventMethodName']=c;f['templateEventMethodArgs']=d;e!=-1&&(f['promise']=Object(e),undefined);bt(a,f)}
+function hm(a){var b,c,d,e,f,g;e=null;c=eu(a.f,1);f=(g=[],HA(c,Qi(VA.prototype._,VA,[g])),g);for(b=0;b<f.length;b++){d=Pc(f[b]);if(K(a,Jz(IA(c,d)))){e=d;break}}if(e==null){return null}return e}
+function Xv(a,b,c,d){var e,f,g,h,i,j;if(JA(eu(d,18),c)){f=[];e=Ic(gk(d.g.c,Of),57);i=Pc(Jz(IA(eu(d,18),c)));g=Mc(Ht(e,i));for(j=0;j<g.length;j++){h=Pc(g[j]);f[j]=Yv(a,b,d,h)}return f}return null}
+function $u(a,b){var c;if(!('featType' in a)){debugger;throw Gi(new jD("Change doesn't contain feature type. Don't know how to populate feature"))}c=ad(VC(a[kI]));UC(a['featType'])?du(b,c):eu(b,c)}
+function uE(a){var b,c;if(a>=65536){b=55296+(a-65536>>10&1023)&65535;c=56320+(a-65536&1023)&65535;return String.fromCharCode(b)+(''+String.fromCharCode(c))}else{return String.fromCharCode(a&65535)}}
+function Ib(a){a&&Sb((Qb(),Pb));--yb;if(yb<0){debugger;throw Gi(new jD('Negative entryDepth value at exit '+yb))}if(a){if(yb!=0){debugger;throw Gi(new jD('Depth not 0'+yb))}if(Cb!=-1){Nb(Cb);Cb=-1}}}
+function CB(a,b){var c,d,e,f;if(SC(b)==1){c=b;f=ad(VC(c[0]));switch(f){case 0:{e=ad(VC(c[1]));return d=e,Ic(a.a.get(d),6)}case 1:case 2:return null;default:throw Gi(new RD(AI+TC(c)));}}else{return null}}
+function Mq(a){this.c=new Nq(this);this.b=a;Lq(this,Ic(gk(a,td),8).d);this.d=Ic(gk(a,td),8).h;this.d=sC(this.d,'v-r=heartbeat');this.d=sC(this.d,HH+(''+Ic(gk(a,td),8).k));jo(Ic(gk(a,De),12),new Sq(this))}
+function vx(a,b,c,d,e){var f,g,h,i,j,k,l;f=false;for(i=0;i<c.length;i++){g=c[i];l=VC(g[0]);if(l==0){f=true;continue}k=new $wnd.Set;for(j=1;j<g.length;j++){k.add(g[j])}h=nv(qv(a,b,l),k,d,e);f=f|h}return f}
+function hn(a,b,c,d,e){var f,g,h;h=Jo(b);f=new An(h);if(a.b.has(h)){!!c&&c.bb(f);return}if(nn(h,c,a.a)){g=$doc.createElement(CH);g.src=h;g.type=e;g.async=false;g.defer=d;on(g,new Bn(a),f);DC($doc.head,g)}}
+function Yv(a,b,c,d){var e,f,g,h,i;if(!iE(d.substr(0,5),YH)||iE('event.model.item',d)){return iE(d.substr(0,YH.length),YH)?(g=cw(d),h=g(b,a),i={},i[vH]=WC(VC(h[vH])),i):Zv(c.a,d)}e=cw(d);f=e(b,a);return f}
+function _B(a){var b,c,d,e;b=kE(a,uE(46));b<0&&(b=a.length);d=cC(a,0,b);$B(d,'Browser major');c=lE(a,uE(46),b+1);if(c<0){if(a.substr(b).length==0){return}c=a.length}e=oE(cC(a,b+1,c),'');$B(e,'Browser minor')}
+function yj(f,b,c){var d=f;var e=$wnd.Vaadin.Flow.clients[b];e.isActive=QG(function(){return d.Q()});e.getVersionInfo=QG(function(a){return {'flow':c}});e.debug=QG(function(){var a=d.a;return a.X().Db().Ab()})}
+function Xr(a){if(Ic(gk(a.c,De),12).b!=(Ao(),yo)){Vj&&($wnd.console.warn('Trying to send RPC from not yet started or stopped application'),undefined);return}if(Ic(gk(a.c,zf),16).b||!!a.b&&!gp(a.b));else{Rr(a)}}
+function Fb(){var a;if(yb<0){debugger;throw Gi(new jD('Negative entryDepth value at entry '+yb))}if(yb!=0){a=xb();if(a-Bb>2000){Bb=a;Cb=$wnd.setTimeout(Ob,10)}}if(yb++==0){Rb((Qb(),Pb));return true}return false}
+function Gp(a){var b,c,d;if(a.a>=a.b.length){debugger;throw Gi(new iD)}if(a.a==0){c=''+a.b.length+'|';b=4095-c.length;d=c+sE(a.b,0,$wnd.Math.min(a.b.length,b));a.a+=b}else{d=Fp(a,a.a,a.a+4095);a.a+=4095}return d}
+function mr(a){var b,c,d,e;if(a.g.length==0){return false}e=-1;for(b=0;b<a.g.length;b++){c=Ic(a.g[b],60);if(nr(a,ir(c.a))){e=b;break}}if(e!=-1){d=Ic(a.g.splice(e,1)[0],60);kr(a,d.a);return true}else{return false}}
+function cq(a,b){var c,d;c=b.status;Vj&&MC($wnd.console,'Heartbeat request returned '+c);if(c==403){Pn(Ic(gk(a.c,ye),22),null);d=Ic(gk(a.c,De),12);d.b!=(Ao(),zo)&&ko(d,zo)}else if(c==404);else{_p(a,(yq(),vq),null)}}
+function qq(a,b){var c,d;c=b.b.status;Vj&&MC($wnd.console,'Server returned '+c+' for xhr');if(c==401){Is(Ic(gk(a.c,zf),16));Pn(Ic(gk(a.c,ye),22),'');d=Ic(gk(a.c,De),12);d.b!=(Ao(),zo)&&ko(d,zo);return}else{_p(a,(yq(),xq),b.a)}}
+function Lo(c){return JSON.stringify(c,function(a,b){if(b instanceof Node){throw 'Message JsonObject contained a dom node reference which should not be sent to the server and can cause a cyclic dependecy.'}return b})}
+function qv(a,b,c){mv();var d,e,f;e=Oc(lv.get(a),$wnd.Map);if(e==null){e=new $wnd.Map;lv.set(a,e)}f=Oc(e.get(b),$wnd.Map);if(f==null){f=new $wnd.Map;e.set(b,f)}d=Ic(f.get(c),79);if(!d){d=new pv(a,b,c);f.set(c,d)}return d}
+function VB(a){var b,c,d,e,f;f=a.indexOf('; cros ');if(f==-1){return}c=lE(a,uE(41),f);if(c==-1){return}b=c;while(b>=f&&(EG(b,a.length),a.charCodeAt(b)!=32)){--b}if(b==f){return}d=a.substr(b+1,c-(b+1));e=qE(d,'\\.');WB(e)}
+function Jt(a,b){var c,d,e,f,g,h;if(!b){debugger;throw Gi(new iD)}for(d=(g=YC(b),g),e=0,f=d.length;e<f;++e){c=d[e];if(a.a.has(c)){debugger;throw Gi(new iD)}h=b[c];if(!(!!h&&SC(h)!=5)){debugger;throw Gi(new iD)}a.a.set(c,h)}}
+function Eu(a,b){var c;c=true;if(!b){Vj&&($wnd.console.warn(gI),undefined);c=false}else if(K(b.g,a)){if(!K(b,Bu(a,b.d))){Vj&&($wnd.console.warn(iI),undefined);c=false}}else{Vj&&($wnd.console.warn(hI),undefined);c=false}return c}
+function kw(a){var b,c,d,e,f;d=du(a.e,2);d.b&&Tw(a.b);for(f=0;f<(Zz(d.a),d.c.length);f++){c=Ic(d.c[f],6);e=Ic(gk(c.g.c,Vd),58);b=Cl(e,c.d);if(b){Dl(e,c.d);ju(c,b);jv(c)}else{b=jv(c);vz(a.b).appendChild(b)}}return sA(d,new Vx(a))}
+function pn(b){for(var c=0;c<$doc.styleSheets.length;c++){if($doc.styleSheets[c].href===b){var d=$doc.styleSheets[c];try{var e=d.cssRules;e===undefined&&(e=d.rules);if(e===null){return 1}return e.length}catch(a){return 1}}}return -1}
+function qn(b,c,d,e){try{var f=c.Z();if(!(f instanceof $wnd.Promise)){throw new Error('The expression "'+b+'" result is not a Promise.')}f.then(function(a){d.I()},function(a){console.error(a);e.I()})}catch(a){console.error(a);e.I()}}
+function ov(a){var b,c;if(a.f){vv(a.f);a.f=null}if(a.e){vv(a.e);a.e=null}b=Oc(lv.get(a.c),$wnd.Map);if(b==null){return}c=Oc(b.get(a.d),$wnd.Map);if(c==null){return}c.delete(a.j);if(c.size==0){b.delete(a.d);b.size==0&&lv.delete(a.c)}}
+function Sw(a,b,c){var d;d=Qi(ny.prototype._,ny,[]);c.forEach(Qi(py.prototype.db,py,[d]));b.c.forEach(d);b.d.forEach(Qi(ry.prototype._,ry,[]));a.forEach(Qi(zx.prototype.db,zx,[]));if(dw==null){debugger;throw Gi(new iD)}dw.delete(b.e)}
+function pw(g,b,c){if(km(c)){g.Jb(b,c)}else if(om(c)){var d=g;try{var e=$wnd.customElements.whenDefined(c.localName);var f=new Promise(function(a){setTimeout(a,1000)});Promise.race([e,f]).then(function(){km(c)&&d.Jb(b,c)})}catch(a){}}}
+function Is(a){if(!a.b){throw Gi(new SD('endRequest called when no request is active'))}a.b=false;(Ic(gk(a.c,De),12).b==(Ao(),yo)&&Ic(gk(a.c,Hf),34).b||Ic(gk(a.c,nf),19).d==1)&&Xr(Ic(gk(a.c,nf),19));fo((Qb(),Pb),new Ns(a));Js(a,new Ts)}
+function wx(a,b,c,d,e,f){var g,h,i,j,k,l,m,n,o,p,q;o=true;g=false;for(j=(q=YC(c),q),k=0,l=j.length;k<l;++k){i=j[k];p=c[i];n=SC(p)==1;if(!n&&!p){continue}o=false;m=!!d&&UC(d[i]);if(n&&m){h='on-'+b+':'+i;m=vx(a,h,p,e,f)}g=g|m}return o||g}
+function Oi(a,b,c){var d=Mi,h;var e=d[a];var f=e instanceof Array?e[0]:null;if(e&&!f){_=e}else{_=(h=b&&b.prototype,!h&&(h=Mi[b]),Ri(h));_.hc=c;!b&&(_.ic=Ti);d[a]=_}for(var g=3;g<arguments.length;++g){arguments[g].prototype=_}f&&(_.gc=f)}
+function _l(a,b){var c,d,e,f,g,h,i,j;c=a.a;e=a.c;i=a.d.length;f=Ic(a.e,27).e;j=em(f);if(!j){bk(wH+f.d+xH);return}d=[];c.forEach(Qi(Pm.prototype.db,Pm,[d]));if(km(j.a)){g=gm(j,f,null);if(g!=null){rm(j.a,g,e,i,d);return}}h=Mc(b);sz(h,e,i,d)}
+function RB(b,c,d,e,f){var g;try{fj(b,new SB(f));b.open('POST',c,true);b.setRequestHeader('Content-type',e);b.withCredentials=true;b.send(d)}catch(a){a=Fi(a);if(Sc(a,31)){g=a;Vj&&KC($wnd.console,g);f.jb(b,g);ej(b)}else throw Gi(a)}return b}
+function dm(a,b){var c,d,e;c=a;for(d=0;d<b.length;d++){e=b[d];c=cm(c,ad(RC(e)))}if(c){return c}else !c?Vj&&MC($wnd.console,"There is no element addressed by the path '"+b+"'"):Vj&&MC($wnd.console,'The node addressed by path '+b+yH);return null}
+function yr(b){var c,d;if(b==null){return null}d=Rm.ib();try{c=JSON.parse(b);ak('JSON parsing took '+(''+Um(Rm.ib()-d,3))+'ms');return c}catch(a){a=Fi(a);if(Sc(a,7)){Vj&&KC($wnd.console,'Unable to parse JSON: '+b);return null}else throw Gi(a)}}
+function Tr(a,b,c){var d,e,f,g,h,i,j,k;i={};d=Ic(gk(a.c,lf),21).b;iE(d,'init')||(i['csrfToken']=d,undefined);i['rpc']=b;i[QH]=WC(Ic(gk(a.c,lf),21).f);i[TH]=WC(a.a++);if(c){for(f=(j=YC(c),j),g=0,h=f.length;g<h;++g){e=f[g];k=c[e];i[e]=k}}return i}
+function sB(){var a;if(oB){return}try{oB=true;while(nB!=null&&nB.length!=0||pB!=null&&pB.length!=0){while(nB!=null&&nB.length!=0){a=Ic(nB.splice(0,1)[0],15);a.cb()}if(pB!=null&&pB.length!=0){a=Ic(pB.splice(0,1)[0],15);a.cb()}}}finally{oB=false}}
+function Aw(a,b){var c,d,e,f,g,h;f=b.b;if(a.b){Tw(f)}else{h=a.d;for(g=0;g<h.length;g++){e=Ic(h[g],6);d=e.a;if(!d){debugger;throw Gi(new jD("Can't find element to remove"))}vz(d).parentNode==f&&vz(f).removeChild(d)}}c=a.a;c.length==0||fw(a.c,b,c)}
+function Xw(a,b){var c,d,e;d=a.f;Zz(a.a);if(a.c){e=(Zz(a.a),a.g);c=b[d];(c===undefined||!(_c(c)===_c(e)||c!=null&&K(c,e)||c==e))&&tB(null,new Tx(b,d,e))}else Object.prototype.hasOwnProperty.call(b,d)?(delete b[d],undefined):(b[d]=null,undefined)}
+function cp(a){var b,c;c=Go(Ic(gk(a.d,Ee),49),a.h);c=sC(c,'v-r=push');c=sC(c,HH+(''+Ic(gk(a.d,td),8).k));b=Ic(gk(a.d,lf),21).h;b!=null&&(c=sC(c,'v-pushId='+b));Vj&&($wnd.console.log('Establishing push connection'),undefined);a.c=c;a.e=ep(a,c,a.a)}
+function Iu(a,b){var c;if(b.g!=a){debugger;throw Gi(new iD)}if(b.i){debugger;throw Gi(new jD("Can't re-register a node"))}c=b.d;if(a.a.has(c)){debugger;throw Gi(new jD('Node '+c+' is already registered'))}a.a.set(c,b);a.f&&Ll(Ic(gk(a.c,Xd),50),b)}
+function ED(a){if(a.Wb()){var b=a.c;b.Xb()?(a.i='['+b.h):!b.Wb()?(a.i='[L'+b.Ub()+';'):(a.i='['+b.Ub());a.b=b.Tb()+'[]';a.g=b.Vb()+'[]';return}var c=a.f;var d=a.d;d=d.split('/');a.i=HD('.',[c,HD('$',d)]);a.b=HD('.',[c,HD('.',d)]);a.g=d[d.length-1]}
+function ut(a,b){var c,d,e;d=new At(a);d.a=b;zt(d,Rm.ib());c=Lo(b);e=PB(sC(sC(Ic(gk(a.a,td),8).h,'v-r=uidl'),HH+(''+Ic(gk(a.a,td),8).k)),c,KH,d);Vj&&LC($wnd.console,'Sending xhr message to server: '+c);a.b&&(!Pj&&(Pj=new Rj),Pj).a.l&&Xi(new xt(a,e),250)}
+function xw(b,c,d){var e,f,g;if(!c){return -1}try{g=vz(Nc(c));while(g!=null){f=Cu(b,g);if(f){return f.d}g=vz(g.parentNode)}}catch(a){a=Fi(a);if(Sc(a,7)){e=a;Wj(tI+c+', returned by an event data expression '+d+'. Error: '+e.v())}else throw Gi(a)}return -1}
+function $v(f){var e='}p';Object.defineProperty(f,e,{value:function(a,b,c){var d=this[e].promises[a];if(d!==undefined){delete this[e].promises[a];b?d[0](c):d[1](Error('Something went wrong. Check server-side logs for more information.'))}}});f[e].promises=[]}
+function ku(a){var b,c;if(Bu(a.g,a.d)){debugger;throw Gi(new jD('Node should no longer be findable from the tree'))}if(a.i){debugger;throw Gi(new jD('Node is already unregistered'))}a.i=true;c=new $t;b=mz(a.h);b.forEach(Qi(ru.prototype.db,ru,[c]));a.h.clear()}
+function fn(a,b,c){var d,e;d=new An(b);if(a.b.has(b)){!!c&&c.bb(d);return}if(nn(b,c,a.a)){e=$doc.createElement('style');e.textContent=b;e.type='text/css';(!Pj&&(Pj=new Rj),Pj).a.j||Sj()||(!Pj&&(Pj=new Rj),Pj).a.i?Xi(new vn(a,b,d),5000):on(e,new xn(a),d);_m(e)}}
+function iv(a){gv();var b,c,d;b=null;for(c=0;c<fv.length;c++){d=Ic(fv[c],303);if(d.Hb(a)){if(b){debugger;throw Gi(new jD('Found two strategies for the node : '+M(b)+', '+M(d)))}b=d}}if(!b){throw Gi(new RD('State node has no suitable binder strategy'))}return b}
+function GG(a,b){var c,d,e,f;a=a;c=new BE;f=0;d=0;while(d<b.length){e=a.indexOf('%s',f);if(e==-1){break}zE(c,a.substr(f,e-f));yE(c,b[d++]);f=e+2}zE(c,a.substr(f));if(d<b.length){c.a+=' [';yE(c,b[d++]);while(d<b.length){c.a+=', ';yE(c,b[d++])}c.a+=']'}return c.a}
+function HB(b,c){var d,e,f,g,h,i;try{++b.b;h=(e=JB(b,c.L()),e);d=null;for(i=0;i<h.length;i++){g=h[i];try{c.K(g)}catch(a){a=Fi(a);if(Sc(a,7)){f=a;d==null&&(d=[]);d[d.length]=f}else throw Gi(a)}}if(d!=null){throw Gi(new mb(Ic(d[0],5)))}}finally{--b.b;b.b==0&&KB(b)}}
+function Kb(g){Db();function h(a,b,c,d,e){if(!e){e=a+' ('+b+':'+c;d&&(e+=':'+d);e+=')'}var f=ib(e);Mb(f,false)}
+;function i(a){var b=a.onerror;if(b&&!g){return}a.onerror=function(){h.apply(this,arguments);b&&b.apply(this,arguments);return false}}
+i($wnd);i(window)}
+function Iz(a,b){var c,d,e;c=(Zz(a.a),a.c?(Zz(a.a),a.g):null);(_c(b)===_c(c)||b!=null&&K(b,c))&&(a.d=false);if(!((_c(b)===_c(c)||b!=null&&K(b,c))&&(Zz(a.a),a.c))&&!a.d){d=a.e.e;e=d.g;if(Du(e,d)){Hz(a,b);return new kA(a,e)}else{Wz(a.a,new oA(a,c,c));sB()}}return Ez}
+function SC(a){var b;if(a===null){return 5}b=typeof a;if(iE('string',b)){return 2}else if(iE('number',b)){return 3}else if(iE('boolean',b)){return 4}else if(iE(RG,b)){return Object.prototype.toString.apply(a)===SG?1:0}debugger;throw Gi(new jD('Unknown Json Type'))}
+function bv(a,b){var c,d,e,f,g;if(a.f){debugger;throw Gi(new jD('Previous tree change processing has not completed'))}try{Nu(a,true);f=_u(a,b);e=b.length;for(d=0;d<e;d++){c=b[d];if(!iE('attach',c[kH])){g=av(a,c);!!g&&f.add(g)}}return f}finally{Nu(a,false);a.d=false}}
+function dp(a,b){if(!b){debugger;throw Gi(new iD)}switch(a.f.c){case 0:a.f=(Mp(),Lp);a.b=b;break;case 1:Vj&&($wnd.console.log('Closing push connection'),undefined);pp(a.c);a.f=(Mp(),Kp);b.C();break;case 2:case 3:throw Gi(new SD('Can not disconnect more than once'));}}
+function iw(a){var b,c,d,e,f;c=eu(a.e,20);f=Ic(Jz(IA(c,rI)),6);if(f){b=new $wnd.Function(qI,"if ( element.shadowRoot ) { return element.shadowRoot; } else { return element.attachShadow({'mode' : 'open'});}");e=Nc(b.call(null,a.b));!f.a&&ju(f,e);d=new Dx(f,e,a.a);kw(d)}}
+function $l(a,b,c){var d,e,f,g,h,i;f=b.f;if(f.c.has(1)){h=hm(b);if(h==null){return null}c.push(h)}else if(f.c.has(16)){e=fm(b);if(e==null){return null}c.push(e)}if(!K(f,a)){return $l(a,f,c)}g=new AE;i='';for(d=c.length-1;d>=0;d--){zE((g.a+=i,g),Pc(c[d]));i='.'}return g.a}
+function np(a,b){var c,d,e,f,g;if(rp()){kp(b.a)}else{f=(Ic(gk(a.d,td),8).f?(e='VAADIN/static/push/vaadinPush-min.js'):(e='VAADIN/static/push/vaadinPush.js'),e);Vj&&LC($wnd.console,'Loading '+f);d=Ic(gk(a.d,se),56);g=Ic(gk(a.d,td),8).h+f;c=new Cp(a,f,b);hn(d,g,c,false,pH)}}
+function DB(a,b){var c,d,e,f,g,h;if(SC(b)==1){c=b;h=ad(VC(c[0]));switch(h){case 0:{g=ad(VC(c[1]));d=(f=g,Ic(a.a.get(f),6)).a;return d}case 1:return e=Mc(c[1]),e;case 2:return BB(ad(VC(c[1])),ad(VC(c[2])),Ic(gk(a.c,Df),32));default:throw Gi(new RD(AI+TC(c)));}}else{return b}}
+function jr(a,b){var c,d,e,f,g;Vj&&($wnd.console.log('Handling dependencies'),undefined);c=new $wnd.Map;for(e=(pC(),Dc(xc(wh,1),WG,42,0,[nC,mC,oC])),f=0,g=e.length;f<g;++f){d=e[f];XC(b,d.b!=null?d.b:''+d.c)&&c.set(d,b[d.b!=null?d.b:''+d.c])}c.size==0||Ik(Ic(gk(a.i,Sd),72),c)}
+function cv(a,b){var c,d,e,f,g;f=Zu(a,b);if(sH in a){e=a[sH];g=e;Qz(f,g)}else if('nodeValue' in a){d=ad(VC(a['nodeValue']));c=Bu(b.g,d);if(!c){debugger;throw Gi(new iD)}c.f=b;Qz(f,c)}else{debugger;throw Gi(new jD('Change should have either value or nodeValue property: '+Lo(a)))}}
+function lp(a,b){a.g=b[JH];switch(a.f.c){case 0:a.f=(Mp(),Ip);iq(Ic(gk(a.d,Oe),17));break;case 2:a.f=(Mp(),Ip);if(!a.b){debugger;throw Gi(new iD)}dp(a,a.b);break;case 1:break;default:throw Gi(new SD('Got onOpen event when connection state is '+a.f+'. This should never happen.'));}}
+function NG(a){var b,c,d,e;b=0;d=a.length;e=d-4;c=0;while(c<e){b=(EG(c+3,a.length),a.charCodeAt(c+3)+(EG(c+2,a.length),31*(a.charCodeAt(c+2)+(EG(c+1,a.length),31*(a.charCodeAt(c+1)+(EG(c,a.length),31*(a.charCodeAt(c)+31*b)))))));b=b|0;c+=4}while(c<d){b=b*31+hE(a,c++)}b=b|0;return b}
+function To(){Po();if(No||!($wnd.Vaadin.Flow!=null)){Vj&&($wnd.console.warn('vaadinBootstrap.js was not loaded, skipping vaadin application configuration.'),undefined);return}No=true;$wnd.performance&&typeof $wnd.performance.now==TG?(Rm=new Xm):(Rm=new Vm);Sm();Wo((Db(),$moduleName))}
+function $b(b,c){var d,e,f,g;if(!b){debugger;throw Gi(new jD('tasks'))}for(e=0,f=b.length;e<f;e++){if(b.length!=f){debugger;throw Gi(new jD(aH+b.length+' != '+f))}g=b[e];try{g[1]?g[0].B()&&(c=Zb(c,g)):g[0].C()}catch(a){a=Fi(a);if(Sc(a,5)){d=a;Db();Mb(d,true)}else throw Gi(a)}}return c}
+function Nt(a,b){var c,d,e,f,g,h,i,j,k,l;l=Ic(gk(a.a,Xf),10);g=b.length-1;i=zc(bi,WG,2,g+1,6,1);j=[];e=new $wnd.Map;for(d=0;d<g;d++){h=b[d];f=DB(l,h);j.push(f);i[d]='$'+d;k=CB(l,h);if(k){if(Qt(k)||!Pt(a,k)){_t(k,new Ut(a,b));return}e.set(f,k)}}c=b[b.length-1];i[i.length-1]=c;Ot(a,i,j,e)}
+function Zw(a,b,c){var d,e;if(!b.b){debugger;throw Gi(new jD(sI+b.e.d+yH))}e=eu(b.e,0);d=b.b;if(ux(b.e)&&Fu(b.e)){Sw(a,b,c);qB(new Px(d,e,b))}else if(Fu(b.e)){Qz(IA(e,cI),(mD(),true));Vw(d,e)}else{Ww(d,e);yx(Ic(gk(e.e.g.c,td),8),d,uI,(mD(),lD));jm(d)&&(d.style.display='none',undefined)}}
+function W(d,b){if(b instanceof Object){try{b.__java$exception=d;if(navigator.userAgent.toLowerCase().indexOf('msie')!=-1&&$doc.documentMode<9){return}var c=d;Object.defineProperties(b,{cause:{get:function(){var a=c.u();return a&&a.s()}},suppressed:{get:function(){return c.t()}}})}catch(a){}}}
+function nv(a,b,c,d){var e;e=b.has('leading')&&!a.e&&!a.f;if(!e&&(b.has(nI)||b.has(oI))){a.b=c;a.a=d;!b.has(oI)&&(!a.e||a.i==null)&&(a.i=d);a.g=null;a.h=null}if(b.has('leading')||b.has(nI)){!a.e&&(a.e=new zv(a));vv(a.e);wv(a.e,ad(a.j))}if(!a.f&&b.has(oI)){a.f=new Bv(a,b);xv(a.f,ad(a.j))}return e}
+function dn(a){var b,c,d,e,f,g,h,i,j,k;b=$doc;j=b.getElementsByTagName(CH);for(f=0;f<j.length;f++){c=j.item(f);k=c.src;k!=null&&k.length!=0&&a.b.add(k)}h=b.getElementsByTagName('link');for(e=0;e<h.length;e++){g=h.item(e);i=g.rel;d=g.href;(jE(DH,i)||jE('import',i))&&d!=null&&d.length!=0&&a.b.add(d)}}
+function Zr(a,b,c){if(b==a.a){return}if(c){ak('Forced update of clientId to '+a.a);a.a=b;return}if(b>a.a){a.a==0?Vj&&LC($wnd.console,'Updating client-to-server id to '+b+' based on server'):bk('Server expects next client-to-server id to be '+b+' but we were going to use '+a.a+'. Will use '+b+'.');a.a=b}}
+function on(a,b,c){a.onload=QG(function(){a.onload=null;a.onerror=null;a.onreadystatechange=null;b.bb(c)});a.onerror=QG(function(){a.onload=null;a.onerror=null;a.onreadystatechange=null;b.ab(c)});a.onreadystatechange=function(){('loaded'===a.readyState||'complete'===a.readyState)&&a.onload(arguments[0])}}
+function jn(a,b,c){var d,e,f;f=Jo(b);d=new An(f);if(a.b.has(f)){!!c&&c.bb(d);return}if(nn(f,c,a.a)){e=$doc.createElement('link');e.rel=DH;e.type='text/css';e.href=f;if((!Pj&&(Pj=new Rj),Pj).a.j||Sj()){ac((Qb(),new rn(a,f,d)),10)}else{on(e,new En(a,f),d);(!Pj&&(Pj=new Rj),Pj).a.i&&Xi(new tn(a,f,d),5000)}_m(e)}}
+function Yw(a,b){var c,d,e,f,g,h;c=a.f;d=b.style;Zz(a.a);if(a.c){h=(Zz(a.a),Pc(a.g));e=false;if(h.indexOf('!important')!=-1){f=GC($doc,b.tagName);g=f.style;g.cssText=c+': '+h+';';if(iE('important',xC(f.style,c))){AC(d,c,yC(f.style,c),'important');e=true}}e||(d.setProperty(c,h),undefined)}else{d.removeProperty(c)}}
+function Xp(a){var b,c,d,e;Lz((c=eu(Ic(gk(Ic(gk(a.c,xf),35).a,Xf),10).e,9),IA(c,OH)))!=null&&Tj('reconnectingText',Lz((d=eu(Ic(gk(Ic(gk(a.c,xf),35).a,Xf),10).e,9),IA(d,OH))));Lz((e=eu(Ic(gk(Ic(gk(a.c,xf),35).a,Xf),10).e,9),IA(e,PH)))!=null&&Tj('offlineText',Lz((b=eu(Ic(gk(Ic(gk(a.c,xf),35).a,Xf),10).e,9),IA(b,PH))))}
+function cm(a,b){var c,d,e,f,g;c=vz(a).children;e=-1;for(f=0;f<c.length;f++){g=c.item(f);if(!g){debugger;throw Gi(new jD('Unexpected element type in the collection of children. DomElement::getChildren is supposed to return Element chidren only, but got '+Qc(g)))}d=g;jE('style',d.tagName)||++e;if(e==b){return g}}return null}
+function Rn(a,b,c,d,e,f){var g,h,i;if(b==null&&c==null&&d==null){Ic(gk(a.a,td),8).l?(h=Ic(gk(a.a,td),8).h+'web-component/web-component-bootstrap.js',i=sC(h,'v-r=webcomponent-resync'),OB(i,new Vn(a)),undefined):Ko(e);return}g=On(b,c,d,f);if(!Ic(gk(a.a,td),8).l){tC(g,'click',new ao(e),false);tC($doc,'keydown',new co(e),false)}}
+function fw(a,b,c){var d,e,f,g,h,i,j,k;j=du(b.e,2);if(a==0){d=fx(j,b.b)}else if(a<=(Zz(j.a),j.c.length)&&a>0){k=zw(a,b);d=!k?null:vz(k.a).nextSibling}else{d=null}for(g=0;g<c.length;g++){i=c[g];h=Ic(i,6);f=Ic(gk(h.g.c,Vd),58);e=Cl(f,h.d);if(e){Dl(f,h.d);ju(h,e);jv(h)}else{e=jv(h);vz(b.b).insertBefore(e,d)}d=vz(e).nextSibling}}
+function yw(b,c){var d,e,f,g,h;if(!c){return -1}try{h=vz(Nc(c));f=[];f.push(b);for(e=0;e<f.length;e++){g=Ic(f[e],6);if(h.isSameNode(g.a)){return g.d}uA(du(g,2),Qi(Ly.prototype.db,Ly,[f]))}h=vz(h.parentNode);return hx(f,h)}catch(a){a=Fi(a);if(Sc(a,7)){d=a;Wj(tI+c+', which was the event.target. Error: '+d.v())}else throw Gi(a)}return -1}
+function hr(a){if(a.j.size==0){bk('Gave up waiting for message '+(a.f+1)+' from the server')}else{Vj&&($wnd.console.warn('WARNING: reponse handling was never resumed, forcibly removing locks...'),undefined);a.j.clear()}if(!mr(a)&&a.g.length!=0){kz(a.g);Ur(Ic(gk(a.i,nf),19));Ic(gk(a.i,zf),16).b&&Is(Ic(gk(a.i,zf),16));Vr(Ic(gk(a.i,nf),19))}}
+function Ek(a,b,c){var d,e;e=Ic(gk(a.a,se),56);d=c==(pC(),nC);switch(b.c){case 0:if(d){return new Pk(e)}return new Uk(e);case 1:if(d){return new Zk(e)}return new nl(e);case 2:if(d){throw Gi(new RD('Inline load mode is not supported for JsModule.'))}return new pl(e);case 3:return new _k;default:throw Gi(new RD('Unknown dependency type '+b));}}
+function rr(b,c){var d,e,f,g;f=Ic(gk(b.i,Xf),10);g=bv(f,c['changes']);if(!Ic(gk(b.i,td),8).f){try{d=cu(f.e);Vj&&($wnd.console.log('StateTree after applying changes:'),undefined);Vj&&LC($wnd.console,d)}catch(a){a=Fi(a);if(Sc(a,7)){e=a;Vj&&($wnd.console.error('Failed to log state tree'),undefined);Vj&&KC($wnd.console,e)}else throw Gi(a)}}rB(new Nr(g))}
+function Wv(n,k,l,m){Vv();n[k]=QG(function(c){var d=Object.getPrototypeOf(this);d[k]!==undefined&&d[k].apply(this,arguments);var e=c||$wnd.event;var f=l.Bb();var g=Xv(this,e,k,l);g===null&&(g=Array.prototype.slice.call(arguments));var h;var i=-1;if(m){var j=this['}p'].promises;i=j.length;h=new Promise(function(a,b){j[i]=[a,b]})}f.Eb(l,k,g,i);return h})}
+function Dk(a,b,c){var d,e,f,g,h;f=new $wnd.Map;for(e=0;e<c.length;e++){d=c[e];h=(hC(),wo((lC(),kC),d[kH]));g=Ek(a,h,b);if(h==dC){Jk(d['url'],g)}else{switch(b.c){case 1:Jk(Go(Ic(gk(a.a,Ee),49),d['url']),g);break;case 2:f.set(Go(Ic(gk(a.a,Ee),49),d['url']),g);break;case 0:Jk(d['contents'],g);break;default:throw Gi(new RD('Unknown load mode = '+b));}}}return f}
+function qE(a,b){var c,d,e,f,g,h,i,j;c=new RegExp(b,'g');i=zc(bi,WG,2,0,6,1);d=0;j=a;f=null;while(true){h=c.exec(j);if(h==null||j==''){i[d]=j;break}else{g=h.index;i[d]=j.substr(0,g);j=sE(j,g+h[0].length,j.length);c.lastIndex=0;if(f==j){i[d]=j.substr(0,1);j=j.substr(1)}f=j;++d}}if(a.length>0){e=i.length;while(e>0&&i[e-1]==''){--e}e<i.length&&(i.length=e)}return i}
+function Yp(a,b){if(Ic(gk(a.c,De),12).b!=(Ao(),yo)){Vj&&($wnd.console.warn('Trying to reconnect after application has been stopped. Giving up'),undefined);return}if(b){Vj&&($wnd.console.log('Re-sending last message to the server...'),undefined);Wr(Ic(gk(a.c,nf),19),b)}else{Vj&&($wnd.console.log('Trying to re-establish server connection...'),undefined);Kq(Ic(gk(a.c,Ye),55))}}
+function ND(a){var b,c,d,e,f;if(a==null){throw Gi(new cE(ZG))}d=a.length;e=d>0&&(EG(0,a.length),a.charCodeAt(0)==45||(EG(0,a.length),a.charCodeAt(0)==43))?1:0;for(b=e;b<d;b++){if(pD((EG(b,a.length),a.charCodeAt(b)))==-1){throw Gi(new cE(LI+a+'"'))}}f=parseInt(a,10);c=f<-2147483648;if(isNaN(f)){throw Gi(new cE(LI+a+'"'))}else if(c||f>2147483647){throw Gi(new cE(LI+a+'"'))}return f}
+function $w(a,b,c,d){var e,f,g,h,i;i=du(a,24);for(f=0;f<(Zz(i.a),i.c.length);f++){e=Ic(i.c[f],6);if(e==b){continue}if(iE((h=eu(b,0),TC(Nc(Jz(IA(h,dI))))),(g=eu(e,0),TC(Nc(Jz(IA(g,dI))))))){bk('There is already a request to attach element addressed by the '+d+". The existing request's node id='"+e.d+"'. Cannot attach the same element twice.");Lu(b.g,a,b.d,e.d,c);return false}}return true}
+function Rr(a){var b,c,d;d=Ic(gk(a.c,Hf),34);if(d.c.length==0&&a.d!=1){return}c=d.c;d.c=[];d.b=false;d.a=ht;if(c.length==0&&a.d!=1){Vj&&($wnd.console.warn('All RPCs filtered out, not sending anything to the server'),undefined);return}b={};if(a.d==1){a.d=2;Vj&&($wnd.console.log('Resynchronizing from server'),undefined);b[RH]=Object(true)}Uj('loading');Ls(Ic(gk(a.c,zf),16));Wr(a,Tr(a,c,b))}
+function wc(a,b){var c;switch(yc(a)){case 6:return Xc(b);case 7:return Uc(b);case 8:return Tc(b);case 3:return Array.isArray(b)&&(c=yc(b),!(c>=14&&c<=16));case 11:return b!=null&&Yc(b);case 12:return b!=null&&(typeof b===RG||typeof b==TG);case 0:return Hc(b,a.__elementTypeId$);case 2:return Zc(b)&&!(b.ic===Ti);case 1:return Zc(b)&&!(b.ic===Ti)||Hc(b,a.__elementTypeId$);default:return true;}}
+function rl(b,c){if(document.body.$&&document.body.$.hasOwnProperty&&document.body.$.hasOwnProperty(c)){return document.body.$[c]}else if(b.shadowRoot){return b.shadowRoot.getElementById(c)}else if(b.getElementById){return b.getElementById(c)}else if(c&&c.match('^[a-zA-Z0-9-_]*$')){return b.querySelector('#'+c)}else{return Array.from(b.querySelectorAll('[id]')).find(function(a){return a.id==c})}}
+function mp(a,b){var c,d;if(!hp(a)){throw Gi(new SD('This server to client push connection should not be used to send client to server messages'))}if(a.f==(Mp(),Ip)){d=Lo(b);ak('Sending push ('+a.g+') message to server: '+d);if(iE(a.g,IH)){c=new Hp(d);while(c.a<c.b.length){fp(a.e,Gp(c))}}else{fp(a.e,d)}return}if(a.f==Jp){hq(Ic(gk(a.d,Oe),17),b);return}throw Gi(new SD('Can not push after disconnecting'))}
+function _p(a,b,c){var d;if(Ic(gk(a.c,De),12).b!=(Ao(),yo)){return}Uj('reconnecting');if(a.b){if(zq(b,a.b)){Vj&&MC($wnd.console,'Now reconnecting because of '+b+' failure');a.b=b}}else{a.b=b;Vj&&MC($wnd.console,'Reconnecting because of '+b+' failure')}if(a.b!=b){return}++a.a;ak('Reconnect attempt '+a.a+' for '+b);a.a>=Kz((d=eu(Ic(gk(Ic(gk(a.c,xf),35).a,Xf),10).e,9),IA(d,'reconnectAttempts')),10000)?Zp(a):nq(a,c)}
+function sl(a,b,c,d){var e,f,g,h,i,j,k,l,m,n,o,p,q,r;j=null;g=vz(a.a).childNodes;o=new $wnd.Map;e=!b;i=-1;for(m=0;m<g.length;m++){q=Nc(g[m]);o.set(q,XD(m));K(q,b)&&(e=true);if(e&&!!q&&jE(c,q.tagName)){j=q;i=m;break}}if(!j){Ku(a.g,a,d,-1,c,-1)}else{p=du(a,2);k=null;f=0;for(l=0;l<(Zz(p.a),p.c.length);l++){r=Ic(p.c[l],6);h=r.a;n=Ic(o.get(h),25);!!n&&n.a<i&&++f;if(K(h,j)){k=XD(r.d);break}}k=tl(a,d,j,k);Ku(a.g,a,d,k.a,j.tagName,f)}}
+function dv(a,b){var c,d,e,f,g,h,i,j,k,l,m,n,o,p,q;n=ad(VC(a[kI]));m=du(b,n);i=ad(VC(a['index']));lI in a?(o=ad(VC(a[lI]))):(o=0);if('add' in a){d=a['add'];c=(j=Mc(d),j);wA(m,i,o,c)}else if('addNodes' in a){e=a['addNodes'];l=e.length;c=[];q=b.g;for(h=0;h<l;h++){g=ad(VC(e[h]));f=(k=g,Ic(q.a.get(k),6));if(!f){debugger;throw Gi(new jD('No child node found with id '+g))}f.f=b;c[h]=f}wA(m,i,o,c)}else{p=m.c.splice(i,o);Wz(m.a,new Cz(m,i,p,[],false))}}
+function av(a,b){var c,d,e,f,g,h,i;g=b[kH];e=ad(VC(b[ZH]));d=(c=e,Ic(a.a.get(c),6));if(!d&&a.d){return d}if(!d){debugger;throw Gi(new jD('No attached node found'))}switch(g){case 'empty':$u(b,d);break;case 'splice':dv(b,d);break;case 'put':cv(b,d);break;case lI:f=Zu(b,d);Pz(f);break;case 'detach':Ou(d.g,d);d.f=null;break;case 'clear':h=ad(VC(b[kI]));i=du(d,h);tA(i);break;default:{debugger;throw Gi(new jD('Unsupported change type: '+g))}}return d}
+function Zl(a){var b,c,d,e,f;if(Sc(a,6)){e=Ic(a,6);d=null;if(e.c.has(1)){d=eu(e,1)}else if(e.c.has(16)){d=du(e,16)}else if(e.c.has(23)){return Zl(IA(eu(e,23),sH))}if(!d){debugger;throw Gi(new jD("Don't know how to convert node without map or list features"))}b=d.Pb(new tm);if(!!b&&!(vH in b)){b[vH]=WC(e.d);pm(e,d,b)}return b}else if(Sc(a,13)){f=Ic(a,13);if(f.e.d==23){return Zl((Zz(f.a),f.g))}else{c={};c[f.f]=Zl((Zz(f.a),f.g));return c}}else{return a}}
+function ep(f,c,d){var e=f;d.url=c;d.onOpen=QG(function(a){e.sb(a)});d.onReopen=QG(function(a){e.ub(a)});d.onMessage=QG(function(a){e.rb(a)});d.onError=QG(function(a){e.qb(a)});d.onTransportFailure=QG(function(a,b){e.vb(a)});d.onClose=QG(function(a){e.pb(a)});d.onReconnect=QG(function(a,b){e.tb(a,b)});d.onClientTimeout=QG(function(a){e.ob(a)});d.headers={'X-Vaadin-LastSeenServerSyncId':function(){return e.nb()}};return $wnd.vaadinPush.atmosphere.subscribe(d)}
+function hw(a,b){var c,d,e;d=(c=eu(b,0),Nc(Jz(IA(c,dI))));e=d[kH];if(iE('inMemory',e)){jv(b);return}if(!a.b){debugger;throw Gi(new jD('Unexpected html node. The node is supposed to be a custom element'))}if(iE('@id',e)){if(Vl(a.b)){Wl(a.b,new dy(a,b,d));return}else if(!(typeof a.b.$!=_G)){Yl(a.b,new fy(a,b,d));return}Cw(a,b,d,true)}else if(iE(eI,e)){if(!a.b.root){Yl(a.b,new hy(a,b,d));return}Ew(a,b,d,true)}else{debugger;throw Gi(new jD('Unexpected payload type '+e))}}
+function Mt(h,e,f){var g={};g.getNode=QG(function(a){var b=e.get(a);if(b==null){throw new ReferenceError('There is no a StateNode for the given argument.')}return b});g.$appId=h.zb().replace(/-\d+$/,'');g.registry=h.a;g.attachExistingElement=QG(function(a,b,c,d){sl(g.getNode(a),b,c,d)});g.populateModelProperties=QG(function(a,b){vl(g.getNode(a),b)});g.registerUpdatableModelProperties=QG(function(a,b){xl(g.getNode(a),b)});g.stopApplication=QG(function(){f.I()});return g}
+function yx(a,b,c,d){var e,f,g,h,i;if(d==null||Xc(d)){Mo(b,c,Pc(d))}else{f=d;if(0==SC(f)){g=f;if(!('uri' in g)){debugger;throw Gi(new jD("Implementation error: JsonObject is recieved as an attribute value for '"+c+"' but it has no "+'uri'+' key'))}i=g['uri'];if(a.l&&!i.match(/^(?:[a-zA-Z]+:)?\/\//)){e=a.h;e=(h='/'.length,iE(e.substr(e.length-h,h),'/')?e:e+'/');vz(b).setAttribute(c,e+(''+i))}else{i==null?vz(b).removeAttribute(c):vz(b).setAttribute(c,i)}}else{Mo(b,c,Si(d))}}}
+function Dw(a,b,c){var d,e,f,g,h,i,j,k,l,m,n,o,p;p=Ic(c.e.get(Og),77);if(!p||!p.a.has(a)){return}k=qE(a,'\\.');g=c;f=null;e=0;j=k.length;for(m=k,n=0,o=m.length;n<o;++n){l=m[n];d=eu(g,1);if(!JA(d,l)&&e<j-1){Vj&&JC($wnd.console,"Ignoring property change for property '"+a+"' which isn't defined from server");return}f=IA(d,l);Sc((Zz(f.a),f.g),6)&&(g=(Zz(f.a),Ic(f.g,6)));++e}if(Sc((Zz(f.a),f.g),6)){h=(Zz(f.a),Ic(f.g,6));i=Nc(b.a[b.b]);if(!(vH in i)||h.c.has(16)){return}}Iz(f,b.a[b.b]).I()}
+function Bj(a){var b,c,d,e,f,g,h,i;this.a=new rk(this,a);T((Ic(gk(this.a,ye),22),new Hj));f=Ic(gk(this.a,Xf),10).e;es(f,Ic(gk(this.a,rf),73));new uB(new Fs(Ic(gk(this.a,Oe),17)));h=eu(f,10);Uq(h,'first',new Xq,450);Uq(h,'second',new Zq,1500);Uq(h,'third',new _q,5000);i=IA(h,'theme');Gz(i,new br);c=$doc.body;ju(f,c);hv(f,c);ak('Starting application '+a.a);b=a.a;b=pE(b,'-\\d+$','');d=a.f;e=a.g;zj(this,b,d,e,a.c);if(!d){g=a.i;yj(this,b,g);Vj&&LC($wnd.console,'Vaadin application servlet version: '+g)}Uj('loading')}
+function lr(a,b){var c,d;if(!b){throw Gi(new RD('The json to handle cannot be null'))}if((QH in b?b[QH]:-1)==-1){c=b['meta'];(!c||!(WH in c))&&Vj&&($wnd.console.error("Response didn't contain a server id. Please verify that the server is up-to-date and that the response data has not been modified in transmission."),undefined)}d=Ic(gk(a.i,De),12).b;if(d==(Ao(),xo)){d=yo;ko(Ic(gk(a.i,De),12),d)}d==yo?kr(a,b):Vj&&($wnd.console.warn('Ignored received message because application has already been stopped'),undefined)}
+function Wb(a){var b,c,d,e,f,g,h;if(!a){debugger;throw Gi(new jD('tasks'))}f=a.length;if(f==0){return null}b=false;c=new R;while(xb()-c.a<16){d=false;for(e=0;e<f;e++){if(a.length!=f){debugger;throw Gi(new jD(aH+a.length+' != '+f))}h=a[e];if(!h){continue}d=true;if(!h[1]){debugger;throw Gi(new jD('Found a non-repeating Task'))}if(!h[0].B()){a[e]=null;b=true}}if(!d){break}}if(b){g=[];for(e=0;e<f;e++){!!a[e]&&(g[g.length]=a[e],undefined)}if(g.length>=f){debugger;throw Gi(new iD)}return g.length==0?null:g}else{return a}}
+function ix(a,b,c,d,e){var f,g,h;h=Bu(e,ad(a));if(!h.c.has(1)){return}if(!dx(h,b)){debugger;throw Gi(new jD('Host element is not a parent of the node whose property has changed. This is an implementation error. Most likely it means that there are several StateTrees on the same page (might be possible with portlets) and the target StateTree should not be passed into the method as an argument but somehow detected from the host element. Another option is that host element is calculated incorrectly.'))}f=eu(h,1);g=IA(f,c);Iz(g,d).I()}
+function On(a,b,c,d){var e,f,g,h,i,j;h=$doc;j=h.createElement('div');j.className='v-system-error';if(a!=null){f=h.createElement('div');f.className='caption';f.textContent=a;j.appendChild(f);Vj&&KC($wnd.console,a)}if(b!=null){i=h.createElement('div');i.className='message';i.textContent=b;j.appendChild(i);Vj&&KC($wnd.console,b)}if(c!=null){g=h.createElement('div');g.className='details';g.textContent=c;j.appendChild(g);Vj&&KC($wnd.console,c)}if(d!=null){e=h.querySelector(d);!!e&&CC(Nc(oF(sF(e.shadowRoot),e)),j)}else{DC(h.body,j)}return j}
+function Vo(a,b){var c,d,e;c=bp(b,'serviceUrl');vj(a,_o(b,'webComponentMode'));if(c==null){rj(a,Jo('.'));lj(a,Jo(bp(b,FH)))}else{a.h=c;lj(a,Jo(c+(''+bp(b,FH))))}uj(a,ap(b,'v-uiId').a);nj(a,ap(b,'heartbeatInterval').a);oj(a,ap(b,'maxMessageSuspendTimeout').a);sj(a,(d=b.getConfig(GH),d?d.vaadinVersion:null));e=b.getConfig(GH);$o();tj(a,b.getConfig('sessExpMsg'));pj(a,!_o(b,'debug'));qj(a,_o(b,'requestTiming'));mj(a,b.getConfig('webcomponents'));_o(b,'devToolsEnabled');bp(b,'liveReloadUrl');bp(b,'liveReloadBackend');bp(b,'springBootLiveReloadPort')}
+function qc(a,b){var c,d,e,f,g,h,i,j,k;j='';if(b.length==0){return a.G(dH,bH,-1,-1)}k=tE(b);iE(k.substr(0,3),'at ')&&(k=k.substr(3));k=k.replace(/\[.*?\]/g,'');g=k.indexOf('(');if(g==-1){g=k.indexOf('@');if(g==-1){j=k;k=''}else{j=tE(k.substr(g+1));k=tE(k.substr(0,g))}}else{c=k.indexOf(')',g);j=k.substr(g+1,c-(g+1));k=tE(k.substr(0,g))}g=kE(k,uE(46));g!=-1&&(k=k.substr(g+1));(k.length==0||iE(k,'Anonymous function'))&&(k=bH);h=mE(j,uE(58));e=nE(j,uE(58),h-1);i=-1;d=-1;f=dH;if(h!=-1&&e!=-1){f=j.substr(0,e);i=kc(j.substr(e+1,h-(e+1)));d=kc(j.substr(h+1))}return a.G(f,k,i,d)}
+function rk(a,b){this.a=new $wnd.Map;this.b=new $wnd.Map;jk(this,yd,a);jk(this,td,b);jk(this,se,new ln(this));jk(this,Ee,new Ho(this));jk(this,Sd,new Lk(this));jk(this,ye,new Tn(this));kk(this,De,new sk);jk(this,Xf,new Pu(this));jk(this,zf,new Ms(this));jk(this,lf,new vr(this));jk(this,nf,new _r(this));jk(this,Hf,new mt(this));jk(this,Df,new et(this));jk(this,Sf,new St(this));kk(this,Of,new uk);kk(this,Vd,new wk);jk(this,Xd,new Nl(this));jk(this,Ye,new Mq(this));jk(this,Oe,new sq(this));jk(this,Nf,new vt(this));jk(this,vf,new ts(this));jk(this,xf,new Es(this));jk(this,rf,new ks(this))}
+function wb(b){var c=function(a){return typeof a!=_G};var d=function(a){return a.replace(/\r\n/g,'')};if(c(b.outerHTML))return d(b.outerHTML);c(b.innerHTML)&&b.cloneNode&&$doc.createElement('div').appendChild(b.cloneNode(true)).innerHTML;if(c(b.nodeType)&&b.nodeType==3){return "'"+b.data.replace(/ /g,'\u25AB').replace(/\u00A0/,'\u25AA')+"'"}if(typeof c(b.htmlText)&&b.collapse){var e=b.htmlText;if(e){return 'IETextRange ['+d(e)+']'}else{var f=b.duplicate();f.pasteHTML('|');var g='IETextRange '+d(b.parentElement().outerHTML);f.moveStart('character',-1);f.pasteHTML('');return g}}return b.toString?b.toString():'[JavaScriptObject]'}
+function pm(a,b,c){var d,e,f;f=[];if(a.c.has(1)){if(!Sc(b,41)){debugger;throw Gi(new jD('Received an inconsistent NodeFeature for a node that has a ELEMENT_PROPERTIES feature. It should be NodeMap, but it is: '+b))}e=Ic(b,41);HA(e,Qi(Jm.prototype._,Jm,[f,c]));f.push(GA(e,new Fm(f,c)))}else if(a.c.has(16)){if(!Sc(b,27)){debugger;throw Gi(new jD('Received an inconsistent NodeFeature for a node that has a TEMPLATE_MODELLIST feature. It should be NodeList, but it is: '+b))}d=Ic(b,27);f.push(sA(d,new zm(c)))}if(f.length==0){debugger;throw Gi(new jD('Node should have ELEMENT_PROPERTIES or TEMPLATE_MODELLIST feature'))}f.push(au(a,new Dm(f)))}
+function _w(a,b,c,d,e){var f,g,h,i,j,k,l,m,n,o;l=e.e;o=Pc(Jz(IA(eu(b,0),'tag')));h=false;if(!a){h=true;Vj&&MC($wnd.console,wI+d+" is not found. The requested tag name is '"+o+"'")}else if(!(!!a&&jE(o,a.tagName))){h=true;bk(wI+d+" has the wrong tag name '"+a.tagName+"', the requested tag name is '"+o+"'")}if(h){Lu(l.g,l,b.d,-1,c);return false}if(!l.c.has(20)){return true}k=eu(l,20);m=Ic(Jz(IA(k,rI)),6);if(!m){return true}j=du(m,2);g=null;for(i=0;i<(Zz(j.a),j.c.length);i++){n=Ic(j.c[i],6);f=n.a;if(K(f,a)){g=XD(n.d);break}}if(g){Vj&&MC($wnd.console,wI+d+" has been already attached previously via the node id='"+g+"'");Lu(l.g,l,b.d,g.a,c);return false}return true}
+function Ot(b,c,d,e){var f,g,h,i,j,k,l,m,n;if(c.length!=d.length+1){debugger;throw Gi(new iD)}try{j=new ($wnd.Function.bind.apply($wnd.Function,[null].concat(c)));j.apply(Mt(b,e,new Yt(b)),d)}catch(a){a=Fi(a);if(Sc(a,7)){i=a;Xj(new ck(i));Vj&&($wnd.console.error('Exception is thrown during JavaScript execution. Stacktrace will be dumped separately.'),undefined);if(!Ic(gk(b.a,td),8).f){g=new CE('[');h='';for(l=c,m=0,n=l.length;m<n;++m){k=l[m];zE((g.a+=h,g),k);h=', '}g.a+=']';f=g.a;EG(0,f.length);f.charCodeAt(0)==91&&(f=f.substr(1));hE(f,f.length-1)==93&&(f=sE(f,0,f.length-1));Vj&&KC($wnd.console,"The error has occurred in the JS code: '"+f+"'")}}else throw Gi(a)}}
+function jw(a,b,c,d){var e,f,g,h,i,j,k;g=Fu(b);i=Pc(Jz(IA(eu(b,0),'tag')));if(!(i==null||jE(c.tagName,i))){debugger;throw Gi(new jD("Element tag name is '"+c.tagName+"', but the required tag name is "+Pc(Jz(IA(eu(b,0),'tag')))))}dw==null&&(dw=lz());if(dw.has(b)){return}dw.set(b,(mD(),true));f=new Dx(b,c,d);e=[];h=[];if(g){h.push(mw(f));h.push(Ov(new Jy(f),f.e,17,false));h.push((j=eu(f.e,4),HA(j,Qi(vy.prototype._,vy,[f])),GA(j,new xy(f))));h.push(rw(f));h.push(kw(f));h.push(qw(f));h.push(lw(c,b));h.push(ow(12,new Fx(c),uw(e),b));h.push(ow(3,new Hx(c),uw(e),b));h.push(ow(1,new by(c),uw(e),b));pw(a,b,c);h.push(au(b,new ty(h,f,e)))}h.push(sw(h,f,e));k=new Ex(b);b.e.set(eg,k);rB(new Ny(b))}
+function zj(k,e,f,g,h){var i=k;var j={};j.isActive=QG(function(){return i.Q()});j.getByNodeId=QG(function(a){return i.O(a)});j.getNodeId=QG(function(a){return i.P(a)});j.getUIId=QG(function(){var a=i.a.T();return a.M()});j.addDomBindingListener=QG(function(a,b){i.N(a,b)});j.productionMode=f;j.poll=QG(function(){var a=i.a.V();a.wb()});j.connectWebComponent=QG(function(a){var b=i.a;var c=b.W();var d=b.X().Db().d;c.xb(d,'connect-web-component',a)});g&&(j.getProfilingData=QG(function(){var a=i.a.U();var b=[a.e,a.l];null!=a.k?(b=b.concat(a.k)):(b=b.concat(-1,-1));b[b.length]=a.a;return b}));j.resolveUri=QG(function(a){var b=i.a.Y();return b.mb(a)});j.sendEventMessage=QG(function(a,b,c){var d=i.a.W();d.xb(a,b,c)});j.initializing=false;j.exportedWebComponents=h;$wnd.Vaadin.Flow.clients[e]=j}
+function op(a){var b,c,d,e;this.f=(Mp(),Jp);this.d=a;jo(Ic(gk(a,De),12),new Pp(this));this.a={transport:IH,maxStreamingLength:1000000,fallbackTransport:'long-polling',contentType:KH,reconnectInterval:5000,timeout:-1,maxReconnectOnClose:10000000,trackMessageLength:true,enableProtocol:true,handleOnlineOffline:false,executeCallbackBeforeReconnect:true,messageDelimiter:String.fromCharCode(124)};this.a['logLevel']='debug';qs(Ic(gk(this.d,vf),48)).forEach(Qi(Tp.prototype._,Tp,[this]));c=rs(Ic(gk(this.d,vf),48));if(c==null||tE(c).length==0||iE('/',c)){this.h=LH;d=Ic(gk(a,td),8).h;if(!iE(d,'.')){e='/'.length;iE(d.substr(d.length-e,e),'/')||(d+='/');this.h=d+(''+this.h)}}else{b=Ic(gk(a,td),8).b;e='/'.length;iE(b.substr(b.length-e,e),'/')&&iE(c.substr(0,1),'/')&&(c=c.substr(1));this.h=b+(''+c)+LH}np(this,new Vp(this))}
+function sr(a,b,c,d){var e,f,g,h,i,j,k,l,m;if(!((QH in b?b[QH]:-1)==-1||(QH in b?b[QH]:-1)==a.f)){debugger;throw Gi(new iD)}try{k=xb();i=b;if('constants' in i){e=Ic(gk(a.i,Of),57);f=i['constants'];Jt(e,f)}'changes' in i&&rr(a,i);'execute' in i&&rB(new Jr(a,i));ak('handleUIDLMessage: '+(xb()-k)+' ms');sB();j=b['meta'];if(j){m=Ic(gk(a.i,De),12).b;if(WH in j){if(m!=(Ao(),zo)){Pn(Ic(gk(a.i,ye),22),null);ko(Ic(gk(a.i,De),12),zo)}}else if('appError' in j&&m!=(Ao(),zo)){g=j['appError'];Rn(Ic(gk(a.i,ye),22),g['caption'],g['message'],g['details'],g['url'],g['querySelector']);ko(Ic(gk(a.i,De),12),(Ao(),zo))}}a.e=ad(xb()-d);a.l+=a.e;if(!a.d){a.d=true;h=xr();if(h!=0){l=ad(xb()-h);Vj&&LC($wnd.console,'First response processed '+l+' ms after fetchStart')}a.a=wr()}}finally{ak(' Processing time was '+(''+a.e)+'ms');or(b)&&Is(Ic(gk(a.i,zf),16));ur(a,c)}}
+function Bw(a,b){var c,d,e,f,g,h,i,j,k,l,m,n,o,p,q,r,s,t,u,v,w,A,B,C,D,F,G;if(!b){debugger;throw Gi(new iD)}f=b.b;t=b.e;if(!f){debugger;throw Gi(new jD('Cannot handle DOM event for a Node'))}D=a.type;s=eu(t,4);e=Ic(gk(t.g.c,Of),57);i=Pc(Jz(IA(s,D)));if(i==null){debugger;throw Gi(new iD)}if(!It(e,i)){debugger;throw Gi(new iD)}j=Nc(Ht(e,i));p=(A=YC(j),A);B=new $wnd.Set;p.length==0?(g=null):(g={});for(l=p,m=0,n=l.length;m<n;++m){k=l[m];if(iE(k.substr(0,1),'}')){u=k.substr(1);B.add(u)}else if(iE(k,']')){C=yw(t,a.target);g[']']=Object(C)}else if(iE(k.substr(0,1),']')){r=k.substr(1);h=gx(r);o=h(a,f);C=xw(t.g,o,r);g[k]=Object(C)}else{h=gx(k);o=h(a,f);g[k]=o}}d=new $wnd.Map;B.forEach(Qi(Dy.prototype.db,Dy,[d,b]));v=new Fy(t,D,g);w=wx(f,D,j,g,v,d);if(w){c=false;q=B.size==0;q&&(c=WE((mv(),F=new YE,G=Qi(Dv.prototype._,Dv,[F]),lv.forEach(G),F),v,0)!=-1);if(!c){pz(d).forEach(Qi(Bx.prototype.db,Bx,[]));xx(v.b,v.c,v.a,null)}}}
+function Au(a,b){if(a.b==null){a.b=new $wnd.Map;a.b.set(XD(0),'elementData');a.b.set(XD(1),'elementProperties');a.b.set(XD(2),'elementChildren');a.b.set(XD(3),'elementAttributes');a.b.set(XD(4),'elementListeners');a.b.set(XD(5),'pushConfiguration');a.b.set(XD(6),'pushConfigurationParameters');a.b.set(XD(7),'textNode');a.b.set(XD(8),'pollConfiguration');a.b.set(XD(9),'reconnectDialogConfiguration');a.b.set(XD(10),'loadingIndicatorConfiguration');a.b.set(XD(11),'classList');a.b.set(XD(12),'elementStyleProperties');a.b.set(XD(15),'componentMapping');a.b.set(XD(16),'modelList');a.b.set(XD(17),'polymerServerEventHandlers');a.b.set(XD(18),'polymerEventListenerMap');a.b.set(XD(19),'clientDelegateHandlers');a.b.set(XD(20),'shadowRootData');a.b.set(XD(21),'shadowRootHost');a.b.set(XD(22),'attachExistingElementFeature');a.b.set(XD(24),'virtualChildrenList');a.b.set(XD(23),'basicTypeValue')}return a.b.has(XD(b))?Pc(a.b.get(XD(b))):'Unknown node feature: '+b}
+function kr(a,b){var c,d,e,f,g,h,i,j;f=QH in b?b[QH]:-1;c=RH in b;if(!c&&Ic(gk(a.i,nf),19).d==2){Vj&&($wnd.console.warn('Ignoring message from the server as a resync request is ongoing.'),undefined);return}Ic(gk(a.i,nf),19).d=0;if(c&&!nr(a,f)){ak('Received resync message with id '+f+' while waiting for '+(a.f+1));a.f=f-1;tr(a)}e=a.j.size!=0;if(e||!nr(a,f)){if(e){Vj&&($wnd.console.log('Postponing UIDL handling due to lock...'),undefined)}else{if(f<=a.f){bk(SH+f+' but have already seen '+a.f+'. Ignoring it');or(b)&&Is(Ic(gk(a.i,zf),16));return}ak(SH+f+' but expected '+(a.f+1)+'. Postponing handling until the missing message(s) have been received')}a.g.push(new Gr(b));if(!a.c.f){i=Ic(gk(a.i,td),8).e;Xi(a.c,i)}return}RH in b&&Hu(Ic(gk(a.i,Xf),10));h=xb();d=new I;a.j.add(d);Vj&&($wnd.console.log('Handling message from server'),undefined);Js(Ic(gk(a.i,zf),16),new Ws);if(TH in b){g=b[TH];Zr(Ic(gk(a.i,nf),19),g,RH in b)}f!=-1&&(a.f=f);if('redirect' in b){j=b['redirect']['url'];Vj&&LC($wnd.console,'redirecting to '+j);Ko(j);return}UH in b&&(a.b=b[UH]);VH in b&&(a.h=b[VH]);jr(a,b);a.d||Kk(Ic(gk(a.i,Sd),72));'timings' in b&&(a.k=b['timings']);Ok(new Ar);Ok(new Hr(a,b,d,h))}
+function aC(b){var c,d,e,f,g;b=b.toLowerCase();this.e=b.indexOf('gecko')!=-1&&b.indexOf('webkit')==-1&&b.indexOf(EI)==-1;b.indexOf(' presto/')!=-1;this.k=b.indexOf(EI)!=-1;this.l=!this.k&&b.indexOf('applewebkit')!=-1;this.b=b.indexOf(' chrome/')!=-1||b.indexOf(' crios/')!=-1||b.indexOf(DI)!=-1;this.i=b.indexOf('opera')!=-1;this.f=b.indexOf('msie')!=-1&&!this.i&&b.indexOf('webtv')==-1;this.f=this.f||this.k;this.j=!this.b&&!this.f&&b.indexOf('safari')!=-1;this.d=b.indexOf(' firefox/')!=-1;if(b.indexOf(' edge/')!=-1||b.indexOf(' edg/')!=-1||b.indexOf(FI)!=-1||b.indexOf(GI)!=-1){this.c=true;this.b=false;this.i=false;this.f=false;this.j=false;this.d=false;this.l=false;this.e=false}try{if(this.e){f=b.indexOf('rv:');if(f>=0){g=b.substr(f+3);g=pE(g,HI,'$1');this.a=QD(g)}}else if(this.l){g=rE(b,b.indexOf('webkit/')+7);g=pE(g,II,'$1');this.a=QD(g)}else if(this.k){g=rE(b,b.indexOf(EI)+8);g=pE(g,II,'$1');this.a=QD(g);this.a>7&&(this.a=7)}else this.c&&(this.a=0)}catch(a){a=Fi(a);if(Sc(a,7)){c=a;FE();'Browser engine version parsing failed for: '+b+' '+c.v()}else throw Gi(a)}try{if(this.f){if(b.indexOf('msie')!=-1){if(this.k);else{e=rE(b,b.indexOf('msie ')+5);e=cC(e,0,kE(e,uE(59)));_B(e)}}else{f=b.indexOf('rv:');if(f>=0){g=b.substr(f+3);g=pE(g,HI,'$1');_B(g)}}}else if(this.d){d=b.indexOf(' firefox/')+9;_B(cC(b,d,d+5))}else if(this.b){XB(b)}else if(this.j){d=b.indexOf(' version/');if(d>=0){d+=9;_B(cC(b,d,d+5))}}else if(this.i){d=b.indexOf(' version/');d!=-1?(d+=9):(d=b.indexOf('opera/')+6);_B(cC(b,d,d+5))}else if(this.c){d=b.indexOf(' edge/')+6;b.indexOf(' edg/')!=-1?(d=b.indexOf(' edg/')+5):b.indexOf(FI)!=-1?(d=b.indexOf(FI)+6):b.indexOf(GI)!=-1&&(d=b.indexOf(GI)+8);_B(cC(b,d,d+8))}}catch(a){a=Fi(a);if(Sc(a,7)){c=a;FE();'Browser version parsing failed for: '+b+' '+c.v()}else throw Gi(a)}if(b.indexOf('windows ')!=-1){b.indexOf('windows phone')!=-1}else if(b.indexOf('android')!=-1){UB(b)}else if(b.indexOf('linux')!=-1);else if(b.indexOf('macintosh')!=-1||b.indexOf('mac osx')!=-1||b.indexOf('mac os x')!=-1){this.g=b.indexOf('ipad')!=-1;this.h=b.indexOf('iphone')!=-1;(this.g||this.h)&&YB(b)}else b.indexOf('; cros ')!=-1&&VB(b)}
+var RG='object',SG='[object Array]',TG='function',UG='java.lang',VG='com.google.gwt.core.client',WG={4:1},XG='__noinit__',YG={4:1,7:1,9:1,5:1},ZG='null',$G='com.google.gwt.core.client.impl',_G='undefined',aH='Working array length changed ',bH='anonymous',cH='fnStack',dH='Unknown',eH='must be non-negative',fH='must be positive',gH='com.google.web.bindery.event.shared',hH='com.vaadin.client',iH={66:1},jH={30:1},kH='type',lH={46:1},mH={24:1},nH={14:1},oH={26:1},pH='text/javascript',qH='constructor',rH='properties',sH='value',tH='com.vaadin.client.flow.reactive',uH={15:1},vH='nodeId',wH='Root node for node ',xH=' could not be found',yH=' is not an Element',zH={64:1},AH={81:1},BH={45:1},CH='script',DH='stylesheet',EH='com.vaadin.flow.shared',FH='contextRootUrl',GH='versionInfo',HH='v-uiId=',IH='websocket',JH='transport',KH='application/json; charset=UTF-8',LH='VAADIN/push',MH='com.vaadin.client.communication',NH={89:1},OH='dialogText',PH='dialogTextGaveUp',QH='syncId',RH='resynchronize',SH='Received message with server id ',TH='clientId',UH='Vaadin-Security-Key',VH='Vaadin-Push-ID',WH='sessionExpired',XH='pushServletMapping',YH='event',ZH='node',_H='attachReqId',aI='attachAssignedId',bI='com.vaadin.client.flow',cI='bound',dI='payload',eI='subTemplate',fI={44:1},gI='Node is null',hI='Node is not created for this tree',iI='Node id is not registered with this tree',jI='$server',kI='feat',lI='remove',mI='com.vaadin.client.flow.binding',nI='trailing',oI='intermediate',pI='elemental.util',qI='element',rI='shadowRoot',sI='The HTML node for the StateNode with id=',tI='An error occurred when Flow tried to find a state node matching the element ',uI='hidden',vI='styleDisplay',wI='Element addressed by the ',xI='dom-repeat',yI='dom-change',zI='com.vaadin.client.flow.nodefeature',AI='Unsupported complex type in ',BI='com.vaadin.client.gwt.com.google.web.bindery.event.shared',CI='OS minor',DI=' headlesschrome/',EI='trident/',FI=' edga/',GI=' edgios/',HI='(\\.[0-9]+).+',II='([0-9]+\\.[0-9]+).*',JI='com.vaadin.flow.shared.ui',KI='java.io',LI='For input string: "',MI='java.util',NI='java.util.stream',OI='Index: ',QI=', Size: ',RI='user.agent';var _,Mi,Hi,Ei=-1;$wnd.goog=$wnd.goog||{};$wnd.goog.global=$wnd.goog.global||$wnd;Ni();Oi(1,null,{},I);_.m=function J(a){return H(this,a)};_.n=function L(){return this.gc};_.o=function N(){return IG(this)};_.p=function P(){var a;return sD(M(this))+'@'+(a=O(this)>>>0,a.toString(16))};_.equals=function(a){return this.m(a)};_.hashCode=function(){return this.o()};_.toString=function(){return this.p()};var Ec,Fc,Gc;Oi(67,1,{67:1},tD);_.Sb=function uD(a){var b;b=new tD;b.e=4;a>1?(b.c=AD(this,a-1)):(b.c=this);return b};_.Tb=function zD(){rD(this);return this.b};_.Ub=function BD(){return sD(this)};_.Vb=function DD(){rD(this);return this.g};_.Wb=function FD(){return (this.e&4)!=0};_.Xb=function GD(){return (this.e&1)!=0};_.p=function JD(){return ((this.e&2)!=0?'interface ':(this.e&1)!=0?'':'class ')+(rD(this),this.i)};_.e=0;var qD=1;var Yh=wD(UG,'Object',1);var Lh=wD(UG,'Class',67);Oi(94,1,{},R);_.a=0;var cd=wD(VG,'Duration',94);var S=null;Oi(5,1,{4:1,5:1});_.r=function bb(a){return new Error(a)};_.s=function db(){return this.e};_.t=function eb(){var a;return a=Ic(dG(fG(hF((this.i==null&&(this.i=zc(di,WG,5,0,0,1)),this.i)),new HE),OF(new ZF,new XF,new _F,Dc(xc(si,1),WG,47,0,[(SF(),QF)]))),90),XE(a,zc(Yh,WG,1,a.a.length,5,1))};_.u=function fb(){return this.f};_.v=function gb(){return this.g};_.w=function hb(){Z(this,cb(this.r($(this,this.g))));hc(this)};_.p=function jb(){return $(this,this.v())};_.e=XG;_.j=true;var di=wD(UG,'Throwable',5);Oi(7,5,{4:1,7:1,5:1});var Ph=wD(UG,'Exception',7);Oi(9,7,YG,mb);var Zh=wD(UG,'RuntimeException',9);Oi(53,9,YG,nb);var Uh=wD(UG,'JsException',53);Oi(119,53,YG);var gd=wD($G,'JavaScriptExceptionBase',119);Oi(31,119,{31:1,4:1,7:1,9:1,5:1},rb);_.v=function ub(){return qb(this),this.c};_.A=function vb(){return _c(this.b)===_c(ob)?null:this.b};var ob;var dd=wD(VG,'JavaScriptException',31);var ed=wD(VG,'JavaScriptObject$',0);Oi(305,1,{});var fd=wD(VG,'Scheduler',305);var yb=0,zb=false,Ab,Bb=0,Cb=-1;Oi(129,305,{});_.e=false;_.i=false;var Pb;var kd=wD($G,'SchedulerImpl',129);Oi(130,1,{},bc);_.B=function cc(){this.a.e=true;Tb(this.a);this.a.e=false;return this.a.i=Ub(this.a)};var hd=wD($G,'SchedulerImpl/Flusher',130);Oi(131,1,{},dc);_.B=function ec(){this.a.e&&_b(this.a.f,1);return this.a.i};var jd=wD($G,'SchedulerImpl/Rescuer',131);var fc;Oi(315,1,{});var od=wD($G,'StackTraceCreator/Collector',315);Oi(120,315,{},nc);_.D=function oc(a){var b={},j;var c=[];a[cH]=c;var d=arguments.callee.caller;while(d){var e=(gc(),d.name||(d.name=jc(d.toString())));c.push(e);var f=':'+e;var g=b[f];if(g){var h,i;for(h=0,i=g.length;h<i;h++){if(g[h]===d){return}}}(g||(b[f]=[])).push(d);d=d.caller}};_.F=function pc(a){var b,c,d,e;d=(gc(),a&&a[cH]?a[cH]:[]);c=d.length;e=zc($h,WG,28,c,0,1);for(b=0;b<c;b++){e[b]=new dE(d[b],null,-1)}return e};var ld=wD($G,'StackTraceCreator/CollectorLegacy',120);Oi(316,315,{});_.D=function rc(a){};_.G=function sc(a,b,c,d){return new dE(b,a+'@'+d,c<0?-1:c)};_.F=function tc(a){var b,c,d,e,f,g;e=lc(a);f=zc($h,WG,28,0,0,1);b=0;d=e.length;if(d==0){return f}g=qc(this,e[0]);iE(g.d,bH)||(f[b++]=g);for(c=1;c<d;c++){f[b++]=qc(this,e[c])}return f};var nd=wD($G,'StackTraceCreator/CollectorModern',316);Oi(121,316,{},uc);_.G=function vc(a,b,c,d){return new dE(b,a,-1)};var md=wD($G,'StackTraceCreator/CollectorModernNoSourceMap',121);Oi(40,1,{});_.H=function bj(a){if(a!=this.d){return}this.e||(this.f=null);this.I()};_.d=0;_.e=false;_.f=null;var pd=wD('com.google.gwt.user.client','Timer',40);Oi(322,1,{});_.p=function gj(){return 'An event type'};var sd=wD(gH,'Event',322);Oi(97,1,{},ij);_.o=function jj(){return this.a};_.p=function kj(){return 'Event type'};_.a=0;var hj=0;var qd=wD(gH,'Event/Type',97);Oi(323,1,{});var rd=wD(gH,'EventBus',323);Oi(8,1,{8:1},wj);_.M=function xj(){return this.k};_.d=0;_.e=0;_.f=false;_.g=false;_.k=0;_.l=false;var td=wD(hH,'ApplicationConfiguration',8);Oi(92,1,{92:1},Bj);_.N=function Cj(a,b){_t(Bu(Ic(gk(this.a,Xf),10),a),new Nj(a,b))};_.O=function Dj(a){var b;b=Bu(Ic(gk(this.a,Xf),10),a);return !b?null:b.a};_.P=function Ej(a){var b;b=Cu(Ic(gk(this.a,Xf),10),vz(a));return !b?-1:b.d};_.Q=function Fj(){var a;return Ic(gk(this.a,lf),21).a==0||Ic(gk(this.a,zf),16).b||(a=(Qb(),Pb),!!a&&a.a!=0)};var yd=wD(hH,'ApplicationConnection',92);Oi(146,1,{},Hj);_.q=function Ij(a){var b;b=a;Sc(b,3)?Nn('Assertion error: '+b.v()):Nn(b.v())};var ud=wD(hH,'ApplicationConnection/0methodref$handleError$Type',146);Oi(147,1,{},Jj);_.R=function Kj(a){Yr(Ic(gk(this.a.a,nf),19))};var vd=wD(hH,'ApplicationConnection/lambda$1$Type',147);Oi(148,1,{},Lj);_.R=function Mj(a){$wnd.location.reload()};var wd=wD(hH,'ApplicationConnection/lambda$2$Type',148);Oi(149,1,iH,Nj);_.S=function Oj(a){return Gj(this.b,this.a,a)};_.b=0;var xd=wD(hH,'ApplicationConnection/lambda$3$Type',149);Oi(36,1,{},Rj);var Pj;var zd=wD(hH,'BrowserInfo',36);var Ad=yD(hH,'Command');var Vj=false;Oi(128,1,{},ck);_.I=function dk(){$j(this.a)};var Bd=wD(hH,'Console/lambda$0$Type',128);Oi(127,1,{},ek);_.q=function fk(a){_j(this.a)};var Cd=wD(hH,'Console/lambda$1$Type',127);Oi(153,1,{});_.T=function lk(){return Ic(gk(this,td),8)};_.U=function mk(){return Ic(gk(this,lf),21)};_.V=function nk(){return Ic(gk(this,rf),73)};_.W=function ok(){return Ic(gk(this,Df),32)};_.X=function pk(){return Ic(gk(this,Xf),10)};_.Y=function qk(){return Ic(gk(this,Ee),49)};var ge=wD(hH,'Registry',153);Oi(154,153,{},rk);var Gd=wD(hH,'DefaultRegistry',154);Oi(155,1,jH,sk);_.Z=function tk(){return new lo};var Dd=wD(hH,'DefaultRegistry/0methodref$ctor$Type',155);Oi(156,1,jH,uk);_.Z=function vk(){return new Kt};var Ed=wD(hH,'DefaultRegistry/1methodref$ctor$Type',156);Oi(157,1,jH,wk);_.Z=function xk(){return new El};var Fd=wD(hH,'DefaultRegistry/2methodref$ctor$Type',157);Oi(72,1,{72:1},Lk);var yk,zk,Ak,Bk=0;var Sd=wD(hH,'DependencyLoader',72);Oi(196,1,lH,Pk);_._=function Qk(a,b){fn(this.a,a,Ic(b,24))};var Hd=wD(hH,'DependencyLoader/0methodref$inlineStyleSheet$Type',196);var me=yD(hH,'ResourceLoader/ResourceLoadListener');Oi(192,1,mH,Rk);_.ab=function Sk(a){Yj("'"+a.a+"' could not be loaded.");Mk()};_.bb=function Tk(a){Mk()};var Id=wD(hH,'DependencyLoader/1',192);Oi(197,1,lH,Uk);_._=function Vk(a,b){jn(this.a,a,Ic(b,24))};var Jd=wD(hH,'DependencyLoader/1methodref$loadStylesheet$Type',197);Oi(193,1,mH,Wk);_.ab=function Xk(a){Yj(a.a+' could not be loaded.')};_.bb=function Yk(a){};var Kd=wD(hH,'DependencyLoader/2',193);Oi(198,1,lH,Zk);_._=function $k(a,b){en(this.a,a,Ic(b,24))};var Ld=wD(hH,'DependencyLoader/2methodref$inlineScript$Type',198);Oi(201,1,lH,_k);_._=function al(a,b){gn(a,Ic(b,24))};var Md=wD(hH,'DependencyLoader/3methodref$loadDynamicImport$Type',201);Oi(202,1,nH,bl);_.I=function cl(){Mk()};var Nd=wD(hH,'DependencyLoader/4methodref$endEagerDependencyLoading$Type',202);Oi(342,$wnd.Function,{},dl);_._=function el(a,b){Fk(this.a,this.b,Nc(a),Ic(b,42))};Oi(343,$wnd.Function,{},fl);_._=function gl(a,b){Nk(this.a,Ic(a,46),Pc(b))};Oi(195,1,oH,hl);_.C=function il(){Gk(this.a)};var Od=wD(hH,'DependencyLoader/lambda$2$Type',195);Oi(194,1,{},jl);_.C=function kl(){Hk(this.a)};var Pd=wD(hH,'DependencyLoader/lambda$3$Type',194);Oi(344,$wnd.Function,{},ll);_._=function ml(a,b){Ic(a,46)._(Pc(b),(Ck(),zk))};Oi(199,1,lH,nl);_._=function ol(a,b){Ck();hn(this.a,a,Ic(b,24),true,pH)};var Qd=wD(hH,'DependencyLoader/lambda$8$Type',199);Oi(200,1,lH,pl);_._=function ql(a,b){Ck();hn(this.a,a,Ic(b,24),true,'module')};var Rd=wD(hH,'DependencyLoader/lambda$9$Type',200);Oi(298,1,nH,yl);_.I=function zl(){rB(new Al(this.a,this.b))};var Td=wD(hH,'ExecuteJavaScriptElementUtils/lambda$0$Type',298);var ih=yD(tH,'FlushListener');Oi(297,1,uH,Al);_.cb=function Bl(){vl(this.a,this.b)};var Ud=wD(hH,'ExecuteJavaScriptElementUtils/lambda$1$Type',297);Oi(58,1,{58:1},El);var Vd=wD(hH,'ExistingElementMap',58);Oi(50,1,{50:1},Nl);var Xd=wD(hH,'InitialPropertiesHandler',50);Oi(345,$wnd.Function,{},Pl);_.db=function Ql(a){Kl(this.a,this.b,Kc(a))};Oi(209,1,uH,Rl);_.cb=function Sl(){Gl(this.a,this.b)};var Wd=wD(hH,'InitialPropertiesHandler/lambda$1$Type',209);Oi(346,$wnd.Function,{},Tl);_._=function Ul(a,b){Ol(this.a,Ic(a,13),Pc(b))};var Xl;Oi(286,1,iH,tm);_.S=function um(a){return sm(a)};var Yd=wD(hH,'PolymerUtils/0methodref$createModelTree$Type',286);Oi(366,$wnd.Function,{},vm);_.db=function wm(a){Ic(a,44).Cb()};Oi(365,$wnd.Function,{},xm);_.db=function ym(a){Ic(a,14).I()};Oi(287,1,zH,zm);_.eb=function Am(a){lm(this.a,a)};var Zd=wD(hH,'PolymerUtils/lambda$1$Type',287);Oi(88,1,uH,Bm);_.cb=function Cm(){am(this.b,this.a)};var $d=wD(hH,'PolymerUtils/lambda$10$Type',88);Oi(288,1,{104:1},Dm);_.fb=function Em(a){this.a.forEach(Qi(vm.prototype.db,vm,[]))};var _d=wD(hH,'PolymerUtils/lambda$2$Type',288);Oi(290,1,AH,Fm);_.gb=function Gm(a){mm(this.a,this.b,a)};var ae=wD(hH,'PolymerUtils/lambda$4$Type',290);Oi(289,1,BH,Hm);_.hb=function Im(a){qB(new Bm(this.a,this.b))};var be=wD(hH,'PolymerUtils/lambda$5$Type',289);Oi(363,$wnd.Function,{},Jm);_._=function Km(a,b){var c;nm(this.a,this.b,(c=Ic(a,13),Pc(b),c))};Oi(291,1,BH,Lm);_.hb=function Mm(a){qB(new Bm(this.a,this.b))};var ce=wD(hH,'PolymerUtils/lambda$7$Type',291);Oi(292,1,uH,Nm);_.cb=function Om(){_l(this.a,this.b)};var de=wD(hH,'PolymerUtils/lambda$8$Type',292);Oi(364,$wnd.Function,{},Pm);_.db=function Qm(a){this.a.push(Zl(a))};var Rm;Oi(112,1,{},Vm);_.ib=function Wm(){return (new Date).getTime()};var ee=wD(hH,'Profiler/DefaultRelativeTimeSupplier',112);Oi(111,1,{},Xm);_.ib=function Ym(){return $wnd.performance.now()};var fe=wD(hH,'Profiler/HighResolutionTimeSupplier',111);Oi(338,$wnd.Function,{},Zm);_._=function $m(a,b){hk(this.a,Ic(a,30),Ic(b,67))};Oi(56,1,{56:1},ln);_.d=false;var se=wD(hH,'ResourceLoader',56);Oi(185,1,{},rn);_.B=function sn(){var a;a=pn(this.d);if(pn(this.d)>0){cn(this.b,this.c);return false}else if(a==0){bn(this.b,this.c);return true}else if(Q(this.a)>60000){bn(this.b,this.c);return false}else{return true}};var he=wD(hH,'ResourceLoader/1',185);Oi(186,40,{},tn);_.I=function un(){this.a.b.has(this.c)||bn(this.a,this.b)};var ie=wD(hH,'ResourceLoader/2',186);Oi(190,40,{},vn);_.I=function wn(){this.a.b.has(this.c)?cn(this.a,this.b):bn(this.a,this.b)};var je=wD(hH,'ResourceLoader/3',190);Oi(191,1,mH,xn);_.ab=function yn(a){bn(this.a,a)};_.bb=function zn(a){cn(this.a,a)};var ke=wD(hH,'ResourceLoader/4',191);Oi(61,1,{},An);var le=wD(hH,'ResourceLoader/ResourceLoadEvent',61);Oi(98,1,mH,Bn);_.ab=function Cn(a){bn(this.a,a)};_.bb=function Dn(a){cn(this.a,a)};var ne=wD(hH,'ResourceLoader/SimpleLoadListener',98);Oi(184,1,mH,En);_.ab=function Fn(a){bn(this.a,a)};_.bb=function Gn(a){var b;if((!Pj&&(Pj=new Rj),Pj).a.b||(!Pj&&(Pj=new Rj),Pj).a.f||(!Pj&&(Pj=new Rj),Pj).a.c){b=pn(this.b);if(b==0){bn(this.a,a);return}}cn(this.a,a)};var oe=wD(hH,'ResourceLoader/StyleSheetLoadListener',184);Oi(187,1,jH,Hn);_.Z=function In(){return this.a.call(null)};var pe=wD(hH,'ResourceLoader/lambda$0$Type',187);Oi(188,1,nH,Jn);_.I=function Kn(){this.b.bb(this.a)};var qe=wD(hH,'ResourceLoader/lambda$1$Type',188);Oi(189,1,nH,Ln);_.I=function Mn(){this.b.ab(this.a)};var re=wD(hH,'ResourceLoader/lambda$2$Type',189);Oi(22,1,{22:1},Tn);var ye=wD(hH,'SystemErrorHandler',22);Oi(160,1,{},Vn);_.jb=function Wn(a,b){var c;c=b;Nn(c.v())};_.kb=function Xn(a){var b;ak('Received xhr HTTP session resynchronization message: '+a.responseText);ik(this.a.a);ko(Ic(gk(this.a.a,De),12),(Ao(),yo));b=yr(zr(a.responseText));lr(Ic(gk(this.a.a,lf),21),b);uj(Ic(gk(this.a.a,td),8),b['uiId']);fo((Qb(),Pb),new $n(this))};var ve=wD(hH,'SystemErrorHandler/1',160);Oi(161,1,{},Yn);_.db=function Zn(a){Sn(Pc(a))};var te=wD(hH,'SystemErrorHandler/1/0methodref$recreateNodes$Type',161);Oi(162,1,{},$n);_.C=function _n(){eG(hF(Ic(gk(this.a.a.a,td),8).c),new Yn)};var ue=wD(hH,'SystemErrorHandler/1/lambda$0$Type',162);Oi(158,1,{},ao);_.R=function bo(a){Ko(this.a)};var we=wD(hH,'SystemErrorHandler/lambda$0$Type',158);Oi(159,1,{},co);_.R=function eo(a){Un(this.a,a)};var xe=wD(hH,'SystemErrorHandler/lambda$1$Type',159);Oi(133,129,{},go);_.a=0;var Ae=wD(hH,'TrackingScheduler',133);Oi(134,1,{},ho);_.C=function io(){this.a.a--};var ze=wD(hH,'TrackingScheduler/lambda$0$Type',134);Oi(12,1,{12:1},lo);var De=wD(hH,'UILifecycle',12);Oi(166,322,{},no);_.K=function oo(a){Ic(a,89).lb(this)};_.L=function po(){return mo};var mo=null;var Be=wD(hH,'UILifecycle/StateChangeEvent',166);Oi(20,1,{4:1,29:1,20:1});_.m=function to(a){return this===a};_.o=function uo(){return IG(this)};_.p=function vo(){return this.b!=null?this.b:''+this.c};_.c=0;var Nh=wD(UG,'Enum',20);Oi(59,20,{59:1,4:1,29:1,20:1},Bo);var xo,yo,zo;var Ce=xD(hH,'UILifecycle/UIState',59,Co);Oi(321,1,WG);var uh=wD(EH,'VaadinUriResolver',321);Oi(49,321,{49:1,4:1},Ho);_.mb=function Io(a){return Go(this,a)};var Ee=wD(hH,'URIResolver',49);var No=false,Oo;Oi(113,1,{},Yo);_.C=function Zo(){Uo(this.a)};var Fe=wD('com.vaadin.client.bootstrap','Bootstrapper/lambda$0$Type',113);Oi(99,1,{},op);_.nb=function qp(){return Ic(gk(this.d,lf),21).f};_.ob=function sp(a){this.f=(Mp(),Kp);Rn(Ic(gk(Ic(gk(this.d,Oe),17).c,ye),22),'','Client unexpectedly disconnected. Ensure client timeout is disabled.','',null,null)};_.pb=function tp(a){this.f=(Mp(),Jp);Ic(gk(this.d,Oe),17);Vj&&($wnd.console.log('Push connection closed'),undefined)};_.qb=function up(a){this.f=(Mp(),Kp);$p(Ic(gk(this.d,Oe),17),'Push connection using '+a[JH]+' failed!')};_.rb=function vp(a){var b,c;c=a['responseBody'];b=yr(zr(c));if(!b){gq(Ic(gk(this.d,Oe),17),this,c);return}else{ak('Received push ('+this.g+') message: '+c);lr(Ic(gk(this.d,lf),21),b)}};_.sb=function wp(a){ak('Push connection established using '+a[JH]);lp(this,a)};_.tb=function xp(a,b){this.f==(Mp(),Ip)&&(this.f=Jp);jq(Ic(gk(this.d,Oe),17),this)};_.ub=function yp(a){ak('Push connection re-established using '+a[JH]);lp(this,a)};_.vb=function zp(){bk('Push connection using primary method ('+this.a[JH]+') failed. Trying with '+this.a['fallbackTransport'])};var Ne=wD(MH,'AtmospherePushConnection',99);Oi(242,1,{},Ap);_.C=function Bp(){cp(this.a)};var Ge=wD(MH,'AtmospherePushConnection/0methodref$connect$Type',242);Oi(244,1,mH,Cp);_.ab=function Dp(a){kq(Ic(gk(this.a.d,Oe),17),a.a)};_.bb=function Ep(a){if(rp()){ak(this.c+' loaded');kp(this.b.a)}else{kq(Ic(gk(this.a.d,Oe),17),a.a)}};var He=wD(MH,'AtmospherePushConnection/1',244);Oi(239,1,{},Hp);_.a=0;var Ie=wD(MH,'AtmospherePushConnection/FragmentedMessage',239);Oi(51,20,{51:1,4:1,29:1,20:1},Np);var Ip,Jp,Kp,Lp;var Je=xD(MH,'AtmospherePushConnection/State',51,Op);Oi(241,1,NH,Pp);_.lb=function Qp(a){ip(this.a,a)};var Ke=wD(MH,'AtmospherePushConnection/lambda$0$Type',241);Oi(240,1,oH,Rp);_.C=function Sp(){};var Le=wD(MH,'AtmospherePushConnection/lambda$1$Type',240);Oi(353,$wnd.Function,{},Tp);_._=function Up(a,b){jp(this.a,Pc(a),Pc(b))};Oi(243,1,oH,Vp);_.C=function Wp(){kp(this.a)};var Me=wD(MH,'AtmospherePushConnection/lambda$3$Type',243);var Oe=yD(MH,'ConnectionStateHandler');Oi(213,1,{17:1},sq);_.a=0;_.b=null;var Ue=wD(MH,'DefaultConnectionStateHandler',213);Oi(215,40,{},tq);_.I=function uq(){this.a.d=null;Yp(this.a,this.b)};var Pe=wD(MH,'DefaultConnectionStateHandler/1',215);Oi(62,20,{62:1,4:1,29:1,20:1},Aq);_.a=0;var vq,wq,xq;var Qe=xD(MH,'DefaultConnectionStateHandler/Type',62,Bq);Oi(214,1,NH,Cq);_.lb=function Dq(a){eq(this.a,a)};var Re=wD(MH,'DefaultConnectionStateHandler/lambda$0$Type',214);Oi(216,1,{},Eq);_.R=function Fq(a){Zp(this.a)};var Se=wD(MH,'DefaultConnectionStateHandler/lambda$1$Type',216);Oi(217,1,{},Gq);_.R=function Hq(a){fq(this.a)};var Te=wD(MH,'DefaultConnectionStateHandler/lambda$2$Type',217);Oi(55,1,{55:1},Mq);_.a=-1;var Ye=wD(MH,'Heartbeat',55);Oi(210,40,{},Nq);_.I=function Oq(){Kq(this.a)};var Ve=wD(MH,'Heartbeat/1',210);Oi(212,1,{},Pq);_.jb=function Qq(a,b){!b?cq(Ic(gk(this.a.b,Oe),17),a):bq(Ic(gk(this.a.b,Oe),17),b);Jq(this.a)};_.kb=function Rq(a){dq(Ic(gk(this.a.b,Oe),17));Jq(this.a)};var We=wD(MH,'Heartbeat/2',212);Oi(211,1,NH,Sq);_.lb=function Tq(a){Iq(this.a,a)};var Xe=wD(MH,'Heartbeat/lambda$0$Type',211);Oi(168,1,{},Xq);_.db=function Yq(a){Tj('firstDelay',XD(Ic(a,25).a))};var Ze=wD(MH,'LoadingIndicatorConfigurator/0methodref$setFirstDelay$Type',168);Oi(169,1,{},Zq);_.db=function $q(a){Tj('secondDelay',XD(Ic(a,25).a))};var $e=wD(MH,'LoadingIndicatorConfigurator/1methodref$setSecondDelay$Type',169);Oi(170,1,{},_q);_.db=function ar(a){Tj('thirdDelay',XD(Ic(a,25).a))};var _e=wD(MH,'LoadingIndicatorConfigurator/2methodref$setThirdDelay$Type',170);Oi(171,1,BH,br);_.hb=function cr(a){Wq(Mz(Ic(a.e,13)))};var af=wD(MH,'LoadingIndicatorConfigurator/lambda$3$Type',171);Oi(172,1,BH,dr);_.hb=function er(a){Vq(this.b,this.a,a)};_.a=0;var bf=wD(MH,'LoadingIndicatorConfigurator/lambda$4$Type',172);Oi(21,1,{21:1},vr);_.a=0;_.b='init';_.d=false;_.e=0;_.f=-1;_.h=null;_.l=0;var lf=wD(MH,'MessageHandler',21);Oi(177,1,oH,Ar);_.C=function Br(){!uz&&$wnd.Polymer!=null&&iE($wnd.Polymer.version.substr(0,'1.'.length),'1.')&&(uz=true,Vj&&($wnd.console.log('Polymer micro is now loaded, using Polymer DOM API'),undefined),tz=new wz,undefined)};var cf=wD(MH,'MessageHandler/0methodref$updateApiImplementation$Type',177);Oi(176,40,{},Cr);_.I=function Dr(){hr(this.a)};var df=wD(MH,'MessageHandler/1',176);Oi(341,$wnd.Function,{},Er);_.db=function Fr(a){fr(Ic(a,6))};Oi(60,1,{60:1},Gr);var ef=wD(MH,'MessageHandler/PendingUIDLMessage',60);Oi(178,1,oH,Hr);_.C=function Ir(){sr(this.a,this.d,this.b,this.c)};_.c=0;var ff=wD(MH,'MessageHandler/lambda$1$Type',178);Oi(180,1,uH,Jr);_.cb=function Kr(){rB(new Lr(this.a,this.b))};var gf=wD(MH,'MessageHandler/lambda$3$Type',180);Oi(179,1,uH,Lr);_.cb=function Mr(){pr(this.a,this.b)};var hf=wD(MH,'MessageHandler/lambda$4$Type',179);Oi(182,1,uH,Nr);_.cb=function Or(){qr(this.a)};var jf=wD(MH,'MessageHandler/lambda$5$Type',182);Oi(181,1,{},Pr);_.C=function Qr(){this.a.forEach(Qi(Er.prototype.db,Er,[]))};var kf=wD(MH,'MessageHandler/lambda$6$Type',181);Oi(19,1,{19:1},_r);_.a=0;_.d=0;var nf=wD(MH,'MessageSender',19);Oi(174,1,oH,bs);_.C=function cs(){Sr(this.a)};var mf=wD(MH,'MessageSender/lambda$0$Type',174);Oi(163,1,BH,fs);_.hb=function gs(a){ds(this.a,a)};var of=wD(MH,'PollConfigurator/lambda$0$Type',163);Oi(73,1,{73:1},ks);_.wb=function ls(){var a;a=Ic(gk(this.b,Xf),10);Ju(a,a.e,'ui-poll',null)};_.a=null;var rf=wD(MH,'Poller',73);Oi(165,40,{},ms);_.I=function ns(){var a;a=Ic(gk(this.a.b,Xf),10);Ju(a,a.e,'ui-poll',null)};var pf=wD(MH,'Poller/1',165);Oi(164,1,NH,os);_.lb=function ps(a){hs(this.a,a)};var qf=wD(MH,'Poller/lambda$0$Type',164);Oi(48,1,{48:1},ts);var vf=wD(MH,'PushConfiguration',48);Oi(223,1,BH,ws);_.hb=function xs(a){ss(this.a,a)};var sf=wD(MH,'PushConfiguration/0methodref$onPushModeChange$Type',223);Oi(224,1,uH,ys);_.cb=function zs(){$r(Ic(gk(this.a.a,nf),19),true)};var tf=wD(MH,'PushConfiguration/lambda$1$Type',224);Oi(225,1,uH,As);_.cb=function Bs(){$r(Ic(gk(this.a.a,nf),19),false)};var uf=wD(MH,'PushConfiguration/lambda$2$Type',225);Oi(347,$wnd.Function,{},Cs);_._=function Ds(a,b){vs(this.a,Ic(a,13),Pc(b))};Oi(35,1,{35:1},Es);var xf=wD(MH,'ReconnectConfiguration',35);Oi(167,1,oH,Fs);_.C=function Gs(){Xp(this.a)};var wf=wD(MH,'ReconnectConfiguration/lambda$0$Type',167);Oi(16,1,{16:1},Ms);_.b=false;var zf=wD(MH,'RequestResponseTracker',16);Oi(175,1,{},Ns);_.C=function Os(){Ks(this.a)};var yf=wD(MH,'RequestResponseTracker/lambda$0$Type',175);Oi(238,322,{},Ps);_.K=function Qs(a){bd(a);null.jc()};_.L=function Rs(){return null};var Af=wD(MH,'RequestStartingEvent',238);Oi(222,322,{},Ts);_.K=function Us(a){Ic(a,326).a.b=false};_.L=function Vs(){return Ss};var Ss;var Bf=wD(MH,'ResponseHandlingEndedEvent',222);Oi(279,322,{},Ws);_.K=function Xs(a){bd(a);null.jc()};_.L=function Ys(){return null};var Cf=wD(MH,'ResponseHandlingStartedEvent',279);Oi(32,1,{32:1},et);_.xb=function ft(a,b,c){Zs(this,a,b,c)};_.yb=function gt(a,b,c){var d;d={};d[kH]='channel';d[ZH]=Object(a);d['channel']=Object(b);d['args']=c;bt(this,d)};var Df=wD(MH,'ServerConnector',32);Oi(34,1,{34:1},mt);_.b=false;var ht;var Hf=wD(MH,'ServerRpcQueue',34);Oi(204,1,nH,nt);_.I=function ot(){kt(this.a)};var Ef=wD(MH,'ServerRpcQueue/0methodref$doFlush$Type',204);Oi(203,1,nH,pt);_.I=function qt(){it()};var Ff=wD(MH,'ServerRpcQueue/lambda$0$Type',203);Oi(205,1,{},rt);_.C=function st(){this.a.a.I()};var Gf=wD(MH,'ServerRpcQueue/lambda$2$Type',205);Oi(71,1,{71:1},vt);_.b=false;var Nf=wD(MH,'XhrConnection',71);Oi(221,40,{},xt);_.I=function yt(){wt(this.b)&&this.a.b&&Xi(this,250)};var If=wD(MH,'XhrConnection/1',221);Oi(218,1,{},At);_.jb=function Bt(a,b){var c;c=new Gt(a,this.a);if(!b){qq(Ic(gk(this.c.a,Oe),17),c);return}else{oq(Ic(gk(this.c.a,Oe),17),c)}};_.kb=function Ct(a){var b,c;ak('Server visit took '+Tm(this.b)+'ms');c=a.responseText;b=yr(zr(c));if(!b){pq(Ic(gk(this.c.a,Oe),17),new Gt(a,this.a));return}rq(Ic(gk(this.c.a,Oe),17));Vj&&LC($wnd.console,'Received xhr message: '+c);lr(Ic(gk(this.c.a,lf),21),b)};_.b=0;var Jf=wD(MH,'XhrConnection/XhrResponseHandler',218);Oi(219,1,{},Dt);_.R=function Et(a){this.a.b=true};var Kf=wD(MH,'XhrConnection/lambda$0$Type',219);Oi(220,1,{326:1},Ft);var Lf=wD(MH,'XhrConnection/lambda$1$Type',220);Oi(102,1,{},Gt);var Mf=wD(MH,'XhrConnectionError',102);Oi(57,1,{57:1},Kt);var Of=wD(bI,'ConstantPool',57);Oi(84,1,{84:1},St);_.zb=function Tt(){return Ic(gk(this.a,td),8).a};var Sf=wD(bI,'ExecuteJavaScriptProcessor',84);Oi(207,1,iH,Ut);_.S=function Vt(a){var b;return rB(new Wt(this.a,(b=this.b,b))),mD(),true};var Pf=wD(bI,'ExecuteJavaScriptProcessor/lambda$0$Type',207);Oi(206,1,uH,Wt);_.cb=function Xt(){Nt(this.a,this.b)};var Qf=wD(bI,'ExecuteJavaScriptProcessor/lambda$1$Type',206);Oi(208,1,nH,Yt);_.I=function Zt(){Rt(this.a)};var Rf=wD(bI,'ExecuteJavaScriptProcessor/lambda$2$Type',208);Oi(296,1,{},$t);var Tf=wD(bI,'NodeUnregisterEvent',296);Oi(6,1,{6:1},lu);_.Ab=function mu(){return cu(this)};_.Bb=function nu(){return this.g};_.d=0;_.i=false;var Wf=wD(bI,'StateNode',6);Oi(334,$wnd.Function,{},pu);_._=function qu(a,b){fu(this.a,this.b,Ic(a,33),Kc(b))};Oi(335,$wnd.Function,{},ru);_.db=function su(a){ou(this.a,Ic(a,104))};var xh=yD('elemental.events','EventRemover');Oi(151,1,fI,tu);_.Cb=function uu(){gu(this.a,this.b)};var Uf=wD(bI,'StateNode/lambda$2$Type',151);Oi(336,$wnd.Function,{},vu);_.db=function wu(a){hu(this.a,Ic(a,66))};Oi(152,1,fI,xu);_.Cb=function yu(){iu(this.a,this.b)};var Vf=wD(bI,'StateNode/lambda$4$Type',152);Oi(10,1,{10:1},Pu);_.Db=function Qu(){return this.e};_.Eb=function Su(a,b,c,d){var e;if(Eu(this,a)){e=Nc(c);dt(Ic(gk(this.c,Df),32),a,b,e,d)}};_.d=false;_.f=false;var Xf=wD(bI,'StateTree',10);Oi(339,$wnd.Function,{},Tu);_.db=function Uu(a){bu(Ic(a,6),Qi(Xu.prototype._,Xu,[]))};Oi(340,$wnd.Function,{},Vu);_._=function Wu(a,b){var c;Gu(this.a,(c=Ic(a,6),Kc(b),c))};Oi(325,$wnd.Function,{},Xu);_._=function Yu(a,b){Ru(Ic(a,33),Kc(b))};var ev,fv;Oi(173,1,{},kv);var Yf=wD(mI,'Binder/BinderContextImpl',173);var Zf=yD(mI,'BindingStrategy');Oi(79,1,{79:1},pv);_.j=0;var lv;var ag=wD(mI,'Debouncer',79);Oi(369,$wnd.Function,{},tv);_.db=function uv(a){Ic(a,14).I()};Oi(324,1,{});_.c=false;_.d=0;var Bh=wD(pI,'Timer',324);Oi(299,324,{},zv);var $f=wD(mI,'Debouncer/1',299);Oi(300,324,{},Bv);var _f=wD(mI,'Debouncer/2',300);Oi(370,$wnd.Function,{},Dv);_._=function Ev(a,b){var c;Cv(this,(c=Oc(a,$wnd.Map),Nc(b),c))};Oi(371,$wnd.Function,{},Hv);_.db=function Iv(a){Fv(this.a,Oc(a,$wnd.Map))};Oi(372,$wnd.Function,{},Jv);_.db=function Kv(a){Gv(this.a,Ic(a,79))};Oi(368,$wnd.Function,{},Lv);_._=function Mv(a,b){rv(this.a,Ic(a,14),Pc(b))};Oi(293,1,jH,Qv);_.Z=function Rv(){return bw(this.a)};var bg=wD(mI,'ServerEventHandlerBinder/lambda$0$Type',293);Oi(294,1,zH,Sv);_.eb=function Tv(a){Pv(this.b,this.a,this.c,a)};_.c=false;var cg=wD(mI,'ServerEventHandlerBinder/lambda$1$Type',294);var Uv;Oi(245,1,{303:1},ax);_.Fb=function bx(a,b,c){jw(this,a,b,c)};_.Gb=function ex(a){return tw(a)};_.Ib=function jx(a,b){var c,d,e;d=Object.keys(a);e=new Sy(d,a,b);c=Ic(b.e.get(eg),76);!c?Rw(e.b,e.a,e.c):(c.a=e)};_.Jb=function kx(r,s){var t=this;var u=s._propertiesChanged;u&&(s._propertiesChanged=function(a,b,c){QG(function(){t.Ib(b,r)})();u.apply(this,arguments)});var v=r.Bb();var w=s.ready;s.ready=function(){w.apply(this,arguments);bm(s);var q=function(){var o=s.root.querySelector(xI);if(o){s.removeEventListener(yI,q)}else{return}if(!o.constructor.prototype.$propChangedModified){o.constructor.prototype.$propChangedModified=true;var p=o.constructor.prototype._propertiesChanged;o.constructor.prototype._propertiesChanged=function(a,b,c){p.apply(this,arguments);var d=Object.getOwnPropertyNames(b);var e='items.';var f;for(f=0;f<d.length;f++){var g=d[f].indexOf(e);if(g==0){var h=d[f].substr(e.length);g=h.indexOf('.');if(g>0){var i=h.substr(0,g);var j=h.substr(g+1);var k=a.items[i];if(k&&k.nodeId){var l=k.nodeId;var m=k[j];var n=this.__dataHost;while(!n.localName||n.__dataHost){n=n.__dataHost}QG(function(){ix(l,n,j,m,v)})()}}}}}}};s.root&&s.root.querySelector(xI)?q():s.addEventListener(yI,q)}};_.Hb=function lx(a){if(a.c.has(0)){return true}return !!a.g&&K(a,a.g.e)};var dw,ew;var Jg=wD(mI,'SimpleElementBindingStrategy',245);Oi(358,$wnd.Function,{},zx);_.db=function Ax(a){Ic(a,44).Cb()};Oi(361,$wnd.Function,{},Bx);_.db=function Cx(a){Ic(a,14).I()};Oi(100,1,{},Dx);var dg=wD(mI,'SimpleElementBindingStrategy/BindingContext',100);Oi(76,1,{76:1},Ex);var eg=wD(mI,'SimpleElementBindingStrategy/InitialPropertyUpdate',76);Oi(246,1,{},Fx);_.Kb=function Gx(a){Fw(this.a,a)};var fg=wD(mI,'SimpleElementBindingStrategy/lambda$0$Type',246);Oi(247,1,{},Hx);_.Kb=function Ix(a){Gw(this.a,a)};var gg=wD(mI,'SimpleElementBindingStrategy/lambda$1$Type',247);Oi(354,$wnd.Function,{},Jx);_._=function Kx(a,b){var c;mx(this.b,this.a,(c=Ic(a,13),Pc(b),c))};Oi(256,1,AH,Lx);_.gb=function Mx(a){nx(this.b,this.a,a)};var hg=wD(mI,'SimpleElementBindingStrategy/lambda$11$Type',256);Oi(257,1,BH,Nx);_.hb=function Ox(a){Zw(this.c,this.b,this.a)};var ig=wD(mI,'SimpleElementBindingStrategy/lambda$12$Type',257);Oi(258,1,uH,Px);_.cb=function Qx(){Hw(this.b,this.c,this.a)};var jg=wD(mI,'SimpleElementBindingStrategy/lambda$13$Type',258);Oi(259,1,oH,Rx);_.C=function Sx(){this.b.Kb(this.a)};var kg=wD(mI,'SimpleElementBindingStrategy/lambda$14$Type',259);Oi(260,1,oH,Tx);_.C=function Ux(){this.a[this.b]=Zl(this.c)};var lg=wD(mI,'SimpleElementBindingStrategy/lambda$15$Type',260);Oi(262,1,zH,Vx);_.eb=function Wx(a){Iw(this.a,a)};var mg=wD(mI,'SimpleElementBindingStrategy/lambda$16$Type',262);Oi(261,1,uH,Xx);_.cb=function Yx(){Aw(this.b,this.a)};var ng=wD(mI,'SimpleElementBindingStrategy/lambda$17$Type',261);Oi(264,1,zH,Zx);_.eb=function $x(a){Jw(this.a,a)};var og=wD(mI,'SimpleElementBindingStrategy/lambda$18$Type',264);Oi(263,1,uH,_x);_.cb=function ay(){Kw(this.b,this.a)};var pg=wD(mI,'SimpleElementBindingStrategy/lambda$19$Type',263);Oi(248,1,{},by);_.Kb=function cy(a){Lw(this.a,a)};var qg=wD(mI,'SimpleElementBindingStrategy/lambda$2$Type',248);Oi(265,1,nH,dy);_.I=function ey(){Cw(this.a,this.b,this.c,false)};var rg=wD(mI,'SimpleElementBindingStrategy/lambda$20$Type',265);Oi(266,1,nH,fy);_.I=function gy(){Cw(this.a,this.b,this.c,false)};var sg=wD(mI,'SimpleElementBindingStrategy/lambda$21$Type',266);Oi(267,1,nH,hy);_.I=function iy(){Ew(this.a,this.b,this.c,false)};var tg=wD(mI,'SimpleElementBindingStrategy/lambda$22$Type',267);Oi(268,1,jH,jy);_.Z=function ky(){return ox(this.a,this.b)};var ug=wD(mI,'SimpleElementBindingStrategy/lambda$23$Type',268);Oi(269,1,jH,ly);_.Z=function my(){return px(this.a,this.b)};var vg=wD(mI,'SimpleElementBindingStrategy/lambda$24$Type',269);Oi(355,$wnd.Function,{},ny);_._=function oy(a,b){var c;fB((c=Ic(a,74),Pc(b),c))};Oi(356,$wnd.Function,{},py);_.db=function qy(a){qx(this.a,Oc(a,$wnd.Map))};Oi(357,$wnd.Function,{},ry);_._=function sy(a,b){var c;(c=Ic(a,44),Pc(b),c).Cb()};Oi(249,1,{104:1},ty);_.fb=function uy(a){Sw(this.c,this.b,this.a)};var wg=wD(mI,'SimpleElementBindingStrategy/lambda$3$Type',249);Oi(359,$wnd.Function,{},vy);_._=function wy(a,b){var c;Mw(this.a,(c=Ic(a,13),Pc(b),c))};Oi(270,1,AH,xy);_.gb=function yy(a){Nw(this.a,a)};var xg=wD(mI,'SimpleElementBindingStrategy/lambda$31$Type',270);Oi(271,1,oH,zy);_.C=function Ay(){Ow(this.b,this.a,this.c)};var yg=wD(mI,'SimpleElementBindingStrategy/lambda$32$Type',271);Oi(272,1,{},By);_.R=function Cy(a){Pw(this.a,a)};var zg=wD(mI,'SimpleElementBindingStrategy/lambda$33$Type',272);Oi(360,$wnd.Function,{},Dy);_.db=function Ey(a){Qw(this.a,this.b,Pc(a))};Oi(273,1,{},Fy);_.db=function Gy(a){xx(this.b,this.c,this.a,Pc(a))};var Ag=wD(mI,'SimpleElementBindingStrategy/lambda$35$Type',273);Oi(274,1,zH,Hy);_.eb=function Iy(a){rx(this.a,a)};var Bg=wD(mI,'SimpleElementBindingStrategy/lambda$37$Type',274);Oi(275,1,jH,Jy);_.Z=function Ky(){return this.a.b};var Cg=wD(mI,'SimpleElementBindingStrategy/lambda$38$Type',275);Oi(362,$wnd.Function,{},Ly);_.db=function My(a){this.a.push(Ic(a,6))};Oi(251,1,uH,Ny);_.cb=function Oy(){sx(this.a)};var Dg=wD(mI,'SimpleElementBindingStrategy/lambda$4$Type',251);Oi(250,1,{},Py);_.C=function Qy(){tx(this.a)};var Eg=wD(mI,'SimpleElementBindingStrategy/lambda$5$Type',250);Oi(253,1,nH,Sy);_.I=function Ty(){Ry(this)};var Fg=wD(mI,'SimpleElementBindingStrategy/lambda$6$Type',253);Oi(252,1,jH,Uy);_.Z=function Vy(){return this.a[this.b]};var Gg=wD(mI,'SimpleElementBindingStrategy/lambda$7$Type',252);Oi(255,1,AH,Wy);_.gb=function Xy(a){qB(new Yy(this.a))};var Hg=wD(mI,'SimpleElementBindingStrategy/lambda$8$Type',255);Oi(254,1,uH,Yy);_.cb=function Zy(){iw(this.a)};var Ig=wD(mI,'SimpleElementBindingStrategy/lambda$9$Type',254);Oi(276,1,{303:1},cz);_.Fb=function dz(a,b,c){az(a,b)};_.Gb=function ez(a){return $doc.createTextNode('')};_.Hb=function fz(a){return a.c.has(7)};var $y;var Mg=wD(mI,'TextBindingStrategy',276);Oi(277,1,oH,gz);_.C=function hz(){_y();FC(this.a,Pc(Jz(this.b)))};var Kg=wD(mI,'TextBindingStrategy/lambda$0$Type',277);Oi(278,1,{104:1},iz);_.fb=function jz(a){bz(this.b,this.a)};var Lg=wD(mI,'TextBindingStrategy/lambda$1$Type',278);Oi(333,$wnd.Function,{},nz);_.db=function oz(a){this.a.add(a)};Oi(337,$wnd.Function,{},qz);_._=function rz(a,b){this.a.push(a)};var tz,uz=false;Oi(285,1,{},wz);var Ng=wD('com.vaadin.client.flow.dom','PolymerDomApiImpl',285);Oi(77,1,{77:1},xz);var Og=wD('com.vaadin.client.flow.model','UpdatableModelProperties',77);Oi(367,$wnd.Function,{},yz);_.db=function zz(a){this.a.add(Pc(a))};Oi(86,1,{});_.Lb=function Bz(){return this.e};var nh=wD(tH,'ReactiveValueChangeEvent',86);Oi(52,86,{52:1},Cz);_.Lb=function Dz(){return Ic(this.e,27)};_.b=false;_.c=0;var Pg=wD(zI,'ListSpliceEvent',52);Oi(13,1,{13:1,304:1},Sz);_.Mb=function Tz(a){return Vz(this.a,a)};_.b=false;_.c=false;_.d=false;var Ez;var Yg=wD(zI,'MapProperty',13);Oi(85,1,{});var mh=wD(tH,'ReactiveEventRouter',85);Oi(231,85,{},_z);_.Nb=function aA(a,b){Ic(a,45).hb(Ic(b,78))};_.Ob=function bA(a){return new cA(a)};var Rg=wD(zI,'MapProperty/1',231);Oi(232,1,BH,cA);_.hb=function dA(a){dB(this.a)};var Qg=wD(zI,'MapProperty/1/0methodref$onValueChange$Type',232);Oi(230,1,nH,eA);_.I=function fA(){Fz()};var Sg=wD(zI,'MapProperty/lambda$0$Type',230);Oi(233,1,uH,gA);_.cb=function hA(){this.a.d=false};var Tg=wD(zI,'MapProperty/lambda$1$Type',233);Oi(234,1,uH,iA);_.cb=function jA(){this.a.d=false};var Ug=wD(zI,'MapProperty/lambda$2$Type',234);Oi(235,1,nH,kA);_.I=function lA(){Oz(this.a,this.b)};var Vg=wD(zI,'MapProperty/lambda$3$Type',235);Oi(87,86,{87:1},mA);_.Lb=function nA(){return Ic(this.e,41)};var Wg=wD(zI,'MapPropertyAddEvent',87);Oi(78,86,{78:1},oA);_.Lb=function pA(){return Ic(this.e,13)};var Xg=wD(zI,'MapPropertyChangeEvent',78);Oi(33,1,{33:1});_.d=0;var Zg=wD(zI,'NodeFeature',33);Oi(27,33,{33:1,27:1,304:1},xA);_.Mb=function yA(a){return Vz(this.a,a)};_.Pb=function zA(a){var b,c,d;c=[];for(b=0;b<this.c.length;b++){d=this.c[b];c[c.length]=Zl(d)}return c};_.Qb=function AA(){var a,b,c,d;b=[];for(a=0;a<this.c.length;a++){d=this.c[a];c=qA(d);b[b.length]=c}return b};_.b=false;var ah=wD(zI,'NodeList',27);Oi(282,85,{},BA);_.Nb=function CA(a,b){Ic(a,64).eb(Ic(b,52))};_.Ob=function DA(a){return new EA(a)};var _g=wD(zI,'NodeList/1',282);Oi(283,1,zH,EA);_.eb=function FA(a){dB(this.a)};var $g=wD(zI,'NodeList/1/0methodref$onValueChange$Type',283);Oi(41,33,{33:1,41:1,304:1},LA);_.Mb=function MA(a){return Vz(this.a,a)};_.Pb=function NA(a){var b;b={};this.b.forEach(Qi(ZA.prototype._,ZA,[a,b]));return b};_.Qb=function OA(){var a,b;a={};this.b.forEach(Qi(XA.prototype._,XA,[a]));if((b=YC(a),b).length==0){return null}return a};var eh=wD(zI,'NodeMap',41);Oi(226,85,{},QA);_.Nb=function RA(a,b){Ic(a,81).gb(Ic(b,87))};_.Ob=function SA(a){return new TA(a)};var dh=wD(zI,'NodeMap/1',226);Oi(227,1,AH,TA);_.gb=function UA(a){dB(this.a)};var bh=wD(zI,'NodeMap/1/0methodref$onValueChange$Type',227);Oi(348,$wnd.Function,{},VA);_._=function WA(a,b){this.a.push((Ic(a,13),Pc(b)))};Oi(349,$wnd.Function,{},XA);_._=function YA(a,b){KA(this.a,Ic(a,13),Pc(b))};Oi(350,$wnd.Function,{},ZA);_._=function $A(a,b){PA(this.a,this.b,Ic(a,13),Pc(b))};Oi(74,1,{74:1});_.d=false;_.e=false;var hh=wD(tH,'Computation',74);Oi(236,1,uH,gB);_.cb=function hB(){eB(this.a)};var fh=wD(tH,'Computation/0methodref$recompute$Type',236);Oi(237,1,oH,iB);_.C=function jB(){this.a.a.C()};var gh=wD(tH,'Computation/1methodref$doRecompute$Type',237);Oi(352,$wnd.Function,{},kB);_.db=function lB(a){vB(Ic(a,327).a)};var mB=null,nB,oB=false,pB;Oi(75,74,{74:1},uB);var jh=wD(tH,'Reactive/1',75);Oi(228,1,fI,wB);_.Cb=function xB(){vB(this)};var kh=wD(tH,'ReactiveEventRouter/lambda$0$Type',228);Oi(229,1,{327:1},yB);var lh=wD(tH,'ReactiveEventRouter/lambda$1$Type',229);Oi(351,$wnd.Function,{},zB);_.db=function AB(a){Yz(this.a,this.b,a)};Oi(101,323,{},LB);_.b=0;var rh=wD(BI,'SimpleEventBus',101);var oh=yD(BI,'SimpleEventBus/Command');Oi(280,1,{},MB);var ph=wD(BI,'SimpleEventBus/lambda$0$Type',280);Oi(281,1,{328:1},NB);var qh=wD(BI,'SimpleEventBus/lambda$1$Type',281);Oi(96,1,{},SB);_.J=function TB(a){if(a.readyState==4){if(a.status==200){this.a.kb(a);ej(a);return}this.a.jb(a,null);ej(a)}};var sh=wD('com.vaadin.client.gwt.elemental.js.util','Xhr/Handler',96);Oi(295,1,WG,aC);_.a=-1;_.b=false;_.c=false;_.d=false;_.e=false;_.f=false;_.g=false;_.h=false;_.i=false;_.j=false;_.k=false;_.l=false;var th=wD(EH,'BrowserDetails',295);Oi(43,20,{43:1,4:1,29:1,20:1},iC);var dC,eC,fC,gC;var vh=xD(JI,'Dependency/Type',43,jC);var kC;Oi(42,20,{42:1,4:1,29:1,20:1},qC);var mC,nC,oC;var wh=xD(JI,'LoadMode',42,rC);Oi(114,1,fI,HC);_.Cb=function IC(){wC(this.b,this.c,this.a,this.d)};_.d=false;var yh=wD('elemental.js.dom','JsElementalMixinBase/Remover',114);Oi(301,1,{},ZC);_.Rb=function $C(){yv(this.a)};var zh=wD(pI,'Timer/1',301);Oi(302,1,{},_C);_.Rb=function aD(){Av(this.a)};var Ah=wD(pI,'Timer/2',302);Oi(317,1,{});var Dh=wD(KI,'OutputStream',317);Oi(318,317,{});var Ch=wD(KI,'FilterOutputStream',318);Oi(124,318,{},bD);var Eh=wD(KI,'PrintStream',124);Oi(83,1,{110:1});_.p=function dD(){return this.a};var Fh=wD(UG,'AbstractStringBuilder',83);Oi(69,9,YG,eD);var Sh=wD(UG,'IndexOutOfBoundsException',69);Oi(183,69,YG,fD);var Gh=wD(UG,'ArrayIndexOutOfBoundsException',183);Oi(125,9,YG,gD);var Hh=wD(UG,'ArrayStoreException',125);Oi(37,5,{4:1,37:1,5:1});var Oh=wD(UG,'Error',37);Oi(3,37,{4:1,3:1,37:1,5:1},iD,jD);var Ih=wD(UG,'AssertionError',3);Ec={4:1,115:1,29:1};var kD,lD;var Jh=wD(UG,'Boolean',115);Oi(117,9,YG,KD);var Kh=wD(UG,'ClassCastException',117);Oi(82,1,{4:1,82:1});var LD;var Xh=wD(UG,'Number',82);Fc={4:1,29:1,116:1,82:1};var Mh=wD(UG,'Double',116);Oi(18,9,YG,RD);var Qh=wD(UG,'IllegalArgumentException',18);Oi(38,9,YG,SD);var Rh=wD(UG,'IllegalStateException',38);Oi(25,82,{4:1,29:1,25:1,82:1},TD);_.m=function UD(a){return Sc(a,25)&&Ic(a,25).a==this.a};_.o=function VD(){return this.a};_.p=function WD(){return ''+this.a};_.a=0;var Th=wD(UG,'Integer',25);var YD;Oi(472,1,{});Oi(65,53,YG,$D,_D,aE);_.r=function bE(a){return new TypeError(a)};var Vh=wD(UG,'NullPointerException',65);Oi(54,18,YG,cE);var Wh=wD(UG,'NumberFormatException',54);Oi(28,1,{4:1,28:1},dE);_.m=function eE(a){var b;if(Sc(a,28)){b=Ic(a,28);return this.c==b.c&&this.d==b.d&&this.a==b.a&&this.b==b.b}return false};_.o=function fE(){return fF(Dc(xc(Yh,1),WG,1,5,[XD(this.c),this.a,this.d,this.b]))};_.p=function gE(){return this.a+'.'+this.d+'('+(this.b!=null?this.b:'Unknown Source')+(this.c>=0?':'+this.c:'')+')'};_.c=0;var $h=wD(UG,'StackTraceElement',28);Gc={4:1,110:1,29:1,2:1};var bi=wD(UG,'String',2);Oi(68,83,{110:1},AE,BE,CE);var _h=wD(UG,'StringBuilder',68);Oi(123,69,YG,DE);var ai=wD(UG,'StringIndexOutOfBoundsException',123);Oi(476,1,{});var EE;Oi(105,1,iH,HE);_.S=function IE(a){return GE(a)};var ci=wD(UG,'Throwable/lambda$0$Type',105);Oi(93,9,YG,JE);var ei=wD(UG,'UnsupportedOperationException',93);Oi(319,1,{103:1});_.Yb=function KE(a){throw Gi(new JE('Add not supported on this collection'))};_.p=function LE(){var a,b,c;c=new KF;for(b=this.Zb();b.ac();){a=b.bc();JF(c,a===this?'(this Collection)':a==null?ZG:Si(a))}return !c.a?c.c:c.e.length==0?c.a.a:c.a.a+(''+c.e)};var fi=wD(MI,'AbstractCollection',319);Oi(320,319,{103:1,90:1});_._b=function ME(a,b){throw Gi(new JE('Add not supported on this list'))};_.Yb=function NE(a){this._b(this.$b(),a);return true};_.m=function OE(a){var b,c,d,e,f;if(a===this){return true}if(!Sc(a,39)){return false}f=Ic(a,90);if(this.a.length!=f.a.length){return false}e=new cF(f);for(c=new cF(this);c.a<c.c.a.length;){b=bF(c);d=bF(e);if(!(_c(b)===_c(d)||b!=null&&K(b,d))){return false}}return true};_.o=function PE(){return iF(this)};_.Zb=function QE(){return new RE(this)};var hi=wD(MI,'AbstractList',320);Oi(132,1,{},RE);_.ac=function SE(){return this.a<this.b.a.length};_.bc=function TE(){AG(this.a<this.b.a.length);return VE(this.b,this.a++)};_.a=0;var gi=wD(MI,'AbstractList/IteratorImpl',132);Oi(39,320,{4:1,39:1,103:1,90:1},YE);_._b=function ZE(a,b){DG(a,this.a.length);wG(this.a,a,b)};_.Yb=function $E(a){return UE(this,a)};_.Zb=function _E(){return new cF(this)};_.$b=function aF(){return this.a.length};var ji=wD(MI,'ArrayList',39);Oi(70,1,{},cF);_.ac=function dF(){return this.a<this.c.a.length};_.bc=function eF(){return bF(this)};_.a=0;_.b=-1;var ii=wD(MI,'ArrayList/1',70);Oi(150,9,YG,jF);var ki=wD(MI,'NoSuchElementException',150);Oi(63,1,{63:1},pF);_.m=function qF(a){var b;if(a===this){return true}if(!Sc(a,63)){return false}b=Ic(a,63);return kF(this.a,b.a)};_.o=function rF(){return lF(this.a)};_.p=function tF(){return this.a!=null?'Optional.of('+wE(this.a)+')':'Optional.empty()'};var mF;var li=wD(MI,'Optional',63);Oi(138,1,{});_.ec=function yF(a){uF(this,a)};_.cc=function wF(){return this.c};_.dc=function xF(){return this.d};_.c=0;_.d=0;var pi=wD(MI,'Spliterators/BaseSpliterator',138);Oi(139,138,{});var mi=wD(MI,'Spliterators/AbstractSpliterator',139);Oi(135,1,{});_.ec=function EF(a){uF(this,a)};_.cc=function CF(){return this.b};_.dc=function DF(){return this.d-this.c};_.b=0;_.c=0;_.d=0;var oi=wD(MI,'Spliterators/BaseArraySpliterator',135);Oi(136,135,{},GF);_.ec=function HF(a){AF(this,a)};_.fc=function IF(a){return BF(this,a)};var ni=wD(MI,'Spliterators/ArraySpliterator',136);Oi(122,1,{},KF);_.p=function LF(){return !this.a?this.c:this.e.length==0?this.a.a:this.a.a+(''+this.e)};var qi=wD(MI,'StringJoiner',122);Oi(109,1,iH,MF);_.S=function NF(a){return a};var ri=wD('java.util.function','Function/lambda$0$Type',109);Oi(47,20,{4:1,29:1,20:1,47:1},TF);var PF,QF,RF;var si=xD(NI,'Collector/Characteristics',47,UF);Oi(284,1,{},VF);var ti=wD(NI,'CollectorImpl',284);Oi(107,1,lH,XF);_._=function YF(a,b){WF(a,b)};var ui=wD(NI,'Collectors/20methodref$add$Type',107);Oi(106,1,jH,ZF);_.Z=function $F(){return new YE};var vi=wD(NI,'Collectors/21methodref$ctor$Type',106);Oi(108,1,{},_F);var wi=wD(NI,'Collectors/lambda$42$Type',108);Oi(137,1,{});_.c=false;var Di=wD(NI,'TerminatableStream',137);Oi(95,137,{},hG);var Ci=wD(NI,'StreamImpl',95);Oi(140,139,{},lG);_.fc=function mG(a){return this.b.fc(new nG(this,a))};var yi=wD(NI,'StreamImpl/MapToObjSpliterator',140);Oi(142,1,{},nG);_.db=function oG(a){kG(this.a,this.b,a)};var xi=wD(NI,'StreamImpl/MapToObjSpliterator/lambda$0$Type',142);Oi(141,1,{},qG);_.db=function rG(a){pG(this,a)};var zi=wD(NI,'StreamImpl/ValueConsumer',141);Oi(143,1,{},tG);var Ai=wD(NI,'StreamImpl/lambda$4$Type',143);Oi(144,1,{},uG);_.db=function vG(a){jG(this.b,this.a,a)};var Bi=wD(NI,'StreamImpl/lambda$5$Type',144);Oi(474,1,{});Oi(471,1,{});var HG=0;var JG,KG=0,LG;var QG=(Db(),Gb);var gwtOnLoad=gwtOnLoad=Ki;Ii(Ui);Li('permProps',[[[RI,'gecko1_8']],[[RI,'safari']]]);if (client) client.onScriptLoad(gwtOnLoad);})();
+};
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.application.munera;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the entities and repositories of the application, without the web server and the views, for the benchmarks
+ * reading from the database. The database is an in-memory H2 migrated by Flyway, and only the given components
+ * are created next to the repositories, as in the {@code @DataJpaTest} tests.
+ */
+@SpringBootConfiguration
+@AutoConfigurationPackage
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class, JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+public class BenchmarkApplication {
+
+    /**
+     * Starts a context on a new in-memory database.
+     * @param databaseName the name of the database, distinct for every benchmark
+     * @param components the services to create, with the services they depend on
+     * @return the started context, that the caller closes
+     */
+    public static ConfigurableApplicationContext start(String databaseName, Class<?>... components) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .sources(components)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jmx.enabled=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn");
+    }
+}
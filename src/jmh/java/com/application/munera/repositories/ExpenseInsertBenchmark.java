@@ -0,0 +1,154 @@
+package com.application.munera.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many expenses per second are inserted with the ids generated by the database, one statement per row
+ * reading back its id as Hibernate does for identity columns, and with the ids taken from the pooled sequence,
+ * one nextval per 50 rows sent in JDBC batches of 50 as Hibernate does since V4.
+ * The database is migrated by Flyway and defaults to an in-memory H2, where a statement costs no network round trip,
+ * so the gap it shows is smaller than the one against a remote PostgreSQL; pass {@code -p url=... -p user=... -p password=...}
+ * to the JMH runner to measure another database.
+ * Run with {@code mvn -Pjmh -DskipTests compile exec:exec -Djmh.includes=ExpenseInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String INSERT_COLUMNS = "cost, date, type, is_paid, periodic, name, user_id, creditor_id, debtor_id, category_id";
+
+    @Param("jdbc:h2:mem:munera_bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+    private String url;
+
+    @Param("sa")
+    private String user;
+
+    @Param("")
+    private String password;
+
+    private Connection connection;
+    private long categoryId;
+    private long personId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Flyway.configure().dataSource(url, user, password).load().migrate();
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(false);
+        categoryId = insertReturningId("insert into categories (name, user_id) values ('Bench', 0)");
+        personId = insertReturningId("insert into people (first_name, last_name, user_id, debt, credit) values ('Bench', 'Bench', 0, 0, 0)");
+        connection.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteExpenses() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from expenses where category_id = " + categoryId);
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from people where id = " + personId);
+            statement.executeUpdate("delete from categories where id = " + categoryId);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityInserts() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into expenses (" + INSERT_COLUMNS + ") values (?, ?, 'CREDIT', false, false, ?, 0, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int row = 0; row < ROWS; row++) {
+                bindExpense(insert, 1, row);
+                insert.executeUpdate();
+                try (var keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooledSequenceBatchInserts() throws SQLException {
+        long id = 0;
+        try (PreparedStatement nextval = connection.prepareStatement("select nextval('expenses_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into expenses (id, " + INSERT_COLUMNS + ") values (?, ?, ?, 'CREDIT', false, false, ?, 0, ?, ?, ?)")) {
+            for (int row = 0; row < ROWS; row++) {
+                if (row % ALLOCATION_SIZE == 0) {
+                    try (var resultSet = nextval.executeQuery()) {
+                        resultSet.next();
+                        id = resultSet.getLong(1);
+                    }
+                } else id++;
+                insert.setLong(1, id);
+                bindExpense(insert, 2, row);
+                insert.addBatch();
+                if (row % ALLOCATION_SIZE == ALLOCATION_SIZE - 1) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return id;
+    }
+
+    private void bindExpense(PreparedStatement insert, int firstIndex, int row) throws SQLException {
+        insert.setBigDecimal(firstIndex, BigDecimal.valueOf(row % 10_000, 2));
+        insert.setDate(firstIndex + 1, Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(row % 365)));
+        insert.setString(firstIndex + 2, "Expense " + row);
+        insert.setLong(firstIndex + 3, personId);
+        insert.setLong(firstIndex + 4, personId);
+        insert.setLong(firstIndex + 5, categoryId);
+    }
+
+    private long insertReturningId(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            try (var keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.application.munera.repositories;
+
+import com.application.munera.BenchmarkApplication;
+import com.application.munera.data.Expense;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading 100,000 expenses as {@link com.application.munera.data.ExpenseRow} records from
+ * {@link ExpenseRowRepository#streamRows(Specification)} with loading them as managed {@link Expense} entities.
+ * JMH reports the time to read them all. Before the run the benchmark prints the heap the results take, measured
+ * after a garbage collection while they are still held inside the transaction, together with the persistence context
+ * of the entities. The transaction is not read-only, as in the services, so the entities keep the state Hibernate
+ * compares them with on flush, while the rows are read with the read-only hint of streamRows.
+ * Run with {@code mvn -Pjmh -DskipTests compile exec:exec -Djmh.includes=ExpenseRowsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExpenseRowsBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int EXPENSES = 100_000;
+    private static final int CATEGORIES = 10;
+    private static final Specification<Expense> OF_USER = (root, query, cb) -> cb.equal(root.get("userId"), USER_ID);
+
+    @Param({"rows", "entities"})
+    private String loader;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("munera_rows_" + loader);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        insertExpenses(context.getBean(JdbcTemplate.class));
+        printRetainedHeap();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int load() {
+        return transactionTemplate.execute(status -> this.loadAll().size());
+    }
+
+    private List<?> loadAll() {
+        return switch (loader) {
+            case "rows" -> {
+                try (var rows = expenseRepository.streamRows(OF_USER)) {
+                    yield rows.toList();
+                }
+            }
+            case "entities" -> expenseRepository.findAll(OF_USER);
+            default -> throw new IllegalArgumentException("Unknown loader " + loader);
+        };
+    }
+
+    private void printRetainedHeap() {
+        final var memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        final long before = memory.getHeapMemoryUsage().getUsed();
+        final long retained = transactionTemplate.execute(status -> {
+            final var results = this.loadAll();
+            System.gc();
+            final long after = memory.getHeapMemoryUsage().getUsed();
+            Reference.reachabilityFence(results);
+            return after - before;
+        });
+        System.out.printf("%nHeap of %,d expenses loaded as %s: %.1f MB%n", EXPENSES, loader, retained / (1024.0 * 1024.0));
+    }
+
+    private void insertExpenses(JdbcTemplate jdbcTemplate) {
+        final List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            final Long categoryId = jdbcTemplate.queryForObject("select nextval('categories_seq')", Long.class);
+            jdbcTemplate.update("insert into categories (id, name, user_id) values (?, ?, ?)", categoryId, "Category " + i, USER_ID);
+            categoryIds.add(categoryId);
+        }
+        final Long personId = jdbcTemplate.queryForObject("select nextval('people_seq')", Long.class);
+        jdbcTemplate.update("insert into people (id, first_name, last_name, user_id) values (?, 'me', 'test', ?)", personId, USER_ID);
+
+        final List<Object[]> expenses = new ArrayList<>();
+        final var firstDate = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < EXPENSES; i++) {
+            final var date = firstDate.plusDays(i % 1_500);
+            expenses.add(new Object[]{BigDecimal.valueOf(i % 100_000, 2), Date.valueOf(date), i % 3 == 0,
+                    "Expense " + i, personId, personId, categoryIds.get(i % CATEGORIES)});
+        }
+        jdbcTemplate.batchUpdate("insert into expenses " +
+                "(cost, date, type, is_paid, periodic, name, user_id, creditor_id, debtor_id, category_id) " +
+                "values (?, ?, 'NONE', ?, false, ?, " + USER_ID + ", ?, ?, ?)", expenses);
+    }
+}
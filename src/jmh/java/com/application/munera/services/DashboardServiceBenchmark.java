@@ -0,0 +1,105 @@
+package com.application.munera.services;
+
+import com.application.munera.BenchmarkApplication;
+import com.application.munera.data.DashboardSnapshot;
+import com.application.munera.data.User;
+import com.application.munera.events.ExpensesChanged;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of a single {@link DashboardService#getSnapshot(User, Year)} call, served from the cache and
+ * computed again after a change of the user's data, which reads the monthly rollups and the people from the database.
+ * The user has a rollup for every month, category and type of the year, with amounts drawn with a fixed seed,
+ * and fifty people with a non-zero balance.
+ * Run with {@code mvn -Pjmh -DskipTests compile exec:exec -Djmh.includes=DashboardServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardServiceBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final Year YEAR = Year.of(2024);
+    private static final int PEOPLE = 50;
+
+    @Param({"10", "100"})
+    private int categories;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private DataVersionService dataVersionService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("munera_dashboard_" + categories, DashboardService.class, PersonService.class, DataVersionService.class);
+        dashboardService = context.getBean(DashboardService.class);
+        dataVersionService = context.getBean(DataVersionService.class);
+        user = new User();
+        user.setId(USER_ID);
+        user.setUsername("me");
+        insertData(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DashboardSnapshot getCachedSnapshot() {
+        return dashboardService.getSnapshot(user, YEAR);
+    }
+
+    @Benchmark
+    public DashboardSnapshot getSnapshotAfterAChange() {
+        dataVersionService.onDomainEvent(new ExpensesChanged(USER_ID, 1));
+        return dashboardService.getSnapshot(user, YEAR);
+    }
+
+    private void insertData(JdbcTemplate jdbcTemplate) {
+        final var random = new Random(7);
+        final List<Object[]> people = new ArrayList<>();
+        for (int i = 0; i < PEOPLE; i++)
+            people.add(new Object[]{"Person " + i, BigDecimal.valueOf(random.nextInt(100_000), 2), BigDecimal.valueOf(random.nextInt(100_000), 2)});
+        jdbcTemplate.batchUpdate("insert into people (first_name, last_name, user_id, debt, credit) values (?, 'test', " + USER_ID + ", ?, ?)", people);
+
+        final List<Object[]> rollups = new ArrayList<>();
+        for (int i = 0; i < categories; i++) {
+            final Long categoryId = jdbcTemplate.queryForObject("select nextval('categories_seq')", Long.class);
+            jdbcTemplate.update("insert into categories (id, name, user_id) values (?, ?, ?)", categoryId, "Category " + i, USER_ID);
+            for (int month = 1; month <= 12; month++) {
+                for (final var type : List.of("CREDIT", "DEBIT", "NONE")) {
+                    final var total = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+                    rollups.add(new Object[]{month, categoryId, type, total, type.equals("CREDIT") ? total : BigDecimal.ZERO});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into expense_monthly_rollup " +
+                "(user_id, expense_year, expense_month, category_id, type, expense_count, total_cost, unpaid_cost) " +
+                "values (" + USER_ID + ", " + YEAR.getValue() + ", ?, ?, ?, 1, ?, ?)", rollups);
+    }
+}
@@ -0,0 +1,58 @@
+package com.application.munera.services;
+
+import com.application.munera.data.SettlementTransfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time {@link SettlementOptimizer#minimizeTransfers(Map)} takes to settle the balances of a growing number of people.
+ * The balances are random amounts of up to a thousand, drawn with a fixed seed, and the last person clears their sum.
+ * Run with {@code mvn -Pjmh -DskipTests compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettlementOptimizerBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int people;
+
+    private Map<Long, BigDecimal> netBalances;
+
+    @Setup
+    public void setUp() {
+        final var random = new Random(7);
+        netBalances = new HashMap<>();
+        long sum = 0;
+        for (long id = 1; id < people; id++) {
+            final long cents = random.nextLong(-100_000, 100_000);
+            netBalances.put(id, BigDecimal.valueOf(cents, 2));
+            sum += cents;
+        }
+        netBalances.put((long) people, BigDecimal.valueOf(-sum, 2));
+    }
+
+    @Benchmark
+    public List<SettlementTransfer> minimizeTransfers() {
+        return SettlementOptimizer.minimizeTransfers(netBalances);
+    }
+}
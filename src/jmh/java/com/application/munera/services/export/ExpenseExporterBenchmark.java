@@ -0,0 +1,105 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.data.enums.ExportFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures how many rows per second each {@link ExpenseExporter} writes, exporting a generated stream of 100,000 rows
+ * to an output stream that discards the bytes.
+ * At the end of the run it prints the peak heap of the format, taken from the heap pools that keep the objects surviving
+ * a garbage collection, so the young objects thrown away row after row are left out and what is left grows with the rows
+ * an exporter holds on to.
+ * Run with {@code mvn -Pjmh -DskipTests compile exec:exec -Djmh.includes=ExpenseExporterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseExporterBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final List<String> CATEGORIES = List.of("Food", "Rent", "Travel", "Bills", "Leisure");
+    private static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+
+    @Param({"CSV", "CSV_GZIP", "JSON_LINES", "XLSX"})
+    private ExportFormat format;
+
+    private ExpenseExporter exporter;
+    private List<MemoryPoolMXBean> survivingPools;
+    private long peakHeap;
+
+    @Setup
+    public void setUp() {
+        final var csvExpenseExporter = new CsvExpenseExporter();
+        exporter = switch (format) {
+            case CSV -> csvExpenseExporter;
+            case CSV_GZIP -> new GzipCsvExpenseExporter(csvExpenseExporter);
+            case JSON_LINES -> new JsonLinesExpenseExporter();
+            case XLSX -> new XlsxExpenseExporter();
+        };
+        survivingPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && !pool.getName().contains("Eden"))
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        survivingPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void readPeakHeap() {
+        final long iterationPeak = survivingPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        peakHeap = Math.max(peakHeap, iterationPeak);
+    }
+
+    @TearDown
+    public void printPeakHeap() {
+        System.out.printf("%nPeak heap of %s: %.1f MB%n", format, peakHeap / (1024.0 * 1024.0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void write() throws IOException {
+        exporter.write(generateRows(), OutputStream.nullOutputStream());
+    }
+
+    private static Stream<ExpenseRow> generateRows() {
+        return IntStream.range(0, ROWS).mapToObj(i -> {
+            final var date = FIRST_DATE.plusDays(i % 1_500);
+            final boolean isPaid = i % 3 == 0;
+            return new ExpenseRow((long) i, "Expense " + i, BigDecimal.valueOf(i % 100_000, 2), CATEGORIES.get(i % CATEGORIES.size()),
+                    date, isPaid ? date.plusDays(7) : null, isPaid, ExpenseType.values()[i % ExpenseType.values().length]);
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.application.munera.data;
+
+import java.time.Month;
+import java.time.Year;
+import java.time.format.TextStyle;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * The data of all the dashboard charts for a year, computed at once.
+ * The monthly totals are held in a dense array indexed by category and month, and the snapshot cannot be modified once created.
+ */
+public final class DashboardSnapshot {
+
+    // The short English names of the months, from January to December
+    public static final List<String> MONTHS = Stream.of(Month.values())
+            .map(month -> month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+            .toList();
+
+    private static final int MONTH_COUNT = 12;
+
+    private final Year year;
+    private final List<String> categories;
+    private final double[] monthlyTotals; // the total of category c in month m (0 for January) is at c * 12 + m
+    private final double[] categoryTotals;
+    private final Map<String, Double> netBalances;
+
+    /**
+     * Creates a snapshot, copying the given data.
+     * @param year the year of the expenses
+     * @param categories the names of the categories with at least one expense
+     * @param monthlyTotals the totals of each category and month, indexed by category * 12 + month, with month 0 for January
+     * @param netBalances the non-zero net balances of the people, keyed by their first name
+     */
+    public DashboardSnapshot(Year year, List<String> categories, double[] monthlyTotals, Map<String, Double> netBalances) {
+        if (monthlyTotals.length != categories.size() * MONTH_COUNT)
+            throw new IllegalArgumentException("The monthly totals must hold 12 values for each category");
+        this.year = year;
+        this.categories = List.copyOf(categories);
+        this.monthlyTotals = monthlyTotals.clone();
+        this.categoryTotals = new double[categories.size()];
+        for (int category = 0; category < this.categoryTotals.length; category++)
+            for (int month = 0; month < MONTH_COUNT; month++)
+                this.categoryTotals[category] += this.monthlyTotals[category * MONTH_COUNT + month];
+        this.netBalances = Collections.unmodifiableMap(new LinkedHashMap<>(netBalances));
+    }
+
+    public Year getYear() {
+        return year;
+    }
+
+    /**
+     * Gets the names of the categories with at least one expense in the year.
+     * @return the category names, whose positions are the category indexes of the other getters
+     */
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Gets the totals of a category for each month.
+     * @param categoryIndex the index of the category in {@link #getCategories()}
+     * @return a copy of the twelve monthly totals, from January to December
+     */
+    public double[] getMonthlyTotals(int categoryIndex) {
+        return Arrays.copyOfRange(monthlyTotals, categoryIndex * MONTH_COUNT, (categoryIndex + 1) * MONTH_COUNT);
+    }
+
+    /**
+     * Gets the total of a category over the whole year.
+     * @param categoryIndex the index of the category in {@link #getCategories()}
+     * @return the yearly total of the category
+     */
+    public double getCategoryTotal(int categoryIndex) {
+        return categoryTotals[categoryIndex];
+    }
+
+    /**
+     * Gets the net balances of the people with outstanding expenses.
+     * @return the non-zero net balances keyed by the first name of the person, positive when the person is owed money
+     */
+    public Map<String, Double> getNetBalances() {
+        return netBalances;
+    }
+}
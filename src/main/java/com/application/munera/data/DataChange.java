@@ -0,0 +1,11 @@
+package com.application.munera.data;
+
+/**
+ * Signals that the data of a user changed, once the change is committed.
+ * Several changes close in time are coalesced into one, carrying the latest version.
+ *
+ * @param userId  the id of the user whose expenses, people or categories changed
+ * @param version the version of the data of the user after the change
+ */
+public record DataChange(Long userId, long version) {
+}
@@ -0,0 +1,62 @@
+package com.application.munera.data;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+
+/**
+ * A half-open range of dates, from the first day included to the last day excluded.
+ * Queries compare the raw date column against both bounds, so that an index on the date can be used.
+ *
+ * @param from the first day of the range, included
+ * @param to   the day after the last day of the range, excluded
+ */
+public record DateRange(LocalDate from, LocalDate to) {
+
+    public DateRange {
+        if (from == null || to == null) throw new IllegalArgumentException("Both bounds of the date range are required");
+        if (to.isBefore(from)) throw new IllegalArgumentException("The end of the date range must not be before its start");
+    }
+
+    /**
+     * Creates the range covering a whole year.
+     * @param year the year to cover
+     * @return the range from the 1st of January to the 1st of January of the following year
+     */
+    public static DateRange ofYear(final Year year) {
+        final var start = year.atDay(1);
+        return new DateRange(start, start.plusYears(1));
+    }
+
+    /**
+     * Creates the range covering a quarter of a year.
+     * @param year the year of the quarter
+     * @param quarter the quarter, from 1 to 4
+     * @return the range covering the three months of the quarter
+     */
+    public static DateRange ofQuarter(final Year year, final int quarter) {
+        if (quarter < 1 || quarter > 4) throw new IllegalArgumentException("The quarter must be between 1 and 4");
+        final var start = year.atMonth((quarter - 1) * 3 + 1).atDay(1);
+        return new DateRange(start, start.plusMonths(3));
+    }
+
+    /**
+     * Creates the range covering a single month.
+     * @param month the month to cover
+     * @return the range from the first day of the month to the first day of the following month
+     */
+    public static DateRange ofMonth(final YearMonth month) {
+        final var start = month.atDay(1);
+        return new DateRange(start, start.plusMonths(1));
+    }
+
+    /**
+     * Creates a custom range where both days are included.
+     * @param firstDay the first day of the range
+     * @param lastDay the last day of the range
+     * @return the range covering both days and every day in between
+     */
+    public static DateRange between(final LocalDate firstDay, final LocalDate lastDay) {
+        return new DateRange(firstDay, lastDay.plusDays(1));
+    }
+}
@@ -4,22 +4,32 @@ import com.application.munera.data.enums.ExpenseType;
 import com.application.munera.data.enums.PeriodUnit;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Objects;
 
 @Entity
 @Getter
 @Setter
-@EqualsAndHashCode
 @Table(name = "expenses")
+@NamedEntityGraph(name = Expense.WITH_CATEGORY, attributeNodes = @NamedAttributeNode("category"))
+@NamedEntityGraph(name = Expense.WITH_CATEGORY_AND_PEOPLE, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("payer"),
+        @NamedAttributeNode("beneficiary")
+})
 public class Expense {
 
+    // Fetch plans: associations are lazy, each query declares the ones it needs to render
+    public static final String WITH_CATEGORY = "Expense.withCategory";
+    public static final String WITH_CATEGORY_AND_PEOPLE = "Expense.withCategoryAndPeople";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     @Column(name = "Id", unique = true, nullable = false)
     private Long id;
 
@@ -27,7 +37,7 @@ public class Expense {
     @Column(name = "Name", nullable = false)
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CategoryId", nullable = false)
     private Category category;
 
@@ -47,11 +57,19 @@ public class Expense {
     @Column(name = "PeriodInterval")
     private Integer periodInterval;
 
-    @ManyToOne
+    // The date of the next occurrence to generate, when the expense is periodic
+    @Column(name = "NextDueDate")
+    private LocalDate nextDueDate;
+
+    // The id of the periodic expense this expense is an occurrence of
+    @Column(name = "RecurrenceSourceId")
+    private Long recurrenceSourceId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CreditorId")
     private Person payer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "DebtorId")
     private Person beneficiary;
 
@@ -70,4 +88,22 @@ public class Expense {
 
     @Column(name = "userId", nullable = false)
     private Long userId;
-}
\ No newline at end of file
+
+    // Incremented on every update, so that saving a copy read before another change fails instead of overwriting it
+    @Version
+    @Column(name = "Version", nullable = false)
+    private Long version;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Expense expense = (Expense) o;
+        return id != null && id.equals(expense.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
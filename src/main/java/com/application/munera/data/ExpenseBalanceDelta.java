@@ -0,0 +1,44 @@
+package com.application.munera.data;
+
+import java.math.BigDecimal;
+
+/**
+ * A change to apply to the running balances of the payer and the beneficiary of some expenses.
+ * The amount is added to the debt of the payer and to the credit of the beneficiary.
+ *
+ * @param payerId       the id of the person who paid
+ * @param beneficiaryId the id of the person the expenses were paid for
+ * @param amount        the unpaid cost to add
+ */
+public record ExpenseBalanceDelta(Long payerId, Long beneficiaryId, BigDecimal amount) {
+
+    /**
+     * Creates the delta adding a single expense, given its stored values.
+     * Paid expenses and the ones a person paid for themselves do not change any balance.
+     */
+    public ExpenseBalanceDelta(Long payerId, Long beneficiaryId, BigDecimal cost, Boolean isPaid) {
+        this(payerId, beneficiaryId, Boolean.TRUE.equals(isPaid) || payerId == null || payerId.equals(beneficiaryId) ? BigDecimal.ZERO : cost);
+    }
+
+    /**
+     * Creates the delta adding an expense to the balances of its payer and beneficiary.
+     * @param expense the expense to add
+     * @return the delta adding the expense
+     */
+    public static ExpenseBalanceDelta of(final Expense expense) {
+        return new ExpenseBalanceDelta(expense.getPayer() == null ? null : expense.getPayer().getId(),
+                expense.getBeneficiary() == null ? null : expense.getBeneficiary().getId(), expense.getCost(), expense.getIsPaid());
+    }
+
+    /**
+     * Gets the opposite delta, removing what this one adds.
+     * @return the negated delta
+     */
+    public ExpenseBalanceDelta negate() {
+        return new ExpenseBalanceDelta(payerId, beneficiaryId, amount.negate());
+    }
+
+    public boolean isZero() {
+        return payerId == null || beneficiaryId == null || amount.signum() == 0;
+    }
+}
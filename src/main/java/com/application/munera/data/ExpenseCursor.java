@@ -0,0 +1,58 @@
+package com.application.munera.data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The position of the last expense of a page in a listing sorted by date and id, both descending.
+ * The next page starts right after it, so the database seeks into the index instead of skipping the previous rows.
+ * Clients only see the cursor as an opaque continuation token.
+ *
+ * @param date the date of the last expense returned
+ * @param id   the id of the last expense returned, breaking the ties between expenses of the same date
+ */
+public record ExpenseCursor(LocalDate date, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public ExpenseCursor {
+        if (date == null || id == null) throw new IllegalArgumentException("Both the date and the id of the cursor are required");
+    }
+
+    /**
+     * Creates the cursor pointing after an expense row.
+     * @param row the last row of a page
+     * @return the cursor of the row
+     */
+    public static ExpenseCursor after(final ExpenseRow row) {
+        return new ExpenseCursor(row.date(), row.id());
+    }
+
+    /**
+     * Encodes the cursor into an opaque token, safe to use in URLs.
+     * @return the continuation token
+     */
+    public String toToken() {
+        final var value = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token created by {@link #toToken()}.
+     * @param token the continuation token
+     * @return the cursor encoded in the token
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ExpenseCursor fromToken(final String token) {
+        try {
+            final var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final var separatorIndex = value.indexOf(SEPARATOR);
+            if (separatorIndex < 0) throw new IllegalArgumentException("Invalid continuation token");
+            return new ExpenseCursor(LocalDate.parse(value.substring(0, separatorIndex)), Long.parseLong(value.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.application.munera.data;
+
+import com.application.munera.data.enums.ExpenseType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Holds the criteria selected in the expenses filter bar.
+ * Every criterion left empty is ignored, so an empty filter matches all the expenses of the user.
+ */
+@Getter
+@Setter
+public class ExpenseFilter {
+
+    private Long userId;
+
+    private String name;
+
+    private Set<Category> categories = new HashSet<>();
+
+    private LocalDate dateFrom; // inclusive
+
+    private LocalDate dateTo; // inclusive
+
+    private Boolean isPaid;
+
+    private ExpenseType expenseType;
+
+    private Person person; // matches the expenses where the person is either the payer or the beneficiary
+}
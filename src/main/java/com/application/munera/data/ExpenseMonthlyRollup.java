@@ -0,0 +1,36 @@
+package com.application.munera.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * The totals of the expenses of a user in a month, of a category and of a type.
+ * The rows are kept up to date by the service saving and deleting the expenses,
+ * so that the dashboard reads at most one row per month, category and type instead of every expense of the year.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "expense_monthly_rollup")
+public class ExpenseMonthlyRollup {
+
+    @EmbeddedId
+    private ExpenseMonthlyRollupId id;
+
+    @Column(name = "expenseCount", nullable = false)
+    private Long expenseCount;
+
+    @Column(name = "totalCost", nullable = false)
+    private BigDecimal totalCost;
+
+    // The part of the total cost of the expenses that are not paid yet
+    @Column(name = "unpaidCost", nullable = false)
+    private BigDecimal unpaidCost;
+}
@@ -0,0 +1,43 @@
+package com.application.munera.data;
+
+import com.application.munera.data.enums.ExpenseType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * The key of a monthly rollup: the expenses of a user in a month, of a category and of a type.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ExpenseMonthlyRollupId implements Serializable {
+
+    @Column(name = "userId", nullable = false)
+    private Long userId;
+
+    @Column(name = "expenseYear", nullable = false)
+    private Integer expenseYear;
+
+    // From 1 (January) to 12 (December)
+    @Column(name = "expenseMonth", nullable = false)
+    private Integer expenseMonth;
+
+    @Column(name = "categoryId", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private ExpenseType expenseType;
+}
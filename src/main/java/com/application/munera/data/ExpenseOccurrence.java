@@ -0,0 +1,41 @@
+package com.application.munera.data;
+
+import com.application.munera.data.enums.ExpenseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An entry of the calendar of a user: either an expense stored in the database, or an upcoming occurrence
+ * of a periodic expense, computed from its rule and never stored.
+ *
+ * @param expenseId          the id of the stored expense, or of the periodic expense the occurrence is computed from
+ * @param recurrenceSourceId the id of the periodic expense a stored expense was generated from, null otherwise
+ * @param name               the name of the expense
+ * @param cost               the cost of the expense
+ * @param categoryName       the name of the category of the expense
+ * @param date               the date of the expense
+ * @param isPaid             whether the expense has been paid
+ * @param expenseType        the type of the expense for the user
+ * @param projected          whether the entry is an upcoming occurrence that is not stored yet
+ */
+public record ExpenseOccurrence(Long expenseId, Long recurrenceSourceId, String name, BigDecimal cost, String categoryName,
+                                LocalDate date, Boolean isPaid, ExpenseType expenseType, boolean projected) {
+
+    // Used by the date range query, whose rows are all stored expenses
+    public ExpenseOccurrence(Long expenseId, Long recurrenceSourceId, String name, BigDecimal cost, String categoryName,
+                             LocalDate date, Boolean isPaid, ExpenseType expenseType) {
+        this(expenseId, recurrenceSourceId, name, cost, categoryName, date, isPaid, expenseType, false);
+    }
+
+    /**
+     * Creates the upcoming occurrence of a periodic expense on a date.
+     * @param template the periodic expense
+     * @param date the date of the occurrence
+     * @return the occurrence, unpaid like the ones the scheduler generates
+     */
+    public static ExpenseOccurrence projectedFrom(final Expense template, final LocalDate date) {
+        return new ExpenseOccurrence(template.getId(), template.getId(), template.getName(), template.getCost(),
+                template.getCategory().getName(), date, false, template.getExpenseType(), true);
+    }
+}
@@ -0,0 +1,72 @@
+package com.application.munera.data;
+
+import com.application.munera.data.enums.ExpenseType;
+
+import java.math.BigDecimal;
+
+/**
+ * A change to apply to the monthly rollup of a user, month, category and type.
+ *
+ * @param userId     the id of the user of the expenses
+ * @param year       the year of the expenses
+ * @param month      the month of the expenses, from 1 (January) to 12 (December)
+ * @param categoryId the id of the category of the expenses
+ * @param type       the type of the expenses
+ * @param count      the number of expenses to add
+ * @param totalCost  the cost to add to the total
+ * @param unpaidCost the cost to add to the unpaid total
+ */
+public record ExpenseRollupDelta(Long userId, Integer year, Integer month, Long categoryId, ExpenseType type,
+                                 Long count, BigDecimal totalCost, BigDecimal unpaidCost) {
+
+    /**
+     * Creates the delta adding a single expense, given its stored values.
+     */
+    public ExpenseRollupDelta(Long userId, Integer year, Integer month, Long categoryId, ExpenseType type, BigDecimal cost, Boolean isPaid) {
+        this(userId, year, month, categoryId, type, 1L, cost, Boolean.TRUE.equals(isPaid) ? BigDecimal.ZERO : cost);
+    }
+
+    /**
+     * Creates the delta adding an expense to the rollup.
+     * @param expense the expense to add
+     * @return the delta adding the expense
+     */
+    public static ExpenseRollupDelta of(final Expense expense) {
+        return new ExpenseRollupDelta(expense.getUserId(), expense.getDate().getYear(), expense.getDate().getMonthValue(),
+                expense.getCategory().getId(), expense.getExpenseType(), expense.getCost(), expense.getIsPaid());
+    }
+
+    public ExpenseMonthlyRollupId key() {
+        return new ExpenseMonthlyRollupId(userId, year, month, categoryId, type);
+    }
+
+    /**
+     * Gets the opposite delta, removing what this one adds.
+     * @return the negated delta
+     */
+    public ExpenseRollupDelta negate() {
+        return new ExpenseRollupDelta(userId, year, month, categoryId, type, -count, totalCost.negate(), unpaidCost.negate());
+    }
+
+    /**
+     * Gets the delta setting as paid the unpaid expenses counted by this one, which stay in the rollup.
+     * @return the delta removing the unpaid cost
+     */
+    public ExpenseRollupDelta settled() {
+        return new ExpenseRollupDelta(userId, year, month, categoryId, type, 0L, BigDecimal.ZERO, unpaidCost.negate());
+    }
+
+    /**
+     * Adds another delta of the same rollup to this one.
+     * @param other the delta to add
+     * @return the sum of the two deltas
+     */
+    public ExpenseRollupDelta plus(final ExpenseRollupDelta other) {
+        return new ExpenseRollupDelta(userId, year, month, categoryId, type,
+                count + other.count, totalCost.add(other.totalCost), unpaidCost.add(other.unpaidCost));
+    }
+
+    public boolean isZero() {
+        return count == 0 && totalCost.signum() == 0 && unpaidCost.signum() == 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.application.munera.data;
+
+import com.application.munera.data.enums.ExpenseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A read-only view of an expense, holding only the columns rendered by the grid, the charts and the export.
+ * Rows are not managed by the persistence context, so they carry no snapshot, proxy or dirty-checking state.
+ *
+ * @param id           the id of the expense
+ * @param name         the name of the expense
+ * @param cost         the cost of the expense
+ * @param categoryName the name of the category of the expense
+ * @param date         the date of the expense
+ * @param paymentDate  the date the expense was paid, null when it is unpaid
+ * @param isPaid       whether the expense has been paid
+ * @param expenseType  the type of the expense for the user
+ */
+public record ExpenseRow(Long id, String name, BigDecimal cost, String categoryName, LocalDate date,
+                         LocalDate paymentDate, Boolean isPaid, ExpenseType expenseType) {
+}
@@ -0,0 +1,53 @@
+package com.application.munera.data;
+
+import com.application.munera.data.enums.ExpenseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The state of an expense at a point in time, detached from the persistence context so it can be kept after the commit.
+ * The rollup and balance deltas of the expense are derived from it.
+ *
+ * @param id            the id of the expense
+ * @param userId        the id of the user of the expense
+ * @param name          the name of the expense
+ * @param date          the date of the expense
+ * @param categoryId    the id of the category of the expense
+ * @param payerId       the id of the person who paid
+ * @param beneficiaryId the id of the person the expense was paid for
+ * @param cost          the cost of the expense
+ * @param isPaid        whether the expense has been paid
+ * @param expenseType   the type of the expense for the user
+ */
+public record ExpenseState(Long id, Long userId, String name, LocalDate date, Long categoryId, Long payerId, Long beneficiaryId,
+                           BigDecimal cost, Boolean isPaid, ExpenseType expenseType) {
+
+    /**
+     * Reads the state of an expense.
+     * @param expense the expense
+     * @return the current state of the expense
+     */
+    public static ExpenseState of(final Expense expense) {
+        return new ExpenseState(expense.getId(), expense.getUserId(), expense.getName(), expense.getDate(), expense.getCategory().getId(),
+                expense.getPayer() == null ? null : expense.getPayer().getId(),
+                expense.getBeneficiary() == null ? null : expense.getBeneficiary().getId(),
+                expense.getCost(), expense.getIsPaid(), expense.getExpenseType());
+    }
+
+    /**
+     * Gets the delta adding the expense in this state to its monthly rollup.
+     * @return the rollup delta
+     */
+    public ExpenseRollupDelta rollupDelta() {
+        return new ExpenseRollupDelta(userId, date.getYear(), date.getMonthValue(), categoryId, expenseType, cost, isPaid);
+    }
+
+    /**
+     * Gets the delta adding the expense in this state to the balances of its payer and beneficiary.
+     * @return the balance delta
+     */
+    public ExpenseBalanceDelta balanceDelta() {
+        return new ExpenseBalanceDelta(payerId, beneficiaryId, cost, isPaid);
+    }
+}
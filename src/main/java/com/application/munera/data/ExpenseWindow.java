@@ -0,0 +1,20 @@
+package com.application.munera.data;
+
+import java.util.List;
+
+/**
+ * A page of expense rows read with a cursor, along with the token to read the following page.
+ *
+ * @param rows      the rows of the page, sorted by date and id, both descending
+ * @param nextToken the continuation token of the following page, null when this is the last page
+ */
+public record ExpenseWindow(List<ExpenseRow> rows, String nextToken) {
+
+    /**
+     * Checks if there are more rows after this page.
+     * @return true if the following page can be read with {@link #nextToken()}
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
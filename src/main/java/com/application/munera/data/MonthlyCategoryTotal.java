@@ -0,0 +1,13 @@
+package com.application.munera.data;
+
+import java.math.BigDecimal;
+
+/**
+ * The total cost of the expenses of a category in a month.
+ *
+ * @param month        the month of the expenses, from 1 (January) to 12 (December)
+ * @param categoryName the name of the category of the expenses
+ * @param total        the sum of the costs of the expenses
+ */
+public record MonthlyCategoryTotal(Integer month, String categoryName, BigDecimal total) {
+}
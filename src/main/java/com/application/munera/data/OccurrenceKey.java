@@ -0,0 +1,12 @@
+package com.application.munera.data;
+
+import java.time.LocalDate;
+
+/**
+ * Identifies an occurrence of a periodic expense, which is created once per template and date.
+ *
+ * @param recurrenceSourceId the id of the periodic expense the occurrence is generated from
+ * @param date               the date of the occurrence
+ */
+public record OccurrenceKey(Long recurrenceSourceId, LocalDate date) {
+}
@@ -17,7 +17,8 @@ import java.util.Set;
 public class Person {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "people_seq")
+    @SequenceGenerator(name = "people_seq", sequenceName = "people_seq", allocationSize = 50)
     @Column(name = "Id", unique = true, nullable = false)
     private Long id;
 
@@ -34,10 +35,12 @@ public class Person {
     @Column(name = "email")
     private String email;
 
-    @Column(name = "debt")
+    // Running totals of the unpaid expenses shared with someone else, written only by PersonBalanceService,
+    // so that saving a person loaded before some expenses changed does not overwrite them
+    @Column(name = "debt", insertable = false, updatable = false)
     private BigDecimal debt;
 
-    @Column(name = "credit")
+    @Column(name = "credit", insertable = false, updatable = false)
     private BigDecimal credit;
 
     @OneToMany(mappedBy = "payer")
@@ -52,6 +55,15 @@ public class Person {
     @Column(name = "UserId", nullable = false)
     private Long userId; // Reference to the User entity
 
+    /**
+     * Gets the net balance of the person from the running totals, positive when the person is owed money
+     * and negative when the person owes money.
+     * @return the debt minus the credit
+     */
+    public BigDecimal getNetBalance() {
+        return Objects.requireNonNullElse(debt, BigDecimal.ZERO).subtract(Objects.requireNonNullElse(credit, BigDecimal.ZERO));
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
@@ -0,0 +1,31 @@
+package com.application.munera.data;
+
+import java.math.BigDecimal;
+
+/**
+ * The outstanding amounts of a person, computed over the unpaid expenses shared with someone else.
+ *
+ * @param debt   the total of the unpaid expenses the person paid for someone else (what others owe to the person)
+ * @param credit the total of the unpaid expenses someone else paid for the person (what the person owes to others)
+ */
+public record PersonBalance(BigDecimal debt, BigDecimal credit) {
+
+    public static final PersonBalance ZERO = new PersonBalance(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    /**
+     * Calculates the net balance, positive when the person is owed money and negative when the person owes money.
+     * @return the debt minus the credit
+     */
+    public BigDecimal netBalance() {
+        return debt.subtract(credit);
+    }
+
+    /**
+     * Adds another balance to this one.
+     * @param other the balance to add
+     * @return the sum of the two balances
+     */
+    public PersonBalance plus(final PersonBalance other) {
+        return new PersonBalance(debt.add(other.debt), credit.add(other.credit));
+    }
+}
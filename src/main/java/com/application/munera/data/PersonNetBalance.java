@@ -0,0 +1,12 @@
+package com.application.munera.data;
+
+import java.math.BigDecimal;
+
+/**
+ * The net balance of a person, read from the running totals of the person.
+ *
+ * @param personId   the id of the person
+ * @param netBalance the debt minus the credit of the person, positive when the person is owed money
+ */
+public record PersonNetBalance(Long personId, BigDecimal netBalance) {
+}
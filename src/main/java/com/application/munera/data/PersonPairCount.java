@@ -0,0 +1,11 @@
+package com.application.munera.data;
+
+/**
+ * The number of expenses that a payer paid for a beneficiary.
+ *
+ * @param payerId       the id of the person who paid
+ * @param beneficiaryId the id of the person the expenses were paid for
+ * @param count         the number of expenses
+ */
+public record PersonPairCount(Long payerId, Long beneficiaryId, Long count) {
+}
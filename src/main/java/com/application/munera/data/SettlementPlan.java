@@ -0,0 +1,38 @@
+package com.application.munera.data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The transfers clearing all the outstanding balances of the people of a user, together with the balances they were computed from.
+ * A plan can only be applied while the balances are unchanged, otherwise the transfers would not clear them.
+ *
+ * @param netBalances the non-zero net balances of the people, keyed by the person id
+ * @param transfers   the transfers clearing the balances
+ */
+public record SettlementPlan(Map<Long, BigDecimal> netBalances, List<SettlementTransfer> transfers) {
+
+    public SettlementPlan {
+        netBalances = Map.copyOf(netBalances);
+        transfers = List.copyOf(transfers);
+    }
+
+    public boolean isEmpty() {
+        return transfers.isEmpty();
+    }
+
+    /**
+     * Checks whether the plan was computed from the given balances.
+     * @param currentBalances the non-zero net balances of the people, keyed by the person id
+     * @return true if the balances are the same as the ones of the plan, whatever their scale
+     */
+    public boolean isBasedOn(final Map<Long, BigDecimal> currentBalances) {
+        if (currentBalances.size() != netBalances.size()) return false;
+        for (final var entry : currentBalances.entrySet()) {
+            final var balance = netBalances.get(entry.getKey());
+            if (balance == null || balance.compareTo(entry.getValue()) != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.application.munera.data;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment from one person to another, part of a {@link SettlementPlan}.
+ *
+ * @param fromPersonId the id of the person who pays, who owes money
+ * @param toPersonId   the id of the person who is paid, who is owed money
+ * @param amount       the amount to pay, always positive
+ */
+public record SettlementTransfer(Long fromPersonId, Long toPersonId, BigDecimal amount) {
+}
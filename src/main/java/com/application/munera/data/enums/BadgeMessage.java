@@ -10,6 +10,10 @@ public enum BadgeMessage {
     OWED_TO_ME("Owed to me", "badge warning"),
     OWED_BY_ME("Owed by me", "badge warning"),
     NOT_PAID("Not paid", "badge warning"),
+    CREDIT("Credit", "badge success"),
+    DEBIT("Debit", "badge error"),
+    CLEAR("Clear", "badge contrast"),
+    SCHEDULED("Scheduled", "badge contrast"),
     UNKNOWN("Unknown status", "badge error");
 
     private final String text;
@@ -0,0 +1,21 @@
+package com.application.munera.data.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+    CSV("CSV", "expenses.csv", "text/csv"),
+    CSV_GZIP("CSV (gzip)", "expenses.csv.gz", "application/gzip"),
+    JSON_LINES("JSON Lines", "expenses.ndjson", "application/x-ndjson"),
+    XLSX("Excel", "expenses.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String label;
+    private final String fileName;
+    private final String contentType;
+
+    ExportFormat(String label, String fileName, String contentType) {
+        this.label = label;
+        this.fileName = fileName;
+        this.contentType = contentType;
+    }
+}
@@ -1,8 +1,42 @@
 package com.application.munera.data.enums;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
 
 public enum PeriodUnit {
-    DAY,
-    WEEK,
-    MONTH
-}
\ No newline at end of file
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    PeriodUnit(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Gets the date of an occurrence of a recurrence. Occurrences are counted from the first date,
+     * so that monthly ones falling on a shorter month go back to their day of the month afterwards.
+     * @param start the date of the first occurrence, whose index is zero
+     * @param interval the number of units between two occurrences
+     * @param index the index of the occurrence
+     * @return the date of the occurrence
+     */
+    public LocalDate occurrence(LocalDate start, int interval, long index) {
+        return start.plus(index * interval, this.unit);
+    }
+
+    /**
+     * Gets the index of the first occurrence of a recurrence on or after a date.
+     * @param start the date of the first occurrence, whose index is zero
+     * @param interval the number of units between two occurrences
+     * @param date the date from which the occurrence is searched
+     * @return the index of the occurrence
+     */
+    public long firstOccurrenceFrom(LocalDate start, int interval, LocalDate date) {
+        long index = Math.max(0, this.unit.between(start, date) / interval);
+        while (this.occurrence(start, interval, index).isBefore(date)) index++;
+        return index;
+    }
+}
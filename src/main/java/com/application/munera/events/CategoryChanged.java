@@ -0,0 +1,11 @@
+package com.application.munera.events;
+
+/**
+ * A category was created, updated or deleted.
+ *
+ * @param userId     the id of the user of the category
+ * @param categoryId the id of the category
+ * @param deleted    whether the category was deleted
+ */
+public record CategoryChanged(Long userId, Long categoryId, boolean deleted) implements DomainEvent {
+}
@@ -0,0 +1,16 @@
+package com.application.munera.events;
+
+/**
+ * A change of the data of a user, published once the transaction making it has committed.
+ * Listeners declared with {@code @TransactionalEventListener(fallbackExecution = true)} receive it after the commit,
+ * or right away when the change was made outside a transaction, and never for a change that was rolled back.
+ * Listeners doing slow work run on the bounded executor of {@link DomainEventsConfiguration}.
+ */
+public sealed interface DomainEvent permits ExpenseChanged, ExpensesChanged, PersonChanged, CategoryChanged {
+
+    /**
+     * Gets the user whose data changed.
+     * @return the id of the user
+     */
+    Long userId();
+}
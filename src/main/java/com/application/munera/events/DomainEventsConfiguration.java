@@ -0,0 +1,35 @@
+package com.application.munera.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Enables the asynchronous listeners of the domain events, which run on a bounded pool instead of the committing thread.
+ * When the queue is full the committing thread runs the listener itself, so events are slowed down rather than dropped.
+ * The pool is sized with {@code munera.events.threads} and {@code munera.events.queue-capacity}.
+ */
+@Configuration
+@EnableAsync
+public class DomainEventsConfiguration {
+
+    // The executor to name in @Async on the listeners of the domain events
+    public static final String DOMAIN_EVENT_EXECUTOR = "domainEventExecutor";
+
+    @Bean(name = DOMAIN_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor domainEventExecutor(@Value("${munera.events.threads:2}") int threads,
+                                                      @Value("${munera.events.queue-capacity:1000}") int queueCapacity) {
+        final var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("domain-event-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package com.application.munera.events;
+
+import com.application.munera.data.ExpenseState;
+
+import java.util.Objects;
+
+/**
+ * An expense was created, updated or deleted.
+ *
+ * @param userId the id of the user of the expense
+ * @param before the stored state of the expense before the change, null when it was created
+ * @param after  the state of the expense after the change, null when it was deleted
+ */
+public record ExpenseChanged(Long userId, ExpenseState before, ExpenseState after) implements DomainEvent {
+
+    public boolean isCreated() {
+        return Objects.isNull(before);
+    }
+
+    public boolean isDeleted() {
+        return Objects.isNull(after);
+    }
+}
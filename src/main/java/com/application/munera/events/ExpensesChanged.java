@@ -0,0 +1,11 @@
+package com.application.munera.events;
+
+/**
+ * Many expenses of a user were changed at once, by a single statement or a batch, like when they are settled
+ * or when the occurrences of the periodic expenses are generated. The state of each expense is not carried.
+ *
+ * @param userId the id of the user of the expenses
+ * @param count  the number of expenses changed
+ */
+public record ExpensesChanged(Long userId, int count) implements DomainEvent {
+}
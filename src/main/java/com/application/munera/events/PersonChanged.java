@@ -0,0 +1,11 @@
+package com.application.munera.events;
+
+/**
+ * A person was created, updated or deleted.
+ *
+ * @param userId   the id of the user of the person
+ * @param personId the id of the person
+ * @param deleted  whether the person was deleted
+ */
+public record PersonChanged(Long userId, Long personId, boolean deleted) implements DomainEvent {
+}
@@ -5,9 +5,11 @@ import com.application.munera.data.Person;
 import com.application.munera.services.ExpenseService;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.treegrid.TreeGrid;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class ExpenseFacade {
@@ -22,21 +24,32 @@ public class ExpenseFacade {
      * @param expense the expense to set as paid
      * @param grid the grid reference to update
      * @param userId the id of the user related to the expense
+     * @param loggedInPerson the person of the logged-in user
      */
-    public void setExpensePaid(Expense expense, TreeGrid<Object> grid, Long userId) {
+    public void setExpensePaid(Expense expense, TreeGrid<Object> grid, Long userId, Person loggedInPerson) {
         expense.setIsPaid(true);
-        this.expenseService.update(expense, userId);
+        this.expenseService.update(expense, userId, loggedInPerson);
         Notification.show("Expense " + expense.getName() + " set as paid" );
         grid.select(null);
         grid.getDataProvider().refreshAll();
     }
 
     /**
-     * Finds all expenses related to a person, both where the person is a payer and a beneficiary.
+     * Finds a page of the expenses related to a person, both where the person is a payer and a beneficiary.
      * @param person the person of the expenses
-     * @return the list of expenses found
+     * @param pageable the page to load and its sorting
+     * @return the expenses of the page
      */
-    public List<Expense> findExpensesByPerson(final Person person) {
-        return this.expenseService.findExpensesByPerson(person);
+    public List<Expense> findExpensesByPerson(final Person person, final Pageable pageable) {
+        return this.expenseService.findExpensesByPerson(person, pageable);
     }
-}
\ No newline at end of file
+
+    /**
+     * Counts the expenses of all the people of a user.
+     * @param userId the id of the user whose people's expenses are counted
+     * @return the number of expenses of each person, keyed by the person id
+     */
+    public Map<Long, Long> countExpensesByPerson(final Long userId) {
+        return this.expenseService.countExpensesByPerson(userId);
+    }
+}
@@ -1,11 +1,11 @@
 package com.application.munera.facades;
 
-import com.application.munera.data.Expense;
 import com.application.munera.data.Person;
+import com.application.munera.data.SettlementPlan;
 import com.application.munera.data.User;
 import com.application.munera.services.ExpenseService;
 import com.application.munera.services.PersonService;
-import com.application.munera.services.UserService;
+import com.application.munera.services.SettlementService;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.treegrid.TreeGrid;
@@ -13,30 +13,20 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
 public class PersonFacade {
 
     private final ExpenseService expenseService;
-    private final UserService userService;
     private final PersonService personService;
+    private final SettlementService settlementService;
 
-    public PersonFacade(ExpenseService expenseService, UserService userService, PersonService personService) {
+    public PersonFacade(ExpenseService expenseService, PersonService personService, SettlementService settlementService) {
         this.expenseService = expenseService;
-        this.userService = userService;
         this.personService = personService;
-    }
-
-    /**
-     * Fetches the {@code Person} entity associated with the currently logged-in user.
-     *
-     * @return the {@code Person} entity of the logged-in user, or {@code null} if not found
-     */
-    public Person getLoggedInPerson() {
-        final var user = userService.getLoggedInUser();
-        return Objects.requireNonNull(personService.findByUsername(user.getUsername()));
+        this.settlementService = settlementService;
     }
 
     /**
@@ -100,7 +90,17 @@ public class PersonFacade {
     }
 
     /**
-     * Marks all expenses as paid for the given {@code Person} where the person is the payer.
+     * Calculates the net balances of all the people of a user in a single query.
+     *
+     * @param user the user whose people's balances are to be calculated
+     * @return the net balance of each person keyed by the person id, people without outstanding expenses are missing
+     */
+    public Map<Long, BigDecimal> calculateNetBalances(final User user) {
+        return this.personService.calculateNetBalances(user);
+    }
+
+    /**
+     * Marks all unpaid expenses as paid for the given {@code Person} where the person is the payer, in a single update.
      * Updates the user interface to reflect the changes and provides notifications for success or failure.
      *
      * @param person the {@code Person} whose expenses are to be marked as paid
@@ -109,12 +109,8 @@ public class PersonFacade {
      */
     public void setDebtPaid(Person person, TreeGrid<Object> grid, Long userId) {
         try {
-            List<Expense> expenses = expenseService.findExpensesWherePayer(person).stream().toList();
-            for (Expense expense : expenses) {
-                expense.setIsPaid(true);
-                expenseService.update(expense, userId);
-            }
-            Notification.show("All expenses marked as paid for " + person.getFirstName() + " " + person.getLastName());
+            final var settledExpenses = expenseService.settleExpensesWherePayer(person, userId);
+            Notification.show(settledExpenses + " expenses marked as paid for " + person.getFirstName() + " " + person.getLastName());
             grid.select(null);
             grid.getDataProvider().refreshAll();
         } catch (Exception e) {
@@ -125,7 +121,7 @@ public class PersonFacade {
     }
 
     /**
-     * Marks all expenses as paid for the given {@code Person} where the person is the beneficiary.
+     * Marks all unpaid expenses as paid for the given {@code Person} where the person is the beneficiary, in a single update.
      * Updates the user interface to reflect the changes and provides notifications for success or failure.
      *
      * @param person the {@code Person} whose expenses are to be marked as paid
@@ -134,12 +130,8 @@ public class PersonFacade {
      */
     public void setCreditPaid(Person person, TreeGrid<Object> grid, Long userId) {
         try {
-            List<Expense> expenses = (List<Expense>) expenseService.findExpensesWhereBeneficiary(person);
-            for (Expense expense : expenses) {
-                expense.setIsPaid(true);
-                expenseService.update(expense, userId);
-            }
-            Notification.show("All expenses marked as paid for " + person.getFirstName() + " " + person.getLastName());
+            final var settledExpenses = expenseService.settleExpensesWhereBeneficiary(person, userId);
+            Notification.show(settledExpenses + " expenses marked as paid for " + person.getFirstName() + " " + person.getLastName());
             grid.select(null);
             grid.getDataProvider().refreshAll();
         } catch (Exception e) {
@@ -148,4 +140,35 @@ public class PersonFacade {
             n.addThemeVariants(NotificationVariant.LUMO_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Computes the fewest transfers, as far as the optimizer can find, clearing all the outstanding balances of the people of the user.
+     *
+     * @param user the logged-in user whose people's balances are to be settled
+     * @return the settlement plan
+     */
+    public SettlementPlan planSettlement(final User user) {
+        return this.settlementService.plan(user);
+    }
+
+    /**
+     * Marks as paid all the unpaid expenses shared between the people of the user, once the transfers of the plan have been made.
+     * Updates the user interface to reflect the changes and provides notifications for success or failure.
+     *
+     * @param plan the settlement plan whose transfers have been made
+     * @param user the logged-in user whose people's balances are settled
+     * @param grid the {@code TreeGrid} component to refresh after updating expenses
+     */
+    public void applySettlement(SettlementPlan plan, User user, TreeGrid<Object> grid) {
+        try {
+            final var settledExpenses = this.settlementService.apply(plan, user);
+            Notification.show(settledExpenses + " expenses marked as paid, all balances are settled");
+            grid.select(null);
+            grid.getDataProvider().refreshAll();
+        } catch (Exception e) {
+            Notification n = Notification.show("Error settling the balances: " + e.getMessage());
+            n.setPosition(Notification.Position.MIDDLE);
+            n.addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+}
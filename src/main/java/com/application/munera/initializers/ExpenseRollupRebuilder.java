@@ -0,0 +1,27 @@
+package com.application.munera.initializers;
+
+import com.application.munera.services.ExpenseRollupService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recomputes the monthly expense rollups from the expenses at startup, when the application is launched with
+ * {@code --munera.rollup.rebuild=true}, e.g. after the expenses have been changed directly in the database.
+ */
+@Service
+@ConditionalOnProperty(name = "munera.rollup.rebuild", havingValue = "true")
+public class ExpenseRollupRebuilder implements ApplicationRunner {
+
+    private final ExpenseRollupService expenseRollupService;
+
+    public ExpenseRollupRebuilder(ExpenseRollupService expenseRollupService) {
+        this.expenseRollupService = expenseRollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        this.expenseRollupService.rebuild();
+    }
+}
@@ -0,0 +1,27 @@
+package com.application.munera.initializers;
+
+import com.application.munera.services.PersonBalanceService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recomputes the running debt and credit of the people from the expenses at startup, when the application is launched with
+ * {@code --munera.balances.rebuild=true}, e.g. after the expenses have been changed directly in the database.
+ */
+@Service
+@ConditionalOnProperty(name = "munera.balances.rebuild", havingValue = "true")
+public class PersonBalanceRebuilder implements ApplicationRunner {
+
+    private final PersonBalanceService personBalanceService;
+
+    public PersonBalanceRebuilder(PersonBalanceService personBalanceService) {
+        this.personBalanceService = personBalanceService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        this.personBalanceService.rebuild();
+    }
+}
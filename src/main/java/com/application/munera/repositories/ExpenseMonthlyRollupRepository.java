@@ -0,0 +1,60 @@
+package com.application.munera.repositories;
+
+import com.application.munera.data.ExpenseMonthlyRollup;
+import com.application.munera.data.ExpenseMonthlyRollupId;
+import com.application.munera.data.MonthlyCategoryTotal;
+import com.application.munera.data.enums.ExpenseType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, ExpenseMonthlyRollupId> {
+
+    // Add a delta to a rollup in place, so that concurrent changes to the same rollup are applied one after the other
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ExpenseMonthlyRollup r SET r.expenseCount = r.expenseCount + :count, " +
+            "r.totalCost = r.totalCost + :totalCost, r.unpaidCost = r.unpaidCost + :unpaidCost " +
+            "WHERE r.id.userId = :userId AND r.id.expenseYear = :year AND r.id.expenseMonth = :month " +
+            "AND r.id.categoryId = :categoryId AND r.id.expenseType = :type")
+    int addToRollup(@Param("userId") Long userId, @Param("year") Integer year, @Param("month") Integer month,
+                    @Param("categoryId") Long categoryId, @Param("type") ExpenseType type,
+                    @Param("count") Long count, @Param("totalCost") BigDecimal totalCost, @Param("unpaidCost") BigDecimal unpaidCost);
+
+    // Create a rollup with no expenses unless it exists. When a concurrent transaction creates the same rollup first,
+    // the insert waits for it and does nothing instead of failing, and the delta is then added to the row it created
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into expense_monthly_rollup " +
+            "(user_id, expense_year, expense_month, category_id, type, expense_count, total_cost, unpaid_cost) " +
+            "values (:userId, :year, :month, :categoryId, :type, 0, 0, 0) on conflict do nothing", nativeQuery = true)
+    int insertEmptyRollup(@Param("userId") Long userId, @Param("year") Integer year, @Param("month") Integer month,
+                          @Param("categoryId") Long categoryId, @Param("type") String type);
+
+    // Sum the dashboard expenses of a user in a year for every month and category:
+    // all the expenses except the ones the user paid for someone else, which are only counted until they are paid
+    @Query("SELECT new com.application.munera.data.MonthlyCategoryTotal(r.id.expenseMonth, c.name, " +
+            "SUM(CASE WHEN r.id.expenseType = :creditType THEN r.unpaidCost ELSE r.totalCost END)) " +
+            "FROM ExpenseMonthlyRollup r JOIN Category c ON c.id = r.id.categoryId " +
+            "WHERE r.id.userId = :userId AND r.id.expenseYear = :year " +
+            "GROUP BY r.id.expenseMonth, c.name " +
+            "HAVING SUM(CASE WHEN r.id.expenseType = :creditType THEN r.unpaidCost ELSE r.totalCost END) <> 0")
+    List<MonthlyCategoryTotal> findDashboardTotals(@Param("userId") Long userId, @Param("year") Integer year, @Param("creditType") ExpenseType creditType);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ExpenseMonthlyRollup r")
+    int deleteAllRollups();
+
+    // Recompute every rollup from the expenses, the same way the migration creating the table filled it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into expense_monthly_rollup " +
+            "(user_id, expense_year, expense_month, category_id, type, expense_count, total_cost, unpaid_cost) " +
+            "select e.user_id, cast(extract(year from e.date) as integer), cast(extract(month from e.date) as integer), " +
+            "e.category_id, e.type, count(*), sum(e.cost), sum(case when e.is_paid then 0 else e.cost end) " +
+            "from expenses e " +
+            "group by e.user_id, cast(extract(year from e.date) as integer), cast(extract(month from e.date) as integer), e.category_id, e.type",
+            nativeQuery = true)
+    int insertRollupsFromExpenses();
+}
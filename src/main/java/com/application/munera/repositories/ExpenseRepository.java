@@ -2,67 +2,144 @@ package com.application.munera.repositories;
 
 
 import com.application.munera.data.Expense;
-import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.data.ExpenseOccurrence;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.ExpenseState;
+import com.application.munera.data.OccurrenceKey;
+import com.application.munera.data.PersonPairCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
-    @Query(value = "SELECT DISTINCT e FROM Expense e " +
-            "WHERE (e.payer.id = :userId AND e.beneficiary.id = :userId AND YEAR(e.date) = :year) " +
-            "OR (e.beneficiary.id = :userId AND YEAR(e.date) = :year) " +
-            "OR (e.payer.id = :userId AND e.isPaid = false AND YEAR(e.date) = :year)")
-    List<Expense> findExpensesForDashboard(@Param("userId") Long userId, @Param("year") int year);
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense>, ExpenseRowRepository {
 
-    @Query("SELECT DISTINCT YEAR(e.date) FROM Expense e WHERE e.userId = :userId ORDER BY YEAR(e.date)")
-    List<Integer> findExpenseYearsByUserId(@Param("userId") Long userId);
+    // The edit form binds the category, the payer and the beneficiary
+    @Override
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
+    Optional<Expense> findById(Long id);
 
-    // Find expenses where the payer is a specific person
-    @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId")
-    List<Expense> findExpensesByPayer(@Param("personId") Long personId);
+    // The expenses grid only renders the category name of each expense
+    @Override
+    @EntityGraph(Expense.WITH_CATEGORY)
+    Page<Expense> findAll(Specification<Expense> spec, Pageable pageable);
 
-    // Find expenses where the beneficiary is a specific person
-    @Query("SELECT e FROM Expense e WHERE e.beneficiary.id = :personId")
-    List<Expense> findExpensesByBeneficiary(@Param("personId") Long personId);
+    @Query("SELECT DISTINCT YEAR(e.date) FROM Expense e WHERE e.userId = :userId ORDER BY YEAR(e.date)")
+    List<Integer> findExpenseYearsByUserId(@Param("userId") Long userId);
 
-    // Find expenses where both payer and beneficiary are the same person
-    @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId AND e.beneficiary.id = :personId")
-    List<Expense> findExpensesByPayerAndBeneficiary(@Param("personId") Long personId);
+    // Find a page of the expenses where a specific person is the payer or the beneficiary, without counting them
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
+    @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId OR e.beneficiary.id = :personId")
+    List<Expense> findExpensesByPayerOrBeneficiary(@Param("personId") Long personId, Pageable pageable);
 
-    // Find expenses where the payer and beneficiary are the same person for a specific year
-    @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId AND e.beneficiary.id = :personId AND YEAR(e.date) = :year")
-    List<Expense> findExpensesByPayerAndBeneficiaryAndYear(@Param("personId") Long personId, @Param("year") int year);
+    // Count the expenses of a user for every payer and beneficiary pair
+    @Query("SELECT new com.application.munera.data.PersonPairCount(e.payer.id, e.beneficiary.id, COUNT(e)) " +
+            "FROM Expense e WHERE e.userId = :userId GROUP BY e.payer.id, e.beneficiary.id")
+    List<PersonPairCount> countByPayerAndBeneficiary(@Param("userId") Long userId);
 
-    // Find expenses where the payer is a specific person for a specific year
-    @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId AND YEAR(e.date) = :year")
-    List<Expense> findExpensesByPayerAndYear(@Param("personId") Long personId, @Param("year") int year);
+    // Find expenses where the payer is a specific person in a date range
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
+    @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId AND e.date >= :from AND e.date < :to")
+    List<Expense> findExpensesByPayerInPeriod(@Param("personId") Long personId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    // Find expenses where the beneficiary is a specific person for a specific year
-    @Query("SELECT e FROM Expense e WHERE e.beneficiary.id = :personId AND YEAR(e.date) = :year")
-    List<Expense> findExpensesByBeneficiaryAndYear(@Param("personId") Long personId, @Param("year") int year);
-    // Find all expenses for a given year
-    @Query("SELECT e FROM Expense e WHERE YEAR(e.date) = :year")
-    List<Expense> findAllByYear(@Param("year") int year);
+    // Find expenses where the beneficiary is a specific person in a date range
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
+    @Query("SELECT e FROM Expense e WHERE e.beneficiary.id = :personId AND e.date >= :from AND e.date < :to")
+    List<Expense> findExpensesByBeneficiaryInPeriod(@Param("personId") Long personId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
     // Find unpaid expenses where the creditor is a specific person
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
     @Query("SELECT e FROM Expense e WHERE e.payer.id = :personId AND e.isPaid = false")
     Set<Expense> findUnpaidExpensesByPayer(@Param("personId") Long personId);
 
     // Find unpaid expenses where the debtor is a specific person
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
     @Query("SELECT e FROM Expense e WHERE e.beneficiary.id = :personId AND e.isPaid = false")
     Set<Expense> findUnpaidExpensesByBeneficiary(@Param("personId") Long personId);
 
-    // Find expenses for a given year and filter by expense type and paid status
-    @Query("SELECT e FROM Expense e WHERE YEAR(e.date) = :year AND NOT (e.expenseType = :expenseType AND e.isPaid = true)")
-    List<Expense> findByYearAndFilterCreditPaid(@Param("year") int year, @Param("expenseType") ExpenseType expenseType);
-
-    // Check if an expense with the given ID exists and is paid
-    boolean existsByIdAndIsPaidTrue(Long id);
+    // Read the stored state of an expense, before it is changed. The persistence context is not flushed,
+    // so the values are the ones in the database even when the expense being saved is managed
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT new com.application.munera.data.ExpenseState(" +
+            "e.id, e.userId, e.name, e.date, e.category.id, e.payer.id, e.beneficiary.id, e.cost, e.isPaid, e.expenseType) " +
+            "FROM Expense e WHERE e.id = :id")
+    Optional<ExpenseState> findStateById(@Param("id") Long id);
+
+    // Read and lock the unpaid expenses of a user where the payer is a specific person, before settling them.
+    // The rows stay locked until the end of the transaction, so they cannot change between the read and the update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.application.munera.data.ExpenseState(" +
+            "e.id, e.userId, e.name, e.date, e.category.id, e.payer.id, e.beneficiary.id, e.cost, e.isPaid, e.expenseType) " +
+            "FROM Expense e WHERE e.userId = :userId AND e.payer.id = :personId AND e.isPaid = false")
+    List<ExpenseState> findUnpaidStatesByPayer(@Param("userId") Long userId, @Param("personId") Long personId);
+
+    // Read and lock the unpaid expenses of a user where the beneficiary is a specific person, before settling them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.application.munera.data.ExpenseState(" +
+            "e.id, e.userId, e.name, e.date, e.category.id, e.payer.id, e.beneficiary.id, e.cost, e.isPaid, e.expenseType) " +
+            "FROM Expense e WHERE e.userId = :userId AND e.beneficiary.id = :personId AND e.isPaid = false")
+    List<ExpenseState> findUnpaidStatesByBeneficiary(@Param("userId") Long userId, @Param("personId") Long personId);
+
+    // Set as paid the expenses read before settling them, skipping the ones paid since. An expense added after the read is left unpaid.
+    // The version is incremented like for any other update, so a copy of the expense read before cannot set it back as unpaid
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.isPaid = true, e.paymentDate = :paymentDate, e.version = e.version + 1 WHERE e.id IN :ids AND e.isPaid = false")
+    int settleUnpaidExpenses(@Param("ids") Collection<Long> ids, @Param("paymentDate") LocalDate paymentDate);
+
+    // Read and lock the unpaid expenses of a user shared between two different people, before settling them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.application.munera.data.ExpenseState(" +
+            "e.id, e.userId, e.name, e.date, e.category.id, e.payer.id, e.beneficiary.id, e.cost, e.isPaid, e.expenseType) " +
+            "FROM Expense e WHERE e.userId = :userId AND e.payer.id <> e.beneficiary.id AND e.isPaid = false")
+    List<ExpenseState> findUnpaidSharedStates(@Param("userId") Long userId);
+
+    // Find the users with at least one periodic expense due, reading only the due entries of the index on the next due date
+    @Query("SELECT DISTINCT e.userId FROM Expense e WHERE e.nextDueDate <= :today")
+    List<Long> findUserIdsWithDueRecurrences(@Param("today") LocalDate today);
+
+    // Find a batch of the periodic expenses of a user that are due, the ones due for longer first
+    @Query("SELECT e FROM Expense e WHERE e.userId = :userId AND e.nextDueDate <= :today ORDER BY e.nextDueDate, e.id")
+    List<Expense> findDueRecurrences(@Param("userId") Long userId, @Param("today") LocalDate today, Pageable pageable);
+
+    // Find the occurrences of some periodic expenses already stored in a date range, so that they are not generated twice
+    @Query("SELECT new com.application.munera.data.OccurrenceKey(e.recurrenceSourceId, e.date) FROM Expense e " +
+            "WHERE e.recurrenceSourceId IN :templateIds AND e.date >= :from AND e.date <= :to")
+    List<OccurrenceKey> findOccurrenceKeys(@Param("templateIds") Collection<Long> templateIds,
+                                           @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Find the date of the latest occurrence stored for a periodic expense, null when none is
+    @Query("SELECT MAX(e.date) FROM Expense e WHERE e.recurrenceSourceId = :templateId")
+    LocalDate findLatestOccurrenceDate(@Param("templateId") Long templateId);
+
+    // Find the expenses of a user in a date range, as calendar entries, through the index on the user and the date
+    @Query("SELECT new com.application.munera.data.ExpenseOccurrence(" +
+            "e.id, e.recurrenceSourceId, e.name, e.cost, c.name, e.date, e.isPaid, e.expenseType) " +
+            "FROM Expense e LEFT JOIN e.category c " +
+            "WHERE e.userId = :userId AND e.date >= :from AND e.date < :to ORDER BY e.date, e.id")
+    List<ExpenseOccurrence> findOccurrencesInPeriod(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Find the periodic expenses of a user with an occurrence still to generate before the end of a date range
+    @EntityGraph(Expense.WITH_CATEGORY)
+    @Query("SELECT e FROM Expense e WHERE e.userId = :userId AND e.nextDueDate < :to")
+    List<Expense> findRecurrencesDueBefore(@Param("userId") Long userId, @Param("to") LocalDate to);
 
     // Find all expenses ordered by date descending
+    @EntityGraph(Expense.WITH_CATEGORY_AND_PEOPLE)
     List<Expense> findByUserIdOrderByDateDesc(Long userId);
 }
\ No newline at end of file
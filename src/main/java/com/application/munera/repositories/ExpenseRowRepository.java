@@ -0,0 +1,23 @@
+package com.application.munera.repositories;
+
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseCursor;
+import com.application.munera.data.ExpenseRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseRowRepository {
+
+    // Find a single page of expense rows matching a specification, selecting only the columns of the row
+    List<ExpenseRow> findRows(Specification<Expense> spec, Pageable pageable);
+
+    // Find the expense rows following a cursor, newest first, seeking on (date, id) instead of skipping an offset
+    List<ExpenseRow> findRowsAfter(Specification<Expense> spec, ExpenseCursor cursor, int limit);
+
+    // Stream the expense rows matching a specification, newest first, fetching them from the database in chunks.
+    // The stream must be consumed inside a transaction and closed afterwards
+    Stream<ExpenseRow> streamRows(Specification<Expense> spec);
+}
@@ -0,0 +1,114 @@
+package com.application.munera.repositories;
+
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseCursor;
+import com.application.munera.data.ExpenseRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Criteria implementation of {@link ExpenseRowRepository}, selecting {@link ExpenseRow}s with a constructor expression
+ * so that the same specifications used for the entities can filter the rows.
+ */
+class ExpenseRowRepositoryImpl implements ExpenseRowRepository {
+
+    // Number of rows the JDBC driver reads per round trip when streaming, instead of loading the whole result at once
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ExpenseRow> findRows(final Specification<Expense> spec, final Pageable pageable) {
+        final var cb = this.entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(ExpenseRow.class);
+        final var root = query.from(Expense.class);
+        final var predicates = new ArrayList<Predicate>();
+        selectRow(cb, query, root, spec, predicates);
+
+        if (!predicates.isEmpty()) query.where(predicates.toArray(Predicate[]::new));
+        if (pageable.getSort().isSorted()) query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        final var typedQuery = this.entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<ExpenseRow> findRowsAfter(final Specification<Expense> spec, final ExpenseCursor cursor, final int limit) {
+        final var cb = this.entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(ExpenseRow.class);
+        final var root = query.from(Expense.class);
+        final var predicates = new ArrayList<Predicate>();
+        selectRow(cb, query, root, spec, predicates);
+
+        final Path<LocalDate> date = root.get("date");
+        final Path<Long> id = root.get("id");
+        if (Objects.nonNull(cursor)) {
+            // (date, id) < (cursor.date, cursor.id), with a plain upper bound on the date so that the index scan starts at the cursor
+            predicates.add(cb.lessThanOrEqualTo(date, cursor.date()));
+            predicates.add(cb.or(
+                    cb.lessThan(date, cursor.date()),
+                    cb.lessThan(id, cursor.id())));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.desc(date), cb.desc(id));
+
+        return this.entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ExpenseRow> streamRows(final Specification<Expense> spec) {
+        final var cb = this.entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(ExpenseRow.class);
+        final var root = query.from(Expense.class);
+        final var predicates = new ArrayList<Predicate>();
+        selectRow(cb, query, root, spec, predicates);
+
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.desc(root.get("date")), cb.desc(root.get("id")));
+
+        return this.entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Selects the columns of the row and collects the predicate of the specification, if any.
+     * The category is joined once, and the join is shared with the ORDER BY clause when sorting by the category name.
+     */
+    private static void selectRow(final CriteriaBuilder cb, final CriteriaQuery<ExpenseRow> query, final Root<Expense> root,
+                                  final Specification<Expense> spec, final List<Predicate> predicates) {
+        final var category = root.join("category", JoinType.LEFT);
+        query.select(cb.construct(ExpenseRow.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("cost"),
+                category.get("name"),
+                root.get("date"),
+                root.get("paymentDate"),
+                root.get("isPaid"),
+                root.get("expenseType")));
+        if (Objects.nonNull(spec)) {
+            final var predicate = spec.toPredicate(root, query, cb);
+            if (Objects.nonNull(predicate)) predicates.add(predicate);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.application.munera.repositories;
+
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseFilter;
+import com.application.munera.data.Person;
+import com.application.munera.data.enums.ExpenseType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Builds the {@link Specification}s used to filter expenses in the database.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    /**
+     * Combines all the criteria of the filter into a single specification, skipping the empty ones.
+     * @param filter the filter selected by the user
+     * @return the specification matching every criterion of the filter
+     */
+    public static Specification<Expense> fromFilter(final ExpenseFilter filter) {
+        return Specification.allOf(
+                belongsToUser(filter.getUserId()),
+                nameContains(filter.getName()),
+                inCategories(filter.getCategories()),
+                dateFrom(filter.getDateFrom()),
+                dateTo(filter.getDateTo()),
+                isPaid(filter.getIsPaid()),
+                hasExpenseType(filter.getExpenseType()),
+                involvesPerson(filter.getPerson()));
+    }
+
+    public static Specification<Expense> belongsToUser(final Long userId) {
+        return (root, query, cb) -> Objects.isNull(userId) ? null : cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Expense> nameContains(final String name) {
+        return (root, query, cb) -> {
+            if (Objects.isNull(name) || name.isBlank()) return null;
+            return cb.like(cb.lower(root.get("name")), "%" + name.trim().toLowerCase() + "%");
+        };
+    }
+
+    public static Specification<Expense> inCategories(final Collection<Category> categories) {
+        return (root, query, cb) -> Objects.isNull(categories) || categories.isEmpty() ? null : root.get("category").in(categories);
+    }
+
+    public static Specification<Expense> dateFrom(final LocalDate from) {
+        return (root, query, cb) -> Objects.isNull(from) ? null : cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Expense> dateTo(final LocalDate to) {
+        return (root, query, cb) -> Objects.isNull(to) ? null : cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    public static Specification<Expense> isPaid(final Boolean isPaid) {
+        return (root, query, cb) -> Objects.isNull(isPaid) ? null : cb.equal(root.get("isPaid"), isPaid);
+    }
+
+    public static Specification<Expense> hasExpenseType(final ExpenseType expenseType) {
+        return (root, query, cb) -> Objects.isNull(expenseType) ? null : cb.equal(root.get("expenseType"), expenseType);
+    }
+
+    public static Specification<Expense> involvesPerson(final Person person) {
+        return (root, query, cb) -> Objects.isNull(person) ? null : cb.or(
+                cb.equal(root.get("payer"), person),
+                cb.equal(root.get("beneficiary"), person));
+    }
+}
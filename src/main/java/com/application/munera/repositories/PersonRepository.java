@@ -1,12 +1,18 @@
 package com.application.munera.repositories;
 
 import com.application.munera.data.Person;
+import com.application.munera.data.PersonBalance;
+import com.application.munera.data.PersonNetBalance;
 import com.application.munera.data.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +33,28 @@ public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecif
     List<Person> findAllByUserIdExcludingPerson(@Param("userId") Long userId, @Param("username") String username);
 
     List<Person> findByUserId(Long userId);
+
+    // Read the running totals of a person
+    @Query("SELECT new com.application.munera.data.PersonBalance(p.debt, p.credit) FROM Person p WHERE p.id = :personId")
+    PersonBalance findBalanceById(@Param("personId") Long personId);
+
+    // Add to the running totals of a person. The columns are not updatable through the entity, so the statement is native
+    @Modifying
+    @Query(value = "UPDATE people SET debt = debt + :debt, credit = credit + :credit WHERE id = :personId", nativeQuery = true)
+    int addToBalance(@Param("personId") Long personId, @Param("debt") BigDecimal debt, @Param("credit") BigDecimal credit);
+
+    // Read and lock the net balances of all the people of a user, before settling them.
+    // The rows stay locked until the end of the transaction, so no expense can change the balances in the meantime
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.application.munera.data.PersonNetBalance(p.id, p.debt - p.credit) FROM Person p WHERE p.userId = :userId")
+    List<PersonNetBalance> findNetBalancesByUserId(@Param("userId") Long userId);
+
+    // Recompute the running totals of all the people from their unpaid expenses shared with someone else
+    @Modifying
+    @Query(value = "UPDATE people SET " +
+            "debt = COALESCE((SELECT SUM(e.cost) FROM expenses e " +
+            "WHERE e.creditor_id = people.id AND e.debtor_id <> people.id AND e.is_paid = false), 0), " +
+            "credit = COALESCE((SELECT SUM(e.cost) FROM expenses e " +
+            "WHERE e.debtor_id = people.id AND e.creditor_id <> people.id AND e.is_paid = false), 0)", nativeQuery = true)
+    int recomputeBalancesFromExpenses();
 }
@@ -0,0 +1,73 @@
+package com.application.munera.security;
+
+import com.application.munera.data.Person;
+import com.application.munera.data.User;
+import com.application.munera.services.PersonService;
+import com.application.munera.services.UserService;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.flow.spring.annotation.VaadinSessionScope;
+
+import java.util.Objects;
+
+/**
+ * The logged-in user of a session, with its person and roles.
+ * They are read from the database once, the first time a view of the session needs them,
+ * and read again only after {@link #refresh()}, when the user's details are changed.
+ */
+@SpringComponent
+@VaadinSessionScope
+public class CurrentPrincipal {
+
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    private final UserService userService;
+    private final PersonService personService;
+
+    private User user;
+    private Person person;
+
+    public CurrentPrincipal(UserService userService, PersonService personService) {
+        this.userService = userService;
+        this.personService = personService;
+    }
+
+    public User getUser() {
+        this.loadIfNeeded();
+        return this.user;
+    }
+
+    public Long getUserId() {
+        return this.getUser().getId();
+    }
+
+    /**
+     * Gets the person connected to the logged-in user, used as default payer and beneficiary of the expenses.
+     * @return the person of the logged-in user
+     */
+    public Person getPerson() {
+        this.loadIfNeeded();
+        return this.person;
+    }
+
+    public boolean isAdmin() {
+        return this.getUser().getRoles().contains(ADMIN_ROLE);
+    }
+
+    /**
+     * Forgets the loaded user and person, so that the next access reads them again.
+     * To be called after the details or the roles of the logged-in user have been saved.
+     */
+    public void refresh() {
+        this.user = null;
+        this.person = null;
+    }
+
+    private void loadIfNeeded() {
+        // The session can outlive a logout followed by the login of another user
+        final var userDetails = SecurityUtils.getLoggedInUserDetails();
+        if (this.user != null && userDetails != null && this.user.getUsername().equals(userDetails.getUsername())) return;
+        this.user = this.userService.getLoggedInUser();
+        this.person = Objects.requireNonNull(this.personService.findByUsername(this.user.getUsername()),
+                "No associated Person entity found for logged-in user");
+    }
+}
@@ -0,0 +1,77 @@
+package com.application.munera.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cache holding at most a fixed number of values, evicting the least recently used one when it is full.
+ * Values are computed outside the lock, so a slow computation does not block the readers of other keys;
+ * two threads missing the same key at once may both compute it, and the last one wins.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BoundedCache<K, V> {
+
+    private final Map<K, V> values;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(final int maximumSize) {
+        this.values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                final var full = size() > maximumSize;
+                if (full) evictions.increment();
+                return full;
+            }
+        };
+    }
+
+    /**
+     * Gets the value of a key, computing and caching it when it is missing.
+     * @param key the key of the value
+     * @param loader the function computing the value of a missing key
+     * @return the cached or computed value
+     */
+    public V get(final K key, final Function<K, V> loader) {
+        synchronized (this.values) {
+            final var value = this.values.get(key);
+            if (value != null) {
+                this.hits.increment();
+                return value;
+            }
+        }
+        this.misses.increment();
+        final var value = loader.apply(key);
+        synchronized (this.values) {
+            this.values.put(key, value);
+        }
+        return value;
+    }
+
+    public Stats stats() {
+        synchronized (this.values) {
+            return new Stats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.values.size());
+        }
+    }
+
+    /**
+     * The counters of a cache since it was created.
+     *
+     * @param hits      the number of lookups served from the cache
+     * @param misses    the number of lookups that computed the value
+     * @param evictions the number of values removed to make room for new ones
+     * @param size      the number of values currently cached
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        public double hitRate() {
+            final var lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
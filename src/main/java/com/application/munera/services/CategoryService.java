@@ -1,7 +1,9 @@
 package com.application.munera.services;
 
 import com.application.munera.data.Category;
+import com.application.munera.events.CategoryChanged;
 import com.application.munera.repositories.CategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -13,9 +15,11 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoryService(final CategoryRepository categoryRepository){
+    public CategoryService(final CategoryRepository categoryRepository, final ApplicationEventPublisher eventPublisher){
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -46,7 +50,8 @@ public class CategoryService {
      */
     public void update(Category category, Long userId) {
         category.setUserId(userId);
-        categoryRepository.save(category);
+        final var saved = categoryRepository.save(category);
+        this.eventPublisher.publishEvent(new CategoryChanged(userId, saved.getId(), false));
     }
 
     /**
@@ -56,6 +61,7 @@ public class CategoryService {
      */
     public void delete(Category category) {
         categoryRepository.delete(category);
+        this.eventPublisher.publishEvent(new CategoryChanged(category.getUserId(), category.getId(), true));
     }
 
     /**
@@ -0,0 +1,123 @@
+package com.application.munera.services;
+
+import com.application.munera.data.DashboardSnapshot;
+import com.application.munera.data.MonthlyCategoryTotal;
+import com.application.munera.data.User;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.repositories.ExpenseMonthlyRollupRepository;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@ManagedResource(objectName = "com.application.munera:type=Cache,name=DashboardSnapshots")
+public class DashboardService {
+
+    private static final int MONTH_COUNT = 12;
+    // A snapshot takes a few kilobytes: a handful of years for each active user
+    private static final int SNAPSHOT_CACHE_SIZE = 512;
+    private static final int BALANCES_CACHE_SIZE = 128;
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final PersonService personService;
+    private final DataVersionService dataVersionService;
+
+    // Entries are keyed by the data version they were computed from, so a write makes them unreachable and they age out
+    private final BoundedCache<SnapshotKey, DashboardSnapshot> snapshotCache = new BoundedCache<>(SNAPSHOT_CACHE_SIZE);
+    // The net balances do not depend on the year, they are shared by the snapshots of all the years
+    private final BoundedCache<BalancesKey, Map<String, Double>> balancesCache = new BoundedCache<>(BALANCES_CACHE_SIZE);
+
+    public DashboardService(ExpenseMonthlyRollupRepository rollupRepository, PersonService personService, DataVersionService dataVersionService) {
+        this.rollupRepository = rollupRepository;
+        this.personService = personService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Computes the data of all the dashboard charts of a year.
+     * The totals by month and category are read from the monthly rollups, at most one row per month, category and type,
+     * whatever the number of expenses, and are laid out in one pass.
+     * The expenses counted are the ones the user paid for themselves, the ones paid for the user,
+     * and the unpaid ones the user paid for someone else.
+     * Snapshots are cached until the data of the user changes, so switching years or reopening the dashboard
+     * does not query the database again.
+     * @param user the logged-in user
+     * @param year the year of the expenses
+     * @return the snapshot holding every series of the dashboard
+     */
+    public DashboardSnapshot getSnapshot(final User user, final Year year) {
+        final var version = this.dataVersionService.currentVersion(user.getId());
+        return this.snapshotCache.get(new SnapshotKey(user.getId(), year, version), key -> this.computeSnapshot(user, year, version));
+    }
+
+    public BoundedCache.Stats getSnapshotCacheStats() {
+        return this.snapshotCache.stats();
+    }
+
+    @ManagedAttribute(description = "Dashboard snapshots served from the cache")
+    public long getSnapshotHits() {
+        return this.snapshotCache.stats().hits();
+    }
+
+    @ManagedAttribute(description = "Dashboard snapshots computed from the database")
+    public long getSnapshotMisses() {
+        return this.snapshotCache.stats().misses();
+    }
+
+    @ManagedAttribute(description = "Share of the dashboard snapshots served from the cache")
+    public double getSnapshotHitRate() {
+        return this.snapshotCache.stats().hitRate();
+    }
+
+    @ManagedAttribute(description = "Dashboard snapshots evicted to make room for new ones")
+    public long getSnapshotEvictions() {
+        return this.snapshotCache.stats().evictions();
+    }
+
+    @ManagedAttribute(description = "Dashboard snapshots currently cached")
+    public int getSnapshotCacheSize() {
+        return this.snapshotCache.stats().size();
+    }
+
+    private DashboardSnapshot computeSnapshot(final User user, final Year year, final long version) {
+        final var totals = this.rollupRepository.findDashboardTotals(user.getId(), year.getValue(), ExpenseType.CREDIT);
+
+        // The categories are sorted by name, so that every chart lists them, and colors them, in the same order
+        final var categories = totals.stream().map(MonthlyCategoryTotal::categoryName).distinct().sorted().toList();
+        final Map<String, Integer> categoryIndexes = new HashMap<>();
+        for (int i = 0; i < categories.size(); i++) categoryIndexes.put(categories.get(i), i);
+
+        final var monthlyTotals = new double[categories.size() * MONTH_COUNT];
+        for (final var total : totals)
+            monthlyTotals[categoryIndexes.get(total.categoryName()) * MONTH_COUNT + total.month() - 1] += total.total().doubleValue();
+
+        final var netBalances = this.balancesCache.get(new BalancesKey(user.getId(), version), key -> this.calculateNetBalances(user));
+        return new DashboardSnapshot(year, categories, monthlyTotals, netBalances);
+    }
+
+    /**
+     * Gets the non-zero net balances of the people of a user, excluding the user, keyed by their first name.
+     * @param user the logged-in user
+     * @return the net balances, in the order of the people
+     */
+    private Map<String, Double> calculateNetBalances(final User user) {
+        final Map<String, Double> netBalances = new LinkedHashMap<>();
+        for (final var person : this.personService.findAllExcludeLoggedUser(user)) {
+            final var balance = person.getNetBalance(); // read from the running totals of the person
+            if (balance.signum() != 0) netBalances.putIfAbsent(person.getFirstName(), balance.doubleValue());
+        }
+        return Collections.unmodifiableMap(netBalances);
+    }
+
+    private record SnapshotKey(Long userId, Year year, long version) {
+    }
+
+    private record BalancesKey(Long userId, long version) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.application.munera.services;
+
+import com.application.munera.data.DataChange;
+import com.application.munera.events.DomainEvent;
+import com.application.munera.events.DomainEventsConfiguration;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the changes of the data of a user to the views of the user that are open, in every tab and session.
+ * The changes of a user are coalesced over a short window, so a burst of writes, like a settlement or a batch of
+ * generated occurrences, reaches each view as a single change and the view is refreshed once.
+ * The window is set with {@code munera.push.debounce-ms}.
+ * The committed domain events are received on the domain event executor, so the committing thread never waits for the views.
+ */
+@Service
+public class DataChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(DataChangeBroadcaster.class);
+
+    private final Map<Long, Set<Consumer<DataChange>>> listeners = new ConcurrentHashMap<>();
+    private final Set<Long> scheduledUsers = ConcurrentHashMap.newKeySet();
+    private final DataVersionService dataVersionService;
+    private final ScheduledExecutorService executor;
+    private final long debounceMillis;
+
+    public DataChangeBroadcaster(DataVersionService dataVersionService, @Value("${munera.push.debounce-ms:500}") long debounceMillis) {
+        this.dataVersionService = dataVersionService;
+        this.debounceMillis = debounceMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("data-change").daemon().factory());
+    }
+
+    /**
+     * Registers a listener of the changes of the data of a user.
+     * The listener is called from a background thread, so a view has to apply the change through {@code UI.access}.
+     * @param userId the id of the user whose changes are listened to
+     * @param listener the listener, called once for every window with changes
+     * @return the registration, to remove when the view is detached
+     */
+    public Registration register(final Long userId, final Consumer<DataChange> listener) {
+        this.listeners.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(listener);
+        return () -> this.listeners.computeIfPresent(userId, (id, userListeners) -> {
+            userListeners.remove(listener);
+            return userListeners.isEmpty() ? null : userListeners;
+        });
+    }
+
+    /**
+     * Records a change of the data of a user, delivered to the listeners at the end of the current window.
+     * The first change of a window opens it, the next ones are part of it.
+     * @param event the committed change
+     */
+    @Async(DomainEventsConfiguration.DOMAIN_EVENT_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(final DomainEvent event) {
+        final var userId = event.userId();
+        if (this.listeners.containsKey(userId) && this.scheduledUsers.add(userId))
+            this.executor.schedule(() -> this.deliver(userId), this.debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void deliver(final Long userId) {
+        // A change recorded from now on opens a new window, and the version read below already includes the changes of this one
+        this.scheduledUsers.remove(userId);
+        final var userListeners = this.listeners.get(userId);
+        if (userListeners == null) return;
+
+        final var change = new DataChange(userId, this.dataVersionService.currentVersion(userId));
+        for (final var listener : userListeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                log.warn("Data change listener of user {} failed", userId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.application.munera.services;
+
+import com.application.munera.events.DomainEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a version counter of the data of each user, increased by every write to the user's expenses, people and categories.
+ * The data computed from them can be cached under the version it was computed from, and is stale once the version changes.
+ * The counters live in memory, so they start again from zero, together with the caches relying on them, when the application restarts.
+ */
+@Service
+public class DataVersionService {
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the current version of the data of a user.
+     * @param userId the id of the user
+     * @return the version, which only increases
+     */
+    public long currentVersion(final Long userId) {
+        final var version = this.versions.get(userId);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Increases the version of the data of a user once a change has committed, so that data read from the database
+     * before the commit is never cached under the new version.
+     * It runs first among the listeners, so the ones that follow already read the new version.
+     * @param event the committed change
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(final DomainEvent event) {
+        this.versions.computeIfAbsent(event.userId(), id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,57 @@
+package com.application.munera.services;
+
+import com.application.munera.data.ExpenseMonthlyRollupId;
+import com.application.munera.data.ExpenseRollupDelta;
+import com.application.munera.repositories.ExpenseMonthlyRollupRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class ExpenseRollupService {
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+
+    public ExpenseRollupService(ExpenseMonthlyRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Applies changes to the monthly rollups, in the transaction changing the expenses.
+     * The deltas of the same rollup are added together first, so that an edit keeping the month, category and type
+     * of an expense only updates its rollup once, and not at all when the cost and paid status are unchanged.
+     * A missing rollup is created without failing when another transaction creates it at the same time.
+     * @param deltas the changes to apply
+     */
+    @Transactional
+    public void apply(final Collection<ExpenseRollupDelta> deltas) {
+        final Map<ExpenseMonthlyRollupId, ExpenseRollupDelta> merged = new LinkedHashMap<>();
+        for (final var delta : deltas) merged.merge(delta.key(), delta, ExpenseRollupDelta::plus);
+
+        for (final var delta : merged.values()) {
+            if (delta.isZero() || this.addToRollup(delta) > 0) continue;
+            // First expense of the month, category and type: the rollup is created empty, then the delta is added to it
+            this.rollupRepository.insertEmptyRollup(delta.userId(), delta.year(), delta.month(), delta.categoryId(), delta.type().name());
+            this.addToRollup(delta);
+        }
+    }
+
+    private int addToRollup(final ExpenseRollupDelta delta) {
+        return this.rollupRepository.addToRollup(delta.userId(), delta.year(), delta.month(),
+                delta.categoryId(), delta.type(), delta.count(), delta.totalCost(), delta.unpaidCost());
+    }
+
+    /**
+     * Recomputes all the monthly rollups from the expenses, replacing the existing ones in a single transaction.
+     * It repairs the rollups after the expenses have been changed outside the application.
+     * @return the number of rollups written
+     */
+    @Transactional
+    public int rebuild() {
+        this.rollupRepository.deleteAllRollups();
+        return this.rollupRepository.insertRollupsFromExpenses();
+    }
+}
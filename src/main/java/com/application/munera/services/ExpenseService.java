@@ -1,35 +1,56 @@
 package com.application.munera.services;
 
+import com.application.munera.data.DateRange;
 import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.ExpenseCursor;
+import com.application.munera.data.ExpenseRollupDelta;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.ExpenseState;
+import com.application.munera.data.ExpenseWindow;
 import com.application.munera.data.Person;
 import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.events.ExpenseChanged;
+import com.application.munera.events.ExpensesChanged;
 import com.application.munera.repositories.ExpenseRepository;
-import com.application.munera.repositories.PersonRepository;
-import com.application.munera.repositories.UserRepository;
-import com.application.munera.security.SecurityUtils;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Nonnull;
 import java.time.LocalDate;
-import java.time.Year;
 import java.util.*;
 import java.util.stream.Stream;
 
 @Service
 public class ExpenseService {
 
+    // Maps the sort properties exposed by the expenses grid to the entity paths used in the ORDER BY clause
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "name", "name",
+            "cost", "cost",
+            "category", "category.name",
+            "date", "date");
+
+    // The number of ids bound to one settling statement, well below the parameter limits of the JDBC drivers
+    private static final int SETTLE_BATCH_SIZE = 1000;
+
     private final ExpenseRepository expenseRepository;
-    private final UserRepository userRepository;
-    private final PersonRepository personRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final PersonBalanceService personBalanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ExpenseService(ExpenseRepository expenseRepository, UserRepository userRepository, PersonRepository personRepository) {
+    public ExpenseService(ExpenseRepository expenseRepository, ExpenseRollupService expenseRollupService,
+                          PersonBalanceService personBalanceService, ApplicationEventPublisher eventPublisher) {
         this.expenseRepository = expenseRepository;
-        this.userRepository =  userRepository;
-        this.personRepository = personRepository;
+        this.expenseRollupService = expenseRollupService;
+        this.personBalanceService = personBalanceService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -41,24 +62,6 @@ public class ExpenseService {
         return expenseRepository.findById(id);
     }
 
-    /**
-     * Finds all expenses where the specified person is the beneficiary.
-     * @param person the user of the expenses
-     * @return the collection of expenses found
-     */
-    public Collection<Expense> findExpensesWhereBeneficiary(final Person person) {
-        return expenseRepository.findExpensesByBeneficiary(person.getId());
-    }
-
-    /**
-     * Finds all expenses where the specified person is the payer.
-     * @param person the user of the expenses
-     * @return the collection of expenses found
-     */
-    public Collection<Expense> findExpensesWherePayer(final Person person) {
-        return expenseRepository.findExpensesByPayer(person.getId());
-    }
-
     /**
      * Finds all expenses where the specified person is the beneficiary and the expense is unpaid.
      * @param person the user of the expenses
@@ -78,71 +81,181 @@ public class ExpenseService {
     }
 
     /**
-     * Finds all expenses related to a person, both where the person is a payer and a beneficiary.
+     * Finds a page of the expenses related to a person, both where the person is a payer and a beneficiary,
+     * with a single query. The expenses are not counted, see {@link #countExpensesByPerson(Long)}.
      * @param person the person of the expenses
-     * @return the list of expenses found
+     * @param pageable the page to load and its sorting
+     * @return the expenses of the page
      */
-    public List<Expense> findExpensesByPerson(final Person person) {
-        // Retrieve expenses where the person is the payer
-        final var payerExpenses = this.findExpensesWherePayer(person);
-        // Retrieve expenses where the person is the beneficiary
-        final var beneficiaryExpenses = this.findExpensesWhereBeneficiary(person);
-        // Combine both sets of expenses into a single list without duplicates
-        return Stream.concat(payerExpenses.stream(), beneficiaryExpenses.stream())
-                .distinct()
-                .toList();
+    public List<Expense> findExpensesByPerson(final Person person, final Pageable pageable) {
+        return this.expenseRepository.findExpensesByPayerOrBeneficiary(person.getId(), pageable);
     }
+
     /**
-     * Retrieves all expenses.
-     * @return the list of all expenses
+     * Counts the expenses of all the people of a user with a single grouped query.
+     * An expense is counted once for its payer and once for its beneficiary, and only once when they are the same person,
+     * so the count of a person is the number of expenses the person paid or benefited from.
+     * People without expenses are not part of the map.
+     * @param userId the id of the user whose people's expenses are counted
+     * @return the number of expenses of each person, keyed by the person id
      */
-    public List<Expense> findAll() {
-        return expenseRepository.findAll();
+    public Map<Long, Long> countExpensesByPerson(final Long userId) {
+        final Map<Long, Long> counts = new HashMap<>();
+        for (final var pairCount : this.expenseRepository.countByPayerAndBeneficiary(userId)) {
+            counts.merge(pairCount.payerId(), pairCount.count(), Long::sum);
+            if (!Objects.equals(pairCount.payerId(), pairCount.beneficiaryId()))
+                counts.merge(pairCount.beneficiaryId(), pairCount.count(), Long::sum);
+        }
+        return counts;
     }
 
     /**
-     * Finds all expenses for a given year.
-     * @param year the year for which to find expenses
+     * Finds all expenses made in a period where the specified person is the payer.
+     * @param person the payer of the expenses
+     * @param period the period for which to find expenses
      * @return the list of expenses found
      */
-    public List<Expense> findAllByYear(final int year) {
-        return this.expenseRepository.findAllByYear(year);
+    public List<Expense> findExpensesWherePayerInPeriod(final Person person, final DateRange period) {
+        return this.expenseRepository.findExpensesByPayerInPeriod(person.getId(), period.from(), period.to());
     }
 
     /**
-     * Fetches all expenses ordered by date in descending order.
+     * Finds all expenses made in a period where the specified person is the beneficiary.
+     * @param person the beneficiary of the expenses
+     * @param period the period for which to find expenses
      * @return the list of expenses found
      */
-    public List<Expense> findAllOrderByDateDescending(Long userId) {
-        return this.expenseRepository.findByUserIdOrderByDateDesc(userId);
+    public List<Expense> findExpensesWhereBeneficiaryInPeriod(final Person person, final DateRange period) {
+        return this.expenseRepository.findExpensesByBeneficiaryInPeriod(person.getId(), period.from(), period.to());
     }
 
     /**
-     * Checks if an expense has been paid.
-     * @param expense the expense to check
-     * @return true if the expense has been paid, false otherwise
+     * Fetches all expenses ordered by date in descending order.
+     * @return the list of expenses found
      */
-    public boolean isExpensePaid(final Expense expense) {
-        return this.expenseRepository.existsByIdAndIsPaidTrue(expense.getId());
+    public List<Expense> findAllOrderByDateDescending(Long userId) {
+        return this.expenseRepository.findByUserIdOrderByDateDesc(userId);
     }
 
     /**
-     * Updates an existing expense.
+     * Updates an existing expense, or creates it when it is new.
+     * The monthly rollups and the balances of the people are updated in the same transaction: the stored values
+     * of the expense are removed and the new ones are added, so changing the date, category, cost or people moves the amounts.
+     * An {@link ExpenseChanged} event with the stored and the new state is published once the transaction has committed.
      * @param entity the expense to update
+     * @param userId the id of the logged-in user
+     * @param loggedInPerson the person of the logged-in user, which the type of the expense is relative to
      */
-    public void update(Expense entity, Long userId) {
+    @Transactional
+    public void update(Expense entity, Long userId, Person loggedInPerson) {
         entity.setUserId(userId);
         if (Boolean.TRUE.equals(entity.getIsPaid())) entity.setPaymentDate(LocalDate.now());
         else entity.setPaymentDate(null);
-        this.setExpenseType(entity);
+        this.setExpenseType(entity, loggedInPerson);
+        this.scheduleRecurrence(entity);
+        final List<ExpenseRollupDelta> deltas = new ArrayList<>();
+        final List<ExpenseBalanceDelta> balanceDeltas = new ArrayList<>();
+        final var before = Objects.isNull(entity.getId()) ? null : this.expenseRepository.findStateById(entity.getId()).orElse(null);
+        if (Objects.nonNull(before)) {
+            deltas.add(before.rollupDelta().negate());
+            balanceDeltas.add(before.balanceDelta().negate());
+        }
         expenseRepository.save(entity);
+        final var after = ExpenseState.of(entity);
+        deltas.add(after.rollupDelta());
+        balanceDeltas.add(after.balanceDelta());
+        this.expenseRollupService.apply(deltas);
+        this.personBalanceService.apply(balanceDeltas);
+        this.eventPublisher.publishEvent(new ExpenseChanged(userId, before, after));
+    }
+
+    /**
+     * Schedules the occurrences of a periodic expense, which is the template they are generated from by {@link RecurringExpenseService}.
+     * The generation starts from the date of the expense, its own first occurrence, and is stopped when the expense is no longer periodic.
+     * When a stored expense becomes periodic again, the generation resumes after the latest occurrence already generated from it.
+     * @param entity the expense being saved
+     */
+    private void scheduleRecurrence(final Expense entity) {
+        final var unit = entity.getPeriodUnit();
+        final var interval = entity.getPeriodInterval();
+        final var isTemplate = Boolean.TRUE.equals(entity.getIsPeriodic()) && Objects.nonNull(unit)
+                && Objects.nonNull(interval) && interval > 0;
+        if (!isTemplate) entity.setNextDueDate(null);
+        else if (Objects.isNull(entity.getNextDueDate())) {
+            final var latest = Objects.isNull(entity.getId()) ? null : this.expenseRepository.findLatestOccurrenceDate(entity.getId());
+            if (Objects.isNull(latest)) entity.setNextDueDate(entity.getDate());
+            else entity.setNextDueDate(unit.occurrence(entity.getDate(), interval,
+                    unit.firstOccurrenceFrom(entity.getDate(), interval, latest.plusDays(1))));
+        }
+    }
+
+    /**
+     * Sets as paid, with today as payment date, all the unpaid expenses of a user where the person is the payer.
+     * The expenses are read and locked first, then their unpaid amounts are removed from the monthly rollups and from the
+     * balances of the people, and exactly the expenses read are updated in bulk.
+     * @param person the payer of the expenses
+     * @param userId the id of the user related to the expenses
+     * @return the number of expenses set as paid
+     */
+    @Transactional
+    public int settleExpensesWherePayer(final Person person, final Long userId) {
+        final var unpaid = this.expenseRepository.findUnpaidStatesByPayer(userId, person.getId());
+        final var count = this.settle(unpaid);
+        this.eventPublisher.publishEvent(new ExpensesChanged(userId, count));
+        return count;
+    }
+
+    /**
+     * Sets as paid, with today as payment date, all the unpaid expenses of a user where the person is the beneficiary.
+     * The expenses are read and locked first, then their unpaid amounts are removed from the monthly rollups and from the
+     * balances of the people, and exactly the expenses read are updated in bulk.
+     * @param person the beneficiary of the expenses
+     * @param userId the id of the user related to the expenses
+     * @return the number of expenses set as paid
+     */
+    @Transactional
+    public int settleExpensesWhereBeneficiary(final Person person, final Long userId) {
+        final var unpaid = this.expenseRepository.findUnpaidStatesByBeneficiary(userId, person.getId());
+        final var count = this.settle(unpaid);
+        this.eventPublisher.publishEvent(new ExpensesChanged(userId, count));
+        return count;
+    }
+
+    /**
+     * Sets as paid, with today as payment date, the unpaid expenses read and locked beforehand in the same transaction,
+     * after removing their unpaid amounts from the monthly rollups and from the balances of the people.
+     * Both are derived from the same states as the ids updated, in batches, so an expense added since is neither
+     * set as paid nor removed.
+     * @param unpaid the stored state of the expenses to settle
+     * @return the number of expenses set as paid
+     * @throws IllegalStateException if some of the expenses were no longer unpaid, which rolls the whole settlement back
+     */
+    @Transactional
+    public int settle(final List<ExpenseState> unpaid) {
+        this.expenseRollupService.apply(unpaid.stream().map(state -> state.rollupDelta().settled()).toList());
+        this.personBalanceService.apply(unpaid.stream().map(state -> state.balanceDelta().negate()).toList());
+        final var ids = unpaid.stream().map(ExpenseState::id).toList();
+        final var paymentDate = LocalDate.now();
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += SETTLE_BATCH_SIZE)
+            count += this.expenseRepository.settleUnpaidExpenses(ids.subList(from, Math.min(from + SETTLE_BATCH_SIZE, ids.size())), paymentDate);
+        if (count != ids.size())
+            throw new IllegalStateException("Settled " + count + " expenses instead of the " + ids.size() + " read, the expenses changed in the meantime");
+        return count;
     }
 
     /**
-     * Deletes an expense given its ID.
+     * Deletes an expense given its ID, removing its values from its monthly rollup and from the balances of its people
+     * in the same transaction.
      * @param id the ID of the expense to delete
      */
+    @Transactional
     public void delete(Long id) {
+        this.expenseRepository.findStateById(id).ifPresent(before -> {
+            this.expenseRollupService.apply(List.of(before.rollupDelta().negate()));
+            this.personBalanceService.apply(List.of(before.balanceDelta().negate()));
+            this.eventPublisher.publishEvent(new ExpenseChanged(before.userId(), before, null));
+        });
         expenseRepository.deleteById(id);
     }
 
@@ -157,30 +270,71 @@ public class ExpenseService {
 
     /**
      * Lists expenses in a paginated format with filtering options.
-     * @param pageable the pagination information
+     * The filter, the sorting and the limit are all applied by the database in a single query.
+     * @param pageable the pagination information, using the sort properties of the expenses grid
      * @param filter the filter specification
      * @return a page of expenses matching the filter
      */
     public Page<Expense> list(Pageable pageable, Specification<Expense> filter) {
-        return expenseRepository.findAll(filter, pageable);
+        return expenseRepository.findAll(filter, this.toExpensePageable(pageable));
     }
 
     /**
-     * Counts the total number of expenses.
-     * @return the count of expenses
+     * Lists the rows of the expenses matching a filter in a paginated format, selecting only the columns shown by the grid.
+     * The filter, the sorting and the limit are all applied by the database in a single query.
+     * @param pageable the pagination information, using the sort properties of the expenses grid
+     * @param filter the filter specification
+     * @return the expense rows in the requested page
      */
-    public int count() {
-        return (int) expenseRepository.count();
+    public List<ExpenseRow> listRows(Pageable pageable, Specification<Expense> filter) {
+        return expenseRepository.findRows(filter, this.toExpensePageable(pageable));
     }
 
     /**
-     * Fetches the yearly net expenses of the user
-     * @param loggedInPerson the logged-in user
-     * @param year the year from which we want the expenses
-     * @return the list of expenses of that user in that year
+     * Reads a page of the expense rows matching a filter, newest first, following a continuation token.
+     * The page seeks on the date and id of the last row of the previous page, so its cost does not depend on how deep it is.
+     * @param filter the filter specification
+     * @param continuationToken the token returned with the previous page, or null to read the first page
+     * @param size the maximum number of rows of the page
+     * @return the rows of the page and the token of the following page
+     * @throws IllegalArgumentException if the token is malformed or the size is not positive
      */
-    public List<Expense> fetchExpensesForDashboard(Person loggedInPerson, Year year) {
-        return this.expenseRepository.findExpensesForDashboard(loggedInPerson.getUserId(), year.getValue());
+    public ExpenseWindow scroll(Specification<Expense> filter, String continuationToken, int size) {
+        if (size < 1) throw new IllegalArgumentException("The page size must be positive");
+        final var cursor = Objects.isNull(continuationToken) ? null : ExpenseCursor.fromToken(continuationToken);
+        // One more row than requested is read to know if there is a following page
+        final var rows = this.expenseRepository.findRowsAfter(filter, cursor, size + 1);
+        if (rows.size() <= size) return new ExpenseWindow(rows, null);
+        final var page = rows.subList(0, size);
+        return new ExpenseWindow(List.copyOf(page), ExpenseCursor.after(page.getLast()).toToken());
+    }
+
+    /**
+     * Streams the rows of the expenses matching a filter, newest first.
+     * The rows are read from the database in chunks as the stream is consumed, so the memory used does not depend on their number.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     * @param filter the filter specification
+     * @return the stream of the expense rows
+     */
+    public Stream<ExpenseRow> streamRows(Specification<Expense> filter) {
+        return expenseRepository.streamRows(filter);
+    }
+
+    /**
+     * Counts the expenses matching a filter.
+     * @param filter the filter specification
+     * @return the count of expenses matching the filter
+     */
+    public int count(Specification<Expense> filter) {
+        return (int) expenseRepository.count(filter);
+    }
+
+    /**
+     * Counts the total number of expenses.
+     * @return the count of expenses
+     */
+    public int count() {
+        return (int) expenseRepository.count();
     }
 
     /**
@@ -196,21 +350,27 @@ public class ExpenseService {
     // Private methods
     // ================================
 
+    /**
+     * Translates the sort properties of the grid into entity paths, keeping the page and size untouched.
+     * The id is always appended as a tie-breaker so that pages stay stable when several expenses share the same value.
+     * @param pageable the page and sort requested by the grid
+     * @return the pageable to pass to the repository
+     */
+    private Pageable toExpensePageable(final Pageable pageable) {
+        final var orders = pageable.getSort().stream()
+                .filter(order -> SORT_PROPERTIES.containsKey(order.getProperty()))
+                .map(order -> order.withProperty(SORT_PROPERTIES.get(order.getProperty())))
+                .toList();
+        final var sort = orders.isEmpty() ? Sort.by(Sort.Direction.DESC, "date") : Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(Sort.by(Sort.Direction.DESC, "id")));
+    }
+
     /**
      * Sets the expense type depending on the presence or absence of a payer and beneficiary.
      * @param expense the expense to set the type of
+     * @param loggedInPerson the person of the logged-in user
      */
-    private void setExpenseType(final @Nonnull Expense expense) {
-        // Get the currently logged-in user
-        final var userDetails = SecurityUtils.getLoggedInUserDetails();
-        if (userDetails == null) throw new IllegalStateException("No logged-in user found");
-        // Fetch the logged-in user
-        final var loggedInUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        Person loggedInPerson = this.personRepository.findByUsername(loggedInUser.getUsername());
-
-        if (loggedInPerson == null) throw new IllegalStateException("No associated Person entity found for logged-in user");
-
+    private void setExpenseType(final @Nonnull Expense expense, final @Nonnull Person loggedInPerson) {
         // Check if the payer and beneficiary are present
         Person payer = expense.getPayer();
         Person beneficiary = expense.getBeneficiary();
@@ -220,4 +380,4 @@ public class ExpenseService {
          else if (!payer.equals(loggedInPerson) && beneficiary.equals(loggedInPerson)) expense.setExpenseType(ExpenseType.DEBIT); // Logged-in user is the beneficiary, and the payer is someone else
          else if (payer.equals(loggedInPerson)) expense.setExpenseType(ExpenseType.NONE); // Both payer and beneficiary are the logged-in user
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.application.munera.services;
+
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.PersonBalance;
+import com.application.munera.repositories.PersonRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class PersonBalanceService {
+
+    private final PersonRepository personRepository;
+
+    public PersonBalanceService(PersonRepository personRepository) {
+        this.personRepository = personRepository;
+    }
+
+    /**
+     * Applies changes to the running debt and credit of people, in the transaction changing the expenses.
+     * The deltas are added together by person first, so that each person is updated once,
+     * and not at all when an edit does not change the unpaid amounts.
+     * @param deltas the changes to apply
+     */
+    @Transactional
+    public void apply(final Collection<ExpenseBalanceDelta> deltas) {
+        final Map<Long, PersonBalance> merged = new LinkedHashMap<>();
+        for (final var delta : deltas) {
+            if (delta.isZero()) continue;
+            merged.merge(delta.payerId(), new PersonBalance(delta.amount(), BigDecimal.ZERO), PersonBalance::plus);
+            merged.merge(delta.beneficiaryId(), new PersonBalance(BigDecimal.ZERO, delta.amount()), PersonBalance::plus);
+        }
+
+        merged.forEach((personId, balance) -> {
+            if (balance.debt().signum() != 0 || balance.credit().signum() != 0)
+                this.personRepository.addToBalance(personId, balance.debt(), balance.credit());
+        });
+    }
+
+    /**
+     * Recomputes the running debt and credit of all the people from the expenses, in a single statement.
+     * It repairs the balances after the expenses have been changed outside the application.
+     * @return the number of people updated
+     */
+    @Transactional
+    public int rebuild() {
+        return this.personRepository.recomputeBalancesFromExpenses();
+    }
+}
@@ -1,28 +1,32 @@
 package com.application.munera.services;
 
-import com.application.munera.data.Expense;
 import com.application.munera.data.Person;
+import com.application.munera.data.PersonBalance;
 import com.application.munera.data.User;
-import com.application.munera.repositories.ExpenseRepository;
+import com.application.munera.events.PersonChanged;
 import com.application.munera.repositories.PersonRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class PersonService {
 
     private final PersonRepository personRepository;
-    private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PersonService(PersonRepository personRepository, ExpenseRepository expenseRepository) {
+    public PersonService(PersonRepository personRepository, ApplicationEventPublisher eventPublisher) {
         this.personRepository = personRepository;
-        this.expenseRepository = expenseRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -90,7 +94,8 @@ public class PersonService {
      */
     public void update(Person person, Long userId) {
         person.setUserId(userId);
-        this.personRepository.save(person);
+        final var saved = this.personRepository.save(person);
+        this.eventPublisher.publishEvent(new PersonChanged(userId, saved.getId(), false));
     }
 
     /**
@@ -98,7 +103,9 @@ public class PersonService {
      * @param id the ID of the person to delete
      */
     public void delete(Long id) {
+        final var userId = this.personRepository.findById(id).map(Person::getUserId);
         this.personRepository.deleteById(id);
+        userId.ifPresent(user -> this.eventPublisher.publishEvent(new PersonChanged(user, id, true)));
     }
 
     /**
@@ -107,10 +114,7 @@ public class PersonService {
      * @return the total debt amount
      */
     public BigDecimal calculateDebt(final Person person) {
-        return this.expenseRepository.findExpensesByPayer(person.getId()).stream()
-                .filter(expense -> !expense.getBeneficiary().equals(person) && Boolean.FALSE.equals(expense.getIsPaid()))
-                .map(Expense::getCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return this.calculateBalance(person).debt();
     }
 
     /**
@@ -119,10 +123,33 @@ public class PersonService {
      * @return the total credit amount
      */
     public BigDecimal calculateCredit(final Person person) {
-        return this.expenseRepository.findExpensesByBeneficiary(person.getId()).stream()
-                .filter(expense -> !expense.getPayer().equals(person) && Boolean.FALSE.equals(expense.getIsPaid()))
-                .map(Expense::getCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return this.calculateBalance(person).credit();
+    }
+
+    /**
+     * Reads both the debt and the credit of a person from the running totals stored with the person,
+     * whose cost does not depend on how many expenses the person has.
+     * Only the unpaid expenses where the payer and the beneficiary are different people are counted.
+     * @param person the person whose balance is to be calculated
+     * @return the debt and credit of the person
+     */
+    public PersonBalance calculateBalance(final Person person) {
+        final var balance = this.personRepository.findBalanceById(person.getId());
+        return Objects.isNull(balance) ? PersonBalance.ZERO : balance;
+    }
+
+    /**
+     * Reads the net balances of all the people of a user from their running totals, with a single query.
+     * Gives the same results as {@link #calculateNetBalance(Person)} for each person.
+     * People without outstanding expenses are not part of the map, their balance is zero.
+     * @param user the user whose people's balances are to be calculated
+     * @return the net balance of each person, keyed by the person id
+     */
+    public Map<Long, BigDecimal> calculateNetBalances(final User user) {
+        final Map<Long, BigDecimal> balances = new HashMap<>();
+        for (final var person : this.personRepository.findByUserId(user.getId()))
+            if (person.getNetBalance().signum() != 0) balances.put(person.getId(), person.getNetBalance());
+        return balances;
     }
 
     /**
@@ -138,11 +165,7 @@ public class PersonService {
      * @return the net balance amount
      */
     public BigDecimal calculateNetBalance(final Person person) {
-            // Calculate total debt (what others owe to the person)
-            final BigDecimal debt = this.calculateDebt(person);
-            // Calculate total credit (what the person owes to others)
-            final BigDecimal credit = this.calculateCredit(person);
-            // Net balance calculation: debt (owed to the person) - credit (person owes)
-            return debt.subtract(credit);
+        // Net balance calculation: debt (owed to the person) - credit (person owes), both read in one round trip
+        return this.calculateBalance(person).netBalance();
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.application.munera.services;
+
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseOccurrence;
+import com.application.munera.data.OccurrenceKey;
+import com.application.munera.repositories.ExpenseRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class RecurrenceCalendarService {
+
+    private static final Comparator<ExpenseOccurrence> CALENDAR_ORDER = Comparator
+            .comparing(ExpenseOccurrence::date)
+            .thenComparing(ExpenseOccurrence::projected)
+            .thenComparing(ExpenseOccurrence::expenseId);
+
+    private final ExpenseRepository expenseRepository;
+
+    public RecurrenceCalendarService(ExpenseRepository expenseRepository) {
+        this.expenseRepository = expenseRepository;
+    }
+
+    /**
+     * Finds the calendar entries of a user in a date range: the stored expenses of the range, merged with the occurrences
+     * of the periodic expenses that are not generated yet. The occurrences are computed from the rule of each periodic
+     * expense for the range only, so upcoming expenses are never stored ahead of time and a range costs the same
+     * whether it is next month or ten years from now.
+     * @param userId the id of the user of the expenses
+     * @param from the first day of the range
+     * @param to the day after the last day of the range
+     * @return the entries of the range, sorted by date
+     */
+    public List<ExpenseOccurrence> findOccurrences(final Long userId, final LocalDate from, final LocalDate to) {
+        if (!from.isBefore(to)) return List.of();
+        final List<ExpenseOccurrence> occurrences = new ArrayList<>(this.expenseRepository.findOccurrencesInPeriod(userId, from, to));
+
+        // An occurrence generated while the range was being read is already among the stored ones
+        final Set<OccurrenceKey> stored = new HashSet<>();
+        for (final var occurrence : occurrences)
+            if (Objects.nonNull(occurrence.recurrenceSourceId())) stored.add(new OccurrenceKey(occurrence.recurrenceSourceId(), occurrence.date()));
+
+        for (final var template : this.expenseRepository.findRecurrencesDueBefore(userId, to))
+            this.addProjectedOccurrences(template, from, to, stored, occurrences);
+        occurrences.sort(CALENDAR_ORDER);
+        return occurrences;
+    }
+
+    private void addProjectedOccurrences(final Expense template, final LocalDate from, final LocalDate to,
+                                         final Set<OccurrenceKey> stored, final List<ExpenseOccurrence> occurrences) {
+        final var unit = template.getPeriodUnit();
+        final var interval = template.getPeriodInterval();
+        if (Objects.isNull(unit) || Objects.isNull(interval) || interval <= 0) return;
+
+        // The occurrences before the next due date are stored, and the template itself is the occurrence of index zero
+        final var firstDate = template.getNextDueDate().isAfter(from) ? template.getNextDueDate() : from;
+        var index = Math.max(1, unit.firstOccurrenceFrom(template.getDate(), interval, firstDate));
+        for (var date = unit.occurrence(template.getDate(), interval, index); date.isBefore(to);
+             date = unit.occurrence(template.getDate(), interval, ++index))
+            if (!stored.contains(new OccurrenceKey(template.getId(), date)))
+                occurrences.add(ExpenseOccurrence.projectedFrom(template, date));
+    }
+}
@@ -0,0 +1,82 @@
+package com.application.munera.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Periodically generates the missed occurrences of the periodic expenses of all the users.
+ * The users with a backlog are processed in parallel on a bounded pool, sized below the connection pool,
+ * and the expenses of each user a batch at a time, until nothing is due.
+ * The generation can be turned off with {@code munera.recurrence.enabled=false}.
+ */
+@Service
+@ConditionalOnProperty(name = "munera.recurrence.enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringExpenseScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseScheduler.class);
+
+    private final RecurringExpenseService recurringExpenseService;
+    private final ExecutorService executor;
+
+    public RecurringExpenseScheduler(RecurringExpenseService recurringExpenseService,
+                                     @Value("${munera.recurrence.threads:4}") int threads) {
+        this.recurringExpenseService = recurringExpenseService;
+        this.executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("recurrence-", 1).daemon().factory());
+    }
+
+    @Scheduled(initialDelayString = "${munera.recurrence.initial-delay-ms:60000}", fixedDelayString = "${munera.recurrence.delay-ms:3600000}")
+    public void generateDueOccurrences() {
+        this.generateDueOccurrences(LocalDate.now());
+    }
+
+    /**
+     * Generates the occurrences due up to a day for all the users, and waits for the generation to finish.
+     * A failure for a user is logged and does not stop the others, whose progress is already committed.
+     * @param today the last day whose occurrences are generated
+     * @return the number of templates processed
+     */
+    int generateDueOccurrences(final LocalDate today) {
+        final List<Callable<Integer>> tasks = this.recurringExpenseService.findUsersWithDueRecurrences(today).stream()
+                .map(userId -> (Callable<Integer>) () -> this.generateDueOccurrences(userId, today))
+                .toList();
+        int processed = 0;
+        try {
+            for (final Future<Integer> result : this.executor.invokeAll(tasks)) processed += result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Recurring expenses generation failed", e.getCause());
+        }
+        return processed;
+    }
+
+    private int generateDueOccurrences(final Long userId, final LocalDate today) {
+        int processed = 0;
+        try {
+            for (int batch = this.recurringExpenseService.generateDueOccurrences(userId, today); batch > 0;
+                 batch = this.recurringExpenseService.generateDueOccurrences(userId, today))
+                processed += batch;
+        } catch (RuntimeException e) {
+            log.warn("Recurring expenses of user {} not generated, they are retried on the next run", userId, e);
+        }
+        return processed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
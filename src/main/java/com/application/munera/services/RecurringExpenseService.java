@@ -0,0 +1,113 @@
+package com.application.munera.services;
+
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.ExpenseRollupDelta;
+import com.application.munera.data.OccurrenceKey;
+import com.application.munera.events.ExpensesChanged;
+import com.application.munera.repositories.ExpenseRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class RecurringExpenseService {
+
+    static final int TEMPLATES_PER_BATCH = 100;
+    // A template with a long backlog is generated over several batches, so that a batch holds a bounded number of expenses
+    static final int OCCURRENCES_PER_TEMPLATE = 500;
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final PersonBalanceService personBalanceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RecurringExpenseService(ExpenseRepository expenseRepository, ExpenseRollupService expenseRollupService,
+                                   PersonBalanceService personBalanceService, ApplicationEventPublisher eventPublisher) {
+        this.expenseRepository = expenseRepository;
+        this.expenseRollupService = expenseRollupService;
+        this.personBalanceService = personBalanceService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Finds the users with at least one periodic expense whose next occurrence is due.
+     * @param today the last day whose occurrences are due
+     * @return the ids of the users
+     */
+    public List<Long> findUsersWithDueRecurrences(final LocalDate today) {
+        return this.expenseRepository.findUserIdsWithDueRecurrences(today);
+    }
+
+    /**
+     * Generates the missed occurrences of a batch of the due periodic expenses of a user, up to today, in one transaction.
+     * The occurrences are inserted in JDBC batches, and the next due date of each template is advanced in the same transaction,
+     * so a batch is either generated and recorded as done, or not at all, and is never generated twice.
+     * The dates already stored for a template are skipped, so a next due date set back to an earlier date does not fail the batch.
+     * A template changed concurrently fails the batch through its version, and it is generated again by the next run.
+     * The rollups and the balances are updated like for any other new expense.
+     * @param userId the id of the user of the expenses
+     * @param today the last day whose occurrences are generated
+     * @return the number of templates processed, zero once nothing is due
+     */
+    @Transactional
+    public int generateDueOccurrences(final Long userId, final LocalDate today) {
+        final var templates = this.expenseRepository.findDueRecurrences(userId, today, PageRequest.of(0, TEMPLATES_PER_BATCH));
+        if (templates.isEmpty()) return 0;
+        // The templates are sorted by next due date, so the first one is the earliest date to generate
+        final Set<OccurrenceKey> stored = new HashSet<>(this.expenseRepository.findOccurrenceKeys(
+                templates.stream().map(Expense::getId).toList(), templates.getFirst().getNextDueDate(), today));
+        final List<Expense> occurrences = new ArrayList<>();
+        for (final var template : templates) this.addDueOccurrences(template, today, stored, occurrences);
+        if (occurrences.isEmpty()) return templates.size();
+
+        this.expenseRepository.saveAll(occurrences);
+        this.expenseRollupService.apply(occurrences.stream().map(ExpenseRollupDelta::of).toList());
+        this.personBalanceService.apply(occurrences.stream().map(ExpenseBalanceDelta::of).toList());
+        this.eventPublisher.publishEvent(new ExpensesChanged(userId, occurrences.size()));
+        return templates.size();
+    }
+
+    private void addDueOccurrences(final Expense template, final LocalDate today, final Set<OccurrenceKey> stored,
+                                   final List<Expense> occurrences) {
+        final var unit = template.getPeriodUnit();
+        final var interval = template.getPeriodInterval();
+        if (Objects.isNull(unit) || Objects.isNull(interval) || interval <= 0) {
+            template.setNextDueDate(null);
+            return;
+        }
+        // The template itself is the occurrence of index zero
+        var index = Math.max(1, unit.firstOccurrenceFrom(template.getDate(), interval, template.getNextDueDate()));
+        var date = unit.occurrence(template.getDate(), interval, index);
+        for (int visited = 0; !date.isAfter(today) && visited < OCCURRENCES_PER_TEMPLATE; visited++) {
+            if (!stored.contains(new OccurrenceKey(template.getId(), date))) occurrences.add(createOccurrence(template, date));
+            date = unit.occurrence(template.getDate(), interval, ++index);
+        }
+        template.setNextDueDate(date);
+    }
+
+    private static Expense createOccurrence(final Expense template, final LocalDate date) {
+        final var occurrence = new Expense();
+        occurrence.setName(template.getName());
+        occurrence.setCategory(template.getCategory());
+        occurrence.setCost(template.getCost());
+        occurrence.setDescription(template.getDescription());
+        occurrence.setIsPeriodic(false);
+        occurrence.setPayer(template.getPayer());
+        occurrence.setBeneficiary(template.getBeneficiary());
+        occurrence.setDate(date);
+        occurrence.setIsPaid(false);
+        occurrence.setExpenseType(template.getExpenseType());
+        occurrence.setUserId(template.getUserId());
+        occurrence.setRecurrenceSourceId(template.getId());
+        return occurrence;
+    }
+}
@@ -0,0 +1,83 @@
+package com.application.munera.services;
+
+import com.application.munera.data.SettlementTransfer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Computes a small set of transfers clearing the net balances of a group of people.
+ * <p>
+ * Finding the fewest transfers is NP-hard, so the optimizer settles first the debtors and creditors owing and owed the same amount
+ * with a single transfer each, then repeatedly matches the largest debt with the largest credit, using two heaps.
+ * It runs in O(n log n) and never needs more than n - 1 transfers for n people with a non-zero balance.
+ * Amounts are handled as whole cents, the precision of the costs of the expenses.
+ */
+public final class SettlementOptimizer {
+
+    private static final Comparator<Party> LARGEST_FIRST = Comparator.comparingLong(Party::cents).reversed()
+            .thenComparing(Party::personId);
+
+    private SettlementOptimizer() {
+    }
+
+    /**
+     * Computes the transfers clearing the given balances.
+     * Balances that do not add up to zero leave the difference unsettled.
+     * @param netBalances the net balances keyed by the person id, positive when the person is owed money and negative when the person owes money
+     * @return the transfers, from the people owing money to the people owed money
+     */
+    public static List<SettlementTransfer> minimizeTransfers(final Map<Long, BigDecimal> netBalances) {
+        final List<SettlementTransfer> transfers = new ArrayList<>();
+        final Map<Long, Deque<Long>> creditorsByAmount = new HashMap<>();
+        final List<Party> debtors = new ArrayList<>();
+        netBalances.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    final var cents = toCents(entry.getValue());
+                    if (cents > 0) creditorsByAmount.computeIfAbsent(cents, amount -> new ArrayDeque<>()).add(entry.getKey());
+                    else if (cents < 0) debtors.add(new Party(entry.getKey(), -cents));
+                });
+
+        // A debtor owing exactly what a creditor is owed is settled with a single transfer
+        final PriorityQueue<Party> debtorHeap = new PriorityQueue<>(LARGEST_FIRST);
+        for (final var debtor : debtors) {
+            final var creditors = creditorsByAmount.get(debtor.cents());
+            if (creditors != null && !creditors.isEmpty())
+                transfers.add(new SettlementTransfer(debtor.personId(), creditors.poll(), toAmount(debtor.cents())));
+            else debtorHeap.add(debtor);
+        }
+        final PriorityQueue<Party> creditorHeap = new PriorityQueue<>(LARGEST_FIRST);
+        creditorsByAmount.forEach((cents, creditors) -> creditors.forEach(personId -> creditorHeap.add(new Party(personId, cents))));
+
+        // The largest debt pays the largest credit, and whoever is left with a remainder goes back to its heap
+        while (!debtorHeap.isEmpty() && !creditorHeap.isEmpty()) {
+            final var debtor = debtorHeap.poll();
+            final var creditor = creditorHeap.poll();
+            final var cents = Math.min(debtor.cents(), creditor.cents());
+            transfers.add(new SettlementTransfer(debtor.personId(), creditor.personId(), toAmount(cents)));
+            if (debtor.cents() > cents) debtorHeap.add(new Party(debtor.personId(), debtor.cents() - cents));
+            if (creditor.cents() > cents) creditorHeap.add(new Party(creditor.personId(), creditor.cents() - cents));
+        }
+        return transfers;
+    }
+
+    private static long toCents(final BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal toAmount(final long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record Party(Long personId, long cents) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.application.munera.services;
+
+import com.application.munera.data.PersonNetBalance;
+import com.application.munera.data.SettlementPlan;
+import com.application.munera.data.User;
+import com.application.munera.events.ExpensesChanged;
+import com.application.munera.repositories.ExpenseRepository;
+import com.application.munera.repositories.PersonRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class SettlementService {
+
+    private final PersonService personService;
+    private final ExpenseService expenseService;
+    private final ExpenseRepository expenseRepository;
+    private final PersonRepository personRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SettlementService(PersonService personService, ExpenseService expenseService, ExpenseRepository expenseRepository,
+                             PersonRepository personRepository, ApplicationEventPublisher eventPublisher) {
+        this.personService = personService;
+        this.expenseService = expenseService;
+        this.expenseRepository = expenseRepository;
+        this.personRepository = personRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Computes the transfers clearing all the outstanding balances of the people of a user, the user included.
+     * The balances are read from the running totals of the people with a single query, see {@link SettlementOptimizer}.
+     * @param user the user whose people's balances are settled
+     * @return the settlement plan
+     */
+    public SettlementPlan plan(final User user) {
+        final var netBalances = this.personService.calculateNetBalances(user);
+        return new SettlementPlan(netBalances, SettlementOptimizer.minimizeTransfers(netBalances));
+    }
+
+    /**
+     * Applies a settlement plan once its transfers have been made: all the unpaid expenses of the user shared between two
+     * different people are set as paid, with today as payment date, which clears the balances of the people, in one transaction.
+     * The expenses and then the people are locked before the balances are checked against the plan, in the same order
+     * as a change of an expense, so no expense can change the balances between the check and the update.
+     * @param plan the plan computed by {@link #plan(User)}
+     * @param user the user whose people's balances are settled
+     * @return the number of expenses set as paid
+     * @throws IllegalStateException if the balances changed since the plan was computed
+     */
+    @Transactional
+    public int apply(final SettlementPlan plan, final User user) {
+        final var userId = user.getId();
+        final var unpaid = this.expenseRepository.findUnpaidSharedStates(userId);
+        final Map<Long, BigDecimal> netBalances = this.personRepository.findNetBalancesByUserId(userId).stream()
+                .filter(balance -> balance.netBalance().signum() != 0)
+                .collect(Collectors.toMap(PersonNetBalance::personId, PersonNetBalance::netBalance));
+        if (!plan.isBasedOn(netBalances))
+            throw new IllegalStateException("The balances changed since the settlement was computed");
+        final var count = this.expenseService.settle(unpaid);
+        this.eventPublisher.publishEvent(new ExpensesChanged(userId, count));
+        return count;
+    }
+}
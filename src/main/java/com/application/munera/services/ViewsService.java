@@ -1,110 +1,81 @@
 package com.application.munera.services;
 
 import com.application.munera.data.enums.BadgeMessage;
-import com.application.munera.data.Category;
 import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseOccurrence;
+import com.application.munera.data.ExpenseRow;
 import com.application.munera.data.enums.ExpenseType;
-import com.vaadin.flow.component.combobox.MultiSelectComboBox;
-import com.vaadin.flow.component.html.Span;
-import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.function.SerializableFunction;
 import org.springframework.stereotype.Service;
-import org.vaadin.klaudeta.PaginatedGrid;
 
 import java.math.BigDecimal;
-import java.util.List;
-import java.util.Objects;
 
 @Service
 public class ViewsService {
 
-    private final ExpenseService expenseService;
+    // The badge is rendered by the browser from two row properties, so no server-side component is created per row
+    private static final String BADGE_TEMPLATE = "<span theme=\"${item.badgeTheme}\">${item.badgeText}</span>";
 
-    public ViewsService(ExpenseService expenseService) {
-        this.expenseService = expenseService;
+    /**
+     * Creates a renderer that shows a badge for every item of a grid.
+     * The text and the theme of the badge are sent as properties of the row and rendered on the client.
+     *
+     * @param badgeProvider the function that determines the badge of an item.
+     * @param <T> the type of the items of the grid.
+     * @return a {@link LitRenderer} rendering the badge of each item.
+     */
+    public <T> LitRenderer<T> createBadgeRenderer(final SerializableFunction<T, BadgeMessage> badgeProvider) {
+        return LitRenderer.<T>of(BADGE_TEMPLATE)
+                .withProperty("badgeText", item -> badgeProvider.apply(item).getText())
+                .withProperty("badgeTheme", item -> badgeProvider.apply(item).getTheme());
     }
 
     /**
-     * Creates a badge (Vaadin {@link Span}) based on the type of the expense and its payment status.
+     * Determines the badge of an expense based on its type and its payment status.
+     * The payment status is read from the expense itself, so no query is made.
      *
-     * @param expense the expense for which the badge is being created.
-     * @return a {@link Span} object representing the expense status badge.
+     * @param expense the expense for which the badge is being determined.
+     * @return the {@link BadgeMessage} of the expense.
      */
-    public Span createExpenseBadge(final Expense expense) {
-        final var isExpensePaid = Boolean.TRUE.equals(this.expenseService.isExpensePaid(expense));
-        final var badgeMessage = determineBadgeMessage(expense.getExpenseType(), isExpensePaid);
-
-        final var badge = new Span();
-        badge.setText(badgeMessage.getText());
-        badge.getElement().getThemeList().add(badgeMessage.getTheme());
-
-        return badge;
+    public BadgeMessage determineExpenseBadge(final Expense expense) {
+        return determineBadgeMessage(expense.getExpenseType(), Boolean.TRUE.equals(expense.getIsPaid()));
     }
 
     /**
-     * Creates a badge (Vaadin {@link Span}) that reflects a person's financial balance status
-     * based on the net balance provided.
+     * Determines the badge of an expense row based on its type and its payment status.
+     * The payment status is read from the row itself, so no query is made.
      *
-     * @param netBalance the net balance of the person.
-     * @return a {@link Span} object representing the person's financial status badge.
+     * @param expense the expense row for which the badge is being determined.
+     * @return the {@link BadgeMessage} of the expense row.
      */
-    public Span createPersonBadge(BigDecimal netBalance) {
-        Span badge = new Span();
-        if (netBalance.compareTo(BigDecimal.ZERO) < 0) {
-            badge.setText("Credit");
-            badge.getElement().getThemeList().add("badge success");
-        } else if (netBalance.compareTo(BigDecimal.ZERO) > 0) {
-            badge.setText("Debit");
-            badge.getElement().getThemeList().add("badge error");
-        } else {
-            badge.setText("Clear");
-            badge.getElement().getThemeList().add("badge contrast");
-        }
-        return badge;
+    public BadgeMessage determineExpenseBadge(final ExpenseRow expense) {
+        return determineBadgeMessage(expense.expenseType(), Boolean.TRUE.equals(expense.isPaid()));
     }
 
     /**
-     * Applies a name-based filter on the expenses displayed in the provided grid.
-     * If the filter value is empty, all expenses are displayed; otherwise, expenses
-     * whose names match the filter are shown.
+     * Determines the badge of a calendar entry. An upcoming occurrence that is not stored yet is shown as scheduled,
+     * a stored expense gets the same badge as in the expenses grid.
      *
-     * @param nameFilter the {@link TextField} containing the name filter value.
-     * @param userId     the ID of the user whose expenses are being filtered.
-     * @param grid       the {@link PaginatedGrid} that displays the expenses.
+     * @param occurrence the calendar entry for which the badge is being determined.
+     * @return the {@link BadgeMessage} of the calendar entry.
      */
-    public void applyNameFilter(TextField nameFilter, Long userId, PaginatedGrid<Expense, Objects> grid) {
-        final var filterValue = nameFilter.getValue().trim();
-        List<Expense> filteredExpenses;
-        if (filterValue.isEmpty()) filteredExpenses = expenseService.findAllOrderByDateDescending(userId); // If the filter is empty, return all expenses
-        else {
-            // Apply the filter (e.g., by name)
-            filteredExpenses = expenseService.findAllOrderByDateDescending(userId)
-                    .stream()
-                    .filter(expense -> expense.getName().toLowerCase().contains(filterValue.toLowerCase())).toList();
-        }
-        grid.setItems(filteredExpenses);
+    public BadgeMessage determineOccurrenceBadge(final ExpenseOccurrence occurrence) {
+        if (occurrence.projected()) return BadgeMessage.SCHEDULED;
+        return determineBadgeMessage(occurrence.expenseType(), Boolean.TRUE.equals(occurrence.isPaid()));
     }
 
     /**
-     * Applies a category-based filter on the expenses displayed in the provided grid.
-     * If no categories are selected, all expenses are shown; otherwise, only expenses
-     * that match the selected categories are displayed.
+     * Determines the badge that reflects a person's financial balance status
+     * based on the net balance provided.
      *
-     * @param categoryFilter the {@link MultiSelectComboBox} containing the selected categories.
-     * @param userId         the ID of the user whose expenses are being filtered.
-     * @param grid           the {@link PaginatedGrid} that displays the expenses.
+     * @param netBalance the net balance of the person.
+     * @return the {@link BadgeMessage} of the person.
      */
-    public void applyCategoryFilter(MultiSelectComboBox<Category> categoryFilter, Long userId, PaginatedGrid<Expense, Objects> grid) {
-        final var selectedCategories = categoryFilter.getValue();
-        List<Expense> filteredExpenses;
-        if (selectedCategories.isEmpty()) filteredExpenses = expenseService.findAllOrderByDateDescending(userId); // If no categories are selected, return all expenses
-        else {
-            // Apply the filter by selected categories
-            filteredExpenses = expenseService.findAllOrderByDateDescending(userId)
-                    .stream()
-                    .filter(expense1 -> selectedCategories.contains(expense1.getCategory()))
-                    .toList();
-        }
-        grid.setItems(filteredExpenses);
+    public BadgeMessage determinePersonBadge(BigDecimal netBalance) {
+        if (netBalance.compareTo(BigDecimal.ZERO) < 0) return BadgeMessage.CREDIT;
+        else if (netBalance.compareTo(BigDecimal.ZERO) > 0) return BadgeMessage.DEBIT;
+        else return BadgeMessage.CLEAR;
     }
 
     /**
@@ -115,6 +86,7 @@ public class ViewsService {
      * @return a {@link BadgeMessage} object containing the text and theme for the badge.
      */
     private BadgeMessage determineBadgeMessage(ExpenseType type, boolean isPaid) {
+        if (type == null) return BadgeMessage.UNKNOWN;
         return switch (type) {
             case CREDIT -> isPaid ? BadgeMessage.PAID_TO_ME : BadgeMessage.OWED_TO_ME;
             case DEBIT -> isPaid ? BadgeMessage.PAID_BY_ME : BadgeMessage.OWED_BY_ME;
@@ -122,4 +94,3 @@ public class ViewsService {
         };
     }
 }
-
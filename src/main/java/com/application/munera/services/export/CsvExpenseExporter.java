@@ -0,0 +1,40 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExportFormat;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Component
+public class CsvExpenseExporter implements ExpenseExporter {
+
+    @Override
+    public ExportFormat getFormat() {
+        return ExportFormat.CSV;
+    }
+
+    @Override
+    public void write(Stream<ExpenseRow> expenses, OutputStream outputStream) throws IOException {
+        final var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        final var csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(HEADERS.toArray(String[]::new)).build());
+        for (ExpenseRow expense : (Iterable<ExpenseRow>) expenses::iterator) {
+            csvPrinter.printRecord(
+                    expense.name(),
+                    expense.cost(),
+                    expense.categoryName() != null ? expense.categoryName() : "",
+                    expense.date(),
+                    expense.paymentDate() != null ? expense.paymentDate() : "Unpaid",
+                    expense.expenseType()
+            );
+        }
+        csvPrinter.flush();
+    }
+}
@@ -0,0 +1,34 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes expense rows in an export format.
+ * Every exporter is a Spring bean picked up by the {@link ExportService}, so a new format only needs a new implementation.
+ */
+public interface ExpenseExporter {
+
+    // The columns written by every format, in order
+    List<String> HEADERS = List.of("Name", "Cost", "Category", "Date", "Payment date", "Type");
+
+    /**
+     * Gets the format written by this exporter.
+     * @return the export format
+     */
+    ExportFormat getFormat();
+
+    /**
+     * Writes the rows to the output stream as they are consumed, without holding the whole file in memory.
+     * The output stream is flushed but left open, it is up to the caller to close it.
+     * @param expenses the rows to write
+     * @param outputStream the stream to write to
+     * @throws IOException if the rows cannot be written
+     */
+    void write(Stream<ExpenseRow> expenses, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,53 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.Expense;
+import com.application.munera.data.enums.ExportFormat;
+import com.application.munera.services.ExpenseService;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ExportService {
+
+    private final ExpenseService expenseService;
+    private final Map<ExportFormat, ExpenseExporter> exporters = new EnumMap<>(ExportFormat.class);
+
+    public ExportService(ExpenseService expenseService, List<ExpenseExporter> exporters) {
+        this.expenseService = expenseService;
+        exporters.forEach(exporter -> this.exporters.put(exporter.getFormat(), exporter));
+    }
+
+    /**
+     * Gets the formats that have an exporter.
+     * @return the available export formats, in declaration order
+     */
+    public Set<ExportFormat> getAvailableFormats() {
+        return this.exporters.keySet();
+    }
+
+    /**
+     * Writes the expenses matching a filter in the given format, newest first.
+     * The rows are streamed from the database straight into the output stream, so the file is never held in memory.
+     * @param format the format of the export
+     * @param filter the filter specification, which must at least restrict the expenses to those of the user
+     * @param outputStream the stream to write to, such as the HTTP response of a download
+     * @throws IOException if the export cannot be written
+     * @throws IllegalArgumentException if no exporter writes the format
+     */
+    @Transactional
+    public void export(ExportFormat format, Specification<Expense> filter, OutputStream outputStream) throws IOException {
+        final var exporter = this.exporters.get(format);
+        if (exporter == null) throw new IllegalArgumentException("No exporter for format " + format);
+        try (var expenses = this.expenseService.streamRows(filter)) {
+            exporter.write(expenses, outputStream);
+        }
+    }
+}
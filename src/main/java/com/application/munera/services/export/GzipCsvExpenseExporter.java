@@ -0,0 +1,36 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class GzipCsvExpenseExporter implements ExpenseExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CsvExpenseExporter csvExpenseExporter;
+
+    public GzipCsvExpenseExporter(CsvExpenseExporter csvExpenseExporter) {
+        this.csvExpenseExporter = csvExpenseExporter;
+    }
+
+    @Override
+    public ExportFormat getFormat() {
+        return ExportFormat.CSV_GZIP;
+    }
+
+    @Override
+    public void write(Stream<ExpenseRow> expenses, OutputStream outputStream) throws IOException {
+        // The CSV is compressed on the fly, finish() writes the trailer without closing the underlying stream
+        final var gzipOutputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        this.csvExpenseExporter.write(expenses, gzipOutputStream);
+        gzipOutputStream.finish();
+        gzipOutputStream.flush();
+    }
+}
@@ -0,0 +1,48 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes one JSON object per line (NDJSON), so that the file can be read back line by line.
+ */
+@Component
+public class JsonLinesExpenseExporter implements ExpenseExporter {
+
+    private final JsonFactory jsonFactory = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator(new SerializedString(""))
+            .build();
+
+    @Override
+    public ExportFormat getFormat() {
+        return ExportFormat.JSON_LINES;
+    }
+
+    @Override
+    public void write(Stream<ExpenseRow> expenses, OutputStream outputStream) throws IOException {
+        try (var generator = this.jsonFactory.createGenerator(outputStream)) {
+            for (ExpenseRow expense : (Iterable<ExpenseRow>) expenses::iterator) {
+                generator.writeStartObject();
+                generator.writeStringField("name", expense.name());
+                generator.writeNumberField("cost", expense.cost());
+                generator.writeStringField("category", expense.categoryName());
+                generator.writeStringField("date", Objects.toString(expense.date(), null));
+                generator.writeStringField("paymentDate", Objects.toString(expense.paymentDate(), null));
+                generator.writeStringField("type", Objects.toString(expense.expenseType(), null));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExportFormat;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes an Excel workbook with the streaming API of Apache POI.
+ * Only a window of rows is kept in memory, the older ones are flushed to a compressed temporary file
+ * that is copied to the output stream once all rows have been written.
+ */
+@Component
+public class XlsxExpenseExporter implements ExpenseExporter {
+
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final int MAX_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+
+    @Override
+    public ExportFormat getFormat() {
+        return ExportFormat.XLSX;
+    }
+
+    @Override
+    public void write(Stream<ExpenseRow> expenses, OutputStream outputStream) throws IOException {
+        final var workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            final var dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            var sheet = createSheet(workbook, 1);
+            int rowIndex = 1;
+            for (ExpenseRow expense : (Iterable<ExpenseRow>) expenses::iterator) {
+                // A sheet is limited to about a million rows, the following ones continue on a new sheet
+                if (rowIndex > MAX_ROW_INDEX) {
+                    sheet = createSheet(workbook, workbook.getNumberOfSheets() + 1);
+                    rowIndex = 1;
+                }
+                final var row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue(expense.name());
+                if (Objects.nonNull(expense.cost())) row.createCell(1).setCellValue(expense.cost().doubleValue());
+                row.createCell(2).setCellValue(Objects.toString(expense.categoryName(), ""));
+                setDateCell(row, 3, expense.date(), dateStyle);
+                if (Objects.nonNull(expense.paymentDate())) setDateCell(row, 4, expense.paymentDate(), dateStyle);
+                else row.createCell(4).setCellValue("Unpaid");
+                row.createCell(5).setCellValue(Objects.toString(expense.expenseType(), ""));
+            }
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            // Deletes the temporary files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static Sheet createSheet(final SXSSFWorkbook workbook, final int number) {
+        final var sheet = workbook.createSheet(number == 1 ? "Expenses" : "Expenses " + number);
+        final var header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.size(); i++) header.createCell(i).setCellValue(HEADERS.get(i));
+        return sheet;
+    }
+
+    private static void setDateCell(final Row row, final int column, final LocalDate date, final CellStyle dateStyle) {
+        final Cell cell = row.createCell(column);
+        if (Objects.isNull(date)) return;
+        cell.setCellValue(date);
+        cell.setCellStyle(dateStyle);
+    }
+}
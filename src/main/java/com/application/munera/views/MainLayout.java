@@ -1,8 +1,11 @@
 package com.application.munera.views;
 
-import com.application.munera.services.CSVService;
-import com.application.munera.services.ExpenseService;
-import com.application.munera.services.UserService;
+import com.application.munera.data.ExpenseFilter;
+import com.application.munera.repositories.ExpenseSpecifications;
+import com.application.munera.data.enums.ExportFormat;
+import com.application.munera.security.CurrentPrincipal;
+import com.application.munera.services.export.ExportService;
+import com.application.munera.views.calendar.CalendarView;
 import com.application.munera.views.categories.CategoriesView;
 import com.application.munera.views.dashboard.DashboardView;
 import com.application.munera.views.expenses.ExpensesView;
@@ -13,6 +16,7 @@ import com.vaadin.flow.component.applayout.AppLayout;
 import com.vaadin.flow.component.applayout.DrawerToggle;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.*;
+import com.vaadin.flow.component.menubar.MenuBar;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.Scroller;
@@ -31,17 +35,15 @@ import org.vaadin.lineawesome.LineAwesomeIcon;
 public class MainLayout extends AppLayout {
 
     private H1 viewTitle;
-    private Button exportToCSVButton;
+    private MenuBar exportMenu;
     private final transient AuthenticationContext authContext;
-    private final CSVService csvService;
-    private final ExpenseService expenseService;
-    private final UserService userService;
+    private final ExportService exportService;
+    private final CurrentPrincipal currentPrincipal;
 
-    public MainLayout(AuthenticationContext authContext, CSVService csvService, ExpenseService expenseService, UserService userService) {
+    public MainLayout(AuthenticationContext authContext, ExportService exportService, CurrentPrincipal currentPrincipal) {
         this.authContext = authContext;
-        this.csvService = csvService;
-        this.expenseService = expenseService;
-        this.userService = userService;
+        this.exportService = exportService;
+        this.currentPrincipal = currentPrincipal;
         setPrimarySection(Section.DRAWER);
         addDrawerContent();
         addHeaderContent();
@@ -73,24 +75,13 @@ public class MainLayout extends AppLayout {
         Button logout = new Button("Logout", click -> this.authContext.logout());
         logout.getStyle().set("padding", "10px"); // Add padding to the logout button
 
-        // Create the Export to CSV button
-        exportToCSVButton = new Button("Export Expenses to CSV");
-        exportToCSVButton.addClickListener(event -> {
-            // Call the CSV service to create the CSV resource
-            StreamResource resource = this.csvService.createCSVResource(this.expenseService.findAll());
-            resource.setCacheTime(0); // Disable caching to ensure fresh download each time
-
-            // Create a temporary link to trigger the download
-            Anchor downloadLink = new Anchor(resource, "");
-            downloadLink.getElement().setAttribute("download", true);
-            downloadLink.getElement().setAttribute("hidden", true); // Make the link invisible
-            getElement().appendChild(downloadLink.getElement());
-
-            // Programmatically click the link to start the download
-            downloadLink.getElement().callJsFunction("click");
-        });
-        exportToCSVButton.getStyle().set("margin", "0 15px"); // Set margin only for the left and right
-        exportToCSVButton.setVisible(false); // Initially hidden
+        // Create the export menu, with one item for each available format
+        exportMenu = new MenuBar();
+        final var exportItem = exportMenu.addItem("Export Expenses");
+        for (ExportFormat format : this.exportService.getAvailableFormats())
+            exportItem.getSubMenu().addItem(format.getLabel(), event -> this.download(format));
+        exportMenu.getStyle().set("margin", "0 15px"); // Set margin only for the left and right
+        exportMenu.setVisible(false); // Initially hidden
 
         // Create the header layout and add all elements
         HorizontalLayout header = new HorizontalLayout(userInfoLayout, logout);
@@ -99,7 +90,7 @@ public class MainLayout extends AppLayout {
         header.setJustifyContentMode(FlexComponent.JustifyContentMode.END); // Align items to the right
         header.getStyle().set("padding", "0 10px"); // Add padding around the header
 
-        addToNavbar(true, toggle, viewTitle, exportToCSVButton);
+        addToNavbar(true, toggle, viewTitle, exportMenu);
         addToNavbar(header);
     }
 
@@ -119,21 +110,17 @@ public class MainLayout extends AppLayout {
         nav.addItem(new SideNavItem("Expenses", ExpensesView.class, LineAwesomeIcon.MONEY_BILL_SOLID.create()));
         nav.addItem(new SideNavItem("Categories", CategoriesView.class, LineAwesomeIcon.FOLDER.create()));
         nav.addItem(new SideNavItem("People", PeopleView.class, LineAwesomeIcon.USER.create()));
+        nav.addItem(new SideNavItem("Calendar", CalendarView.class, LineAwesomeIcon.CALENDAR.create()));
         nav.addItem(new SideNavItem("Dashboard", DashboardView.class, LineAwesomeIcon.CHART_LINE_SOLID.create()));
 
         // Check user roles before adding sensitive menu items
-        if (isUserAdmin())
+        if (currentPrincipal.isAdmin())
             nav.addItem(new SideNavItem("Users", UsersView.class, LineAwesomeIcon.USER_LOCK_SOLID.create()));
 
         nav.addItem(new SideNavItem("Settings", SettingsView.class, LineAwesomeIcon.COG_SOLID.create()));
         return nav;
     }
 
-    private boolean isUserAdmin() {
-        final var user = userService.getLoggedInUser();
-        return user.getRoles().contains("ROLE_ADMIN");
-    }
-
     private Footer createFooter() {
         return new Footer();
     }
@@ -143,9 +130,33 @@ public class MainLayout extends AppLayout {
         super.afterNavigation();
         viewTitle.setText(getCurrentPageTitle());
 
-        // Show or hide the Export to CSV button based on the current view
+        // Show or hide the export menu based on the current view
         boolean isExpensesView = getContent().getClass().equals(ExpensesView.class);
-        exportToCSVButton.setVisible(isExpensesView);
+        exportMenu.setVisible(isExpensesView);
+    }
+
+    private void download(final ExportFormat format) {
+        // The export is written straight to the response, with the expenses of the user matching the filters of the grid
+        final var filter = ExpenseSpecifications.fromFilter(this.getExportFilter());
+        StreamResource resource = new StreamResource(format.getFileName(), (outputStream, session) -> this.exportService.export(format, filter, outputStream));
+        resource.setContentType(format.getContentType());
+        resource.setCacheTime(0); // Disable caching to ensure fresh download each time
+
+        // Create a temporary link to trigger the download
+        Anchor downloadLink = new Anchor(resource, "");
+        downloadLink.getElement().setAttribute("download", true);
+        downloadLink.getElement().setAttribute("hidden", true); // Make the link invisible
+        getElement().appendChild(downloadLink.getElement());
+
+        // Programmatically click the link to start the download
+        downloadLink.getElement().callJsFunction("click");
+    }
+
+    private ExpenseFilter getExportFilter() {
+        if (getContent() instanceof ExpensesView expensesView) return expensesView.getExpenseFilter();
+        final var filter = new ExpenseFilter();
+        filter.setUserId(currentPrincipal.getUserId());
+        return filter;
     }
 
     private String getCurrentPageTitle() {
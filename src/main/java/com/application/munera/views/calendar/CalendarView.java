@@ -0,0 +1,88 @@
+package com.application.munera.views.calendar;
+
+import com.application.munera.data.ExpenseOccurrence;
+import com.application.munera.security.CurrentPrincipal;
+import com.application.munera.services.RecurrenceCalendarService;
+import com.application.munera.services.ViewsService;
+import com.application.munera.views.MainLayout;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import jakarta.annotation.security.PermitAll;
+import org.vaadin.lineawesome.LineAwesomeIcon;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+
+@PermitAll
+@PageTitle("Calendar")
+@Route(value = "calendar", layout = MainLayout.class)
+public class CalendarView extends Div {
+
+    private final RecurrenceCalendarService recurrenceCalendarService;
+    private final Long userId;
+    private final Grid<ExpenseOccurrence> grid = new Grid<>(ExpenseOccurrence.class, false);
+    private final H3 monthTitle = new H3();
+    private final Span monthTotal = new Span();
+    private YearMonth monthCurrentlyShown; // the month whose entries are in the grid
+
+    public CalendarView(RecurrenceCalendarService recurrenceCalendarService, ViewsService viewsService, CurrentPrincipal currentPrincipal) {
+        this.recurrenceCalendarService = recurrenceCalendarService;
+        this.userId = currentPrincipal.getUserId();
+        addClassNames("expenses-view");
+        setSizeFull();
+
+        // Create the navigation between the months
+        Button previous = new Button(LineAwesomeIcon.ANGLE_LEFT_SOLID.create(), e -> showMonth(monthCurrentlyShown.minusMonths(1)));
+        Button next = new Button(LineAwesomeIcon.ANGLE_RIGHT_SOLID.create(), e -> showMonth(monthCurrentlyShown.plusMonths(1)));
+        Button today = new Button("Today", e -> showMonth(YearMonth.now()));
+        previous.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        next.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        monthTitle.getStyle().set("margin", "0 10px"); // Keep the title between the arrows
+        monthTotal.getStyle().set("margin-left", "auto"); // Push the total to the right
+
+        HorizontalLayout toolbar = new HorizontalLayout(previous, monthTitle, next, today, monthTotal);
+        toolbar.setWidthFull();
+        toolbar.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.CENTER);
+
+        // Configure Grid
+        grid.addColumn(ExpenseOccurrence::date).setHeader("Date");
+        grid.addColumn(ExpenseOccurrence::name).setHeader("Name");
+        grid.addColumn(ExpenseOccurrence::cost).setHeader("Amount");
+        grid.addColumn(ExpenseOccurrence::categoryName).setHeader("Category");
+        grid.addColumn(viewsService.<ExpenseOccurrence>createBadgeRenderer(viewsService::determineOccurrenceBadge)).setHeader("Status");
+        grid.getColumns().forEach(col -> col.setAutoWidth(true));
+        grid.addThemeVariants(GridVariant.LUMO_NO_BORDER);
+        grid.setSizeFull();
+
+        VerticalLayout layout = new VerticalLayout(toolbar, grid);
+        layout.setSizeFull();
+        layout.getStyle().set("padding", "5px"); // Add padding to main layout
+        add(layout);
+        showMonth(YearMonth.now());
+    }
+
+    // Only the shown month is computed, the occurrences of the periodic expenses are expanded again when the month changes
+    private void showMonth(YearMonth month) {
+        monthCurrentlyShown = month;
+        final List<ExpenseOccurrence> occurrences = this.recurrenceCalendarService.findOccurrences(
+                this.userId, month.atDay(1), month.plusMonths(1).atDay(1));
+        grid.setItems(occurrences);
+
+        monthTitle.setText(month.getMonth().getDisplayName(TextStyle.FULL, Locale.getDefault()) + " " + month.getYear());
+        final var total = occurrences.stream().map(ExpenseOccurrence::cost).reduce(BigDecimal.ZERO, BigDecimal::add);
+        monthTotal.setText("Total: " + total);
+    }
+}
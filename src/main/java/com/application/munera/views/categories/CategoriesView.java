@@ -1,8 +1,8 @@
 package com.application.munera.views.categories;
 
 import com.application.munera.data.Category;
+import com.application.munera.security.CurrentPrincipal;
 import com.application.munera.services.CategoryService;
-import com.application.munera.services.UserService;
 import com.application.munera.views.MainLayout;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -50,14 +50,12 @@ public class CategoriesView extends Div implements BeforeEnterObserver {
 
     private Category category;
     private final CategoryService categoryService;
-    private final UserService userService;
     private TextField name;
     private TextArea description;
 
-    public CategoriesView(CategoryService categoryService, UserService userService) {
+    public CategoriesView(CategoryService categoryService, CurrentPrincipal currentPrincipal) {
         this.categoryService = categoryService;
-        this.userService = userService;
-        final var userId = this.userService.getLoggedInUser().getId();
+        final var userId = currentPrincipal.getUserId();
         addClassNames("expenses-view");
 
         // Create UI
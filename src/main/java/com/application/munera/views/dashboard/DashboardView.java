@@ -1,28 +1,26 @@
 package com.application.munera.views.dashboard;
 
-import com.application.munera.data.Expense;
-import com.application.munera.data.Person;
+import com.application.munera.data.DashboardSnapshot;
 import com.application.munera.data.User;
-import com.application.munera.facades.PersonFacade;
+import com.application.munera.security.CurrentPrincipal;
+import com.application.munera.services.DashboardService;
+import com.application.munera.services.DataChangeBroadcaster;
 import com.application.munera.services.ExpenseService;
-import com.application.munera.services.UserService;
 import com.application.munera.views.MainLayout;
 import com.nimbusds.jose.shaded.gson.Gson;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import jakarta.annotation.security.PermitAll;
 
-import java.math.BigDecimal;
-import java.time.Month;
 import java.time.Year;
-import java.time.YearMonth;
-import java.time.format.TextStyle;
 import java.util.*;
-import java.util.stream.Collectors;
 
 //@HtmlImport("frontend://styles/shared-styles.html") // If you have custom styles
 @PermitAll
@@ -31,17 +29,19 @@ import java.util.stream.Collectors;
 public class DashboardView extends Div {
 
     private final ExpenseService expenseService;
-    private final PersonFacade personFacade;
+    private final DashboardService dashboardService;
+    private final DataChangeBroadcaster dataChangeBroadcaster;
     private final User loggedUser;
-    private final Person loggedPerson;
     private final ComboBox<Integer> yearComboBox;
     private Year yearCurrentlySelected; // the year selected in the combo box
+    private Registration dataChangeRegistration;
 
-    public DashboardView(ExpenseService expenseService, UserService userService, PersonFacade personFacade) {
+    public DashboardView(ExpenseService expenseService, DashboardService dashboardService,
+                         DataChangeBroadcaster dataChangeBroadcaster, CurrentPrincipal currentPrincipal) {
         this.expenseService = expenseService;
-        this.personFacade = personFacade;
-        loggedUser = userService.getLoggedInUser();
-        loggedPerson = personFacade.getLoggedInPerson();
+        this.dashboardService = dashboardService;
+        this.dataChangeBroadcaster = dataChangeBroadcaster;
+        loggedUser = currentPrincipal.getUser();
         addClassName("highcharts-view"); // Optional CSS class for styling
 
         // Fetch available years from the database
@@ -118,13 +118,31 @@ public class DashboardView extends Div {
         updateCharts(Year.now());
     }
 
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // Changes made in other tabs and sessions are pushed, a burst of them redraws the charts once
+        final var ui = attachEvent.getUI();
+        dataChangeRegistration = dataChangeBroadcaster.register(loggedUser.getId(),
+                change -> ui.access(() -> updateCharts(yearCurrentlySelected)));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        dataChangeRegistration.remove();
+        dataChangeRegistration = null;
+    }
+
     // Update the charts based on the selected year
     private void updateCharts(Year year) {
         yearCurrentlySelected = year; // i update what year is currently selected to use it in the graph's titles
-        String barChartJs = generateBarChartScript(year);
-        String pieChartJs = generatePieChartScript(year);
-        String negativeColumnChartJs = generateNegativeColumnChartScript();
-        String expensesOverTimeByCategoryChart = generateExpensesOverTimeByCategoryScript(year);
+        // All the charts are rendered from the same snapshot, computed with a single query
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(loggedUser, year);
+        String barChartJs = generateBarChartScript(snapshot);
+        String pieChartJs = generatePieChartScript(snapshot);
+        String negativeColumnChartJs = generateNegativeColumnChartScript(snapshot);
+        String expensesOverTimeByCategoryChart = generateExpensesOverTimeByCategoryScript(snapshot);
 
         // Execute the JavaScript to update the charts
         getElement().executeJs(barChartJs);
@@ -133,70 +151,22 @@ public class DashboardView extends Div {
         getElement().executeJs(expensesOverTimeByCategoryChart);
     }
 
-    private String generateBarChartScript(Year year) {
-        List<Expense> expenses = expenseService.fetchExpensesForDashboard(loggedPerson, year);
-
-        // Create a map to store data by month and category
-        Map<String, Map<String, Double>> monthlyCategoryData = new LinkedHashMap<>();
-
-        // Initialize all months (from January to December) for each category
-        List<String> monthNames = new ArrayList<>();
-        for (int i = 1; i <= 12; i++) {
-            String monthName = Month.of(i).getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            monthNames.add(monthName);
-            monthlyCategoryData.putIfAbsent(monthName, new LinkedHashMap<>());
-        }
-
-        // Populate the map with actual expense data
-        for (Expense expense : expenses) {
-            String monthName = expense.getDate().getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            String categoryName = expense.getCategory().getName();
-            Double amount = expense.getCost().doubleValue();
-
-            monthlyCategoryData.putIfAbsent(monthName, new LinkedHashMap<>());
-            Map<String, Double> categoryData = monthlyCategoryData.get(monthName);
-            categoryData.put(categoryName, categoryData.getOrDefault(categoryName, 0.0) + amount);
-        }
-
-        // Prepare series data for Highcharts, with each category being a separate series
-        Map<String, Map<String, Double>> categoryMonthlyData = new LinkedHashMap<>();
-        for (String monthName : monthNames) {
-            Map<String, Double> monthData = monthlyCategoryData.getOrDefault(monthName, new LinkedHashMap<>());
-            for (Map.Entry<String, Double> entry : monthData.entrySet()) {
-                String categoryName = entry.getKey();
-                Double amount = entry.getValue();
-
-                categoryMonthlyData.putIfAbsent(categoryName, new LinkedHashMap<>());
-                categoryMonthlyData.get(categoryName).put(monthName, amount);
-            }
-        }
-
-        // Build the series data for each category
-        StringBuilder seriesData = new StringBuilder("[");
-        for (Map.Entry<String, Map<String, Double>> entry : categoryMonthlyData.entrySet()) {
-            String categoryName = entry.getKey();
-            Map<String, Double> monthData = entry.getValue();
-
-            seriesData.append("{");
-            seriesData.append("name: '").append(categoryName).append("',");
-            seriesData.append("data: [");
-
-            for (String monthName : monthNames) {
-                seriesData.append(monthData.getOrDefault(monthName, 0.0)).append(",");
-            }
-
-            seriesData.setLength(seriesData.length() - 1); // Remove trailing comma
-            seriesData.append("], stack: 'expenses'");
-            seriesData.append("},");
+    private String generateBarChartScript(DashboardSnapshot snapshot) {
+        // Build the series data, with each category being a separate series stacked by month
+        List<Map<String, Object>> seriesData = new ArrayList<>();
+        for (int i = 0; i < snapshot.getCategories().size(); i++) {
+            Map<String, Object> series = new LinkedHashMap<>();
+            series.put("name", snapshot.getCategories().get(i));
+            series.put("data", snapshot.getMonthlyTotals(i));
+            series.put("stack", "expenses");
+            seriesData.add(series);
         }
-        seriesData.setLength(seriesData.length() - 1); // Remove trailing comma
-        seriesData.append("]");
 
         // Generate the JavaScript for the stacked column chart
         return "Highcharts.chart('barChart', {" +
                 "chart: { type: 'column' }, " +
                 "title: { text: 'Monthly Expenses by Category for " + yearCurrentlySelected.getValue() + "' }, " +
-                "xAxis: { categories: " + new Gson().toJson(monthNames) + " }, " +
+                "xAxis: { categories: " + new Gson().toJson(DashboardSnapshot.MONTHS) + " }, " +
                 "yAxis: { " +
                 "min: 0, " +
                 "title: { text: 'Total Expense' }, " +
@@ -222,27 +192,15 @@ public class DashboardView extends Div {
                 "} " +
                 "} " +
                 "}, " +
-                "series: " + seriesData + " " +
+                "series: " + new Gson().toJson(seriesData) + " " +
                 "});";
     }
 
-    private String generatePieChartScript(Year year) {
-        List<Expense> expenses = expenseService.fetchExpensesForDashboard(loggedPerson, year);
-
-        // Group expenses by category name and sum their costs
-        Map<String, Double> categoryData = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        expense -> expense.getCategory().getName(),
-                        LinkedHashMap::new,
-                        Collectors.summingDouble(expense -> expense.getCost().doubleValue())
-                ));
-
-        // Prepare series data for Highcharts
-        StringBuilder data = new StringBuilder("[");
-        for (Map.Entry<String, Double> entry : categoryData.entrySet()) {
-            data.append("{ name: '").append(entry.getKey()).append("', y: ").append(entry.getValue()).append(" },");
-        }
-        data.setCharAt(data.length() - 1, ']'); // Replace last comma with closing bracket
+    private String generatePieChartScript(DashboardSnapshot snapshot) {
+        // Prepare series data for Highcharts, one slice per category
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < snapshot.getCategories().size(); i++)
+            data.add(Map.of("name", snapshot.getCategories().get(i), "y", snapshot.getCategoryTotal(i)));
 
         // Generate JavaScript initialization with percentage tooltip
         return "Highcharts.chart('pieChart', {" +
@@ -267,27 +225,15 @@ public class DashboardView extends Div {
                 "series: [{" +
                 "name: 'Expenses'," +
                 "colorByPoint: true," +
-                "data: " + data + // Use the data fetched from DB
+                "data: " + new Gson().toJson(data) + // Use the data fetched from DB
                 "}]" +
                 "});";
     }
 
-    private String generateNegativeColumnChartScript() {
-        final var people = personFacade.findAllExcludeLoggedUser(loggedUser);
-        // Create a map to store person names and their balances
-        Map<String, Double> personData = people.stream()
-                .map(person -> {
-                    BigDecimal balance = personFacade.calculateNetBalance(person);
-                    // Return an array with the person’s first name and the balance
-                    return new Object[]{person.getFirstName(), balance};
-                })
-                .filter(entry -> ((BigDecimal) entry[1]).compareTo(BigDecimal.ZERO) != 0)
-                .collect(Collectors.toMap(
-                        entry -> (String) entry[0],
-                        entry -> ((BigDecimal) entry[1]).negate().doubleValue(),
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new // Preserves insertion order
-                ));
+    private String generateNegativeColumnChartScript(DashboardSnapshot snapshot) {
+        // Map the person names to their balances as seen from the logged user
+        Map<String, Double> personData = new LinkedHashMap<>();
+        snapshot.getNetBalances().forEach((name, balance) -> personData.put(name, -balance));
         if (personData.isEmpty()) return generatePlaceholderChartScript("bottomLeftChart", "All Payments Settled");
 
         // Prepare series data for Highcharts with conditional coloring
@@ -355,49 +301,11 @@ public class DashboardView extends Div {
                 "});";
     }
 
-    private String generateExpensesOverTimeByCategoryScript(Year year) {
-        List<Expense> expenses = expenseService.fetchExpensesForDashboard(loggedPerson, year);
-
-        // Group expenses by category and by month
-        Map<String, Map<String, Double>> categoryMonthlyData = new LinkedHashMap<>();
-
-        YearMonth currentYearMonth = YearMonth.now().withMonth(1); // Start from January
-        List<String> monthNames = new ArrayList<>();
-
-        for (int i = 1; i <= 12; i++) {
-            String monthName = currentYearMonth.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            monthNames.add(monthName);
-            currentYearMonth = currentYearMonth.plusMonths(1); // Move to the next month
-        }
-
-        for (Expense expense : expenses) {
-            String categoryName = expense.getCategory().getName();
-            String monthName = expense.getDate().getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            Double amount = expense.getCost().doubleValue();
-
-            categoryMonthlyData.putIfAbsent(categoryName, new LinkedHashMap<>());
-            Map<String, Double> monthlyData = categoryMonthlyData.get(categoryName);
-
-            // Initialize all months to 0 for each category
-            for (String month : monthNames) {
-                monthlyData.putIfAbsent(month, 0.0);
-            }
-
-            monthlyData.put(monthName, monthlyData.get(monthName) + amount);
-        }
-
-        // Prepare series data for Highcharts
-        StringBuilder seriesData = new StringBuilder("[");
-        for (Map.Entry<String, Map<String, Double>> entry : categoryMonthlyData.entrySet()) {
-            String categoryName = entry.getKey();
-            Map<String, Double> monthlyData = entry.getValue();
-
-            seriesData.append("{");
-            seriesData.append("name: '").append(categoryName).append("',");
-            seriesData.append("data: ").append(monthlyData.values());
-            seriesData.append("},");
-        }
-        seriesData.setCharAt(seriesData.length() - 1, ']'); // Replace last comma with closing bracket
+    private String generateExpensesOverTimeByCategoryScript(DashboardSnapshot snapshot) {
+        // Prepare series data for Highcharts, with every month of each category, even the ones without expenses
+        List<Map<String, Object>> seriesData = new ArrayList<>();
+        for (int i = 0; i < snapshot.getCategories().size(); i++)
+            seriesData.add(Map.of("name", snapshot.getCategories().get(i), "data", snapshot.getMonthlyTotals(i)));
 
         // Generate JavaScript initialization
         return "Highcharts.chart('bottomRightChart', {" +
@@ -408,14 +316,14 @@ public class DashboardView extends Div {
                 "text: 'Expenses Over Time by Category for " + yearCurrentlySelected.getValue() + "'" +
                 "}," +
                 "xAxis: {" +
-                "categories: " + new Gson().toJson(monthNames) +
+                "categories: " + new Gson().toJson(DashboardSnapshot.MONTHS) +
                 "}," +
                 "yAxis: {" +
                 "title: {" +
                 "text: 'Amount'" +
                 "}" +
                 "}," +
-                "series: " + seriesData +
+                "series: " + new Gson().toJson(seriesData) +
                 "});";
     }
 }
\ No newline at end of file
@@ -2,12 +2,16 @@ package com.application.munera.views.expenses;
 
 import com.application.munera.data.Category;
 import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseFilter;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExpenseType;
 import com.application.munera.data.enums.PeriodUnit;
 import com.application.munera.data.Person;
 import com.application.munera.facades.PersonFacade;
+import com.application.munera.security.CurrentPrincipal;
+import com.application.munera.repositories.ExpenseSpecifications;
 import com.application.munera.services.CategoryService;
 import com.application.munera.services.ExpenseService;
-import com.application.munera.services.UserService;
 import com.application.munera.services.ViewsService;
 import com.application.munera.views.MainLayout;
 import com.vaadin.flow.component.UI;
@@ -34,9 +38,11 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.BeanValidationBinder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.data.converter.StringToBigDecimalConverter;
-import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.*;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -56,13 +62,20 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
     private static final String EXPENSE_ID = "expenseID";
     private static final String EXPENSE_EDIT_ROUTE_TEMPLATE = "/%s/edit";
 
-    private final PaginatedGrid<Expense, Objects> grid = new PaginatedGrid<>();
+    private final PaginatedGrid<ExpenseRow, Objects> grid = new PaginatedGrid<>();
     private final TextField nameFilter = new TextField();
     private final MultiSelectComboBox<Category> categoryFilter = new MultiSelectComboBox<>();
+    private final DatePicker dateFromFilter = new DatePicker();
+    private final DatePicker dateToFilter = new DatePicker();
+    private final ComboBox<Boolean> statusFilter = new ComboBox<>();
+    private final ComboBox<ExpenseType> expenseTypeFilter = new ComboBox<>();
+    private final ComboBox<Person> personFilter = new ComboBox<>();
+    private final ExpenseFilter expenseFilter = new ExpenseFilter();
     private final Button cancel = new Button("Cancel");
     private final Button save = new Button("Save");
     private final Button delete = new Button("Delete");
     private final BeanValidationBinder<Expense> binder;
+    private final CallbackDataProvider<ExpenseRow, Void> dataProvider;
 
     private Expense expense;
     private final Long userId;
@@ -71,7 +84,7 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
     private final PersonFacade personFacade;
     private final CategoryService categoryService;
     private final ViewsService viewsService;
-    private final UserService userService;
+    private final CurrentPrincipal currentPrincipal;
     private TextField name;
     private TextField cost;
     private ComboBox<Category> category;
@@ -85,13 +98,13 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
     private ComboBox<Person> beneficiary;
 
     @Autowired
-    public ExpensesView(ExpenseService expenseService, CategoryService categoryService, ViewsService viewsService, UserService userService, PersonFacade personFacade) {
+    public ExpensesView(ExpenseService expenseService, CategoryService categoryService, ViewsService viewsService, CurrentPrincipal currentPrincipal, PersonFacade personFacade) {
         this.expenseService = expenseService;
         this.categoryService = categoryService;
         this.viewsService = viewsService;
-        this.userService = userService;
+        this.currentPrincipal = currentPrincipal;
         this.personFacade = personFacade;
-        this.userId = this.userService.getLoggedInUser().getId();
+        this.userId = this.currentPrincipal.getUserId();
         addClassNames("expenses-view");
 
         // Create UI
@@ -103,14 +116,20 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
         add(splitLayout);
 
         // Configure Grid
-        grid.addColumn(Expense::getName).setHeader("Name").setSortable(true).setSortProperty("name");
-        grid.addColumn(Expense::getCost).setHeader("Amount").setSortable(true).setSortProperty("cost");
-        grid.addColumn(expenseCategory -> expenseCategory.getCategory().getName()).setHeader("Category").setSortable(true).setSortProperty("category");
-        grid.addColumn(Expense::getDate).setHeader("Date").setSortable(true).setSortProperty("date");
-        grid.addColumn(new ComponentRenderer<>(this.viewsService::createExpenseBadge)).setHeader("Status").setSortable(true);
+        grid.addColumn(ExpenseRow::name).setHeader("Name").setSortable(true).setSortProperty("name");
+        grid.addColumn(ExpenseRow::cost).setHeader("Amount").setSortable(true).setSortProperty("cost");
+        grid.addColumn(ExpenseRow::categoryName).setHeader("Category").setSortable(true).setSortProperty("category");
+        grid.addColumn(ExpenseRow::date).setHeader("Date").setSortable(true).setSortProperty("date");
+        grid.addColumn(this.viewsService.<ExpenseRow>createBadgeRenderer(this.viewsService::determineExpenseBadge)).setHeader("Status").setSortable(true);
         grid.getColumns().forEach(col -> col.setAutoWidth(true));
 
-        grid.setItems(this.expenseService.findAllOrderByDateDescending(userId));
+        // Only the page currently displayed is fetched, filtered, sorted and limited by the database.
+        // The grid is read-only, so it shows lightweight rows and the form loads the selected entity by id
+        expenseFilter.setUserId(userId);
+        dataProvider = DataProvider.fromCallbacks(
+                query -> this.expenseService.listRows(VaadinSpringDataHelpers.toSpringPageRequest(query), ExpenseSpecifications.fromFilter(expenseFilter)).stream(),
+                query -> this.expenseService.count(ExpenseSpecifications.fromFilter(expenseFilter)));
+        grid.setItems(dataProvider);
         grid.setPaginatorSize(5);
         grid.setPageSize(22); // setting page size
         grid.addThemeVariants(GridVariant.LUMO_NO_BORDER);
@@ -119,26 +138,76 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
         nameFilter.setPlaceholder("Filter by Name...");
         nameFilter.setClearButtonVisible(true);
         nameFilter.setValueChangeMode(ValueChangeMode.LAZY);
-        nameFilter.addValueChangeListener(e -> this.viewsService.applyNameFilter(nameFilter, userId, grid));
+        nameFilter.addValueChangeListener(e -> {
+            expenseFilter.setName(e.getValue());
+            dataProvider.refreshAll();
+        });
 
         // Filtering setup - Category
         categoryFilter.setPlaceholder("Filter by Category...");
         categoryFilter.setClearButtonVisible(true);
         categoryFilter.setItems(categoryService.findAllByUserId(userId));
         categoryFilter.setItemLabelGenerator(Category::getName);
-        categoryFilter.addValueChangeListener(e -> this.viewsService.applyCategoryFilter(categoryFilter, userId, grid));
+        categoryFilter.addValueChangeListener(e -> {
+            expenseFilter.setCategories(e.getValue());
+            dataProvider.refreshAll();
+        });
+
+        // Filtering setup - Date range
+        dateFromFilter.setPlaceholder("From...");
+        dateFromFilter.setClearButtonVisible(true);
+        dateFromFilter.addValueChangeListener(e -> {
+            expenseFilter.setDateFrom(e.getValue());
+            dataProvider.refreshAll();
+        });
+        dateToFilter.setPlaceholder("To...");
+        dateToFilter.setClearButtonVisible(true);
+        dateToFilter.addValueChangeListener(e -> {
+            expenseFilter.setDateTo(e.getValue());
+            dataProvider.refreshAll();
+        });
+
+        // Filtering setup - Status
+        statusFilter.setPlaceholder("Filter by Status...");
+        statusFilter.setClearButtonVisible(true);
+        statusFilter.setItems(Boolean.TRUE, Boolean.FALSE);
+        statusFilter.setItemLabelGenerator(paid -> Boolean.TRUE.equals(paid) ? "Paid" : "Unpaid");
+        statusFilter.addValueChangeListener(e -> {
+            expenseFilter.setIsPaid(e.getValue());
+            dataProvider.refreshAll();
+        });
+
+        // Filtering setup - Expense type
+        expenseTypeFilter.setPlaceholder("Filter by Type...");
+        expenseTypeFilter.setClearButtonVisible(true);
+        expenseTypeFilter.setItems(ExpenseType.values());
+        expenseTypeFilter.addValueChangeListener(e -> {
+            expenseFilter.setExpenseType(e.getValue());
+            dataProvider.refreshAll();
+        });
+
+        // Filtering setup - Payer or beneficiary
+        personFilter.setPlaceholder("Filter by Person...");
+        personFilter.setClearButtonVisible(true);
+        personFilter.setItems(personFacade.findAllByUserId(userId));
+        personFilter.setItemLabelGenerator(person -> person.getFirstName() + " " + person.getLastName());
+        personFilter.addValueChangeListener(e -> {
+            expenseFilter.setPerson(e.getValue());
+            dataProvider.refreshAll();
+        });
 
         // Add filter fields to layout (above the grid)
         VerticalLayout layout = new VerticalLayout();
-        HorizontalLayout filterLayout = new HorizontalLayout(nameFilter, categoryFilter);
+        HorizontalLayout filterLayout = new HorizontalLayout(nameFilter, categoryFilter, dateFromFilter, dateToFilter, statusFilter, expenseTypeFilter, personFilter);
         filterLayout.setSpacing(true);
+        filterLayout.getStyle().set("flex-wrap", "wrap"); // Let the filters flow on multiple lines on narrow screens
         filterLayout.setAlignItems(FlexComponent.Alignment.BASELINE);
         layout.add(filterLayout, grid);
         splitLayout.addToPrimary(layout);
 
         // when a row is selected or deselected, populate form
         grid.asSingleSelect().addValueChangeListener(event -> {
-            if (event.getValue() != null) UI.getCurrent().navigate(String.format(EXPENSE_EDIT_ROUTE_TEMPLATE, event.getValue().getId()));
+            if (event.getValue() != null) UI.getCurrent().navigate(String.format(EXPENSE_EDIT_ROUTE_TEMPLATE, event.getValue().id()));
              else {
                 clearForm();
                 UI.getCurrent().navigate(ExpensesView.class);
@@ -191,7 +260,7 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
             try {
                 if (this.expense == null) this.expense = new Expense();
                 binder.writeBean(this.expense);
-                expenseService.update(this.expense, userId);
+                expenseService.update(this.expense, userId, this.currentPrincipal.getPerson());
                 clearForm();
                 refreshGrid();
                 Notification.show("Data updated");
@@ -242,6 +311,14 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
         }
     }
 
+    /**
+     * Gets the filter currently applied to the grid, always restricted to the expenses of the logged-in user.
+     * @return the filter of the grid
+     */
+    public ExpenseFilter getExpenseFilter() {
+        return this.expenseFilter;
+    }
+
     private void createEditorLayout(SplitLayout splitLayout) {
         Div editorLayoutDiv = new Div();
         editorLayoutDiv.setClassName("editor-layout");
@@ -299,9 +376,8 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
     }
 
     private void refreshGrid() {
-        grid.setItems(this.expenseService.findAllOrderByDateDescending(userId));
         grid.select(null);
-        grid.getDataProvider().refreshAll();
+        dataProvider.refreshAll();
     }
 
     private void clearForm() {
@@ -317,7 +393,7 @@ public class ExpensesView extends Div implements BeforeEnterObserver {
     }
 
     private void initializeComboBoxes() {
-        final var loggedInPerson = this.personFacade.getLoggedInPerson();
+        final var loggedInPerson = this.currentPrincipal.getPerson();
         payer.setValue(loggedInPerson);
         beneficiary.setValue(loggedInPerson);
     }
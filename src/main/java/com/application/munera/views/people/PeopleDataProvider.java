@@ -0,0 +1,124 @@
+package com.application.munera.views.people;
+
+import com.application.munera.data.Person;
+import com.application.munera.data.User;
+import com.application.munera.facades.ExpenseFacade;
+import com.application.munera.facades.PersonFacade;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.provider.hierarchy.AbstractBackEndHierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Provides the people of a user as the roots of the people tree grid, and the expenses of each person as its children.
+ * The people, with their running balances, and their numbers of expenses are loaded with one query each and kept until the next refresh,
+ * while the expenses of a person are fetched from the database a page at a time, only when the person is expanded.
+ */
+class PeopleDataProvider extends AbstractBackEndHierarchicalDataProvider<Object, Void> {
+
+    static final String NAME_SORT_PROPERTY = "name";
+    static final String BALANCE_SORT_PROPERTY = "balance";
+
+    // Expenses with the same sorted value keep a stable order across pages
+    private static final Sort DEFAULT_EXPENSE_SORT = Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private final PersonFacade personFacade;
+    private final ExpenseFacade expenseFacade;
+    private final User user;
+
+    private List<Person> people; // null until the roots are loaded again after a refresh
+    private Map<Long, Long> expenseCounts = Map.of(); // the number of expenses of each person, keyed by the person id
+
+    PeopleDataProvider(PersonFacade personFacade, ExpenseFacade expenseFacade, User user) {
+        this.personFacade = personFacade;
+        this.expenseFacade = expenseFacade;
+        this.user = user;
+    }
+
+    @Override
+    public int getChildCount(HierarchicalQuery<Object, Void> query) {
+        final var parent = query.getParent();
+        if (parent == null) return this.getPeople().size();
+        else if (parent instanceof Person person) return Math.toIntExact(this.getExpenseCount(person));
+        return 0;
+    }
+
+    @Override
+    public boolean hasChildren(Object item) {
+        return item instanceof Person person && this.getExpenseCount(person) > 0;
+    }
+
+    @Override
+    protected Stream<Object> fetchChildrenFromBackEnd(HierarchicalQuery<Object, Void> query) {
+        final var parent = query.getParent();
+        if (parent == null) return this.getPeople().stream()
+                .sorted(this.toPeopleComparator(query.getSortOrders()))
+                .skip(query.getOffset())
+                .limit(query.getLimit())
+                .map(Object.class::cast);
+        else if (parent instanceof Person person) return this.expenseFacade
+                .findExpensesByPerson(person, PageRequest.of(query.getPage(), query.getPageSize(), this.toExpenseSort(query.getSortOrders())))
+                .stream()
+                .map(Object.class::cast);
+        return Stream.empty();
+    }
+
+    /**
+     * Drops the loaded people, balances and counts, so that they are loaded again the next time the grid asks for them.
+     */
+    @Override
+    public void refreshAll() {
+        this.people = null;
+        super.refreshAll();
+    }
+
+    private long getExpenseCount(Person person) {
+        this.getPeople();
+        return this.expenseCounts.getOrDefault(person.getId(), 0L);
+    }
+
+    private List<Person> getPeople() {
+        if (this.people == null) {
+            this.people = this.personFacade.findAllExcludeLoggedUser(this.user);
+            this.expenseCounts = this.expenseFacade.countExpensesByPerson(this.user.getId());
+        }
+        return this.people;
+    }
+
+    private Comparator<Person> toPeopleComparator(List<QuerySortOrder> sortOrders) {
+        Comparator<Person> comparator = Comparator.comparing(Person::getId);
+        for (final var sortOrder : sortOrders.reversed()) {
+            Comparator<Person> propertyComparator = switch (sortOrder.getSorted()) {
+                case BALANCE_SORT_PROPERTY -> Comparator.comparing(Person::getNetBalance);
+                case NAME_SORT_PROPERTY -> Comparator.comparing(person -> person.getFirstName() + " " + person.getLastName(), String.CASE_INSENSITIVE_ORDER);
+                default -> null;
+            };
+            if (propertyComparator == null) continue;
+            if (sortOrder.getDirection() == SortDirection.DESCENDING) propertyComparator = propertyComparator.reversed();
+            comparator = propertyComparator.thenComparing(comparator);
+        }
+        return comparator;
+    }
+
+    private Sort toExpenseSort(List<QuerySortOrder> sortOrders) {
+        Sort sort = Sort.unsorted();
+        for (final var sortOrder : sortOrders) {
+            final var property = switch (sortOrder.getSorted()) {
+                case BALANCE_SORT_PROPERTY -> "cost";
+                case NAME_SORT_PROPERTY -> "name";
+                default -> null;
+            };
+            if (property == null) continue;
+            final var direction = sortOrder.getDirection() == SortDirection.DESCENDING ? Sort.Direction.DESC : Sort.Direction.ASC;
+            sort = sort.and(Sort.by(direction, property));
+        }
+        return sort.and(DEFAULT_EXPENSE_SORT);
+    }
+}
@@ -2,16 +2,21 @@ package com.application.munera.views.people;
 
 import com.application.munera.data.Expense;
 import com.application.munera.data.Person;
+import com.application.munera.data.SettlementTransfer;
 import com.application.munera.data.User;
 import com.application.munera.facades.ExpenseFacade;
 import com.application.munera.facades.PersonFacade;
-import com.application.munera.services.UserService;
+import com.application.munera.security.CurrentPrincipal;
+import com.application.munera.services.DataChangeBroadcaster;
 import com.application.munera.services.ViewsService;
 import com.application.munera.views.MainLayout;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dependency.Uses;
+import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.Div;
@@ -21,22 +26,25 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.Notification.Position;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.splitlayout.SplitLayout;
 import com.vaadin.flow.component.textfield.EmailField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.treegrid.TreeGrid;
 import com.vaadin.flow.data.binder.BeanValidationBinder;
 import com.vaadin.flow.data.binder.ValidationException;
-import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @PageTitle("People")
@@ -47,32 +55,39 @@ public class PeopleView extends Div implements BeforeEnterObserver {
 
     private static final String PERSON_ID = "personID";
     private static final String PERSON_EDIT_ROUTE_TEMPLATE = "people/%s/edit";
+    private static final String ACTION_BUTTON_TEMPLATE = "<vaadin-button theme=\"${item.actionTheme}\" ?hidden=\"${item.actionHidden}\" "
+            + "?disabled=\"${item.actionDisabled}\" @click=\"${onAction}\">${item.actionLabel}</vaadin-button>";
 
     private final TreeGrid<Object> grid = new TreeGrid<>();
 
     private final Button cancel = new Button("Cancel");
     private final Button save = new Button("Save");
     private final Button delete = new Button("Delete");
+    private final Button settleUp = new Button("Settle up");
 
     private final BeanValidationBinder<Person> binder;
 
     private Person person;
     private final User loggedUser;
     private final Long userId;
-    private final UserService userService;
+    private final CurrentPrincipal currentPrincipal;
     private final PersonFacade personFacade;
     private final ExpenseFacade expenseFacade;
     private final ViewsService viewsService;
+    private final DataChangeBroadcaster dataChangeBroadcaster;
+    private Registration dataChangeRegistration;
     private TextField firstName;
     private TextField lastName;
     private EmailField email;
 
-    public PeopleView(ViewsService viewsService, PersonFacade personFacade, ExpenseFacade expenseFacade, UserService userService) {
+    public PeopleView(ViewsService viewsService, PersonFacade personFacade, ExpenseFacade expenseFacade,
+                      DataChangeBroadcaster dataChangeBroadcaster, CurrentPrincipal currentPrincipal) {
         this.viewsService = viewsService;
+        this.dataChangeBroadcaster = dataChangeBroadcaster;
         this.personFacade = personFacade;
         this.expenseFacade = expenseFacade;
-        this.userService = userService;
-        loggedUser = userService.getLoggedInUser();
+        this.currentPrincipal = currentPrincipal;
+        loggedUser = currentPrincipal.getUser();
         userId = loggedUser.getId();
         addClassNames("expenses-view");
 
@@ -85,43 +100,38 @@ public class PeopleView extends Div implements BeforeEnterObserver {
         add(splitLayout);
 
         grid.addThemeVariants(GridVariant.LUMO_NO_BORDER);
-        grid.addHierarchyColumn(this::getNodeName).setHeader("Name");
-        grid.addColumn(this::getNodeCost).setHeader("Balance").setSortable(true);
-        grid.addColumn(new ComponentRenderer<>(personEntry -> {
-            if (personEntry instanceof Person person1) return this.viewsService.createPersonBadge(personFacade.calculateNetBalance(person1));
-            else return this.viewsService.createExpenseBadge(((Expense) personEntry));
-        })).setHeader("Balance Status");
-
-        grid.addColumn(new ComponentRenderer<>(persona -> {
-            switch (persona) {
-                case Person person1 -> {
-                    Button setDebtPaidButton = new Button("Set all debt as paid", event -> this.personFacade.setDebtPaid(person1, grid, userId));
-                    setDebtPaidButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_PRIMARY);
-                    return setDebtPaidButton;
-                }
-                case Expense expense -> {
-                    Button setExpensePaidButton = new Button("Set as paid", event -> this.expenseFacade.setExpensePaid(expense, grid, userId));
-                    setExpensePaidButton.addThemeVariants(ButtonVariant.LUMO_SMALL);
-                    if (Boolean.TRUE.equals((expense).getIsPaid())) setExpensePaidButton.setEnabled(false);
-                    return setExpensePaidButton;
-                }
-                default -> {
-                    return new Span();
-                }
-            }
-        }));
-
-        grid.addColumn(new ComponentRenderer<>(persona -> {
-            if (persona instanceof Person person1) {
-                Button setCreditPaidButton = new Button("Set all credit as paid", event -> this.personFacade.setCreditPaid(person1, grid, userId));
-                setCreditPaidButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_PRIMARY);
-                return setCreditPaidButton;
-            } else return new Span();
-        }));
-
-        List<Person> people =  personFacade.findAllExcludeLoggedUser(loggedUser);
-
-        this.setGridData(people);
+        grid.addHierarchyColumn(this::getNodeName).setHeader("Name").setSortProperty(PeopleDataProvider.NAME_SORT_PROPERTY);
+        grid.addColumn(this::getNodeCost).setHeader("Balance").setSortProperty(PeopleDataProvider.BALANCE_SORT_PROPERTY);
+        grid.addColumn(this.viewsService.createBadgeRenderer(node -> node instanceof Person person1
+                ? this.viewsService.determinePersonBadge(person1.getNetBalance())
+                : this.viewsService.determineExpenseBadge((Expense) node))).setHeader("Balance Status");
+
+        // The buttons are rendered by the browser from the row properties; a click calls back the server with the row item
+        grid.addColumn(LitRenderer.<Object>of(ACTION_BUTTON_TEMPLATE)
+                .withProperty("actionLabel", node -> node instanceof Person ? "Set all debt as paid" : "Set as paid")
+                .withProperty("actionTheme", node -> node instanceof Person ? "small primary" : "small")
+                .withProperty("actionHidden", node -> !(node instanceof Person || node instanceof Expense))
+                .withProperty("actionDisabled", node -> node instanceof Expense expense && Boolean.TRUE.equals(expense.getIsPaid()))
+                .withFunction("onAction", node -> {
+                    switch (node) {
+                        case Person person1 -> this.personFacade.setDebtPaid(person1, grid, userId);
+                        case Expense expense -> this.expenseFacade.setExpensePaid(expense, grid, userId, this.currentPrincipal.getPerson());
+                        default -> { }
+                    }
+                }));
+
+        grid.addColumn(LitRenderer.<Object>of(ACTION_BUTTON_TEMPLATE)
+                .withProperty("actionLabel", node -> "Set all credit as paid")
+                .withProperty("actionTheme", node -> "small primary")
+                .withProperty("actionHidden", node -> !(node instanceof Person))
+                .withProperty("actionDisabled", node -> false)
+                .withFunction("onAction", node -> {
+                    if (node instanceof Person person1) this.personFacade.setCreditPaid(person1, grid, userId);
+                }));
+
+        // Only the people, with their running balances, are loaded up front, the expenses of a person are fetched when it is expanded.
+        // People are reloaded whenever the grid is refreshed, e.g. after an expense is set as paid
+        grid.setDataProvider(new PeopleDataProvider(personFacade, expenseFacade, loggedUser));
 
         // when a row is selected or deselected, populate form
         grid.asSingleSelect().addValueChangeListener(event -> {
@@ -142,6 +152,8 @@ public class PeopleView extends Div implements BeforeEnterObserver {
                 .asRequired("Last Name is required")
                 .bind(Person::getLastName, Person::setLastName);
 
+        settleUp.addClickListener(e -> this.openSettlementDialog());
+
         cancel.addClickListener(e -> {
             clearForm();
             refreshGrid();
@@ -195,7 +207,7 @@ public class PeopleView extends Div implements BeforeEnterObserver {
     }
 
     private String getNodeCost(Object node) {
-        if (node instanceof Person person1) return this.personFacade.calculateNetBalance(person1) + " €";
+        if (node instanceof Person person1) return person1.getNetBalance() + " €";
         else if (node instanceof Expense expense1) return (expense1).getCost().toString() + " €";
         return "";
     }
@@ -252,7 +264,58 @@ public class PeopleView extends Div implements BeforeEnterObserver {
         Div wrapper = new Div();
         wrapper.setClassName("grid-wrapper");
         splitLayout.addToPrimary(wrapper);
-        wrapper.add(grid);
+        HorizontalLayout toolbar = new HorizontalLayout();
+        toolbar.setClassName("button-layout");
+        settleUp.addThemeVariants(ButtonVariant.LUMO_SMALL);
+        toolbar.add(settleUp);
+        wrapper.add(toolbar, grid);
+    }
+
+    /**
+     * Shows the transfers clearing all the outstanding balances, and sets the shared expenses as paid once they are confirmed.
+     */
+    private void openSettlementDialog() {
+        final var plan = personFacade.planSettlement(loggedUser);
+        if (plan.isEmpty()) {
+            Notification.show("All balances are already settled");
+            return;
+        }
+        final Map<Long, String> names = new HashMap<>();
+        for (Person p : personFacade.findAllByUserId(userId)) names.put(p.getId(), p.getFirstName() + " " + p.getLastName());
+
+        Dialog dialog = new Dialog();
+        dialog.setHeaderTitle("Settle up with " + plan.transfers().size() + " transfers");
+        VerticalLayout transfers = new VerticalLayout();
+        transfers.setPadding(false);
+        transfers.setSpacing(false);
+        for (SettlementTransfer transfer : plan.transfers())
+            transfers.add(new Span(names.get(transfer.fromPersonId()) + " pays " + transfer.amount() + " € to " + names.get(transfer.toPersonId())));
+        dialog.add(transfers);
+
+        Button apply = new Button("Set all as paid", event -> {
+            personFacade.applySettlement(plan, loggedUser, grid);
+            dialog.close();
+        });
+        apply.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        Button close = new Button("Cancel", event -> dialog.close());
+        close.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        dialog.getFooter().add(close, apply);
+        dialog.open();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // Changes made in other tabs and sessions are pushed, the selection and the form being edited are kept
+        final var ui = attachEvent.getUI();
+        dataChangeRegistration = dataChangeBroadcaster.register(userId, change -> ui.access(() -> grid.getDataProvider().refreshAll()));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        dataChangeRegistration.remove();
+        dataChangeRegistration = null;
     }
 
     private void refreshGrid() {
@@ -269,17 +332,4 @@ public class PeopleView extends Div implements BeforeEnterObserver {
         binder.readBean(this.person);
 
     }
-
-    public void setGridData(List<Person> people) {
-        for (Person person : people) {
-            // Add the person as a root item
-            grid.getTreeData().addItem(null, person);
-
-            // Fetch expenses for the current person
-            List<Expense> expenses =  expenseFacade.findExpensesByPerson(person);
-
-            // Add each expense as a child item under the person
-            for (Expense expense : expenses) grid.getTreeData().addItem(person, expense);
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.application.munera.views.settings;
 
 import com.application.munera.data.User;
+import com.application.munera.security.CurrentPrincipal;
 import com.application.munera.services.UserService;
 import com.application.munera.views.MainLayout;
 import com.vaadin.flow.component.button.Button;
@@ -31,6 +32,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 public class SettingsView extends VerticalLayout implements BeforeEnterObserver {
 
     private final UserService userService;
+    private final CurrentPrincipal currentPrincipal;
 
     private TextField firstName;
     private TextField lastName;
@@ -39,16 +41,14 @@ public class SettingsView extends VerticalLayout implements BeforeEnterObserver
     private EmailField email;
     private final BeanValidationBinder<User> binder;
     private final Button save = new Button("Save");
-    private final User loggedInUser;
 
     @Autowired
-    public SettingsView(UserService userService) {
+    public SettingsView(UserService userService, CurrentPrincipal currentPrincipal) {
         this.userService = userService;
+        this.currentPrincipal = currentPrincipal;
 
         createForm();
 
-        loggedInUser = userService.getLoggedInUser();
-
         binder = new BeanValidationBinder<>(User.class);
         // Bind fields. This is where you'd define e.g. validation rules
         binder.bindInstanceFields(this);
@@ -66,8 +66,9 @@ public class SettingsView extends VerticalLayout implements BeforeEnterObserver
 
         save.addClickListener(e -> {
             try {
-                binder.writeBean(this.loggedInUser);
-                this.saveUserData();
+                final var loggedInUser = this.currentPrincipal.getUser();
+                binder.writeBean(loggedInUser);
+                this.saveUserData(loggedInUser);
                 Notification.show("User details updated successfully");
             } catch (ObjectOptimisticLockingFailureException exception) {
                 Notification n = Notification.show(
@@ -76,6 +77,9 @@ public class SettingsView extends VerticalLayout implements BeforeEnterObserver
                 n.addThemeVariants(NotificationVariant.LUMO_ERROR);
             } catch (ValidationException validationException) {
                 Notification.show("Failed to update the user. Check again that all values are valid");
+            } finally {
+                // The form writes into the user of the session, which is read again whether or not it was saved
+                this.currentPrincipal.refresh();
             }
         });
     }
@@ -94,7 +98,7 @@ public class SettingsView extends VerticalLayout implements BeforeEnterObserver
         add(formLayout, this.save);
     }
 
-    private void saveUserData() {
+    private void saveUserData(final User loggedInUser) {
 
         loggedInUser.setFirstName(firstName.getValue());
         loggedInUser.setLastName(lastName.getValue());
@@ -109,7 +113,7 @@ public class SettingsView extends VerticalLayout implements BeforeEnterObserver
 
     @Override
     public void beforeEnter(BeforeEnterEvent event) {
-        final var getLoggedInUser = userService.getLoggedInUser();
+        final var getLoggedInUser = currentPrincipal.getUser();
         firstName.setValue(getLoggedInUser.getFirstName());
         lastName.setValue(getLoggedInUser.getLastName());
         password.setValue(getLoggedInUser.getPassword());
@@ -2,6 +2,7 @@ package com.application.munera.views.users;
 
 import com.application.munera.data.enums.Role;
 import com.application.munera.data.User;
+import com.application.munera.security.CurrentPrincipal;
 import com.application.munera.services.UserService;
 import com.application.munera.views.MainLayout;
 import com.vaadin.flow.component.UI;
@@ -55,6 +56,7 @@ public class UsersView extends Div implements BeforeEnterObserver {
 
     private User user;
     private final UserService userService;
+    private final CurrentPrincipal currentPrincipal;
     private TextField firstName;
     private TextField lastName;
     private TextField username;
@@ -62,8 +64,9 @@ public class UsersView extends Div implements BeforeEnterObserver {
     private EmailField email;
     private MultiSelectComboBox<Role> roles;  // Updated to MultiSelectComboBox
 
-    public UsersView(UserService userService) {
+    public UsersView(UserService userService, CurrentPrincipal currentPrincipal) {
         this.userService = userService;
+        this.currentPrincipal = currentPrincipal;
         addClassNames("expenses-view");
 
         // Create UI
@@ -131,6 +134,7 @@ public class UsersView extends Div implements BeforeEnterObserver {
                 if (this.user == null) this.user = new User();
                 binder.writeBean(this.user);
                 this.userService.saveOrUpdateUserAndConnectedPerson(this.user);
+                this.currentPrincipal.refresh(); // the roles or details of the logged-in user may have changed
                 clearForm();
                 refreshGrid();
                 Notification.show("Data updated");
@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Creates the pooled sequences used by Hibernate to generate the entity ids, replacing the identity columns as id source.
+ * With identity columns every insert has to run on its own to read back the generated id, which prevents JDBC batching.
+ * Each sequence hands out blocks of 50 ids (pooled-lo optimizer), matching the allocationSize of the entities,
+ * and starts after the highest id already in its table.
+ * The id columns then default to the new sequence, so an insert made outside Hibernate takes a whole block for its one id
+ * and never gets an id Hibernate hands out. The old serial sequence of each column is dropped, since counting on from
+ * 1 it would collide with the ids taken from the new sequence.
+ * It is written in Java because the start value is read from the existing rows, which a portable SQL script cannot do.
+ */
+public class V4__Id_sequences extends BaseJavaMigration {
+
+    private static final List<String> TABLES = List.of("categories", "people", "users", "expenses");
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                final long start;
+                try (var resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+                    resultSet.next();
+                    start = resultSet.getLong(1);
+                }
+                statement.execute("create sequence " + table + "_seq start with " + start + " increment by " + ALLOCATION_SIZE);
+                statement.execute("alter table " + table + " alter column id set default nextval('" + table + "_seq')");
+                statement.execute("drop sequence if exists " + table + "_id_seq");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version, so this script only runs on empty databases.
+
+create table categories (
+    id bigserial not null,
+    description varchar(255),
+    name varchar(100) not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table people (
+    id bigserial not null,
+    credit numeric(38,2),
+    debt numeric(38,2),
+    email varchar(100),
+    first_name varchar(100) not null,
+    last_name varchar(100) not null,
+    user_id bigint not null,
+    username varchar(255) unique,
+    primary key (id)
+);
+
+create table users (
+    id bigserial not null,
+    email varchar(100),
+    first_name varchar(100) not null,
+    last_name varchar(100) not null,
+    password varchar(100) not null,
+    roles varchar(255) not null,
+    username varchar(100) not null unique,
+    primary key (id)
+);
+
+create table expenses (
+    id bigserial not null,
+    cost numeric(38,2) not null,
+    date date default current_date not null,
+    description varchar(255),
+    type varchar(255) not null check (type in ('CREDIT','DEBIT','NONE')),
+    is_paid boolean not null,
+    periodic boolean not null,
+    name varchar(100) not null,
+    payment_date date,
+    period_interval integer,
+    period smallint check (period between 0 and 2),
+    user_id bigint not null,
+    debtor_id bigint,
+    category_id bigint not null,
+    creditor_id bigint,
+    primary key (id)
+);
+
+alter table if exists expenses
+    add constraint FKkl3ng4c8ghvfq1sgs7nnpw3mc
+    foreign key (debtor_id)
+    references people;
+
+alter table if exists expenses
+    add constraint FKjao23ohq935a4qrorwwsen0lr
+    foreign key (category_id)
+    references categories;
+
+alter table if exists expenses
+    add constraint FK4axtndif9xlcijpwfhi7axx0t
+    foreign key (creditor_id)
+    references people;
@@ -0,0 +1,16 @@
+-- Indexes matching the access paths of ExpenseRepository, PersonRepository and CategoryRepository.
+
+-- Expenses grid, filters and date range lookups of a user, newest first
+create index if not exists idx_expenses_user_id_date on expenses (user_id, date desc);
+
+-- Expenses paid by a person, with or without the paid status
+create index if not exists idx_expenses_creditor_id_is_paid on expenses (creditor_id, is_paid);
+
+-- Expenses paid for a person, with or without the paid status
+create index if not exists idx_expenses_debtor_id_is_paid on expenses (debtor_id, is_paid);
+
+-- Categories of a user
+create index if not exists idx_categories_user_id on categories (user_id);
+
+-- People of a user
+create index if not exists idx_people_user_id on people (user_id);
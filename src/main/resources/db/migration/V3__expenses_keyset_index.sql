@@ -0,0 +1,6 @@
+-- Keyset pagination of the expenses of a user, sorted by date and id, both descending.
+-- The id makes the index order total, so a page can start right after the last row of the previous one.
+-- It replaces the index on (user_id, date desc), which is a prefix of this one.
+create index if not exists idx_expenses_user_id_date_id on expenses (user_id, date desc, id desc);
+
+drop index if exists idx_expenses_user_id_date;
@@ -0,0 +1,21 @@
+-- Totals of the expenses of each user by month, category and type, read by the dashboard instead of the expenses.
+-- The rows are kept up to date by ExpenseService when expenses are saved, deleted or settled,
+-- and can be recomputed from the expenses with ExpenseRollupService.rebuild.
+create table expense_monthly_rollup (
+    user_id bigint not null,
+    expense_year integer not null,
+    expense_month integer not null,
+    category_id bigint not null,
+    type varchar(255) not null check (type in ('CREDIT','DEBIT','NONE')),
+    expense_count bigint not null,
+    total_cost numeric(38,2) not null,
+    unpaid_cost numeric(38,2) not null,
+    primary key (user_id, expense_year, expense_month, category_id, type)
+);
+
+insert into expense_monthly_rollup
+    (user_id, expense_year, expense_month, category_id, type, expense_count, total_cost, unpaid_cost)
+select e.user_id, cast(extract(year from e.date) as integer), cast(extract(month from e.date) as integer),
+       e.category_id, e.type, count(*), sum(e.cost), sum(case when e.is_paid then 0 else e.cost end)
+from expenses e
+group by e.user_id, cast(extract(year from e.date) as integer), cast(extract(month from e.date) as integer), e.category_id, e.type;
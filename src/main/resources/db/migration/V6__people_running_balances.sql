@@ -0,0 +1,14 @@
+-- The debt and credit of each person become running totals of the unpaid expenses shared with someone else,
+-- read by the people grid and the dashboard instead of the expenses.
+-- They are kept up to date by ExpenseService when expenses are saved, deleted or settled,
+-- and can be recomputed from the expenses with PersonBalanceService.rebuild.
+update people set
+    debt = coalesce((select sum(e.cost) from expenses e
+                     where e.creditor_id = people.id and e.debtor_id <> people.id and e.is_paid = false), 0),
+    credit = coalesce((select sum(e.cost) from expenses e
+                       where e.debtor_id = people.id and e.creditor_id <> people.id and e.is_paid = false), 0);
+
+alter table people alter column debt set default 0;
+alter table people alter column debt set not null;
+alter table people alter column credit set default 0;
+alter table people alter column credit set not null;
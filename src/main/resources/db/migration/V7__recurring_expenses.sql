@@ -0,0 +1,13 @@
+-- Periodic expenses are the templates of their occurrences, generated by RecurringExpenseService.
+-- next_due_date is the date of the next occurrence to generate, null for expenses that are not templates.
+-- It is advanced in the transaction inserting the occurrences, so it records the progress of the generation:
+-- the job only reads the templates that are due, through the index, and resumes where it stopped after a restart.
+alter table expenses add column next_due_date date;
+-- The template an occurrence was generated from. An occurrence is created once per template and date.
+alter table expenses add column recurrence_source_id bigint;
+
+create index idx_expenses_next_due_date_user_id on expenses (next_due_date, user_id);
+create unique index uq_expenses_recurrence_source_id_date on expenses (recurrence_source_id, date);
+
+-- The existing periodic expenses are scheduled from their own date, which is their first occurrence and is not generated again
+update expenses set next_due_date = date where periodic = true and period is not null and period_interval > 0;
@@ -0,0 +1,4 @@
+-- Optimistic locking of the expenses: every update of an expense increments its version, and saving a copy read
+-- before another change fails instead of overwriting it. This keeps a form opened on a periodic expense from writing
+-- back the next due date it read after RecurringExpenseService has advanced it.
+alter table expenses add column version bigint not null default 0;
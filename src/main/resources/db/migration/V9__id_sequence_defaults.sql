@@ -0,0 +1,11 @@
+-- On a database that ran V4 before it moved the id defaults, the id columns still default to their serial sequence,
+-- which counts on from the old ids and would hand out ids Hibernate has already taken from the pooled sequence.
+-- Point them at the pooled sequence and drop the serial one, as V4 now does; on any other database this changes nothing.
+alter table categories alter column id set default nextval('categories_seq');
+alter table people alter column id set default nextval('people_seq');
+alter table users alter column id set default nextval('users_seq');
+alter table expenses alter column id set default nextval('expenses_seq');
+drop sequence if exists categories_id_seq;
+drop sequence if exists people_id_seq;
+drop sequence if exists users_id_seq;
+drop sequence if exists expenses_id_seq;
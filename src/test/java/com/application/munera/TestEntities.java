@@ -0,0 +1,71 @@
+package com.application.munera;
+
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.Person;
+import com.application.munera.data.enums.ExpenseType;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Creates the categories, people and expenses of a user for the tests running against the database.
+ * An expense is created with defaults that the test changes before persisting it, so each test only sets what it checks.
+ */
+public class TestEntities {
+
+    // The date of the expenses, unless the test sets another one
+    public static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private final TestEntityManager entityManager;
+    private final Long userId;
+
+    public TestEntities(TestEntityManager entityManager, Long userId) {
+        this.entityManager = entityManager;
+        this.userId = userId;
+    }
+
+    public Category persistCategory(String name) {
+        final var category = new Category();
+        category.setName(name);
+        category.setUserId(userId);
+        return entityManager.persist(category);
+    }
+
+    public Person persistPerson(String firstName) {
+        final var person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName("test");
+        person.setUserId(userId);
+        return entityManager.persist(person);
+    }
+
+    /**
+     * Creates an expense of the user that is not persisted yet: unpaid, not periodic, of type {@link ExpenseType#NONE},
+     * dated {@link #DATE} and named after its category and cost.
+     * @param category the category of the expense
+     * @param cost the cost of the expense
+     * @param payer the person who paid the expense
+     * @param beneficiary the person the expense was paid for
+     * @return the new expense
+     */
+    public Expense newExpense(Category category, String cost, Person payer, Person beneficiary) {
+        final var expense = new Expense();
+        expense.setName(category.getName() + " " + cost);
+        expense.setCategory(category);
+        expense.setCost(new BigDecimal(cost));
+        expense.setIsPeriodic(false);
+        expense.setIsPaid(false);
+        expense.setPayer(payer);
+        expense.setBeneficiary(beneficiary);
+        expense.setDate(DATE);
+        expense.setExpenseType(ExpenseType.NONE);
+        expense.setUserId(userId);
+        return expense;
+    }
+
+    public Expense persist(Expense expense) {
+        return entityManager.persist(expense);
+    }
+}
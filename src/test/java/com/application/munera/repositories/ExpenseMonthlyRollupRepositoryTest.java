@@ -0,0 +1,132 @@
+package com.application.munera.repositories;
+
+import com.application.munera.TestEntities;
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseMonthlyRollup;
+import com.application.munera.data.ExpenseRollupDelta;
+import com.application.munera.data.MonthlyCategoryTotal;
+import com.application.munera.data.Person;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.services.ExpenseRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the rollups maintained expense by expense match the ones rebuilt from the expenses,
+ * and that the dashboard totals read from them count the same expenses as the person based filter of the dashboard.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ExpenseRollupService.class)
+class ExpenseMonthlyRollupRepositoryTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private TestEntities entities;
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository.deleteAllRollups();
+        entities = new TestEntities(entityManager, USER_ID);
+        food = entities.persistCategory("Food");
+        rent = entities.persistCategory("Rent");
+        final var me = entities.persistPerson("me");
+        final var friend = entities.persistPerson("friend");
+
+        persistExpense(food, ExpenseType.NONE, "10.00", LocalDate.of(2024, 1, 5), true, me, me);
+        persistExpense(food, ExpenseType.NONE, "5.00", LocalDate.of(2024, 1, 20), false, me, me);
+        persistExpense(food, ExpenseType.DEBIT, "8.00", LocalDate.of(2024, 2, 1), true, friend, me);
+        persistExpense(rent, ExpenseType.CREDIT, "300.00", LocalDate.of(2024, 2, 1), false, me, friend);
+        persistExpense(rent, ExpenseType.CREDIT, "200.00", LocalDate.of(2024, 3, 1), true, me, friend);
+        persistExpense(rent, ExpenseType.NONE, "700.00", LocalDate.of(2023, 12, 1), false, me, me);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void rebuild_MatchesTheRollupsMaintainedExpenseByExpense() {
+        final List<ExpenseRollupDelta> deltas = entityManager.getEntityManager()
+                .createQuery("SELECT e FROM Expense e", Expense.class).getResultList().stream()
+                .map(ExpenseRollupDelta::of).toList();
+        expenseRollupService.apply(deltas);
+        entityManager.flush();
+        entityManager.clear();
+        final var maintained = describe(rollupRepository.findAll());
+
+        expenseRollupService.rebuild();
+
+        assertEquals(maintained, describe(rollupRepository.findAll()));
+        assertEquals(5, maintained.size());
+    }
+
+    @Test
+    void findDashboardTotals_CountsCreditsOnlyUntilTheyArePaid() {
+        expenseRollupService.rebuild();
+
+        List<MonthlyCategoryTotal> totals = rollupRepository.findDashboardTotals(USER_ID, 2024, ExpenseType.CREDIT).stream()
+                .sorted(Comparator.comparing(MonthlyCategoryTotal::month).thenComparing(MonthlyCategoryTotal::categoryName))
+                .toList();
+
+        assertEquals(List.of("1 Food 15.00", "2 Food 8.00", "2 Rent 300.00"),
+                totals.stream().map(total -> total.month() + " " + total.categoryName() + " " + total.total()).toList());
+    }
+
+    @Test
+    void insertEmptyRollup_KeepsARollupCreatedFirst() {
+        expenseRollupService.rebuild();
+
+        final var inserted = rollupRepository.insertEmptyRollup(USER_ID, 2024, 2, rent.getId(), ExpenseType.CREDIT.name());
+        entityManager.clear();
+
+        assertEquals(0, inserted);
+        assertEquals(List.of("2023-12 " + rent.getId() + " NONE 1 700 700", "2024-2 " + rent.getId() + " CREDIT 1 300 300",
+                        "2024-3 " + rent.getId() + " CREDIT 1 200 0"),
+                describe(rollupRepository.findAll()).stream().filter(rollup -> rollup.contains(" " + rent.getId() + " ")).toList());
+        assertEquals(1, rollupRepository.insertEmptyRollup(USER_ID, 2024, 4, rent.getId(), ExpenseType.CREDIT.name()));
+    }
+
+    private List<String> describe(List<ExpenseMonthlyRollup> rollups) {
+        return rollups.stream()
+                .map(rollup -> rollup.getId().getExpenseYear() + "-" + rollup.getId().getExpenseMonth() + " " + rollup.getId().getCategoryId()
+                        + " " + rollup.getId().getExpenseType() + " " + rollup.getExpenseCount()
+                        + " " + rollup.getTotalCost().stripTrailingZeros().toPlainString()
+                        + " " + rollup.getUnpaidCost().stripTrailingZeros().toPlainString())
+                .sorted()
+                .toList();
+    }
+
+    private void persistExpense(Category category, ExpenseType type, String cost, LocalDate date, boolean isPaid, Person payer, Person beneficiary) {
+        final var expense = entities.newExpense(category, cost, payer, beneficiary);
+        expense.setExpenseType(type);
+        expense.setDate(date);
+        expense.setIsPaid(isPaid);
+        entities.persist(expense);
+    }
+}
@@ -0,0 +1,204 @@
+package com.application.munera.repositories;
+
+import com.application.munera.TestEntities;
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseCursor;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.ExpenseState;
+import com.application.munera.data.Person;
+import com.application.munera.data.PersonPairCount;
+import com.application.munera.data.enums.ExpenseType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the fetch plans of the repository load each listing with a single statement,
+ * whatever the number of categories and people referenced by the expenses,
+ * and that the read-only listings select rows without loading any entity.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.application.munera.repositories.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ExpenseRepositoryTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private TestEntities entities;
+    private Person payer;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager, USER_ID);
+        payer = entities.persistPerson("payer");
+        for (int i = 0; i < 5; i++) {
+            category = entities.persistCategory("category " + i);
+            persistExpense("expense " + i, category, payer, entities.persistPerson("beneficiary " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findExpensesByPayerOrBeneficiary_LoadsOnePageWithoutCountingInOneStatement() {
+        List<Expense> expenses = expenseRepository.findExpensesByPayerOrBeneficiary(payer.getId(), PageRequest.of(1, 2, Sort.by("name")));
+        expenses.forEach(expense -> {
+            expense.getCategory().getName();
+            expense.getBeneficiary().getFirstName();
+        });
+
+        assertEquals(List.of("expense 2", "expense 3"), expenses.stream().map(Expense::getName).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void countByPayerAndBeneficiary_CountsEachPairInOneStatement() {
+        List<PersonPairCount> counts = expenseRepository.countByPayerAndBeneficiary(USER_ID);
+
+        assertEquals(5, counts.size());
+        counts.forEach(count -> {
+            assertEquals(payer.getId(), count.payerId());
+            assertEquals(1L, count.count());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findRows_FiltersSortsAndLimitsInOneStatement() {
+        final var sort = Sort.by(Sort.Order.desc("category.name"), Sort.Order.desc("id"));
+        List<ExpenseRow> rows = expenseRepository.findRows(ExpenseSpecifications.belongsToUser(USER_ID), PageRequest.of(0, 2, sort));
+
+        assertEquals(List.of("category 4", "category 3"), rows.stream().map(ExpenseRow::categoryName).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findRowsAfter_SeeksThroughExpensesOfTheSameDate() {
+        final var spec = ExpenseSpecifications.belongsToUser(USER_ID);
+        final List<Long> ids = new ArrayList<>();
+        ExpenseCursor cursor = null;
+        List<ExpenseRow> page;
+        do {
+            page = expenseRepository.findRowsAfter(spec, cursor, 2);
+            page.forEach(row -> ids.add(row.id()));
+            if (!page.isEmpty()) cursor = ExpenseCursor.after(page.getLast());
+        } while (page.size() == 2);
+
+        assertEquals(5, ids.size());
+        assertEquals(ids.stream().sorted(Comparator.reverseOrder()).toList(), ids);
+    }
+
+    @Test
+    void streamRows_StreamsTheUserRowsNewestFirstInOneStatement() {
+        final List<Long> ids;
+        try (var rows = expenseRepository.streamRows(ExpenseSpecifications.belongsToUser(USER_ID))) {
+            ids = rows.map(ExpenseRow::id).toList();
+        }
+
+        assertEquals(5, ids.size());
+        assertEquals(ids.stream().sorted(Comparator.reverseOrder()).toList(), ids);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        try (var rows = expenseRepository.streamRows(ExpenseSpecifications.belongsToUser(USER_ID + 1))) {
+            assertEquals(0, rows.count());
+        }
+    }
+
+    @Test
+    void settleUnpaidExpenses_UpdatesOnlyTheUnpaidExpensesReadInOneStatement() {
+        final var today = LocalDate.of(2024, 6, 1);
+        final var ids = expenseRepository.findUnpaidStatesByPayer(USER_ID, payer.getId()).stream().map(ExpenseState::id).toList();
+        final var category = entityManager.find(Category.class, this.category.getId());
+        persistExpense("added after the read", category, payer, payer);
+        entityManager.flush();
+        statistics.clear();
+
+        int settled = expenseRepository.settleUnpaidExpenses(ids, today);
+
+        assertEquals(5, settled);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of("added after the read"), expenseRepository.findUnpaidStatesByPayer(USER_ID, payer.getId()).stream().map(ExpenseState::name).toList());
+        expenseRepository.findAllById(ids).forEach(expense -> assertEquals(today, expense.getPaymentDate()));
+        assertEquals(0, expenseRepository.settleUnpaidExpenses(ids, today.plusDays(1)));
+    }
+
+    @Test
+    void findUnpaidSharedStates_SkipsTheExpensesPaidForThemselves() {
+        final var category = entityManager.find(Category.class, this.category.getId());
+        persistExpense("for myself", category, payer, payer);
+        entityManager.flush();
+        statistics.clear();
+
+        final var unpaid = expenseRepository.findUnpaidSharedStates(USER_ID);
+
+        assertEquals(5, unpaid.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        unpaid.forEach(state -> assertNotEquals(state.payerId(), state.beneficiaryId()));
+    }
+
+    @Test
+    void findUnpaidStates_LockTheRowsRead() {
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        expenseRepository.findUnpaidSharedStates(USER_ID);
+        expenseRepository.findUnpaidStatesByPayer(USER_ID, payer.getId());
+        expenseRepository.findUnpaidStatesByBeneficiary(USER_ID, payer.getId());
+
+        assertEquals(3, RecordingStatementInspector.STATEMENTS.size());
+        RecordingStatementInspector.STATEMENTS.forEach(sql -> assertTrue(sql.endsWith(" for update"), sql));
+    }
+
+    @Test
+    void persist_InsertsExpensesInOneBatch() {
+        final var category = entityManager.find(Category.class, this.category.getId());
+        statistics.clear();
+        for (int i = 0; i < 10; i++) persistExpense("batched " + i, category, payer, payer);
+        entityManager.flush();
+
+        assertEquals(10, statistics.getEntityInsertCount());
+        // One batch of inserts, plus one call to the sequence when the block of ids left by the previous tests runs out
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+    }
+
+    private void persistExpense(String name, Category category, Person payer, Person beneficiary) {
+        final var expense = entities.newExpense(category, "10.00", payer, beneficiary);
+        expense.setName(name);
+        expense.setExpenseType(ExpenseType.CREDIT);
+        entities.persist(expense);
+    }
+}
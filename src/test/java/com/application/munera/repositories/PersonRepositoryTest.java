@@ -0,0 +1,132 @@
+package com.application.munera.repositories;
+
+import com.application.munera.TestEntities;
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.Person;
+import com.application.munera.data.PersonNetBalance;
+import com.application.munera.services.PersonBalanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the running balances maintained expense by expense match the ones recomputed from the expenses,
+ * and that saving a person does not overwrite them.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.application.munera.repositories.RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PersonBalanceService.class)
+class PersonRepositoryTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonBalanceService personBalanceService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private TestEntities entities;
+    private Person me;
+    private Person friend;
+    private Person other;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager, USER_ID);
+        final var category = entities.persistCategory("Food");
+        me = entities.persistPerson("me");
+        friend = entities.persistPerson("friend");
+        other = entities.persistPerson("other");
+        persistExpense(category, "10.00", false, me, me);
+        persistExpense(category, "8.00", false, friend, me);
+        persistExpense(category, "300.00", false, me, friend);
+        persistExpense(category, "200.00", true, me, friend);
+        persistExpense(category, "40.00", false, other, friend);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void recomputeBalancesFromExpenses_MatchesTheBalancesMaintainedExpenseByExpense() {
+        final List<ExpenseBalanceDelta> deltas = entityManager.getEntityManager()
+                .createQuery("SELECT e FROM Expense e", Expense.class).getResultList().stream()
+                .map(ExpenseBalanceDelta::of).toList();
+        personBalanceService.apply(deltas);
+        final var maintained = describeBalances();
+
+        personBalanceService.rebuild();
+
+        assertEquals(maintained, describeBalances());
+        assertEquals(List.of("300.00 8.00", "8.00 340.00", "40.00 0.00"), maintained);
+    }
+
+    @Test
+    void save_DoesNotOverwriteTheRunningBalances() {
+        personBalanceService.rebuild();
+        final var person = personRepository.findById(friend.getId()).orElseThrow();
+        personBalanceService.apply(List.of(new ExpenseBalanceDelta(me.getId(), friend.getId(), new BigDecimal("5.00"))));
+
+        person.setEmail("friend@example.com");
+        personRepository.saveAndFlush(person);
+
+        assertEquals(new BigDecimal("345.00"), personRepository.findBalanceById(friend.getId()).credit());
+    }
+
+    @Test
+    void findNetBalancesByUserId_ReadsTheDebtMinusTheCreditOfEveryPerson() {
+        personBalanceService.rebuild();
+
+        final var netBalances = personRepository.findNetBalancesByUserId(USER_ID).stream()
+                .collect(Collectors.toMap(PersonNetBalance::personId, balance -> balance.netBalance().setScale(2)));
+
+        assertEquals(Map.of(me.getId(), new BigDecimal("292.00"), friend.getId(), new BigDecimal("-332.00"),
+                other.getId(), new BigDecimal("40.00")), netBalances);
+    }
+
+    @Test
+    void findNetBalancesByUserId_LocksThePeopleRead() {
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        personRepository.findNetBalancesByUserId(USER_ID);
+
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size());
+        assertTrue(RecordingStatementInspector.STATEMENTS.getFirst().endsWith(" for update"), RecordingStatementInspector.STATEMENTS.getFirst());
+    }
+
+    private List<String> describeBalances() {
+        return List.of(me, friend, other).stream()
+                .map(person -> personRepository.findBalanceById(person.getId()))
+                .map(balance -> balance.debt().setScale(2) + " " + balance.credit().setScale(2))
+                .toList();
+    }
+
+    private void persistExpense(Category category, String cost, boolean isPaid, Person payer, Person beneficiary) {
+        final var expense = entities.newExpense(category, cost, payer, beneficiary);
+        expense.setIsPaid(isPaid);
+        entities.persist(expense);
+    }
+}
@@ -0,0 +1,21 @@
+package com.application.munera.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL of the statements prepared by Hibernate, so that a test can check how a query is rendered.
+ * Enabled with the {@code hibernate.session_factory.statement_inspector} property.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,103 @@
+package com.application.munera.security;
+
+import com.application.munera.data.Person;
+import com.application.munera.data.User;
+import com.application.munera.services.PersonService;
+import com.application.munera.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CurrentPrincipalTest {
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private PersonService personService;
+    @InjectMocks
+    private CurrentPrincipal currentPrincipal;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getUserAndPerson_AreLoadedOncePerSession() {
+        // Arrange
+        User admin = logIn("admin", "ROLE_ADMIN,ROLE_USER");
+        Person person = new Person();
+        when(personService.findByUsername("admin")).thenReturn(person);
+
+        // Act
+        currentPrincipal.getUser();
+        currentPrincipal.getPerson();
+        boolean isAdmin = currentPrincipal.isAdmin();
+
+        // Assert
+        assertSame(admin, currentPrincipal.getUser());
+        assertSame(person, currentPrincipal.getPerson());
+        assertTrue(isAdmin);
+        verify(userService, times(1)).getLoggedInUser();
+        verify(personService, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    void refresh_ReadsTheUserAgainOnNextAccess() {
+        // Arrange
+        logIn("admin", "ROLE_USER");
+        when(personService.findByUsername("admin")).thenReturn(new Person());
+        currentPrincipal.getUser();
+
+        // Act
+        currentPrincipal.refresh();
+        currentPrincipal.getUser();
+
+        // Assert
+        verify(userService, times(2)).getLoggedInUser();
+    }
+
+    @Test
+    void getUser_ReadsTheUserAgainWhenAnotherUserLogsIn() {
+        // Arrange
+        logIn("admin", "ROLE_USER");
+        when(personService.findByUsername("admin")).thenReturn(new Person());
+        currentPrincipal.getUser();
+
+        // Act
+        User other = logIn("other", "ROLE_USER");
+        when(personService.findByUsername("other")).thenReturn(new Person());
+
+        // Assert
+        assertEquals(other, currentPrincipal.getUser());
+    }
+
+    private User logIn(String username, String roles) {
+        User user = new User();
+        user.setUsername(username);
+        user.setRoles(roles);
+        when(userService.getLoggedInUser()).thenReturn(user);
+        final var userDetails = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("secret").authorities(roles.split(",")).build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, null, List.of()));
+        return user;
+    }
+}
@@ -0,0 +1,150 @@
+package com.application.munera.services;
+
+import com.application.munera.data.DashboardSnapshot;
+import com.application.munera.data.MonthlyCategoryTotal;
+import com.application.munera.data.Person;
+import com.application.munera.data.User;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.repositories.ExpenseMonthlyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DashboardServiceTest {
+
+    @Mock
+    private ExpenseMonthlyRollupRepository rollupRepository;
+    @Mock
+    private PersonService personService;
+    @Mock
+    private DataVersionService dataVersionService;
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    void getSnapshot_LaysOutRollupTotalsByCategoryAndMonth() {
+        // Arrange
+        when(rollupRepository.findDashboardTotals(1L, 2024, ExpenseType.CREDIT)).thenReturn(List.of(
+                new MonthlyCategoryTotal(3, "Food", new BigDecimal("20.50")),
+                new MonthlyCategoryTotal(1, "Bills", new BigDecimal("100.00")),
+                new MonthlyCategoryTotal(12, "Food", new BigDecimal("9.50"))));
+
+        // Act
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(user, Year.of(2024));
+
+        // Assert
+        assertEquals(List.of("Bills", "Food"), snapshot.getCategories());
+        assertArrayEquals(new double[]{100, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, snapshot.getMonthlyTotals(0));
+        assertArrayEquals(new double[]{0, 0, 20.5, 0, 0, 0, 0, 0, 0, 0, 0, 9.5}, snapshot.getMonthlyTotals(1));
+        assertEquals(100, snapshot.getCategoryTotal(0));
+        assertEquals(30, snapshot.getCategoryTotal(1));
+        verify(rollupRepository, times(1)).findDashboardTotals(1L, 2024, ExpenseType.CREDIT);
+    }
+
+    @Test
+    void getSnapshot_KeepsOnlyNonZeroNetBalancesInPeopleOrder() {
+        // Arrange
+        Person first = createPerson(2L, "Anna");
+        first.setCredit(new BigDecimal("15.00"));
+        Person second = createPerson(3L, "Bob");
+        second.setDebt(new BigDecimal("10.00"));
+        second.setCredit(new BigDecimal("10.00"));
+        Person third = createPerson(4L, "Carl");
+        third.setDebt(new BigDecimal("40.00"));
+        when(personService.findAllExcludeLoggedUser(user)).thenReturn(List.of(first, second, third));
+
+        // Act
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(user, Year.of(2024));
+
+        // Assert
+        assertEquals(List.of("Anna", "Carl"), List.copyOf(snapshot.getNetBalances().keySet()));
+        assertEquals(-15.0, snapshot.getNetBalances().get("Anna"));
+        assertEquals(40.0, snapshot.getNetBalances().get("Carl"));
+        assertEquals(List.of(), snapshot.getCategories());
+    }
+
+    @Test
+    void getSnapshot_CannotBeModified() {
+        // Arrange
+        when(rollupRepository.findDashboardTotals(1L, 2024, ExpenseType.CREDIT))
+                .thenReturn(List.of(new MonthlyCategoryTotal(5, "Food", new BigDecimal("12.00"))));
+
+        // Act
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(user, Year.of(2024));
+        snapshot.getMonthlyTotals(0)[4] = 0;
+
+        // Assert
+        assertEquals(12.0, snapshot.getMonthlyTotals(0)[4]);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getCategories().add("Bills"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getNetBalances().put("Anna", 1.0));
+    }
+
+    @Test
+    void getSnapshot_ServesRepeatVisitsAndYearTogglesFromTheCache() {
+        // Arrange
+        when(dataVersionService.currentVersion(1L)).thenReturn(3L);
+
+        // Act
+        DashboardSnapshot first = dashboardService.getSnapshot(user, Year.of(2024));
+        dashboardService.getSnapshot(user, Year.of(2023));
+        DashboardSnapshot again = dashboardService.getSnapshot(user, Year.of(2024));
+
+        // Assert
+        assertSame(first, again);
+        verify(rollupRepository, times(1)).findDashboardTotals(1L, 2024, ExpenseType.CREDIT);
+        verify(rollupRepository, times(1)).findDashboardTotals(1L, 2023, ExpenseType.CREDIT);
+        verify(personService, times(1)).findAllExcludeLoggedUser(user); // the balances do not depend on the year
+        assertEquals(1, dashboardService.getSnapshotCacheStats().hits());
+        assertEquals(2, dashboardService.getSnapshotCacheStats().misses());
+    }
+
+    @Test
+    void getSnapshot_RecomputesOnceTheDataVersionChanges() {
+        // Arrange
+        when(dataVersionService.currentVersion(1L)).thenReturn(3L, 4L);
+
+        // Act
+        DashboardSnapshot before = dashboardService.getSnapshot(user, Year.of(2024));
+        DashboardSnapshot after = dashboardService.getSnapshot(user, Year.of(2024));
+
+        // Assert
+        assertNotSame(before, after);
+        verify(rollupRepository, times(2)).findDashboardTotals(1L, 2024, ExpenseType.CREDIT);
+        verify(personService, times(2)).findAllExcludeLoggedUser(user);
+    }
+
+    private Person createPerson(Long id, String firstName) {
+        Person person = new Person();
+        person.setId(id);
+        person.setFirstName(firstName);
+        return person;
+    }
+}
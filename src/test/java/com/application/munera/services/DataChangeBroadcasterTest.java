@@ -0,0 +1,68 @@
+package com.application.munera.services;
+
+import com.application.munera.data.DataChange;
+import com.application.munera.events.CategoryChanged;
+import com.application.munera.events.ExpensesChanged;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataChangeBroadcasterTest {
+
+    private final DataVersionService dataVersionService = new DataVersionService();
+    private final DataChangeBroadcaster dataChangeBroadcaster = new DataChangeBroadcaster(dataVersionService, 100);
+
+    @AfterEach
+    void tearDown() {
+        dataChangeBroadcaster.shutdown();
+    }
+
+    @Test
+    void publish_CoalescesABurstOfChangesIntoOne() throws InterruptedException {
+        // Arrange
+        List<DataChange> received = new CopyOnWriteArrayList<>();
+        List<DataChange> receivedByOtherUser = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        dataChangeBroadcaster.register(1L, change -> {
+            received.add(change);
+            delivered.countDown();
+        });
+        dataChangeBroadcaster.register(2L, receivedByOtherUser::add);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            ExpensesChanged event = new ExpensesChanged(1L, 1);
+            dataVersionService.onDomainEvent(event);
+            dataChangeBroadcaster.publish(event);
+        }
+
+        // Assert
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(List.of(new DataChange(1L, 20)), received);
+        assertEquals(List.of(), receivedByOtherUser);
+    }
+
+    @Test
+    void publish_SkipsTheListenersThatWereRemoved() throws InterruptedException {
+        // Arrange
+        List<DataChange> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        dataChangeBroadcaster.register(1L, received::add).remove();
+        dataChangeBroadcaster.register(1L, change -> delivered.countDown());
+
+        // Act
+        dataChangeBroadcaster.publish(new CategoryChanged(1L, 3L, false));
+
+        // Assert
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), received);
+    }
+}
@@ -0,0 +1,130 @@
+package com.application.munera.services;
+
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.Person;
+import com.application.munera.events.DomainEvent;
+import com.application.munera.events.ExpenseChanged;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the domain events are received once the transaction of the change has committed, and never for a change
+ * that was rolled back. The test commits its transactions, so it uses a database of its own.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera_events;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExpenseService.class, ExpenseRollupService.class, PersonBalanceService.class, CategoryService.class,
+        DataVersionService.class, DomainEventPublicationTest.RecordingListener.class})
+class DomainEventPublicationTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private RecordingListener recordingListener;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        recordingListener.events.clear();
+    }
+
+    @Test
+    void update_PublishesTheStateBeforeAndAfterOnceCommitted() {
+        final Long userId = 1L;
+        final var category = persistCategory(userId);
+        final var me = new Person();
+        me.setFirstName("me");
+        me.setLastName("test");
+        me.setUserId(userId);
+        entityManager.persist(me);
+
+        final var expense = new Expense();
+        expense.setName("Lunch");
+        expense.setCategory(category);
+        expense.setCost(new BigDecimal("10.00"));
+        expense.setIsPeriodic(false);
+        expense.setPayer(me);
+        expense.setBeneficiary(me);
+        expense.setDate(LocalDate.of(2024, 5, 4));
+        expenseService.update(expense, userId, me);
+        assertEquals(List.of(), recordingListener.events);
+        assertEquals(0, dataVersionService.currentVersion(userId));
+        commit();
+
+        TestTransaction.start();
+        expense.setCost(new BigDecimal("25.00"));
+        expenseService.update(expense, userId, me);
+        commit();
+
+        assertEquals(2, recordingListener.events.size());
+        final var created = (ExpenseChanged) recordingListener.events.get(0);
+        final var updated = (ExpenseChanged) recordingListener.events.get(1);
+        assertTrue(created.isCreated());
+        assertEquals(0, new BigDecimal("10.00").compareTo(updated.before().cost()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(updated.after().cost()));
+        assertEquals(expense.getId(), updated.after().id());
+        assertEquals(2, dataVersionService.currentVersion(userId));
+    }
+
+    @Test
+    void update_PublishesNothingWhenRolledBack() {
+        final Long userId = 2L;
+        categoryService.update(persistCategory(userId), userId);
+
+        TestTransaction.end();
+
+        assertEquals(List.of(), recordingListener.events);
+        assertEquals(0, dataVersionService.currentVersion(userId));
+    }
+
+    private Category persistCategory(Long userId) {
+        final var category = new Category();
+        category.setName("Food");
+        category.setUserId(userId);
+        return entityManager.persist(category);
+    }
+
+    private static void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    static class RecordingListener {
+
+        final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+
+        @TransactionalEventListener(fallbackExecution = true)
+        void onDomainEvent(DomainEvent event) {
+            events.add(event);
+        }
+    }
+}
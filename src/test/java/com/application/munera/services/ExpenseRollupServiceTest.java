@@ -0,0 +1,79 @@
+package com.application.munera.services;
+
+import com.application.munera.data.ExpenseRollupDelta;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.repositories.ExpenseMonthlyRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExpenseRollupServiceTest {
+
+    @Mock
+    private ExpenseMonthlyRollupRepository rollupRepository;
+    @InjectMocks
+    private ExpenseRollupService expenseRollupService;
+
+    @Test
+    void apply_SkipsEditsThatDoNotChangeTheRollup() {
+        // Arrange: the name of an expense is edited, its month, category, type, cost and paid status stay the same
+        ExpenseRollupDelta stored = new ExpenseRollupDelta(1L, 2024, 3, 2L, ExpenseType.NONE, new BigDecimal("10.00"), false);
+
+        // Act
+        expenseRollupService.apply(List.of(stored.negate(), stored));
+
+        // Assert
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void apply_MovesTheCostBetweenRollupsWhenTheMonthChanges() {
+        // Arrange
+        ExpenseRollupDelta stored = new ExpenseRollupDelta(1L, 2024, 3, 2L, ExpenseType.NONE, new BigDecimal("10.00"), false);
+        ExpenseRollupDelta updated = new ExpenseRollupDelta(1L, 2024, 4, 2L, ExpenseType.NONE, new BigDecimal("12.00"), true);
+        when(rollupRepository.addToRollup(1L, 2024, 3, 2L, ExpenseType.NONE, -1L, new BigDecimal("-10.00"), new BigDecimal("-10.00"))).thenReturn(1);
+        when(rollupRepository.addToRollup(1L, 2024, 4, 2L, ExpenseType.NONE, 1L, new BigDecimal("12.00"), BigDecimal.ZERO)).thenReturn(1);
+
+        // Act
+        expenseRollupService.apply(List.of(stored.negate(), updated));
+
+        // Assert
+        verify(rollupRepository).addToRollup(1L, 2024, 3, 2L, ExpenseType.NONE, -1L, new BigDecimal("-10.00"), new BigDecimal("-10.00"));
+        verify(rollupRepository).addToRollup(1L, 2024, 4, 2L, ExpenseType.NONE, 1L, new BigDecimal("12.00"), BigDecimal.ZERO);
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void apply_CreatesTheRollupOfTheFirstExpenseOfAMonthBeforeAddingToIt() {
+        // Arrange
+        ExpenseRollupDelta added = new ExpenseRollupDelta(1L, 2024, 3, 2L, ExpenseType.CREDIT, new BigDecimal("10.00"), false);
+        when(rollupRepository.addToRollup(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(0, 1);
+
+        // Act
+        expenseRollupService.apply(List.of(added));
+
+        // Assert
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).addToRollup(1L, 2024, 3, 2L, ExpenseType.CREDIT, 1L, new BigDecimal("10.00"), new BigDecimal("10.00"));
+        inOrder.verify(rollupRepository).insertEmptyRollup(1L, 2024, 3, 2L, "CREDIT");
+        inOrder.verify(rollupRepository).addToRollup(1L, 2024, 3, 2L, ExpenseType.CREDIT, 1L, new BigDecimal("10.00"), new BigDecimal("10.00"));
+        verify(rollupRepository, never()).save(any());
+    }
+}
@@ -1,23 +1,45 @@
 package com.application.munera.services;
 
+import com.application.munera.data.Category;
 import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.ExpenseCursor;
+import com.application.munera.data.ExpenseRollupDelta;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.ExpenseState;
+import com.application.munera.data.ExpenseWindow;
 import com.application.munera.data.Person;
+import com.application.munera.data.PersonPairCount;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.data.enums.PeriodUnit;
+import com.application.munera.events.ExpenseChanged;
 import com.application.munera.repositories.ExpenseRepository;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
-import java.time.Year;
-import java.util.ArrayList;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -27,67 +49,223 @@ class ExpenseServiceTest {
     @Mock
     private ExpenseRepository expenseRepository;
 
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private PersonBalanceService personBalanceService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private Person loggedInPerson;
 
     @InjectMocks
     private ExpenseService expenseService;
 
-    private Year year;
-
     @BeforeEach
     public void setUp() {
-        year = Year.of(2023);
         when(loggedInPerson.getId()).thenReturn(1L);
     }
 
     @Test
-    void testFetchExpensesForDashboard_NoExpenses() {
-        when(expenseRepository.findExpensesByPayerAndBeneficiaryAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
-        when(expenseRepository.findExpensesByBeneficiaryAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
-        when(expenseRepository.findExpensesByPayerAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
+    void testListRows_MapsGridSortToEntityPaths() {
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        Specification<Expense> filter = (root, query, cb) -> null;
+
+        expenseService.listRows(PageRequest.of(2, 22, Sort.by(Sort.Direction.ASC, "category")), filter);
+
+        verify(expenseRepository).findRows(eq(filter), pageableCaptor.capture());
+        Pageable pageable = pageableCaptor.getValue();
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(22, pageable.getPageSize());
+        assertEquals(Sort.by(Sort.Order.asc("category.name"), Sort.Order.desc("id")), pageable.getSort());
+    }
+
+    @Test
+    void testListRows_DefaultsToDateDescending() {
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        Specification<Expense> filter = (root, query, cb) -> null;
+
+        expenseService.listRows(PageRequest.of(0, 22, Sort.by("unknown")), filter);
+
+        verify(expenseRepository).findRows(eq(filter), pageableCaptor.capture());
+        assertEquals(Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id")), pageableCaptor.getValue().getSort());
+    }
+
+    @Test
+    void testScroll_ReturnsTokenOfLastRowWhenMoreRowsFollow() {
+        ExpenseRow first = new ExpenseRow(9L, "first", null, null, LocalDate.of(2024, 3, 2), null, false, null);
+        ExpenseRow second = new ExpenseRow(7L, "second", null, null, LocalDate.of(2024, 3, 1), null, false, null);
+        ExpenseRow third = new ExpenseRow(5L, "third", null, null, LocalDate.of(2024, 3, 1), null, false, null);
+        when(expenseRepository.findRowsAfter(any(), eq(null), eq(3))).thenReturn(List.of(first, second, third));
+
+        ExpenseWindow window = expenseService.scroll(null, null, 2);
+
+        assertEquals(List.of(first, second), window.rows());
+        assertTrue(window.hasNext());
+        assertEquals(new ExpenseCursor(LocalDate.of(2024, 3, 1), 7L), ExpenseCursor.fromToken(window.nextToken()));
+    }
+
+    @Test
+    void testScroll_ContinuesFromTokenAndStopsOnLastPage() {
+        ExpenseCursor cursor = new ExpenseCursor(LocalDate.of(2024, 3, 1), 7L);
+        ExpenseRow last = new ExpenseRow(5L, "third", null, null, LocalDate.of(2024, 3, 1), null, false, null);
+        when(expenseRepository.findRowsAfter(any(), eq(cursor), eq(3))).thenReturn(List.of(last));
+
+        ExpenseWindow window = expenseService.scroll(null, cursor.toToken(), 2);
+
+        assertEquals(List.of(last), window.rows());
+        assertFalse(window.hasNext());
+    }
+
+    @Test
+    void testScroll_RejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> expenseService.scroll(null, "not a token", 2));
+    }
+
+    @Test
+    void testSettleExpensesWherePayer_UpdatesTheExpensesReadInBulk() {
+        when(expenseRepository.findUnpaidStatesByPayer(1L, 1L)).thenReturn(List.of(
+                unpaidState(4L, "10.00"), unpaidState(5L, "20.00"), unpaidState(6L, "5.00"), unpaidState(7L, "1.00")));
+        when(expenseRepository.settleUnpaidExpenses(eq(List.of(4L, 5L, 6L, 7L)), any(LocalDate.class))).thenReturn(4);
+
+        int settled = expenseService.settleExpensesWherePayer(loggedInPerson, 1L);
+
+        assertEquals(4, settled);
+    }
+
+    @Test
+    void testSettleExpensesWhereBeneficiary_UpdatesTheExpensesReadInBulk() {
+        when(expenseRepository.findUnpaidStatesByBeneficiary(1L, 1L)).thenReturn(List.of(unpaidState(4L, "10.00"), unpaidState(5L, "20.00")));
+        when(expenseRepository.settleUnpaidExpenses(eq(List.of(4L, 5L)), any(LocalDate.class))).thenReturn(2);
+
+        int settled = expenseService.settleExpensesWhereBeneficiary(loggedInPerson, 1L);
+
+        assertEquals(2, settled);
+    }
+
+    @Test
+    void testSettleExpensesWherePayer_RemovesUnpaidCostFromRollups() {
+        when(expenseRepository.findUnpaidStatesByPayer(1L, 1L)).thenReturn(List.of(unpaidState(4L, "10.00"), unpaidState(5L, "20.00")));
+        when(expenseRepository.settleUnpaidExpenses(any(), any(LocalDate.class))).thenReturn(2);
+
+        expenseService.settleExpensesWherePayer(loggedInPerson, 1L);
+
+        verify(expenseRollupService).apply(List.of(
+                new ExpenseRollupDelta(1L, 2023, 5, 3L, ExpenseType.CREDIT, 0L, BigDecimal.ZERO, new BigDecimal("-10.00")),
+                new ExpenseRollupDelta(1L, 2023, 5, 3L, ExpenseType.CREDIT, 0L, BigDecimal.ZERO, new BigDecimal("-20.00"))));
+    }
+
+    @Test
+    void testSettleExpensesWhereBeneficiary_RemovesTheExpensesReadFromTheBalances() {
+        when(expenseRepository.findUnpaidStatesByBeneficiary(1L, 1L)).thenReturn(List.of(unpaidState(4L, "10.00"), unpaidState(5L, "20.00")));
+        when(expenseRepository.settleUnpaidExpenses(any(), any(LocalDate.class))).thenReturn(2);
+
+        expenseService.settleExpensesWhereBeneficiary(loggedInPerson, 1L);
+
+        verify(personBalanceService).apply(List.of(
+                new ExpenseBalanceDelta(1L, 2L, new BigDecimal("-10.00")),
+                new ExpenseBalanceDelta(1L, 2L, new BigDecimal("-20.00"))));
+    }
+
+    @Test
+    void testSettleExpensesWhereBeneficiary_FailsWhenTheUpdateCountDiffersFromTheBalanceDeltas() {
+        // Three expenses were removed from the balances, but one was paid by someone else before the update
+        when(expenseRepository.findUnpaidStatesByBeneficiary(1L, 1L)).thenReturn(List.of(
+                unpaidState(4L, "10.00"), unpaidState(5L, "20.00"), unpaidState(6L, "5.00")));
+        when(expenseRepository.settleUnpaidExpenses(eq(List.of(4L, 5L, 6L)), any(LocalDate.class))).thenReturn(2);
+
+        assertThrows(IllegalStateException.class, () -> expenseService.settleExpensesWhereBeneficiary(loggedInPerson, 1L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testSettleExpensesWherePayer_FailsWhenAnExpenseReadIsNoLongerUnpaid() {
+        when(expenseRepository.findUnpaidStatesByPayer(1L, 1L)).thenReturn(List.of(unpaidState(4L, "10.00"), unpaidState(5L, "20.00")));
+        when(expenseRepository.settleUnpaidExpenses(any(), any(LocalDate.class))).thenReturn(1);
 
-        List<Expense> result = expenseService.fetchExpensesForDashboard(loggedInPerson, year);
+        assertThrows(IllegalStateException.class, () -> expenseService.settleExpensesWherePayer(loggedInPerson, 1L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        assertEquals(0, result.size(), "Expected no expenses to be fetched");
+    @Test
+    void testDelete_RemovesStoredValuesFromRollup() {
+        ExpenseState stored = new ExpenseState(7L, 1L, "Lunch", LocalDate.of(2023, 5, 4), 3L, 1L, 2L, new BigDecimal("12.50"), true, ExpenseType.DEBIT);
+        when(expenseRepository.findStateById(7L)).thenReturn(Optional.of(stored));
+
+        expenseService.delete(7L);
+
+        verify(expenseRollupService).apply(List.of(
+                new ExpenseRollupDelta(1L, 2023, 5, 3L, ExpenseType.DEBIT, -1L, new BigDecimal("-12.50"), BigDecimal.ZERO)));
+        verify(expenseRepository).deleteById(7L);
+        verify(eventPublisher).publishEvent(new ExpenseChanged(1L, stored, null));
     }
 
     @Test
-    @Disabled("will need to become integration test")
-    void testFetchExpensesForDashboard_WithSelfExpenses() {
-        Expense selfExpense = new Expense(); // Create a dummy Expense object
-        List<Expense> bothExpenses = List.of(selfExpense);
-        when(expenseRepository.findExpensesByPayerAndBeneficiaryAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(bothExpenses);
-        when(expenseRepository.findExpensesByBeneficiaryAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
-        when(expenseRepository.findExpensesByPayerAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
+    void testUpdate_SetsTheTypeFromTheLoggedInPersonWithoutLookups() {
+        Category category = new Category();
+        category.setId(3L);
+        Expense expense = new Expense();
+        expense.setCategory(category);
+        expense.setCost(new BigDecimal("20.00"));
+        expense.setDate(LocalDate.of(2023, 5, 1));
+        Person me = new Person();
+        me.setFirstName("me");
+        Person friend = new Person();
+        friend.setFirstName("friend");
+        expense.setPayer(me);
+        expense.setBeneficiary(friend);
 
-        List<Expense> result = expenseService.fetchExpensesForDashboard(loggedInPerson, year);
+        expenseService.update(expense, 1L, me);
 
-        assertEquals(1, result.size(), "Expected one self-expense to be fetched");
-        assertEquals(selfExpense, result.get(0), "Expected the self-expense to match");
+        assertEquals(ExpenseType.CREDIT, expense.getExpenseType());
+        assertEquals(1L, expense.getUserId());
+        verify(expenseRepository).save(expense);
     }
 
     @Test
-    @Disabled("will need to become integration test")
-    void testFetchExpensesForDashboard_WithUnpaidExpenses() {
-        Expense unpaidExpense = new Expense();
-        unpaidExpense.setIsPaid(false);
-        when(expenseRepository.findExpensesByPayerAndBeneficiaryAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
-        when(expenseRepository.findExpensesByBeneficiaryAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(new ArrayList<>());
-        when(expenseRepository.findExpensesByPayerAndYear(loggedInPerson.getId(), year.getValue()))
-                .thenReturn(List.of(unpaidExpense));
-
-        List<Expense> result = expenseService.fetchExpensesForDashboard(loggedInPerson, year);
-
-        assertEquals(1, result.size(), "Expected one unpaid expense to be fetched");
-        assertEquals(unpaidExpense, result.getFirst(), "Expected the unpaid expense to match");
-    }
-}
\ No newline at end of file
+    void testUpdate_SchedulesPeriodicExpensesFromTheirDate() {
+        Category category = new Category();
+        category.setId(3L);
+        Person me = new Person();
+        me.setFirstName("me");
+        Expense expense = new Expense();
+        expense.setCategory(category);
+        expense.setCost(new BigDecimal("20.00"));
+        expense.setDate(LocalDate.of(2023, 5, 1));
+        expense.setPayer(me);
+        expense.setBeneficiary(me);
+        expense.setIsPeriodic(true);
+        expense.setPeriodUnit(PeriodUnit.MONTH);
+        expense.setPeriodInterval(1);
+
+        expenseService.update(expense, 1L, me);
+        assertEquals(LocalDate.of(2023, 5, 1), expense.getNextDueDate());
+
+        expense.setIsPeriodic(false);
+        expenseService.update(expense, 1L, me);
+        assertNull(expense.getNextDueDate());
+    }
+
+    @Test
+    void testCountExpensesByPerson_CountsSelfPaidExpensesOnce() {
+        // Arrange
+        when(expenseRepository.countByPayerAndBeneficiary(1L)).thenReturn(List.of(
+                new PersonPairCount(1L, 2L, 3L),
+                new PersonPairCount(2L, 1L, 2L),
+                new PersonPairCount(2L, 2L, 4L)));
+
+        // Act
+        Map<Long, Long> counts = expenseService.countExpensesByPerson(1L);
+
+        // Assert
+        assertEquals(5L, counts.get(1L));
+        assertEquals(9L, counts.get(2L));
+    }
+
+    private static ExpenseState unpaidState(Long id, String cost) {
+        return new ExpenseState(id, 1L, "Expense " + id, LocalDate.of(2023, 5, 4), 3L, 1L, 2L, new BigDecimal(cost), false, ExpenseType.CREDIT);
+    }
+}
@@ -0,0 +1,56 @@
+package com.application.munera.services;
+
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.repositories.PersonRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PersonBalanceServiceTest {
+
+    @Mock
+    private PersonRepository personRepository;
+    @InjectMocks
+    private PersonBalanceService personBalanceService;
+
+    @Test
+    void apply_SkipsEditsThatDoNotChangeTheBalances() {
+        // Arrange: the name of an expense is edited, its people, cost and paid status stay the same
+        ExpenseBalanceDelta stored = new ExpenseBalanceDelta(1L, 2L, new BigDecimal("10.00"), false);
+
+        // Act
+        personBalanceService.apply(List.of(stored.negate(), stored, new ExpenseBalanceDelta(1L, 1L, new BigDecimal("5.00"), false)));
+
+        // Assert
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    void apply_MovesTheAmountBetweenPeopleWhenTheBeneficiaryChanges() {
+        // Arrange
+        ExpenseBalanceDelta stored = new ExpenseBalanceDelta(1L, 2L, new BigDecimal("10.00"), false);
+        ExpenseBalanceDelta updated = new ExpenseBalanceDelta(1L, 3L, new BigDecimal("12.00"), false);
+
+        // Act
+        personBalanceService.apply(List.of(stored.negate(), updated));
+
+        // Assert
+        verify(personRepository).addToBalance(1L, new BigDecimal("2.00"), BigDecimal.ZERO);
+        verify(personRepository).addToBalance(2L, BigDecimal.ZERO, new BigDecimal("-10.00"));
+        verify(personRepository).addToBalance(3L, BigDecimal.ZERO, new BigDecimal("12.00"));
+        verifyNoMoreInteractions(personRepository);
+    }
+}
@@ -0,0 +1,124 @@
+package com.application.munera.services;
+
+import com.application.munera.TestEntities;
+import com.application.munera.data.Category;
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the debt and credit of a person against expenses stored in the database. The expenses are saved through
+ * {@link ExpenseService}, which maintains the running totals, and every total is checked again once recomputed
+ * from the expenses by the SQL aggregate.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PersonService.class, PersonBalanceService.class, ExpenseService.class, ExpenseRollupService.class})
+class PersonServiceBalanceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonBalanceService personBalanceService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private TestEntities entities;
+    private Category category;
+    private Person person;
+    private Person person2;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager, USER_ID);
+        category = entities.persistCategory("Food");
+        person = entities.persistPerson("first");
+        person2 = entities.persistPerson("second");
+    }
+
+    @Test
+    void calculateDeb_whenExpensesAreMixed() {
+        saveExpense("110.00", false, person, person2);
+        saveExpense("50.00", false, person, person);
+        saveExpense("50.00", true, person, person);
+        saveExpense("20.00", true, person, person2);
+        saveExpense("30.00", false, person2, person);
+
+        assertBalance(person, "110.00", "30.00");
+        assertBalance(person2, "30.00", "110.00");
+    }
+
+    @Test
+    void calculateDebt_NoExpenses() {
+        assertBalance(person, "0.00", "0.00");
+    }
+
+    @Test
+    void calculateDebt_AllExpensesPaid() {
+        saveExpense("100.00", true, person, person2);
+        saveExpense("50.00", true, person, person2);
+
+        assertBalance(person, "0.00", "0.00");
+        assertBalance(person2, "0.00", "0.00");
+    }
+
+    @Test
+    void calculateDebt_ExpensesWithSamePayerAndBeneficiary() {
+        saveExpense("100.00", false, person, person);
+
+        assertBalance(person, "0.00", "0.00");
+    }
+
+    @Test
+    void calculateDebt_ExpensesWithNullAttributes() {
+        // The form always sets both people, so expenses without one can only come from outside the application
+        importExpense("100.00", person, null);
+        importExpense("60.00", null, person);
+
+        assertBalance(person, "0.00", "0.00");
+    }
+
+    private void assertBalance(Person person, String debt, String credit) {
+        entityManager.clear();
+        assertEquals(new BigDecimal(debt), personService.calculateDebt(person).setScale(2));
+        assertEquals(new BigDecimal(credit), personService.calculateCredit(person).setScale(2));
+
+        personBalanceService.rebuild();
+        entityManager.clear();
+        assertEquals(new BigDecimal(debt), personService.calculateDebt(person).setScale(2));
+        assertEquals(new BigDecimal(credit), personService.calculateCredit(person).setScale(2));
+    }
+
+    private void saveExpense(String cost, boolean isPaid, Person payer, Person beneficiary) {
+        final var expense = entities.newExpense(category, cost, payer, beneficiary);
+        expense.setIsPaid(isPaid);
+        expenseService.update(expense, USER_ID, person);
+    }
+
+    private void importExpense(String cost, Person payer, Person beneficiary) {
+        final var expense = entities.persist(entities.newExpense(category, cost, payer, beneficiary));
+        personBalanceService.apply(List.of(ExpenseBalanceDelta.of(expense)));
+    }
+}
@@ -1,8 +1,9 @@
 package com.application.munera.services;
 
-import com.application.munera.data.Expense;
 import com.application.munera.data.Person;
-import com.application.munera.repositories.ExpenseRepository;
+import com.application.munera.data.PersonBalance;
+import com.application.munera.data.User;
+import com.application.munera.repositories.PersonRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,13 +11,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,51 +28,18 @@ import static org.mockito.Mockito.when;
 class PersonServiceTest {
 
     @Mock
-    private ExpenseRepository expenseRepository;
+    private PersonRepository personRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private PersonService personService;
 
     @Test
-    void calculateDeb_whenExpensesAreMixed() {
-        Person person = new Person();
-        person.setLastName("first");
-        person.setFirstName("person");
-        person.setId(1L);
-
-        Person person2 = new Person();
-        person2.setLastName("second");
-        person2.setFirstName("person");
-
-        Expense expense1 = mock(Expense.class);
-        when(expense1.getPayer()).thenReturn(person);
-        when(expense1.getBeneficiary()).thenReturn(person2);
-        when(expense1.getCost()).thenReturn(new BigDecimal("110.00"));
-        when(expense1.getIsPaid()).thenReturn(false);
-
-        Expense expense2 = mock(Expense.class);
-        when(expense2.getPayer()).thenReturn(person);
-        when(expense2.getBeneficiary()).thenReturn(person);
-        when(expense2.getCost()).thenReturn(new BigDecimal("50.00"));
-        when(expense2.getIsPaid()).thenReturn(false);
-
-        Expense expense3 = mock(Expense.class);
-        when(expense3.getPayer()).thenReturn(person);
-        when(expense3.getBeneficiary()).thenReturn(person);
-        when(expense3.getCost()).thenReturn(new BigDecimal("50.00"));
-        when(expense3.getIsPaid()).thenReturn(true);
-
-        when(expenseRepository.findExpensesByPayer(person.getId())).thenReturn(List.of(expense1, expense2, expense3));
-
-        BigDecimal totalDebt = personService.calculateDebt(person);
-
-        assertEquals(new BigDecimal("110.00"), totalDebt);
-    }
-    @Test
-    void calculateDebt_NoExpenses() {
+    void calculateDebt_NoBalanceReturned() {
         // Arrange
         Person person = new Person();
         person.setId(1L);
-        when(expenseRepository.findExpensesByPayer(person.getId())).thenReturn(Collections.emptyList());
+        when(personRepository.findBalanceById(person.getId())).thenReturn(null);
 
         // Act
         BigDecimal totalDebt = personService.calculateDebt(person);
@@ -78,71 +49,45 @@ class PersonServiceTest {
     }
 
     @Test
-    void calculateDebt_AllExpensesPaid() {
+    void calculateNetBalance_ReadsTheRunningTotals() {
         // Arrange
         Person person = new Person();
         person.setId(1L);
-
-        Expense expense1 = mock(Expense.class);
-        when(expense1.getPayer()).thenReturn(person);
-        when(expense1.getBeneficiary()).thenReturn(new Person());
-        when(expense1.getCost()).thenReturn(new BigDecimal("100.00"));
-        when(expense1.getIsPaid()).thenReturn(true);
-
-        Expense expense2 = mock(Expense.class);
-        when(expense2.getPayer()).thenReturn(person);
-        when(expense2.getBeneficiary()).thenReturn(new Person());
-        when(expense2.getCost()).thenReturn(new BigDecimal("50.00"));
-        when(expense2.getIsPaid()).thenReturn(true);
-
-        when(expenseRepository.findExpensesByPayer(person.getId())).thenReturn(List.of(expense1, expense2));
+        when(personRepository.findBalanceById(person.getId()))
+                .thenReturn(new PersonBalance(new BigDecimal("50.00"), new BigDecimal("80.00")));
 
         // Act
-        BigDecimal totalDebt = personService.calculateDebt(person);
+        BigDecimal netBalance = personService.calculateNetBalance(person);
 
         // Assert
-        assertEquals(BigDecimal.ZERO, totalDebt);
+        assertEquals(new BigDecimal("-30.00"), netBalance);
+        verify(personRepository, times(1)).findBalanceById(person.getId());
     }
 
     @Test
-    void calculateDebt_ExpensesWithSamePayerAndBeneficiary() {
+    void calculateNetBalances_ReadsTheRunningTotalsOfTheUserPeople() {
         // Arrange
-        Person person = new Person();
-        person.setId(1L);
-
-        Expense expense1 = mock(Expense.class);
-        when(expense1.getPayer()).thenReturn(person);
-        when(expense1.getBeneficiary()).thenReturn(person); // Same person as payer
-        when(expense1.getCost()).thenReturn(new BigDecimal("100.00"));
-        when(expense1.getIsPaid()).thenReturn(false);
-
-        when(expenseRepository.findExpensesByPayer(person.getId())).thenReturn(List.of(expense1));
+        User user = new User();
+        user.setId(1L);
+        when(personRepository.findByUserId(user.getId())).thenReturn(List.of(
+                createPerson(1L, "110.00", "10.00"),
+                createPerson(2L, "0.00", "80.00"),
+                createPerson(3L, "20.00", "20.00")));
 
         // Act
-        BigDecimal totalDebt = personService.calculateDebt(person);
+        Map<Long, BigDecimal> balances = personService.calculateNetBalances(user);
 
         // Assert
-        assertEquals(BigDecimal.ZERO, totalDebt);
+        assertEquals(new BigDecimal("100.00"), balances.get(1L));
+        assertEquals(new BigDecimal("-80.00"), balances.get(2L));
+        assertFalse(balances.containsKey(3L));
     }
 
-    @Test
-    void calculateDebt_ExpensesWithNullAttributes() {
-        // Arrange
+    private Person createPerson(Long id, String debt, String credit) {
         Person person = new Person();
-        person.setId(1L);
-
-        Expense expense1 = mock(Expense.class);
-        when(expense1.getPayer()).thenReturn(person);
-        when(expense1.getBeneficiary()).thenReturn(new Person());
-        when(expense1.getCost()).thenReturn(null); // Null cost
-        when(expense1.getIsPaid()).thenReturn(false);
-
-        when(expenseRepository.findExpensesByPayer(person.getId())).thenReturn(List.of(expense1));
-
-        // Act
-        BigDecimal totalDebt = personService.calculateDebt(person);
-
-        // Assert
-        assertEquals(BigDecimal.ZERO, totalDebt);
+        person.setId(id);
+        person.setDebt(new BigDecimal(debt));
+        person.setCredit(new BigDecimal(credit));
+        return person;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.application.munera.services;
+
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseOccurrence;
+import com.application.munera.data.Person;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.data.enums.PeriodUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the calendar merges the stored expenses of a date range with the occurrences of the periodic expenses
+ * that are not generated yet, without showing an occurrence twice.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RecurrenceCalendarService.class, RecurringExpenseService.class, ExpenseRollupService.class, PersonBalanceService.class})
+class RecurrenceCalendarTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private RecurrenceCalendarService recurrenceCalendarService;
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Category category;
+    private Person me;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Home");
+        category.setUserId(USER_ID);
+        entityManager.persist(category);
+        me = new Person();
+        me.setFirstName("me");
+        me.setLastName("test");
+        me.setUserId(USER_ID);
+        entityManager.persist(me);
+    }
+
+    @Test
+    void findOccurrences_MergesTheStoredExpensesWithTheUpcomingOccurrences() {
+        final var template = persistExpense("Rent", LocalDate.of(2024, 1, 31), PeriodUnit.MONTH);
+        persistExpense("Plumber", LocalDate.of(2024, 4, 10), null);
+        recurringExpenseService.generateDueOccurrences(USER_ID, LocalDate.of(2024, 4, 15));
+        entityManager.flush();
+        entityManager.clear();
+
+        final var occurrences = recurrenceCalendarService.findOccurrences(USER_ID, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 6, 1));
+
+        assertEquals(List.of(LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 10), LocalDate.of(2024, 4, 30), LocalDate.of(2024, 5, 31)),
+                occurrences.stream().map(ExpenseOccurrence::date).toList());
+        assertEquals(List.of(false, false, true, true), occurrences.stream().map(ExpenseOccurrence::projected).toList());
+        assertEquals(template.getId(), occurrences.get(0).recurrenceSourceId());
+        assertEquals("Home", occurrences.get(3).categoryName());
+    }
+
+    @Test
+    void findOccurrences_ExpandsOnlyTheRequestedRange() {
+        final var template = persistExpense("Gym", LocalDate.of(2024, 1, 1), PeriodUnit.WEEK);
+
+        final var farAway = recurrenceCalendarService.findOccurrences(USER_ID, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 15));
+        final var beforeTheFirstDate = recurrenceCalendarService.findOccurrences(USER_ID, LocalDate.of(2023, 12, 1), LocalDate.of(2024, 1, 1));
+
+        assertEquals(List.of(LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 14)), farAway.stream().map(ExpenseOccurrence::date).toList());
+        assertEquals(template.getId(), farAway.get(0).expenseId());
+        assertEquals(List.of(), beforeTheFirstDate);
+    }
+
+    private Expense persistExpense(String name, LocalDate date, PeriodUnit unit) {
+        final var expense = new Expense();
+        expense.setName(name);
+        expense.setCategory(category);
+        expense.setCost(new BigDecimal("10.00"));
+        expense.setIsPeriodic(unit != null);
+        expense.setPeriodUnit(unit);
+        expense.setPeriodInterval(unit != null ? 1 : null);
+        expense.setNextDueDate(unit != null ? date : null);
+        expense.setIsPaid(false);
+        expense.setPayer(me);
+        expense.setBeneficiary(me);
+        expense.setDate(date);
+        expense.setExpenseType(ExpenseType.NONE);
+        expense.setUserId(USER_ID);
+        return entityManager.persist(expense);
+    }
+}
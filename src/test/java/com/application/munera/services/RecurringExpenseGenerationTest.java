@@ -0,0 +1,188 @@
+package com.application.munera.services;
+
+import com.application.munera.TestEntities;
+import com.application.munera.data.Category;
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseBalanceDelta;
+import com.application.munera.data.Person;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.data.enums.PeriodUnit;
+import com.application.munera.repositories.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the occurrences of the periodic expenses are generated once, from the date of their template,
+ * and that the progress recorded in the next due date lets a later run resume without generating them again,
+ * even when a template is saved from a stale copy, stopped and started again, or set back to an earlier date.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:munera;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RecurringExpenseService.class, ExpenseService.class, ExpenseRollupService.class, PersonBalanceService.class})
+class RecurringExpenseGenerationTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private PersonBalanceService personBalanceService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private TestEntities entities;
+    private Category category;
+    private Person me;
+    private Person friend;
+
+    @BeforeEach
+    void setUp() {
+        entities = new TestEntities(entityManager, USER_ID);
+        category = entities.persistCategory("Rent");
+        me = entities.persistPerson("me");
+        friend = entities.persistPerson("friend");
+    }
+
+    @Test
+    void generateDueOccurrences_CreatesTheMissedMonthsOnceKeepingTheDayOfTheMonth() {
+        final var template = persistTemplate(LocalDate.of(2024, 1, 31), PeriodUnit.MONTH, 1);
+        final var today = LocalDate.of(2024, 4, 15);
+
+        assertEquals(List.of(USER_ID), recurringExpenseService.findUsersWithDueRecurrences(today));
+        assertEquals(1, recurringExpenseService.generateDueOccurrences(USER_ID, today));
+        assertEquals(0, recurringExpenseService.generateDueOccurrences(USER_ID, today));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31)), findOccurrenceDates(template));
+        assertEquals(LocalDate.of(2024, 4, 30), entityManager.find(Expense.class, template.getId()).getNextDueDate());
+        assertEquals(List.of(), recurringExpenseService.findUsersWithDueRecurrences(today));
+    }
+
+    @Test
+    void generateDueOccurrences_WorksThroughALongBacklogInBoundedBatches() {
+        final var today = LocalDate.of(2024, 6, 1);
+        final var template = persistTemplate(today.minusDays(1200), PeriodUnit.DAY, 1);
+
+        int batches = 0;
+        while (recurringExpenseService.generateDueOccurrences(USER_ID, today) > 0) batches++;
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(3, batches);
+        assertEquals(1200, findOccurrenceDates(template).size());
+        // The balances maintained while generating match the ones recomputed from the expenses
+        final var maintained = personRepository.findBalanceById(me.getId());
+        personBalanceService.rebuild();
+        assertEquals(0, maintained.debt().compareTo(personRepository.findBalanceById(me.getId()).debt()));
+        assertEquals(0, new BigDecimal("12010.00").compareTo(maintained.debt()));
+    }
+
+    @Test
+    void update_RejectsATemplateReadBeforeTheGenerationAdvancedIt() {
+        final var template = persistTemplate(LocalDate.of(2024, 1, 31), PeriodUnit.MONTH, 1);
+        final var today = LocalDate.of(2024, 4, 15);
+        entityManager.detach(template);
+
+        recurringExpenseService.generateDueOccurrences(USER_ID, today);
+        entityManager.flush();
+        entityManager.clear();
+        template.setCost(new BigDecimal("12.00"));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> expenseService.update(template, USER_ID, me));
+        entityManager.clear();
+        assertEquals(0, recurringExpenseService.generateDueOccurrences(USER_ID, today));
+        assertEquals(0, recurringExpenseService.generateDueOccurrences(USER_ID, today));
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31)), findOccurrenceDates(template));
+        assertEquals(LocalDate.of(2024, 4, 30), entityManager.find(Expense.class, template.getId()).getNextDueDate());
+    }
+
+    @Test
+    void update_ResumesATemplateStartedAgainAfterItsLatestOccurrence() {
+        final var template = persistTemplate(LocalDate.of(2024, 1, 31), PeriodUnit.MONTH, 1);
+        recurringExpenseService.generateDueOccurrences(USER_ID, LocalDate.of(2024, 4, 15));
+        entityManager.flush();
+        entityManager.clear();
+
+        final var stopped = entityManager.find(Expense.class, template.getId());
+        stopped.setIsPeriodic(false);
+        expenseService.update(stopped, USER_ID, me);
+        entityManager.flush();
+        entityManager.clear();
+        final var started = entityManager.find(Expense.class, template.getId());
+        started.setIsPeriodic(true);
+        expenseService.update(started, USER_ID, me);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(LocalDate.of(2024, 4, 30), entityManager.find(Expense.class, template.getId()).getNextDueDate());
+        recurringExpenseService.generateDueOccurrences(USER_ID, LocalDate.of(2024, 5, 15));
+        entityManager.flush();
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30)),
+                findOccurrenceDates(template));
+    }
+
+    @Test
+    void generateDueOccurrences_SkipsTheDatesAlreadyStored() {
+        final var template = persistTemplate(LocalDate.of(2024, 1, 31), PeriodUnit.MONTH, 1);
+        recurringExpenseService.generateDueOccurrences(USER_ID, LocalDate.of(2024, 3, 15));
+        entityManager.flush();
+        entityManager.getEntityManager().createQuery("UPDATE Expense e SET e.nextDueDate = e.date WHERE e.id = :id")
+                .setParameter("id", template.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        assertEquals(1, recurringExpenseService.generateDueOccurrences(USER_ID, LocalDate.of(2024, 4, 15)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31)), findOccurrenceDates(template));
+        assertEquals(LocalDate.of(2024, 4, 30), entityManager.find(Expense.class, template.getId()).getNextDueDate());
+    }
+
+    private List<LocalDate> findOccurrenceDates(Expense template) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT e.date FROM Expense e WHERE e.recurrenceSourceId = :id ORDER BY e.date", LocalDate.class)
+                .setParameter("id", template.getId())
+                .getResultList();
+    }
+
+    private Expense persistTemplate(LocalDate date, PeriodUnit unit, int interval) {
+        final var expense = entities.newExpense(category, "10.00", me, friend);
+        expense.setIsPeriodic(true);
+        expense.setPeriodUnit(unit);
+        expense.setPeriodInterval(interval);
+        expense.setNextDueDate(date);
+        expense.setDate(date);
+        expense.setExpenseType(ExpenseType.CREDIT);
+        entities.persist(expense);
+        entityManager.flush();
+        personBalanceService.apply(List.of(ExpenseBalanceDelta.of(expense)));
+        return expense;
+    }
+}
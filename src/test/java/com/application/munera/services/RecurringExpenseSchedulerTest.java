@@ -0,0 +1,70 @@
+package com.application.munera.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RecurringExpenseSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Mock
+    private RecurringExpenseService recurringExpenseService;
+
+    private RecurringExpenseScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RecurringExpenseScheduler(recurringExpenseService, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void generateDueOccurrences_ProcessesEachUserUntilNothingIsDue() {
+        // Arrange
+        when(recurringExpenseService.findUsersWithDueRecurrences(TODAY)).thenReturn(List.of(1L, 2L));
+        when(recurringExpenseService.generateDueOccurrences(1L, TODAY)).thenReturn(100, 100, 3, 0);
+        when(recurringExpenseService.generateDueOccurrences(2L, TODAY)).thenReturn(1, 0);
+
+        // Act
+        int processed = scheduler.generateDueOccurrences(TODAY);
+
+        // Assert
+        assertEquals(204, processed);
+        verify(recurringExpenseService, times(4)).generateDueOccurrences(1L, TODAY);
+        verify(recurringExpenseService, times(2)).generateDueOccurrences(2L, TODAY);
+    }
+
+    @Test
+    void generateDueOccurrences_KeepsGoingWhenAUserFails() {
+        // Arrange
+        when(recurringExpenseService.findUsersWithDueRecurrences(TODAY)).thenReturn(List.of(1L, 2L));
+        when(recurringExpenseService.generateDueOccurrences(1L, TODAY)).thenThrow(new IllegalStateException("duplicate occurrence"));
+        when(recurringExpenseService.generateDueOccurrences(2L, TODAY)).thenReturn(5, 0);
+
+        // Act
+        int processed = scheduler.generateDueOccurrences(TODAY);
+
+        // Assert
+        assertEquals(5, processed);
+    }
+}
@@ -0,0 +1,145 @@
+package com.application.munera.services;
+
+import com.application.munera.data.ExpenseState;
+import com.application.munera.data.PersonNetBalance;
+import com.application.munera.data.SettlementPlan;
+import com.application.munera.data.SettlementTransfer;
+import com.application.munera.data.User;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.events.ExpensesChanged;
+import com.application.munera.repositories.ExpenseRepository;
+import com.application.munera.repositories.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SettlementServiceTest {
+
+    @Mock
+    private PersonService personService;
+    @Mock
+    private ExpenseService expenseService;
+    @Mock
+    private ExpenseRepository expenseRepository;
+    @Mock
+    private PersonRepository personRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private SettlementService settlementService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    void minimizeTransfers_SettlesMatchingAmountsWithOneTransferEach() {
+        // Arrange: the largest debt and the largest credit do not match, but every debt matches a credit
+        Map<Long, BigDecimal> balances = Map.of(
+                1L, new BigDecimal("-50.00"), 2L, new BigDecimal("30.00"),
+                3L, new BigDecimal("-30.00"), 4L, new BigDecimal("50.00"));
+
+        // Act
+        List<SettlementTransfer> transfers = SettlementOptimizer.minimizeTransfers(balances);
+
+        // Assert
+        assertEquals(List.of(
+                new SettlementTransfer(1L, 4L, new BigDecimal("50.00")),
+                new SettlementTransfer(3L, 2L, new BigDecimal("30.00"))), transfers);
+    }
+
+    @Test
+    void minimizeTransfers_ClearsThousandsOfBalancesWithFewerTransfersThanPeople() {
+        // Arrange
+        Random random = new Random(42);
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        long sum = 0;
+        for (long id = 1; id < 100_000; id++) {
+            long cents = random.nextLong(-100_000, 100_000);
+            balances.put(id, BigDecimal.valueOf(cents, 2));
+            sum += cents;
+        }
+        balances.put(100_000L, BigDecimal.valueOf(-sum, 2));
+
+        // Act
+        List<SettlementTransfer> transfers = SettlementOptimizer.minimizeTransfers(balances);
+
+        // Assert
+        Map<Long, BigDecimal> settled = new HashMap<>(balances);
+        for (SettlementTransfer transfer : transfers) {
+            assertTrue(transfer.amount().signum() > 0);
+            settled.merge(transfer.fromPersonId(), transfer.amount(), BigDecimal::add);
+            settled.merge(transfer.toPersonId(), transfer.amount().negate(), BigDecimal::add);
+        }
+        settled.values().forEach(balance -> assertEquals(0, balance.signum()));
+        assertTrue(transfers.size() < balances.size());
+    }
+
+    @Test
+    void apply_RejectsAPlanComputedFromOtherBalances() {
+        // Arrange
+        when(personService.calculateNetBalances(user)).thenReturn(Map.of(2L, new BigDecimal("10.00"), 3L, new BigDecimal("-10.00")));
+        SettlementPlan plan = settlementService.plan(user);
+        when(personRepository.findNetBalancesByUserId(1L)).thenReturn(List.of(
+                new PersonNetBalance(2L, new BigDecimal("15.00")), new PersonNetBalance(3L, new BigDecimal("-15.00"))));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> settlementService.apply(plan, user));
+        verify(expenseService, never()).settle(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void apply_SettlesTheSharedExpensesReadOnceTheExpensesAndThenThePeopleAreLocked() {
+        // Arrange
+        List<ExpenseState> unpaid = List.of(
+                new ExpenseState(7L, 1L, "Dinner", LocalDate.of(2024, 5, 4), 1L, 2L, 3L, new BigDecimal("10.00"), false, ExpenseType.CREDIT));
+        when(personService.calculateNetBalances(user)).thenReturn(Map.of(2L, new BigDecimal("10.00"), 3L, new BigDecimal("-10.00")));
+        when(expenseRepository.findUnpaidSharedStates(1L)).thenReturn(unpaid);
+        when(personRepository.findNetBalancesByUserId(1L)).thenReturn(List.of(new PersonNetBalance(1L, new BigDecimal("0.00")),
+                new PersonNetBalance(2L, new BigDecimal("10.0")), new PersonNetBalance(3L, new BigDecimal("-10.0"))));
+        when(expenseService.settle(unpaid)).thenReturn(1);
+        SettlementPlan plan = settlementService.plan(user);
+
+        // Act
+        int settled = settlementService.apply(plan, user);
+
+        // Assert
+        assertEquals(List.of(new SettlementTransfer(3L, 2L, new BigDecimal("10.00"))), plan.transfers());
+        assertEquals(1, settled);
+        InOrder inOrder = inOrder(expenseRepository, personRepository, expenseService, eventPublisher);
+        inOrder.verify(expenseRepository).findUnpaidSharedStates(1L);
+        inOrder.verify(personRepository).findNetBalancesByUserId(1L);
+        inOrder.verify(expenseService).settle(unpaid);
+        inOrder.verify(eventPublisher).publishEvent(new ExpensesChanged(1L, 1));
+    }
+}
@@ -0,0 +1,46 @@
+package com.application.munera.services;
+
+import com.application.munera.data.ExpenseOccurrence;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.BadgeMessage;
+import com.application.munera.data.enums.ExpenseType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ViewsServiceTest {
+
+    private final ViewsService viewsService = new ViewsService();
+
+    @Test
+    void determineExpenseBadge_ReadsThePaymentStatusFromTheRow() {
+        // Arrange
+        ExpenseRow unpaidCredit = new ExpenseRow(1L, "Dinner", new BigDecimal("20.00"), "Food", LocalDate.now(), null, false, ExpenseType.CREDIT);
+        ExpenseRow paidDebit = new ExpenseRow(2L, "Rent", new BigDecimal("500.00"), "Home", LocalDate.now(), LocalDate.now(), true, ExpenseType.DEBIT);
+
+        // Act & Assert
+        assertEquals(BadgeMessage.OWED_TO_ME, viewsService.determineExpenseBadge(unpaidCredit));
+        assertEquals(BadgeMessage.PAID_BY_ME, viewsService.determineExpenseBadge(paidDebit));
+    }
+
+    @Test
+    void determineOccurrenceBadge_ShowsUpcomingOccurrencesAsScheduled() {
+        // Arrange
+        ExpenseOccurrence upcoming = new ExpenseOccurrence(1L, 1L, "Rent", new BigDecimal("500.00"), "Home", LocalDate.now(), false, ExpenseType.DEBIT, true);
+        ExpenseOccurrence stored = new ExpenseOccurrence(2L, 1L, "Rent", new BigDecimal("500.00"), "Home", LocalDate.now(), false, ExpenseType.DEBIT);
+
+        // Act & Assert
+        assertEquals(BadgeMessage.SCHEDULED, viewsService.determineOccurrenceBadge(upcoming));
+        assertEquals(BadgeMessage.OWED_BY_ME, viewsService.determineOccurrenceBadge(stored));
+    }
+
+    @Test
+    void determinePersonBadge_FollowsTheSignOfTheNetBalance() {
+        assertEquals(BadgeMessage.CREDIT, viewsService.determinePersonBadge(new BigDecimal("-10.00")));
+        assertEquals(BadgeMessage.DEBIT, viewsService.determinePersonBadge(new BigDecimal("10.00")));
+        assertEquals(BadgeMessage.CLEAR, viewsService.determinePersonBadge(BigDecimal.ZERO));
+    }
+}
@@ -0,0 +1,83 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExpenseType;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExpenseExporterTest {
+
+    private static final String CSV = """
+            Name,Cost,Category,Date,Payment date,Type\r
+            Dinner,42.50,Food,2024-03-02,Unpaid,CREDIT\r
+            Train,12.00,,2024-03-01,2024-03-05,NONE\r
+            """;
+
+    private final CsvExpenseExporter csvExpenseExporter = new CsvExpenseExporter();
+
+    @Test
+    void csv_WritesHeaderAndOneRecordPerRow() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        csvExpenseExporter.write(rows(), outputStream);
+
+        assertEquals(CSV, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipCsv_WritesCompressedCsv() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        new GzipCsvExpenseExporter(csvExpenseExporter).write(rows(), outputStream);
+
+        try (var inputStream = new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(CSV, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void jsonLines_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        new JsonLinesExpenseExporter().write(rows(), outputStream);
+
+        assertEquals("""
+                {"name":"Dinner","cost":42.50,"category":"Food","date":"2024-03-02","paymentDate":null,"type":"CREDIT"}
+                {"name":"Train","cost":12.00,"category":null,"date":"2024-03-01","paymentDate":"2024-03-05","type":"NONE"}
+                """, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void xlsx_WritesHeaderAndTypedCells() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        new XlsxExpenseExporter().write(rows(), outputStream);
+
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            final var sheet = workbook.getSheet("Expenses");
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("Payment date", sheet.getRow(0).getCell(4).getStringCellValue());
+            assertEquals("Dinner", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(42.5, sheet.getRow(1).getCell(1).getNumericCellValue());
+            assertEquals(LocalDate.of(2024, 3, 2), sheet.getRow(1).getCell(3).getLocalDateTimeCellValue().toLocalDate());
+            assertEquals("Unpaid", sheet.getRow(1).getCell(4).getStringCellValue());
+            assertEquals(LocalDate.of(2024, 3, 5), sheet.getRow(2).getCell(4).getLocalDateTimeCellValue().toLocalDate());
+        }
+    }
+
+    private static Stream<ExpenseRow> rows() {
+        return Stream.of(
+                new ExpenseRow(2L, "Dinner", new BigDecimal("42.50"), "Food", LocalDate.of(2024, 3, 2), null, false, ExpenseType.CREDIT),
+                new ExpenseRow(1L, "Train", new BigDecimal("12.00"), null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 5), true, ExpenseType.NONE));
+    }
+}
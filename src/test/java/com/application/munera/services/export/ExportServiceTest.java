@@ -0,0 +1,48 @@
+package com.application.munera.services.export;
+
+import com.application.munera.data.Expense;
+import com.application.munera.data.ExpenseRow;
+import com.application.munera.data.enums.ExpenseType;
+import com.application.munera.data.enums.ExportFormat;
+import com.application.munera.services.ExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+
+    private final ExpenseService expenseService = mock(ExpenseService.class);
+    private final ExportService exportService = new ExportService(expenseService, List.of(new CsvExpenseExporter()));
+
+    @Test
+    void export_WritesStreamedRowsAndClosesTheStream() throws Exception {
+        Specification<Expense> filter = (root, query, cb) -> null;
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(expenseService.streamRows(filter)).thenReturn(Stream.of(
+                new ExpenseRow(2L, "Dinner", new BigDecimal("42.50"), "Food", LocalDate.of(2024, 3, 2), null, false, ExpenseType.CREDIT),
+                new ExpenseRow(1L, "Train", new BigDecimal("12.00"), null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 5), true, ExpenseType.NONE)
+        ).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportService.export(ExportFormat.CSV, filter, outputStream);
+
+        assertEquals("""
+                Name,Cost,Category,Date,Payment date,Type\r
+                Dinner,42.50,Food,2024-03-02,Unpaid,CREDIT\r
+                Train,12.00,,2024-03-01,2024-03-05,NONE\r
+                """, outputStream.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+}